@@ -0,0 +1,85 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import func.nn.backprop.BackPropagationNetwork;
+import func.nn.backprop.BackPropagationNetworkFactory;
+import util.linalg.DenseVector;
+import util.linalg.Vector;
+
+/**
+ * Times a forward and backward pass of a back propagation
+ * network on one pattern, linked or dense
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BackPropagationBenchmark {
+    /** The number of inputs */
+    @Param({ "20", "100" })
+    public int inputs;
+
+    /** The number of hidden nodes */
+    @Param({ "10", "100" })
+    public int hidden;
+
+    /** Whether to use the dense network */
+    @Param({ "false", "true" })
+    public boolean dense;
+
+    /** The network */
+    private BackPropagationNetwork network;
+
+    /** The input pattern */
+    private Vector pattern;
+
+    /** The output errors */
+    private double[] errors;
+
+    /**
+     * Make the network and a pattern
+     */
+    @Setup
+    public void setup() {
+        network = new BackPropagationNetworkFactory(dense).createClassificationNetwork(
+            new int[] { inputs, hidden, 2 });
+        Random random = new Random(1);
+        double[] data = new double[inputs];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextDouble();
+        }
+        pattern = new DenseVector(data);
+        errors = new double[] { .1, -.1 };
+    }
+
+    /**
+     * Run the network forward then propagate the error back
+     * @return the network
+     */
+    @Benchmark
+    public BackPropagationNetwork forwardBackward() {
+        network.setInputValues(pattern);
+        network.run();
+        network.setOutputErrors(errors);
+        network.backpropagate();
+        network.clearError();
+        return network;
+    }
+}
@@ -0,0 +1,82 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dist.DiscreteDependencyTree;
+import shared.DataSet;
+import shared.Instance;
+
+/**
+ * Times estimating a dependency tree from binary samples
+ * with the fast and direct mutual information paths
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DiscreteDependencyTreeBenchmark {
+    /** The number of variables */
+    @Param({ "50", "200" })
+    public int variables;
+
+    /** The number of samples */
+    @Param({ "200", "1000" })
+    public int samples;
+
+    /** Whether to use the fast path */
+    @Param({ "true", "false" })
+    public boolean fast;
+
+    /** The samples */
+    private DataSet set;
+
+    /** The tree */
+    private DiscreteDependencyTree tree;
+
+    /**
+     * Make chains of dependent variables
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        Instance[] instances = new Instance[samples];
+        for (int i = 0; i < instances.length; i++) {
+            double[] data = new double[variables];
+            for (int j = 0; j < data.length; j++) {
+                data[j] = j > 0 && random.nextDouble() < .7 ? data[j - 1] : random.nextInt(2);
+            }
+            instances[i] = new Instance(data);
+        }
+        set = new DataSet(instances);
+        int[] ranges = new int[variables];
+        Arrays.fill(ranges, 2);
+        tree = new DiscreteDependencyTree(.1, ranges, fast, null);
+    }
+
+    /**
+     * Estimate the tree
+     * @return the tree
+     */
+    @Benchmark
+    public DiscreteDependencyTree estimate() {
+        tree.estimate(set);
+        return tree;
+    }
+}
@@ -0,0 +1,69 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dist.DiscreteUniformDistribution;
+import opt.example.FourPeaksEvaluationFunction;
+import opt.ga.DiscreteChangeOneMutation;
+import opt.ga.GeneticAlgorithmProblem;
+import opt.ga.GenericGeneticAlgorithmProblem;
+import opt.ga.SingleCrossOver;
+import opt.ga.StandardGeneticAlgorithm;
+
+/**
+ * Times one generation of the standard genetic algorithm on four peaks
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GeneticAlgorithmBenchmark {
+    /** The length of the genome */
+    @Param({ "50", "200", "1000" })
+    public int n;
+
+    /** The population size */
+    @Param({ "200" })
+    public int population;
+
+    /** The algorithm */
+    private StandardGeneticAlgorithm ga;
+
+    /**
+     * Make the algorithm
+     */
+    @Setup
+    public void setup() {
+        int[] ranges = new int[n];
+        Arrays.fill(ranges, 2);
+        GeneticAlgorithmProblem gap = new GenericGeneticAlgorithmProblem(
+            new FourPeaksEvaluationFunction(n / 10), new DiscreteUniformDistribution(ranges),
+            new DiscreteChangeOneMutation(ranges), new SingleCrossOver());
+        ga = new StandardGeneticAlgorithm(population, population / 2, population / 20, gap);
+    }
+
+    /**
+     * Run a generation
+     * @return the average value
+     */
+    @Benchmark
+    public double train() {
+        return ga.train();
+    }
+}
@@ -0,0 +1,110 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import func.inst.FlatKDTree;
+import func.inst.KDTree;
+import func.inst.NearestNeighbors;
+import shared.DataSet;
+import shared.Instance;
+
+/**
+ * Times k nearest neighbor queries with the linked and flat kd trees
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class KDTreeBenchmark {
+    /** The number of points */
+    @Param({ "10000", "100000" })
+    public int points;
+
+    /** The number of dimensions */
+    @Param({ "3", "8" })
+    public int dimensions;
+
+    /** The number of neighbors */
+    @Param({ "10" })
+    public int k;
+
+    /** The linked tree */
+    private KDTree tree;
+
+    /** The flat tree */
+    private FlatKDTree flat;
+
+    /** The queries */
+    private Instance[] queries;
+
+    /** The next query */
+    private int next;
+
+    /**
+     * Build the trees
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        Instance[] instances = new Instance[points];
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = randomInstance(random);
+        }
+        DataSet set = new DataSet(instances);
+        tree = new KDTree(set);
+        flat = new FlatKDTree(set);
+        queries = new Instance[1024];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = randomInstance(random);
+        }
+    }
+
+    /**
+     * Make a random point
+     * @param random the random number generator
+     * @return the point
+     */
+    private Instance randomInstance(Random random) {
+        double[] data = new double[dimensions];
+        for (int j = 0; j < data.length; j++) {
+            data[j] = random.nextDouble();
+        }
+        return new Instance(data);
+    }
+
+    /**
+     * Query the linked tree
+     * @return the neighbors
+     */
+    @Benchmark
+    public Instance[] knn() {
+        next = (next + 1) & (queries.length - 1);
+        return tree.knn(queries[next], k);
+    }
+
+    /**
+     * Query the flat tree
+     * @return the neighbors
+     */
+    @Benchmark
+    public NearestNeighbors flatKnn() {
+        next = (next + 1) & (queries.length - 1);
+        return flat.knn(queries[next], k);
+    }
+}
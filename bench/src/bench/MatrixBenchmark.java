@@ -0,0 +1,77 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import util.linalg.FastMatrix;
+import util.linalg.Matrix;
+import util.linalg.RectangularMatrix;
+
+/**
+ * Times square matrix multiplication with the fast and
+ * rectangular matrix implementations
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MatrixBenchmark {
+    /** The size of the matrices */
+    @Param({ "100", "250", "500" })
+    public int size;
+
+    /** The fast matrix */
+    private FastMatrix fast;
+
+    /** The rectangular matrix */
+    private RectangularMatrix rectangular;
+
+    /**
+     * Fill the matrices with the same random values
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        double[][] data = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                data[i][j] = random.nextDouble();
+            }
+        }
+        fast = new FastMatrix(data);
+        rectangular = new RectangularMatrix(data);
+    }
+
+    /**
+     * Multiply with the fast matrix
+     * @return the product
+     */
+    @Benchmark
+    public Matrix fastTimes() {
+        return fast.times(fast);
+    }
+
+    /**
+     * Multiply with the rectangular matrix
+     * @return the product
+     */
+    @Benchmark
+    public Matrix rectangularTimes() {
+        return rectangular.times(rectangular);
+    }
+}
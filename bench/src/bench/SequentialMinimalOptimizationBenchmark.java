@@ -0,0 +1,85 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import func.svm.RBFKernel;
+import func.svm.SequentialMinimalOptimization;
+import func.svm.WorkingSetSequentialMinimalOptimization;
+import shared.DataSet;
+import shared.Instance;
+
+/**
+ * Times training a support vector machine on a noisy
+ * ring problem with Platt's and the working set SMO
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SequentialMinimalOptimizationBenchmark {
+    /** The number of examples */
+    @Param({ "500", "2000" })
+    public int examples;
+
+    /** The examples */
+    private DataSet set;
+
+    /**
+     * Make the examples
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        Instance[] instances = new Instance[examples];
+        for (int i = 0; i < instances.length; i++) {
+            double[] data = new double[10];
+            double sum = 0;
+            for (int j = 0; j < data.length; j++) {
+                data[j] = random.nextGaussian();
+                sum += data[j] * data[j];
+            }
+            instances[i] = new Instance(data, sum + random.nextGaussian() > 10);
+        }
+        set = new DataSet(instances);
+    }
+
+    /**
+     * Train with Platt's SMO
+     * @return the trainer
+     */
+    @Benchmark
+    public SequentialMinimalOptimization train() {
+        SequentialMinimalOptimization smo =
+            new SequentialMinimalOptimization(set, new RBFKernel(2), 1);
+        smo.train();
+        return smo;
+    }
+
+    /**
+     * Train with the working set SMO
+     * @return the trainer
+     */
+    @Benchmark
+    public WorkingSetSequentialMinimalOptimization workingSetTrain() {
+        WorkingSetSequentialMinimalOptimization smo =
+            new WorkingSetSequentialMinimalOptimization(set, new RBFKernel(2), 1);
+        smo.train();
+        return smo;
+    }
+}
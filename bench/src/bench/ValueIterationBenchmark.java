@@ -0,0 +1,69 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rl.MazeMarkovDecisionProcess;
+import rl.ValueIteration;
+
+/**
+ * Times a sweep of value iteration over a random square maze
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ValueIterationBenchmark {
+    /** The width and height of the maze */
+    @Param({ "10", "20", "40" })
+    public int size;
+
+    /** The value iteration */
+    private ValueIteration vi;
+
+    /**
+     * Make the maze
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        char[][] maze = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(maze[i], MazeMarkovDecisionProcess.EMPTY);
+            for (int j = 0; j < size; j++) {
+                if (random.nextDouble() < .2) {
+                    maze[i][j] = MazeMarkovDecisionProcess.OBSTACLE;
+                }
+            }
+        }
+        maze[0][0] = MazeMarkovDecisionProcess.EMPTY;
+        maze[size - 1][size - 1] = MazeMarkovDecisionProcess.EMPTY;
+        vi = new ValueIteration(.95, new MazeMarkovDecisionProcess(
+            maze, size - 1, size - 1, 0, 0, .1));
+    }
+
+    /**
+     * Run a sweep
+     * @return the largest change in value
+     */
+    @Benchmark
+    public double train() {
+        return vi.train();
+    }
+}
@@ -0,0 +1,35 @@
+package dist;
+
+import shared.Instance;
+import util.linalg.IntVector;
+
+/**
+ * A distribution of all of the permutations
+ * of a set size that samples int vector genomes.
+ * @version 1.0
+ */
+public class CompactDiscretePermutationDistribution extends DiscretePermutationDistribution {
+    /**
+     * The size of the data
+     */
+    private int n;
+
+    /**
+     * Make a new compact discrete permutation distribution
+     * @param n the size of the data
+     */
+    public CompactDiscretePermutationDistribution(int n) {
+        super(n);
+        this.n = n;
+    }
+
+    /**
+     * @see dist.Distribution#sample(shared.Instance)
+     */
+    public Instance sample(Instance ignored) {
+        // shuffle straight into the genome's storage
+        int[] d = new int[n];
+        sampleInto(d, random);
+        return new Instance(new IntVector(d));
+    }
+}
@@ -0,0 +1,56 @@
+package dist;
+
+import shared.Instance;
+import util.linalg.BitVector;
+import util.linalg.IntVector;
+
+/**
+ * A uniform distribution over discrete values that samples
+ * compact genomes, a bit vector when every range is two and
+ * an int vector otherwise.
+ * @version 1.0
+ */
+public class CompactDiscreteUniformDistribution extends DiscreteUniformDistribution {
+    /**
+     * The ranges of the data
+     */
+    private int[] n;
+
+    /**
+     * Whether every range is two
+     */
+    private boolean binary;
+
+    /**
+     * Make a new compact discrete uniform distribution
+     * @param n the ranges of the data
+     */
+    public CompactDiscreteUniformDistribution(int[] n) {
+        super(n);
+        this.n = n;
+        binary = true;
+        for (int i = 0; i < n.length && binary; i++) {
+            binary = n[i] == 2;
+        }
+    }
+
+    /**
+     * @see dist.Distribution#sample(shared.Instance)
+     */
+    public Instance sample(Instance ignored) {
+        if (binary) {
+            long[] words = new long[(n.length + 63) >>> 6];
+            for (int w = 0; w < words.length; w++) {
+                words[w] = random.nextLong();
+            }
+            if ((n.length & 63) != 0) {
+                words[words.length - 1] &= (1L << n.length) - 1;
+            }
+            return new Instance(new BitVector(words, n.length));
+        }
+        // draw straight into the genome's storage
+        int[] d = new int[n.length];
+        sampleInto(d, random);
+        return new Instance(new IntVector(d));
+    }
+}
@@ -1,5 +1,8 @@
 package dist;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import util.graph.*;
 import util.linalg.DenseVector;
@@ -34,6 +37,21 @@ public class DiscreteDependencyTree extends AbstractDistribution {
      * Description the data set
      */
     private DataSetDescription description;
+
+    /**
+     * Whether to calculate the mutual information with the fast path
+     */
+    private boolean fast = true;
+
+    /**
+     * The pool to calculate the mutual information in
+     */
+    private transient ForkJoinPool pool;
+
+    /**
+     * The tree compiled for sampling
+     */
+    private DiscreteDependencyTreeSampler sampler;
     
     /**
      * Make a new discrete dependency tree distribution
@@ -58,6 +76,21 @@ public class DiscreteDependencyTree extends AbstractDistribution {
         description.setMaxVector(max);
     }
 
+    /**
+     * Make a new discrete dependency tree distribution
+     * @param m the small positive value to add when making the tree
+     * @param ranges the ranges of the variables
+     * @param fast whether to calculate the mutual information from
+     * packed columns in parallel rather than scanning the instances
+     * for every pair, both give the same tree
+     * @param pool the pool to calculate the mutual information in
+     */
+    public DiscreteDependencyTree(double m, int[] ranges, boolean fast, ForkJoinPool pool) {
+        this(m, ranges);
+        this.fast = fast;
+        this.pool = pool;
+    }
+
     /**
      * @see dist.Distribution#probabilityOf(shared.Instance)
      */
@@ -69,9 +102,44 @@ public class DiscreteDependencyTree extends AbstractDistribution {
      * @see dist.Distribution#generateRandom(shared.Instance)
      */
     public Instance sample(Instance ignored) {
-        Instance i = new Instance(new DenseVector(dt.getNodeCount()));
-        root.generateRandom(i);
-        return i;
+        int[] values = new int[sampler.getVariableCount()];
+        sampler.sample(values, 0, random);
+        double[] data = new double[values.length];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = values[i];
+        }
+        return new Instance(data);
+    }
+
+    /**
+     * Draw a batch of samples in parallel
+     * @param count the number of samples
+     * @return the samples
+     */
+    public Instance[] sample(int count) {
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        int variables = sampler.getVariableCount();
+        int[] values = new int[count * variables];
+        sampler.sample(values, count, pool, pool.getParallelism());
+        Instance[] samples = new Instance[count];
+        for (int i = 0; i < count; i++) {
+            double[] data = new double[variables];
+            for (int j = 0; j < variables; j++) {
+                data[j] = values[i * variables + j];
+            }
+            samples[i] = new Instance(data);
+        }
+        return samples;
+    }
+
+    /**
+     * Get the tree compiled for sampling
+     * @return the sampler
+     */
+    public DiscreteDependencyTreeSampler getSampler() {
+        return sampler;
     }
 
     /**
@@ -92,30 +160,94 @@ public class DiscreteDependencyTree extends AbstractDistribution {
         } else if (observations.getDescription() == null) {
             observations.setDescription(new DataSetDescription(observations));
         }
+        DataSetDescription dsd = observations.getDescription();
+        int variables = observations.get(0).size();
+        if (fast) {
+            int size = observations.size();
+            int[] ranges = new int[variables];
+            for (int i = 0; i < variables; i++) {
+                ranges[i] = dsd.getDiscreteRange(i);
+            }
+            // pack the values one column per variable
+            int[] values = new int[variables * size];
+            double[] weights = new double[size];
+            for (int k = 0; k < size; k++) {
+                Instance instance = observations.get(k);
+                for (int i = 0; i < variables; i++) {
+                    values[i * size + k] = instance.getDiscrete(i);
+                }
+                weights[k] = instance.getWeight();
+            }
+            estimate(values, weights, size, ranges);
+            return;
+        }
         double[][] mutualI = calculateMutualInformation(observations);
         // construct the graph
-        Tree rg = buildDirectedMST(observations, mutualI);
+        Tree rg = buildDirectedMST(variables, mutualI);
         // make the dependency tree
         dt = new Tree();
         root = new DiscreteDependencyTreeRootNode(observations, rg.getRoot(), m, dt);
         dt.setRoot(root);
+        sampler = new DiscreteDependencyTreeSampler(root, dt.getNodeCount());
         
     }
 
+    /**
+     * Estimate from samples already packed into columns, without
+     * building a data set.  The ranges are those given when the tree
+     * was made or else one more than the largest value of each variable.
+     * @param values the values, one column of size values per variable
+     * @param weights the weights of the samples
+     * @param size the number of samples
+     */
+    public void estimate(int[] values, double[] weights, int size) {
+        int variables = values.length / size;
+        int[] ranges = new int[variables];
+        for (int i = 0; i < variables; i++) {
+            if (description != null) {
+                ranges[i] = description.getDiscreteRange(i);
+            } else {
+                for (int k = 0; k < size; k++) {
+                    ranges[i] = Math.max(ranges[i], values[i * size + k] + 1);
+                }
+            }
+        }
+        estimate(values, weights, size, ranges);
+    }
+
+    /**
+     * Estimate from samples packed into columns
+     * @param values the values, one column of size values per variable
+     * @param weights the weights of the samples
+     * @param size the number of samples
+     * @param ranges the ranges of the variables
+     */
+    private void estimate(int[] values, double[] weights, int size, int[] ranges) {
+        double[][] mutualI = calculateMutualInformation(values, weights, size, ranges);
+        // construct the graph
+        Tree rg = buildDirectedMST(ranges.length, mutualI);
+        // make the dependency tree
+        dt = new Tree();
+        root = new DiscreteDependencyTreeRootNode(values, weights, size, ranges,
+            rg.getRoot(), m, dt);
+        dt.setRoot(root);
+        sampler = new DiscreteDependencyTreeSampler(root, dt.getNodeCount());
+    }
+
     /**
      * Build the directed mst from the mutual information
      * and ranges
-     * @param ranges the ranges
+     * @param variables the number of variables
      * @param mutualI the mutual information values
      * @return the directed mst
      */
-    private Tree buildDirectedMST(DataSet observations, double[][] mutualI) {
+    private Tree buildDirectedMST(int variables, double[][] mutualI) {
         Graph g = new Graph();
-        for (int i = 0; i < observations.get(0).size(); i++) {
+        for (int i = 0; i < variables; i++) {
             Node n = new Node(i);
             g.addNode(n);
         }
-        for (int i = 0; i < observations.get(0).size(); i++) {
+        for (int i = 0; i < variables; i++) {
             for (int j = 0; j < i; j++) {
                 Node a = g.getNode(i);
                 Node b = g.getNode(j);
@@ -204,6 +336,175 @@ public class DiscreteDependencyTree extends AbstractDistribution {
         return mutualI;
     }
 
+    /**
+     * Calculate the mutual information from the data packed into columns,
+     * counting the joint values of binary pairs with popcounts and of the
+     * other pairs with a reused count table, in parallel over blocks of
+     * pairs.  The sums are taken in the same order as the direct
+     * calculation so the values are identical.
+     * @param values the values, one column of size values per variable
+     * @param weights the weights of the samples
+     * @param size the number of samples
+     * @param ranges the ranges of the variables
+     * @return the mutual informations
+     */
+    private double[][] calculateMutualInformation(int[] values, double[] weights,
+            int size, int[] ranges) {
+        int variables = ranges.length;
+        // pack the binary variables as bit sets
+        int words = (size + 63) / 64;
+        long[] bits = new long[variables * words];
+        int[] ones = new int[variables];
+        for (int i = 0; i < variables; i++) {
+            if (ranges[i] == 2) {
+                for (int k = 0; k < size; k++) {
+                    if (values[i * size + k] == 1) {
+                        bits[i * words + k / 64] |= 1L << k;
+                        ones[i]++;
+                    }
+                }
+            }
+        }
+        double weightSum = 0;
+        for (int k = 0; k < size; k++) {
+            weightSum += weights[k];
+        }
+        // calculate the entropies of the different variables
+        double[] entropies = new double[variables];
+        for (int i = 0; i < variables; i++) {
+            double[] probs = new double[ranges[i]];
+            for (int k = 0; k < size; k++) {
+                probs[values[i * size + k]] += weights[k];
+            }
+            for (int j = 0; j < probs.length; j++) {
+                probs[j] /= weightSum;
+                if (probs[j] != 0) {
+                    entropies[i] -= probs[j] * Math.log(probs[j]);
+                }
+            }
+        }
+        double[][] mutualI = new double[variables][];
+        for (int i = 0; i < variables; i++) {
+            mutualI[i] = new double[i];
+        }
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        pool.invoke(new MutualInformation(values, bits, ones, ranges, size,
+            weightSum, entropies, mutualI, 1, variables));
+        return mutualI;
+    }
+
+    /**
+     * Calculates the mutual information of the pairs in a block of rows
+     */
+    private static class MutualInformation extends RecursiveAction {
+        /** The number of pairs below which to stop splitting */
+        private static final int THRESHOLD = 4096;
+        /** The values, one column per variable */
+        private int[] values;
+        /** The binary variables as bit sets */
+        private long[] bits;
+        /** The number of ones of each binary variable */
+        private int[] ones;
+        /** The ranges of the variables */
+        private int[] ranges;
+        /** The number of samples */
+        private int size;
+        /** The sum of the weights */
+        private double weightSum;
+        /** The entropies of the variables */
+        private double[] entropies;
+        /** The mutual informations */
+        private double[][] mutualI;
+        /** The first row */
+        private int start;
+        /** The end of the rows */
+        private int end;
+
+        /**
+         * Make a new mutual information task
+         * @param values the values
+         * @param bits the bit sets
+         * @param ones the counts of ones
+         * @param ranges the ranges
+         * @param size the number of samples
+         * @param weightSum the sum of the weights
+         * @param entropies the entropies
+         * @param mutualI the mutual informations to fill in
+         * @param start the first row
+         * @param end the end of the rows
+         */
+        public MutualInformation(int[] values, long[] bits, int[] ones, int[] ranges,
+                int size, double weightSum, double[] entropies, double[][] mutualI,
+                int start, int end) {
+            this.values = values;
+            this.bits = bits;
+            this.ones = ones;
+            this.ranges = ranges;
+            this.size = size;
+            this.weightSum = weightSum;
+            this.entropies = entropies;
+            this.mutualI = mutualI;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            long pairs = ((long) end * (end - 1) - (long) start * (start - 1)) / 2;
+            if (end - start > 1 && pairs > THRESHOLD) {
+                // split so the halves have about the same number of pairs
+                int middle = (int) Math.sqrt(((double) end * end + (double) start * start) / 2);
+                middle = Math.max(start + 1, Math.min(end - 1, middle));
+                invokeAll(new MutualInformation(values, bits, ones, ranges, size,
+                        weightSum, entropies, mutualI, start, middle),
+                    new MutualInformation(values, bits, ones, ranges, size,
+                        weightSum, entropies, mutualI, middle, end));
+                return;
+            }
+            int maxRange = 0;
+            for (int i = 0; i < ranges.length; i++) {
+                maxRange = Math.max(maxRange, ranges[i]);
+            }
+            double[] joints = new double[maxRange * maxRange];
+            int words = (size + 63) / 64;
+            for (int i = start; i < end; i++) {
+                for (int j = 0; j < i; j++) {
+                    int rj = ranges[j];
+                    int cells = ranges[i] * rj;
+                    if (ranges[i] == 2 && rj == 2) {
+                        int both = 0;
+                        for (int w = 0; w < words; w++) {
+                            both += Long.bitCount(bits[i * words + w] & bits[j * words + w]);
+                        }
+                        joints[0] = size - ones[i] - ones[j] + both;
+                        joints[1] = ones[j] - both;
+                        joints[2] = ones[i] - both;
+                        joints[3] = both;
+                    } else {
+                        Arrays.fill(joints, 0, cells, 0);
+                        int a = i * size, b = j * size;
+                        for (int k = 0; k < size; k++) {
+                            joints[values[a + k] * rj + values[b + k]]++;
+                        }
+                    }
+                    // calculate the mutual information I(x_i; x_j)
+                    double value = entropies[i] + entropies[j];
+                    for (int k = 0; k < cells; k++) {
+                        double joint = joints[k] / weightSum;
+                        if (joint != 0) {
+                            value += joint * Math.log(joint);
+                        }
+                    }
+                    mutualI[i][j] = value;
+                }
+            }
+        }
+    }
+
     /**
      * @see java.lang.Object#toString()
      */
@@ -61,6 +61,44 @@ public class DiscreteDependencyTreeNode extends Node {
         }
     }
     
+    /**
+     * Make a dependency tree node from samples packed into columns
+     * @param values the values, one column of size values per variable
+     * @param weights the weights of the samples
+     * @param size the number of samples
+     * @param ranges the ranges of the variables
+     * @param node the node
+     * @param parent the parent node index
+     * @param m the bayesian estimate parameter
+     * @param t the tree
+     */
+    public DiscreteDependencyTreeNode(int[] values, double[] weights, int size,
+            int[] ranges, Node node, int parent, double m, Tree t) {
+        int column = node.getLabel() * size;
+        int parentColumn = parent * size;
+        double[][] probabilities = new double[ranges[parent]][ranges[node.getLabel()]];
+        double[] sums = new double[ranges[parent]];
+        for (int i = 0; i < size; i++) {
+            probabilities[values[parentColumn + i]][values[column + i]] += weights[i];
+            sums[values[parentColumn + i]] += weights[i];
+        }
+        for (int i = 0; i < probabilities.length; i++) {
+            for (int j = 0; j < probabilities[i].length; j++) {
+                probabilities[i][j] = (probabilities[i][j] + m / probabilities[i].length)
+                    / (sums[i] + m);
+            }
+        }
+        this.probabilities = probabilities;
+        this.parent = parent;
+        t.addNode(this);
+        setLabel(node.getLabel());
+        for (int i = 0; i < node.getEdgeCount(); i++) {
+            DiscreteDependencyTreeNode dtc = new DiscreteDependencyTreeNode(values, weights,
+                size, ranges, node.getEdge(i).getOther(node), node.getLabel(), m, t);
+            connectDirected(dtc, new Edge());
+        }
+    }
+    
     /**
      * Calculate the probability
      * @param instance the instance
@@ -105,6 +143,22 @@ public class DiscreteDependencyTreeNode extends Node {
         }
     }    
       
+    /**
+     * Get the conditional probabilities
+     * @return the probabilities, one row for each value of the parent
+     */
+    public double[][] getProbabilities() {
+        return probabilities;
+    }
+
+    /**
+     * Get the parent
+     * @return the parent variable
+     */
+    public int getParent() {
+        return parent;
+    }
+
     /**
      * @see java.lang.Object#toString()
      */
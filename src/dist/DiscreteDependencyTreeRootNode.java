@@ -48,6 +48,39 @@ public class DiscreteDependencyTreeRootNode extends Node {
         }
     }
     
+    /**
+     * Build a dependency tree root out of the given node
+     * from samples packed into columns
+     * @param values the values, one column of size values per variable
+     * @param weights the weights of the samples
+     * @param size the number of samples
+     * @param ranges the ranges of the variables
+     * @param node the node to build the root out of
+     * @param m the bayesian estimate parameter
+     * @param t the tree
+     */
+    public DiscreteDependencyTreeRootNode(int[] values, double[] weights, int size,
+            int[] ranges, Node node, double m, Tree t) {
+        int column = node.getLabel() * size;
+        probabilities = new double[ranges[node.getLabel()]];
+        double weightSum = 0;
+        for (int i = 0; i < size; i++) {
+            probabilities[values[column + i]] += weights[i];
+            weightSum += weights[i];
+        }
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] = (probabilities[i] + m / probabilities.length)
+                / (weightSum + m);
+        }
+        t.addNode(this);
+        setLabel(node.getLabel());
+        for (int i = 0; i < node.getEdgeCount(); i++) {
+            DiscreteDependencyTreeNode dtn = new DiscreteDependencyTreeNode(values, weights,
+                size, ranges, node.getEdge(i).getOther(node), node.getLabel(), m, t);
+            connectDirected(dtn, new Edge());
+        }
+    }
+    
     /**
      * Calculate the probability
      * @param instance the instance
@@ -89,6 +122,14 @@ public class DiscreteDependencyTreeRootNode extends Node {
         }
     }
     
+    /**
+     * Get the unconditional probabilities
+     * @return the probabilities
+     */
+    public double[] getProbabilities() {
+        return probabilities;
+    }
+
     /**
      * @see java.lang.Object#toString()
      */
@@ -0,0 +1,232 @@
+package dist;
+
+import java.io.Serializable;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import util.StreamRandom;
+
+/**
+ * A discrete dependency tree compiled into flat arrays for sampling.
+ * The variables are stored in topological order, each with a table
+ * of cumulative probabilities for every value of its parent, so a
+ * sample is drawn with one pass and no allocation.
+ * @version 1.0
+ */
+public class DiscreteDependencyTreeSampler implements Serializable {
+    /**
+     * The variables in topological order
+     */
+    private int[] order;
+
+    /**
+     * The parent variable of each position, -1 for the root
+     */
+    private int[] parents;
+
+    /**
+     * The range of the variable at each position
+     */
+    private int[] ranges;
+
+    /**
+     * The start of each position's tables in the cumulatives
+     */
+    private int[] offsets;
+
+    /**
+     * The cumulative probabilities, one table of range values
+     * for each value of the parent
+     */
+    private double[] cumulatives;
+
+    /**
+     * The number of positions compiled so far
+     */
+    private int compiled;
+
+    /**
+     * Compile a dependency tree
+     * @param root the root of the tree
+     * @param variables the number of variables
+     */
+    public DiscreteDependencyTreeSampler(DiscreteDependencyTreeRootNode root, int variables) {
+        order = new int[variables];
+        parents = new int[variables];
+        ranges = new int[variables];
+        offsets = new int[variables + 1];
+        // count the size of the tables first
+        int total = root.getProbabilities().length;
+        for (int i = 0; i < root.getEdgeCount(); i++) {
+            total += size((DiscreteDependencyTreeNode) root.getEdge(i).getOther(root));
+        }
+        cumulatives = new double[total];
+        add(root.getLabel(), -1, new double[][] { root.getProbabilities() });
+        for (int i = 0; i < root.getEdgeCount(); i++) {
+            add((DiscreteDependencyTreeNode) root.getEdge(i).getOther(root));
+        }
+    }
+
+    /**
+     * The size of the tables of a subtree
+     * @param node the root of the subtree
+     * @return the size
+     */
+    private int size(DiscreteDependencyTreeNode node) {
+        double[][] probabilities = node.getProbabilities();
+        int size = probabilities.length * probabilities[0].length;
+        for (int i = 0; i < node.getEdgeCount(); i++) {
+            size += size((DiscreteDependencyTreeNode) node.getEdge(i).getOther(node));
+        }
+        return size;
+    }
+
+    /**
+     * Add a subtree in breadth first order
+     * @param node the root of the subtree
+     */
+    private void add(DiscreteDependencyTreeNode node) {
+        DiscreteDependencyTreeNode[] queue = new DiscreteDependencyTreeNode[order.length];
+        int head = 0, tail = 0;
+        queue[tail++] = node;
+        while (head < tail) {
+            DiscreteDependencyTreeNode current = queue[head++];
+            add(current.getLabel(), current.getParent(), current.getProbabilities());
+            for (int i = 0; i < current.getEdgeCount(); i++) {
+                queue[tail++] = (DiscreteDependencyTreeNode) current.getEdge(i).getOther(current);
+            }
+        }
+    }
+
+    /**
+     * Add a variable
+     * @param variable the variable
+     * @param parent the parent variable or -1
+     * @param probabilities the probabilities for each value of the parent
+     */
+    private void add(int variable, int parent, double[][] probabilities) {
+        int position = compiled++;
+        order[position] = variable;
+        parents[position] = parent;
+        ranges[position] = probabilities[0].length;
+        int offset = offsets[position];
+        for (int i = 0; i < probabilities.length; i++) {
+            double sum = 0;
+            for (int j = 0; j < probabilities[i].length; j++) {
+                sum += probabilities[i][j];
+                cumulatives[offset++] = sum;
+            }
+        }
+        offsets[position + 1] = offset;
+    }
+
+    /**
+     * Get the number of variables
+     * @return the number of variables
+     */
+    public int getVariableCount() {
+        return order.length;
+    }
+
+    /**
+     * Draw a sample into a buffer
+     * @param out the buffer, indexed by variable
+     * @param start where the sample starts in the buffer
+     * @param random the random number generator
+     */
+    public void sample(int[] out, int start, Random random) {
+        for (int p = 0; p < order.length; p++) {
+            int range = ranges[p];
+            int table = offsets[p];
+            if (parents[p] >= 0) {
+                table += out[start + parents[p]] * range;
+            }
+            double rand = random.nextDouble();
+            int value = 0;
+            while (value < range - 1 && cumulatives[table + value] < rand) {
+                value++;
+            }
+            out[start + order[p]] = value;
+        }
+    }
+
+    /**
+     * Draw a batch of samples in parallel, each chunk of the batch
+     * drawing from its own stream seeded from the shared generator
+     * @param out the buffer, one row of variables per sample
+     * @param count the number of samples
+     * @param pool the pool to sample in
+     * @param workers the number of chunks to split the batch into
+     */
+    public void sample(int[] out, int count, ForkJoinPool pool, int workers) {
+        workers = Math.max(1, Math.min(workers, count));
+        Random[] streams = StreamRandom.streams(Distribution.random.nextLong(), workers);
+        Chunk[] chunks = new Chunk[workers];
+        for (int i = 0; i < workers; i++) {
+            chunks[i] = new Chunk(out, streams[i], (int) ((long) i * count / workers),
+                (int) ((long) (i + 1) * count / workers));
+        }
+        pool.invoke(new Batch(chunks));
+    }
+
+    /**
+     * Runs all of the chunks of a batch
+     */
+    private static class Batch extends RecursiveAction {
+        /** The chunks */
+        private Chunk[] chunks;
+
+        /**
+         * Make a new batch
+         * @param chunks the chunks
+         */
+        public Batch(Chunk[] chunks) {
+            this.chunks = chunks;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            invokeAll(chunks);
+        }
+    }
+
+    /**
+     * Draws a chunk of a batch of samples
+     */
+    private class Chunk extends RecursiveAction {
+        /** The buffer */
+        private int[] out;
+        /** The stream for this chunk */
+        private Random stream;
+        /** The first sample */
+        private int start;
+        /** The end of the samples */
+        private int end;
+
+        /**
+         * Make a new chunk
+         * @param out the buffer
+         * @param stream the stream
+         * @param start the first sample
+         * @param end the end of the samples
+         */
+        public Chunk(int[] out, Random stream, int start, int end) {
+            this.out = out;
+            this.stream = stream;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            for (int i = start; i < end; i++) {
+                sample(out, i * order.length, stream);
+            }
+        }
+    }
+}
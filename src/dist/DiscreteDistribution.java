@@ -2,6 +2,7 @@ package dist;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Random;
 
 import shared.Copyable;
 import shared.DataSet;
@@ -33,6 +34,17 @@ public class DiscreteDistribution extends AbstractDistribution implements Serial
      * The cummulatives
      */
     private double[] cummulatives;
+
+    /**
+     * The alias table, the value to return from each
+     * column when the draw lands past its own probability
+     */
+    private int[] aliases;
+
+    /**
+     * The probability of keeping each column's own value
+     */
+    private double[] keep;
     
     /**
      * The continuity parameter
@@ -56,6 +68,7 @@ public class DiscreteDistribution extends AbstractDistribution implements Serial
              probabilities[i] = vector.get(i);
          }
          cummulatives = null;
+         aliases = null;
      }
     
     /**
@@ -72,6 +85,7 @@ public class DiscreteDistribution extends AbstractDistribution implements Serial
         this.prior = new double[probabilities.length];       
         Arrays.fill(prior, 1.0/probabilities.length);
         cummulatives = null;
+        aliases = null;
     }
      
     /**
@@ -81,6 +95,7 @@ public class DiscreteDistribution extends AbstractDistribution implements Serial
     public void setProbabilities(double[] probabilities) {
         this.probabilities = probabilities;
         cummulatives = null;
+        aliases = null;
     }
     
     /**
@@ -111,6 +126,80 @@ public class DiscreteDistribution extends AbstractDistribution implements Serial
         double rand = random.nextDouble();
         return new Instance(ABAGAILArrays.search(cummulatives, rand));  
     }
+
+    /**
+     * Draw a value in constant time from the alias table
+     * @param rng the random number generator
+     * @return the value
+     */
+    public int sampleIndex(Random rng) {
+        if (aliases == null) {
+            calculateAliases();
+        }
+        double u = rng.nextDouble() * aliases.length;
+        int column = Math.min((int) u, aliases.length - 1);
+        return u - column < keep[column] ? column : aliases[column];
+    }
+
+    /**
+     * Fill an array with independent draws from the alias table
+     * @param out the array to fill
+     * @param rng the random number generator
+     */
+    public void sampleInto(int[] out, Random rng) {
+        if (aliases == null) {
+            calculateAliases();
+        }
+        int n = aliases.length;
+        for (int i = 0; i < out.length; i++) {
+            double u = rng.nextDouble() * n;
+            int column = Math.min((int) u, n - 1);
+            out[i] = u - column < keep[column] ? column : aliases[column];
+        }
+    }
+
+    /**
+     * Build the alias table with Vose's method
+     */
+    private void calculateAliases() {
+        int n = probabilities.length;
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += probabilities[i];
+        }
+        aliases = new int[n];
+        keep = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smalls = 0, larges = 0;
+        for (int i = 0; i < n; i++) {
+            keep[i] = probabilities[i] * n / sum;
+            aliases[i] = i;
+            if (keep[i] < 1) {
+                small[smalls++] = i;
+            } else {
+                large[larges++] = i;
+            }
+        }
+        while (smalls > 0 && larges > 0) {
+            int less = small[--smalls];
+            int more = large[--larges];
+            aliases[less] = more;
+            keep[more] = (keep[more] + keep[less]) - 1;
+            if (keep[more] < 1) {
+                small[smalls++] = more;
+            } else {
+                large[larges++] = more;
+            }
+        }
+        // whatever is left over is full up to rounding error
+        while (larges > 0) {
+            keep[large[--larges]] = 1;
+        }
+        while (smalls > 0) {
+            keep[small[--smalls]] = 1;
+        }
+    }
     
     /**
      * Recalculate the cummulativies
@@ -156,6 +245,7 @@ public class DiscreteDistribution extends AbstractDistribution implements Serial
                 / (weightSum + m);
         }
         cummulatives = null;
+        aliases = null;
     }
     
     /**
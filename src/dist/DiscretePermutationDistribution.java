@@ -1,5 +1,7 @@
 package dist;
 
+import java.util.Random;
+
 import shared.DataSet;
 import shared.Instance;
 import util.ABAGAILArrays;
@@ -50,6 +52,22 @@ public class DiscretePermutationDistribution extends AbstractDistribution {
         return new Instance(d);
     }
 
+    /**
+     * Fill an array with permutations, one after another
+     * @param out the array to fill, a multiple of the size long
+     * @param rng the random number generator
+     */
+    public void sampleInto(int[] out, Random rng) {
+        for (int start = 0; start + n <= out.length; start += n) {
+            // shuffle the identity in place
+            for (int i = 0; i < n; i++) {
+                int j = rng.nextInt(i + 1);
+                out[start + i] = out[start + j];
+                out[start + j] = i;
+            }
+        }
+    }
+
     /**
      * @see dist.Distribution#generateMostLikely(shared.Instance)
      */
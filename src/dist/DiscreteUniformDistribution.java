@@ -1,5 +1,7 @@
 package dist;
 
+import java.util.Random;
+
 import shared.DataSet;
 import shared.Instance;
 
@@ -51,6 +53,17 @@ public class DiscreteUniformDistribution extends AbstractDistribution {
         return new Instance(d);
     }
 
+    /**
+     * Fill an array with samples, one after another
+     * @param out the array to fill, a multiple of the number of variables long
+     * @param rng the random number generator
+     */
+    public void sampleInto(int[] out, Random rng) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = rng.nextInt(n[i % n.length]);
+        }
+    }
+
     /**
      * @see dist.Distribution#generateMostLikely(shared.Instance)
      */
@@ -0,0 +1,85 @@
+package dist.test;
+
+import java.util.Random;
+
+import dist.DiscreteDependencyTree;
+import shared.DataSet;
+import shared.Instance;
+
+/**
+ * Checks the marginals of the compiled dependency tree sampler
+ * against the data it was estimated from and times single and
+ * batch sampling
+ * @version 1.0
+ */
+public class DiscreteDependencyTreeSamplerTest {
+    /** The number of variables */
+    private static final int VARIABLES = 200;
+    /** The range of the variables */
+    private static final int RANGE = 3;
+    /** The number of samples */
+    private static final int SAMPLES = 20000;
+
+    /**
+     * The test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random();
+        int[] ranges = new int[VARIABLES];
+        Instance[] instances = new Instance[2000];
+        for (int i = 0; i < instances.length; i++) {
+            double[] data = new double[VARIABLES];
+            for (int j = 0; j < data.length; j++) {
+                ranges[j] = RANGE;
+                data[j] = j > 0 && random.nextDouble() < .8 ? data[j - 1] : random.nextInt(RANGE);
+            }
+            instances[i] = new Instance(data);
+        }
+        DiscreteDependencyTree tree = new DiscreteDependencyTree(.1, ranges);
+        tree.estimate(new DataSet(instances));
+
+        long start = System.nanoTime();
+        Instance[] single = new Instance[SAMPLES];
+        for (int i = 0; i < single.length; i++) {
+            single[i] = tree.sample(null);
+        }
+        System.out.println("Single: " + (System.nanoTime() - start) / 1e9 + "s");
+        start = System.nanoTime();
+        Instance[] batch = tree.sample(SAMPLES);
+        System.out.println("Batch: " + (System.nanoTime() - start) / 1e9 + "s");
+
+        double[] data = marginals(instances);
+        System.out.println("Single marginal error: " + error(data, marginals(single)));
+        System.out.println("Batch marginal error: " + error(data, marginals(batch)));
+    }
+
+    /**
+     * Calculate the marginal probabilities of the values
+     * @param instances the instances
+     * @return the probabilities, RANGE per variable
+     */
+    private static double[] marginals(Instance[] instances) {
+        double[] marginals = new double[VARIABLES * RANGE];
+        for (int i = 0; i < instances.length; i++) {
+            for (int j = 0; j < VARIABLES; j++) {
+                marginals[j * RANGE + instances[i].getDiscrete(j)] += 1.0 / instances.length;
+            }
+        }
+        return marginals;
+    }
+
+    /**
+     * The largest difference between two sets of marginals
+     * @param a the first
+     * @param b the second
+     * @return the difference
+     */
+    private static double error(double[] a, double[] b) {
+        double max = 0;
+        for (int i = 0; i < a.length; i++) {
+            max = Math.max(max, Math.abs(a[i] - b[i]));
+        }
+        return max;
+    }
+}
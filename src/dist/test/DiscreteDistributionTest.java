@@ -2,7 +2,12 @@ package dist.test;
 
 import shared.DataSet;
 import shared.Instance;
+import dist.CompactDiscretePermutationDistribution;
+import dist.CompactDiscreteUniformDistribution;
 import dist.DiscreteDistribution;
+import dist.DiscretePermutationDistribution;
+import dist.DiscreteUniformDistribution;
+import dist.Distribution;
 
 /**
  * A multinomial distribution test
@@ -25,6 +30,66 @@ public class DiscreteDistributionTest {
         }
         md.estimate(new DataSet(samples));
         System.out.println(md);
+        // the same from the alias table
+        int[] draws = new int[100000];
+        new DiscreteDistribution(ps).sampleInto(draws, Distribution.random);
+        double[] counts = new double[ps.length];
+        for (int i = 0; i < draws.length; i++) {
+            counts[draws[i]] += 1.0 / draws.length;
+        }
+        System.out.println(new DiscreteDistribution(counts));
+
+        // bulk uniform draws, several samples of three variables
+        int[] ranges = { 2, 3, 5 };
+        int[] uniform = new int[ranges.length * 10000];
+        new DiscreteUniformDistribution(ranges).sampleInto(uniform, Distribution.random);
+        double[][] frequencies = new double[ranges.length][];
+        for (int j = 0; j < ranges.length; j++) {
+            frequencies[j] = new double[ranges[j]];
+        }
+        for (int i = 0; i < uniform.length; i++) {
+            frequencies[i % ranges.length][uniform[i]] += 1.0 / 10000;
+        }
+        for (int j = 0; j < ranges.length; j++) {
+            System.out.println(new DiscreteDistribution(frequencies[j]));
+        }
+
+        // bulk permutations, each must hold every value once
+        int size = 6;
+        int[] permutations = new int[size * 10000];
+        new DiscretePermutationDistribution(size).sampleInto(permutations, Distribution.random);
+        boolean valid = true;
+        double[] firsts = new double[size];
+        for (int start = 0; start < permutations.length; start += size) {
+            boolean[] seen = new boolean[size];
+            for (int i = start; i < start + size; i++) {
+                valid &= !seen[permutations[i]];
+                seen[permutations[i]] = true;
+            }
+            firsts[permutations[start]] += 1.0 / 10000;
+        }
+        System.out.println("Valid permutations: " + valid);
+        System.out.println(new DiscreteDistribution(firsts));
+
+        // the compact genomes are filled by the bulk samplers
+        Distribution.random.setSeed(7);
+        Instance genome = new CompactDiscreteUniformDistribution(ranges).sample();
+        Distribution.random.setSeed(7);
+        int[] expected = new int[ranges.length];
+        new DiscreteUniformDistribution(ranges).sampleInto(expected, Distribution.random);
+        boolean same = true;
+        for (int i = 0; i < expected.length; i++) {
+            same &= genome.getDiscrete(i) == expected[i];
+        }
+        Distribution.random.setSeed(7);
+        genome = new CompactDiscretePermutationDistribution(size).sample();
+        Distribution.random.setSeed(7);
+        expected = new int[size];
+        new DiscretePermutationDistribution(size).sampleInto(expected, Distribution.random);
+        for (int i = 0; i < expected.length; i++) {
+            same &= genome.getDiscrete(i) == expected[i];
+        }
+        System.out.println("Compact genomes match bulk samples: " + same);
     }
 
 }
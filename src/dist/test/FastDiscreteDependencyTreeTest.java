@@ -0,0 +1,63 @@
+package dist.test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import dist.DiscreteDependencyTree;
+import shared.DataSet;
+import shared.Instance;
+
+/**
+ * Checks that the fast mutual information path builds the
+ * same dependency tree as the direct one and times them
+ * @version 1.0
+ */
+public class FastDiscreteDependencyTreeTest {
+    /** The number of samples */
+    private static final int SAMPLES = 500;
+    /** The number of variables */
+    private static final int VARIABLES = 300;
+
+    /**
+     * The test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random();
+        compare(random, 2);
+        compare(random, 5);
+    }
+
+    /**
+     * Compare the two paths on chains of dependent variables
+     * @param random the random number generator
+     * @param range the range of the variables
+     */
+    private static void compare(Random random, int range) {
+        int[] ranges = new int[VARIABLES];
+        Arrays.fill(ranges, range);
+        Instance[] instances = new Instance[SAMPLES];
+        for (int i = 0; i < instances.length; i++) {
+            double[] data = new double[VARIABLES];
+            data[0] = random.nextInt(range);
+            for (int j = 1; j < data.length; j++) {
+                // copy a random earlier variable most of the time
+                data[j] = random.nextDouble() < .7 ? data[random.nextInt(j)] : random.nextInt(range);
+            }
+            instances[i] = new Instance(data);
+        }
+        DataSet set = new DataSet(instances);
+
+        long start = System.nanoTime();
+        DiscreteDependencyTree direct = new DiscreteDependencyTree(.1, ranges, false, null);
+        direct.estimate(set);
+        System.out.println("Range " + range + " direct: " + (System.nanoTime() - start) / 1e9 + "s");
+        start = System.nanoTime();
+        DiscreteDependencyTree fast = new DiscreteDependencyTree(.1, ranges,
+            true, ForkJoinPool.commonPool());
+        fast.estimate(set);
+        System.out.println("Range " + range + " fast: " + (System.nanoTime() - start) / 1e9 + "s");
+        System.out.println("Same tree: " + direct.toString().equals(fast.toString()));
+    }
+}
@@ -1,5 +1,9 @@
 package func;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import shared.DataSet;
 import shared.DistanceMeasure;
 import shared.EuclideanDistance;
@@ -29,6 +33,16 @@ public class KMeansClusterer extends AbstractConditionalDistribution implements
      * The distance measure
      */
     private DistanceMeasure distanceMeasure;
+
+    /**
+     * Whether to use the accelerated estimate
+     */
+    private boolean accelerated;
+
+    /**
+     * The pool to run the accelerated estimate in
+     */
+    private transient ForkJoinPool pool;
     
     /**
      * Make a new k means clustere
@@ -39,6 +53,30 @@ public class KMeansClusterer extends AbstractConditionalDistribution implements
         this.k = k;
         this.distanceMeasure = new EuclideanDistance();
     }
+
+    /**
+     * Make a new k means clusterer
+     * @param k the k value
+     * @param accelerated whether to seed with k means++ and assign
+     * the points in parallel using bounds to skip distance calculations,
+     * only used with euclidean distance
+     * @param pool the pool to run the accelerated estimate in
+     */
+    public KMeansClusterer(int k, boolean accelerated, ForkJoinPool pool) {
+        this(k);
+        this.accelerated = accelerated;
+        this.pool = pool;
+    }
+
+    /**
+     * Make a new k means clusterer that runs in the common pool
+     * @param k the k value
+     * @param accelerated whether to seed with k means++ and assign
+     * the points in parallel using bounds to skip distance calculations
+     */
+    public KMeansClusterer(int k, boolean accelerated) {
+        this(k, accelerated, ForkJoinPool.commonPool());
+    }
     
     /**
      * Make a new clusterer
@@ -47,6 +85,14 @@ public class KMeansClusterer extends AbstractConditionalDistribution implements
         this(2);
     }
 
+    /**
+     * Set the distance measure
+     * @param measure the new measure
+     */
+    public void setDistanceMeasure(DistanceMeasure measure) {
+        distanceMeasure = measure;
+    }
+
     /**
      * @see func.Classifier#classDistribution(shared.Instance)
      */
@@ -81,6 +127,12 @@ public class KMeansClusterer extends AbstractConditionalDistribution implements
      * @see func.FunctionApproximater#estimate(shared.DataSet)
      */
     public void estimate(DataSet set) {
+        // the bounds rely on euclidean distance, other
+        // measures use the standard assignment
+        if (accelerated && distanceMeasure.getClass() == EuclideanDistance.class) {
+            estimateAccelerated(set);
+            return;
+        }
         clusterCenters = new Instance[k];
         int[] assignments = new int[set.size()];
         // random initial centers
@@ -134,6 +186,335 @@ public class KMeansClusterer extends AbstractConditionalDistribution implements
         } while (changed);
     }
 
+    /**
+     * Estimate with k means++ seeding and Hamerly's bounds,
+     * assigning the points in parallel chunks
+     * @param set the data set
+     */
+    private void estimateAccelerated(DataSet set) {
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        Hamerly hamerly = new Hamerly(set);
+        hamerly.run();
+        clusterCenters = new Instance[k];
+        for (int j = 0; j < k; j++) {
+            double[] center = new double[hamerly.dimensions];
+            System.arraycopy(hamerly.centers, j * hamerly.dimensions, center, 0, center.length);
+            clusterCenters[j] = new Instance(center);
+        }
+    }
+
+    /**
+     * The state of an accelerated estimate.  Each point keeps an upper
+     * bound on the distance to its center and a lower bound on the
+     * distance to any other center, and the distances are only computed
+     * when the bounds can't rule out a change of center.  See Hamerly,
+     * Making k-means Even Faster, SDM 2010.
+     */
+    private class Hamerly {
+        /** The number of points */
+        private int size;
+        /** The number of dimensions */
+        private int dimensions;
+        /** The points, one row per point */
+        private double[] points;
+        /** The weights of the points */
+        private double[] weights;
+        /** The centers, one row per center */
+        private double[] centers;
+        /** The center of each point */
+        private int[] assignments;
+        /** The upper bound on the distance from each point to its center */
+        private double[] upper;
+        /** The lower bound on the distance from each point to any other center */
+        private double[] lower;
+        /** Half the distance from each center to the closest other center */
+        private double[] half;
+        /** The distance each center moved in the last iteration */
+        private double[] moved;
+        /** The largest distance moved */
+        private double maxMoved;
+        /** The center that moved the most */
+        private int maxMover;
+        /** The second largest distance moved */
+        private double secondMoved;
+        /** The weighted sums of the points of each center for each chunk */
+        private double[][] sums;
+        /** The total weight of each center for each chunk */
+        private double[][] totals;
+        /** Whether any point of each chunk changed center */
+        private boolean[] changed;
+
+        /**
+         * Set up an estimate
+         * @param set the data set
+         */
+        public Hamerly(DataSet set) {
+            size = set.size();
+            dimensions = set.get(0).size();
+            points = new double[size * dimensions];
+            weights = new double[size];
+            for (int i = 0; i < size; i++) {
+                Instance instance = set.get(i);
+                for (int j = 0; j < dimensions; j++) {
+                    points[i * dimensions + j] = instance.getContinuous(j);
+                }
+                weights[i] = instance.getWeight();
+            }
+            assignments = new int[size];
+            upper = new double[size];
+            lower = new double[size];
+            half = new double[k];
+            moved = new double[k];
+            int chunks = Math.max(1, Math.min(size, pool.getParallelism() * 4));
+            sums = new double[chunks][k * dimensions];
+            totals = new double[chunks][k];
+            changed = new boolean[chunks];
+        }
+
+        /**
+         * Run k means to convergence
+         */
+        public void run() {
+            seed();
+            boolean first = true;
+            boolean any = true;
+            while (any) {
+                // half the distance to the closest other center
+                for (int j = 0; j < k; j++) {
+                    double closest = Double.POSITIVE_INFINITY;
+                    for (int m = 0; m < k; m++) {
+                        if (m != j) {
+                            closest = Math.min(closest, distance(centers, j, centers, m));
+                        }
+                    }
+                    half[j] = closest / 2;
+                }
+                Assignment[] tasks = new Assignment[sums.length];
+                for (int c = 0; c < tasks.length; c++) {
+                    tasks[c] = new Assignment(c, (int) ((long) c * size / tasks.length),
+                        (int) ((long) (c + 1) * size / tasks.length), first);
+                }
+                pool.invoke(new Assignments(tasks));
+                any = false;
+                for (int c = 0; c < changed.length; c++) {
+                    any |= changed[c];
+                }
+                first = false;
+                // move the centers to the means of their points
+                maxMoved = 0;
+                secondMoved = 0;
+                maxMover = -1;
+                for (int j = 0; j < k; j++) {
+                    double total = 0;
+                    for (int c = 0; c < totals.length; c++) {
+                        total += totals[c][j];
+                    }
+                    moved[j] = 0;
+                    if (total <= 0) {
+                        // leave an empty cluster where it is
+                        continue;
+                    }
+                    double sum = 0;
+                    for (int m = 0; m < dimensions; m++) {
+                        double value = 0;
+                        for (int c = 0; c < sums.length; c++) {
+                            value += sums[c][j * dimensions + m];
+                        }
+                        value /= total;
+                        double difference = value - centers[j * dimensions + m];
+                        sum += difference * difference;
+                        centers[j * dimensions + m] = value;
+                    }
+                    moved[j] = Math.sqrt(sum);
+                    if (moved[j] > maxMoved) {
+                        secondMoved = maxMoved;
+                        maxMoved = moved[j];
+                        maxMover = j;
+                    } else if (moved[j] > secondMoved) {
+                        secondMoved = moved[j];
+                    }
+                }
+            }
+        }
+
+        /**
+         * Choose the initial centers with k means++, each new center
+         * picked with probability proportional to its weight times its
+         * squared distance to the closest center chosen so far
+         */
+        private void seed() {
+            centers = new double[k * dimensions];
+            double[] closest = new double[size];
+            double total = 0;
+            for (int i = 0; i < size; i++) {
+                total += weights[i];
+            }
+            int pick = pick(weights, total);
+            System.arraycopy(points, pick * dimensions, centers, 0, dimensions);
+            for (int j = 1; j < k; j++) {
+                total = 0;
+                for (int i = 0; i < size; i++) {
+                    double d = distance(points, i, centers, j - 1);
+                    if (j == 1 || d * d < closest[i]) {
+                        closest[i] = d * d;
+                    }
+                    total += weights[i] * closest[i];
+                }
+                double[] scores = new double[size];
+                for (int i = 0; i < size; i++) {
+                    scores[i] = weights[i] * closest[i];
+                }
+                pick = total > 0 ? pick(scores, total) : Distribution.random.nextInt(size);
+                System.arraycopy(points, pick * dimensions, centers, j * dimensions, dimensions);
+            }
+        }
+
+        /**
+         * Pick an index with probability proportional to its score
+         * @param scores the scores
+         * @param total the sum of the scores
+         * @return the index
+         */
+        private int pick(double[] scores, double total) {
+            double target = Distribution.random.nextDouble() * total;
+            double sum = 0;
+            for (int i = 0; i < scores.length; i++) {
+                sum += scores[i];
+                if (sum > target) {
+                    return i;
+                }
+            }
+            return scores.length - 1;
+        }
+
+        /**
+         * The euclidean distance between two rows
+         * @param a the first array
+         * @param i the row in the first array
+         * @param b the second array
+         * @param j the row in the second array
+         * @return the distance
+         */
+        private double distance(double[] a, int i, double[] b, int j) {
+            double sum = 0;
+            int ai = i * dimensions, bj = j * dimensions;
+            for (int m = 0; m < dimensions; m++) {
+                double difference = a[ai + m] - b[bj + m];
+                sum += difference * difference;
+            }
+            return Math.sqrt(sum);
+        }
+
+        /**
+         * Runs all of the chunks of an iteration
+         */
+        private class Assignments extends RecursiveAction {
+            /** The chunks */
+            private Assignment[] tasks;
+
+            /**
+             * Make a new set of assignments
+             * @param tasks the chunks
+             */
+            public Assignments(Assignment[] tasks) {
+                this.tasks = tasks;
+            }
+
+            /**
+             * @see java.util.concurrent.RecursiveAction#compute()
+             */
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        }
+
+        /**
+         * Assigns a chunk of the points and sums them by center
+         */
+        private class Assignment extends RecursiveAction {
+            /** The chunk */
+            private int chunk;
+            /** The first point */
+            private int start;
+            /** The end of the points */
+            private int end;
+            /** Whether this is the first iteration */
+            private boolean first;
+
+            /**
+             * Make a new assignment
+             * @param chunk the chunk
+             * @param start the first point
+             * @param end the end of the points
+             * @param first whether this is the first iteration
+             */
+            public Assignment(int chunk, int start, int end, boolean first) {
+                this.chunk = chunk;
+                this.start = start;
+                this.end = end;
+                this.first = first;
+            }
+
+            /**
+             * @see java.util.concurrent.RecursiveAction#compute()
+             */
+            protected void compute() {
+                double[] sum = sums[chunk];
+                double[] total = totals[chunk];
+                Arrays.fill(sum, 0);
+                Arrays.fill(total, 0);
+                boolean any = false;
+                for (int i = start; i < end; i++) {
+                    int a = assignments[i];
+                    if (!first) {
+                        // the centers moved so loosen the bounds
+                        upper[i] += moved[a];
+                        lower[i] -= a == maxMover ? secondMoved : maxMoved;
+                    }
+                    double bound = Math.max(half[a], lower[i]);
+                    if (first || upper[i] > bound) {
+                        if (!first) {
+                            upper[i] = distance(points, i, centers, a);
+                        }
+                        if (first || upper[i] > bound) {
+                            // find the closest two centers
+                            double best = Double.POSITIVE_INFINITY;
+                            double second = Double.POSITIVE_INFINITY;
+                            int closest = 0;
+                            for (int j = 0; j < k; j++) {
+                                double d = distance(points, i, centers, j);
+                                if (d < best) {
+                                    second = best;
+                                    best = d;
+                                    closest = j;
+                                } else if (d < second) {
+                                    second = d;
+                                }
+                            }
+                            if (first || closest != a) {
+                                any = true;
+                            }
+                            assignments[i] = closest;
+                            upper[i] = best;
+                            lower[i] = second;
+                            a = closest;
+                        }
+                    }
+                    // add the point to its center
+                    double weight = weights[i];
+                    int row = i * dimensions, center = a * dimensions;
+                    for (int m = 0; m < dimensions; m++) {
+                        sum[center + m] += weight * points[row + m];
+                    }
+                    total[a] += weight;
+                }
+                changed[chunk] = any;
+            }
+        }
+    }
+
     /**
      * @see func.FunctionApproximater#value(shared.Instance)
      */
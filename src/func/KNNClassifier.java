@@ -3,7 +3,9 @@ package func;
 import dist.*;
 import dist.Distribution;
 import dist.DiscreteDistribution;
+import func.inst.FlatKDTree;
 import func.inst.KDTree;
+import func.inst.NearestNeighbors;
 import shared.*;
 import shared.DataSet;
 import shared.DataSetDescription;
@@ -45,6 +47,11 @@ public class KNNClassifier extends AbstractConditionalDistribution implements Fu
      * The tree
      */
     private KDTree tree;
+
+    /**
+     * The flat tree used instead for euclidean distance
+     */
+    private FlatKDTree flatTree;
     
     /**
      * Make a new knn classifier
@@ -102,7 +109,60 @@ public class KNNClassifier extends AbstractConditionalDistribution implements Fu
             examples.setDescription(new DataSetDescription(examples));
         }
         classRange = examples.getDescription().getLabelDescription().getDiscreteRange();
-        tree = new KDTree(examples, distanceMeasure);
+        if (distanceMeasure.getClass() == EuclideanDistance.class && range <= 0) {
+            flatTree = new FlatKDTree(examples);
+            tree = null;
+        } else {
+            tree = new KDTree(examples, distanceMeasure);
+            flatTree = null;
+        }
+    }
+
+    /**
+     * Get the class distributions for a batch of data,
+     * searching for the neighbors in parallel when possible
+     * @param queries the data
+     * @return the class distributions
+     */
+    public Distribution[] distributionsFor(DataSet queries) {
+        Distribution[] distributions = new Distribution[queries.size()];
+        if (flatTree == null) {
+            for (int i = 0; i < distributions.length; i++) {
+                distributions[i] = distributionFor(queries.get(i));
+            }
+            return distributions;
+        }
+        NearestNeighbors neighbors = flatTree.knnBatch(queries, k);
+        for (int i = 0; i < distributions.length; i++) {
+            distributions[i] = distributionFor(neighbors, i);
+        }
+        return distributions;
+    }
+
+    /**
+     * Get the class distribution from the results of a flat tree search
+     * @param neighbors the search results
+     * @param query the index of the query in the results
+     * @return the class distribution
+     */
+    private Distribution distributionFor(NearestNeighbors neighbors, int query) {
+        double[] distribution = new double[classRange];
+        DataSet examples = flatTree.getDataSet();
+        for (int i = 0; i < neighbors.getK(); i++) {
+            int index = neighbors.getIndex(query, i);
+            if (index < 0) {
+                break;
+            }
+            Instance neighbor = examples.get(index);
+            if (weightByDistance) {
+                distribution[neighbor.getLabel().getDiscrete()] +=
+                     neighbor.getWeight()/neighbors.getDistance(query, i);
+            } else {
+                distribution[neighbor.getLabel().getDiscrete()] +=
+                     neighbor.getWeight();
+            }
+        }
+        return normalize(distribution);
     }
     
     /**
@@ -111,6 +171,9 @@ public class KNNClassifier extends AbstractConditionalDistribution implements Fu
      * @return the class distribution
      */
     public Distribution distributionFor(Instance data) {
+        if (flatTree != null) {
+            return distributionFor(flatTree.knn(data, k), 0);
+        }
         double[] distribution = new double[classRange];
         Object[] results;
         if (range > 0) {
@@ -128,6 +191,15 @@ public class KNNClassifier extends AbstractConditionalDistribution implements Fu
                      neighbor.getWeight();
             }
         }
+        return normalize(distribution);
+    }
+
+    /**
+     * Normalize the class weights into a distribution
+     * @param distribution the class weights
+     * @return the class distribution
+     */
+    private Distribution normalize(double[] distribution) {
         double sum = 0;
         for (int i = 0; i < distribution.length; i++) {
             sum += distribution[i];
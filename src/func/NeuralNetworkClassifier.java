@@ -104,7 +104,7 @@ public class NeuralNetworkClassifier extends AbstractConditionalDistribution imp
     public Distribution distributionFor(Instance input) {
         network.setInputValues(input.getData());
         network.run();
-        if (network.getOutputLayer().getNodeCount() > 1) {
+        if (network.getOutputValues().size() > 1) {
             return new DiscreteDistribution(
                 network.getOutputValues());            
         } else {
@@ -0,0 +1,459 @@
+package func.inst;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import shared.DataSet;
+import shared.Instance;
+
+/**
+ * A kd tree stored in flat arrays for squared euclidean distance,
+ * the same distance as shared.EuclideanDistance.  The tree is bulk
+ * loaded by splitting each node at the median of its widest dimension
+ * until it holds at most a bucket of points, and the coordinates are
+ * stored contiguously in leaf order so a bucket is scanned in one
+ * pass.  Searches track the distance from the query to each cell
+ * incrementally and only visit cells that could hold a closer point.
+ * Batches of queries are run in parallel and return their neighbors
+ * as indices into the data set the tree was built from.
+ * @version 1.0
+ */
+public class FlatKDTree implements Serializable {
+
+    /**
+     * The default number of points in a leaf bucket
+     */
+    public static final int DEFAULT_BUCKET_SIZE = 16;
+
+    /**
+     * The number of queries a batch task runs without splitting
+     */
+    private static final int QUERY_CHUNK = 256;
+
+    /**
+     * The data set the tree was built from
+     */
+    private DataSet keys;
+
+    /**
+     * The dimensionality of the tree
+     */
+    private int dimensions;
+
+    /**
+     * The coordinates of the points in leaf order
+     */
+    private double[] coordinates;
+
+    /**
+     * The index in the data set of each point in leaf order
+     */
+    private int[] indices;
+
+    /**
+     * The first point of each node
+     */
+    private int[] low;
+
+    /**
+     * The end of the points of each node
+     */
+    private int[] high;
+
+    /**
+     * The left child of each node, the right child follows it,
+     * or -1 for a leaf
+     */
+    private int[] left;
+
+    /**
+     * The split dimension of each node
+     */
+    private int[] splitDimension;
+
+    /**
+     * The split value of each node
+     */
+    private double[] splitValue;
+
+    /**
+     * The number of nodes
+     */
+    private int nodeCount;
+
+    /**
+     * Build a tree
+     * @param keys the points
+     * @param bucketSize the most points in a leaf
+     */
+    public FlatKDTree(DataSet keys, int bucketSize) {
+        this.keys = keys;
+        int size = keys.size();
+        dimensions = size == 0 ? 0 : keys.get(0).size();
+        // gather the points into one array
+        double[] data = new double[size * dimensions];
+        for (int i = 0; i < size; i++) {
+            Instance key = keys.get(i);
+            for (int j = 0; j < dimensions; j++) {
+                data[i * dimensions + j] = key.getContinuous(j);
+            }
+        }
+        indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        int capacity = 4 * (size / Math.max(1, bucketSize)) + 4;
+        low = new int[capacity];
+        high = new int[capacity];
+        left = new int[capacity];
+        splitDimension = new int[capacity];
+        splitValue = new double[capacity];
+        nodeCount = 1;
+        build(0, 0, size, data, Math.max(1, bucketSize));
+        // lay the coordinates out in leaf order
+        coordinates = new double[size * dimensions];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(data, indices[i] * dimensions,
+                coordinates, i * dimensions, dimensions);
+        }
+    }
+
+    /**
+     * Build a tree with the default bucket size
+     * @param keys the points
+     */
+    public FlatKDTree(DataSet keys) {
+        this(keys, DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * Build a node and its children
+     * @param node the node
+     * @param start the first point
+     * @param end the end of the points
+     * @param data the coordinates in data set order
+     * @param bucketSize the most points in a leaf
+     */
+    private void build(int node, int start, int end, double[] data, int bucketSize) {
+        low[node] = start;
+        high[node] = end;
+        left[node] = -1;
+        if (end - start <= bucketSize) {
+            return;
+        }
+        // split the widest dimension
+        int dimension = 0;
+        double widest = -1;
+        for (int j = 0; j < dimensions; j++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int i = start; i < end; i++) {
+                double value = data[indices[i] * dimensions + j];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widest) {
+                widest = max - min;
+                dimension = j;
+            }
+        }
+        if (widest <= 0) {
+            // all of the points are the same
+            return;
+        }
+        int middle = (start + end) >>> 1;
+        select(data, dimension, start, end, middle);
+        if (nodeCount + 2 > left.length) {
+            int capacity = left.length * 2;
+            low = Arrays.copyOf(low, capacity);
+            high = Arrays.copyOf(high, capacity);
+            left = Arrays.copyOf(left, capacity);
+            splitDimension = Arrays.copyOf(splitDimension, capacity);
+            splitValue = Arrays.copyOf(splitValue, capacity);
+        }
+        int child = nodeCount;
+        nodeCount += 2;
+        left[node] = child;
+        splitDimension[node] = dimension;
+        splitValue[node] = data[indices[middle] * dimensions + dimension];
+        build(child, start, middle, data, bucketSize);
+        build(child + 1, middle, end, data, bucketSize);
+    }
+
+    /**
+     * Reorder the points so that the nth point is in its sorted
+     * position along a dimension, with no greater points before
+     * it and no smaller points after it
+     * @param data the coordinates in data set order
+     * @param dimension the dimension
+     * @param start the first point
+     * @param end the end of the points
+     * @param n the position to select
+     */
+    private void select(double[] data, int dimension, int start, int end, int n) {
+        int lo = start, hi = end - 1;
+        while (hi > lo) {
+            // median of three pivot
+            int mid = (lo + hi) >>> 1;
+            double a = data[indices[lo] * dimensions + dimension];
+            double b = data[indices[mid] * dimensions + dimension];
+            double c = data[indices[hi] * dimensions + dimension];
+            double pivot = a < b ? (b < c ? b : (a < c ? c : a)) : (a < c ? a : (b < c ? c : b));
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (data[indices[i] * dimensions + dimension] < pivot) {
+                    i++;
+                }
+                while (data[indices[j] * dimensions + dimension] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int temp = indices[i];
+                    indices[i] = indices[j];
+                    indices[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+            if (n <= j) {
+                hi = j;
+            } else if (n >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the data set the tree was built from
+     * @return the data set
+     */
+    public DataSet getDataSet() {
+        return keys;
+    }
+
+    /**
+     * Perform a k nearest neighbor search
+     * @param target the target of the search
+     * @param k how many neighbors to find
+     * @return the neighbors
+     */
+    public NearestNeighbors knn(Instance target, int k) {
+        NearestNeighbors results = new NearestNeighbors(1, k);
+        new Search(k).run(target, results, 0);
+        return results;
+    }
+
+    /**
+     * Perform k nearest neighbor searches for a batch
+     * of queries in the common pool
+     * @param queries the queries
+     * @param k how many neighbors to find for each
+     * @return the neighbors
+     */
+    public NearestNeighbors knnBatch(DataSet queries, int k) {
+        return knnBatch(queries, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Perform k nearest neighbor searches for a batch of queries
+     * @param queries the queries
+     * @param k how many neighbors to find for each
+     * @param pool the pool to run in
+     * @return the neighbors
+     */
+    public NearestNeighbors knnBatch(DataSet queries, int k, ForkJoinPool pool) {
+        NearestNeighbors results = new NearestNeighbors(queries.size(), k);
+        pool.invoke(new Batch(queries, k, results, 0, queries.size()));
+        return results;
+    }
+
+    /**
+     * Runs a range of the queries of a batch, splitting
+     * the range in half while it is large
+     */
+    private class Batch extends RecursiveAction {
+        /** The queries */
+        private DataSet queries;
+        /** The k value */
+        private int k;
+        /** The results to fill */
+        private NearestNeighbors results;
+        /** The first query */
+        private int start;
+        /** The end of the queries */
+        private int end;
+
+        /**
+         * Make a new batch
+         * @param queries the queries
+         * @param k the k value
+         * @param results the results to fill
+         * @param start the first query
+         * @param end the end of the queries
+         */
+        public Batch(DataSet queries, int k, NearestNeighbors results,
+                int start, int end) {
+            this.queries = queries;
+            this.k = k;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            if (end - start > QUERY_CHUNK) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new Batch(queries, k, results, start, middle),
+                    new Batch(queries, k, results, middle, end));
+                return;
+            }
+            Search search = new Search(k);
+            for (int i = start; i < end; i++) {
+                search.run(queries.get(i), results, i);
+            }
+        }
+    }
+
+    /**
+     * The buffers of one thread's searches
+     */
+    private class Search {
+        /** The query coordinates */
+        private double[] query;
+        /** The distance from the query to the current cell in each dimension */
+        private double[] offsets;
+        /** The max heap of neighbor distances */
+        private double[] heapDistances;
+        /** The max heap of neighbor indices */
+        private int[] heapIndices;
+        /** The number of neighbors in the heap */
+        private int count;
+        /** The k value */
+        private int k;
+
+        /**
+         * Make a new search
+         * @param k the number of neighbors to find
+         */
+        public Search(int k) {
+            this.k = k;
+            query = new double[dimensions];
+            offsets = new double[dimensions];
+            heapDistances = new double[k];
+            heapIndices = new int[k];
+        }
+
+        /**
+         * Run a search and store its results
+         * @param target the target
+         * @param results the results
+         * @param q the index of the query in the results
+         */
+        public void run(Instance target, NearestNeighbors results, int q) {
+            for (int j = 0; j < dimensions; j++) {
+                query[j] = target.getContinuous(j);
+            }
+            Arrays.fill(offsets, 0);
+            count = 0;
+            if (k > 0 && indices.length > 0) {
+                search(0, 0);
+            }
+            int[] resultIndices = results.getIndices();
+            double[] resultDistances = results.getDistances();
+            int base = q * k;
+            for (int i = count; i < k; i++) {
+                resultIndices[base + i] = -1;
+                resultDistances[base + i] = Double.POSITIVE_INFINITY;
+            }
+            // pop the farthest first to sort nearest first
+            while (count > 0) {
+                resultIndices[base + count - 1] = heapIndices[0];
+                resultDistances[base + count - 1] = heapDistances[0];
+                count--;
+                sift(heapDistances[count], heapIndices[count]);
+            }
+        }
+
+        /**
+         * Search a node
+         * @param node the node
+         * @param distance the squared distance from the query to the node's cell
+         */
+        private void search(int node, double distance) {
+            int child = left[node];
+            if (child < 0) {
+                for (int p = low[node]; p < high[node]; p++) {
+                    int base = p * dimensions;
+                    double sum = 0;
+                    for (int j = 0; j < dimensions; j++) {
+                        double difference = coordinates[base + j] - query[j];
+                        sum += difference * difference;
+                    }
+                    if (count < k) {
+                        // grow the heap and sift the new point up
+                        int i = count++;
+                        while (i > 0) {
+                            int parent = (i - 1) >>> 1;
+                            if (heapDistances[parent] >= sum) {
+                                break;
+                            }
+                            heapDistances[i] = heapDistances[parent];
+                            heapIndices[i] = heapIndices[parent];
+                            i = parent;
+                        }
+                        heapDistances[i] = sum;
+                        heapIndices[i] = indices[p];
+                    } else if (sum < heapDistances[0]) {
+                        sift(sum, indices[p]);
+                    }
+                }
+                return;
+            }
+            int dimension = splitDimension[node];
+            double difference = query[dimension] - splitValue[node];
+            int near = difference < 0 ? child : child + 1;
+            search(near, distance);
+            double old = offsets[dimension];
+            double farDistance = distance - old * old + difference * difference;
+            if (count < k || farDistance < heapDistances[0]) {
+                offsets[dimension] = difference;
+                search(near == child ? child + 1 : child, farDistance);
+                offsets[dimension] = old;
+            }
+        }
+
+        /**
+         * Replace the top of the heap and sift it down
+         * @param distance the new distance
+         * @param index the new index
+         */
+        private void sift(double distance, int index) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= count) {
+                    break;
+                }
+                if (child + 1 < count && heapDistances[child + 1] > heapDistances[child]) {
+                    child++;
+                }
+                if (heapDistances[child] <= distance) {
+                    break;
+                }
+                heapDistances[i] = heapDistances[child];
+                heapIndices[i] = heapIndices[child];
+                i = child;
+            }
+            if (count > 0) {
+                heapDistances[i] = distance;
+                heapIndices[i] = index;
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package func.inst;
+
+/**
+ * The results of a batch of k nearest neighbor searches, stored
+ * as flat arrays with k entries per query, nearest first.  Queries
+ * with fewer than k neighbors have their remaining entries set to
+ * an index of -1 and an infinite distance.
+ * @version 1.0
+ */
+public class NearestNeighbors {
+
+    /**
+     * The number of neighbors per query
+     */
+    private int k;
+
+    /**
+     * The indices of the neighbors in the tree's data set
+     */
+    private int[] indices;
+
+    /**
+     * The distances of the neighbors
+     */
+    private double[] distances;
+
+    /**
+     * Make a new set of results
+     * @param queries the number of queries
+     * @param k the number of neighbors per query
+     */
+    public NearestNeighbors(int queries, int k) {
+        this.k = k;
+        indices = new int[queries * k];
+        distances = new double[queries * k];
+    }
+
+    /**
+     * Get the number of neighbors per query
+     * @return the k value
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Get the number of queries
+     * @return the number of queries
+     */
+    public int size() {
+        return k == 0 ? 0 : indices.length / k;
+    }
+
+    /**
+     * Get the index of a neighbor of a query
+     * @param query the query
+     * @param i the rank of the neighbor, zero for the nearest
+     * @return the index in the tree's data set or -1 for none
+     */
+    public int getIndex(int query, int i) {
+        return indices[query * k + i];
+    }
+
+    /**
+     * Get the distance of a neighbor of a query
+     * @param query the query
+     * @param i the rank of the neighbor, zero for the nearest
+     * @return the distance
+     */
+    public double getDistance(int query, int i) {
+        return distances[query * k + i];
+    }
+
+    /**
+     * Get all of the neighbor indices, k per query
+     * @return the indices
+     */
+    public int[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * Get all of the neighbor distances, k per query
+     * @return the distances
+     */
+    public double[] getDistances() {
+        return distances;
+    }
+}
@@ -5,6 +5,8 @@ package func.nn;
 import java.io.Serializable;
 import java.util.Random;
 
+import util.StreamRandom;
+
 /**
  * A link between two nodes in a neural network
  * @author Andrew Guillory gtg008g@mail.gatech.edu
@@ -14,7 +16,7 @@ public class Link implements Serializable {
     /**
      * The random number generator
      */
-    public static Random random = new Random();
+    public static Random random = new StreamRandom();
 	
 	/**
 	 * The weight
@@ -15,6 +15,27 @@ import func.nn.activation.LogisticSigmoid;
  */
 public class BackPropagationNetworkFactory {
 
+    /**
+     * Whether to make dense networks
+     */
+    private boolean dense;
+
+    /**
+     * Make a new factory that makes linked networks
+     */
+    public BackPropagationNetworkFactory() {
+    }
+
+    /**
+     * Make a new factory
+     * @param dense whether to make dense matrix backed networks,
+     * whose weights are laid out the same as the linked networks'
+     * @see DenseBackPropagationNetwork
+     */
+    public BackPropagationNetworkFactory(boolean dense) {
+        this.dense = dense;
+    }
+
     /**
      * Create a multilayer perceptron
      * @param nodeCounts the number of nodes in each layer
@@ -29,6 +50,10 @@ public class BackPropagationNetworkFactory {
 		if (nodeCounts.length < 2) {
 			throw new IllegalArgumentException();
 		}
+		if (dense) {
+		    return new DenseBackPropagationNetwork(nodeCounts, transfer, outputFunction,
+		        outputLayer instanceof BackPropagationSoftMaxOutputLayer);
+		}
 		BackPropagationNetwork network = new BackPropagationNetwork();
 		
         // create the input layer
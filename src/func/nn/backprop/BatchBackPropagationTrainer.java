@@ -11,6 +11,11 @@ import func.nn.NetworkTrainer;
  * @version 1.0
  */
 public class BatchBackPropagationTrainer extends NetworkTrainer {
+
+    /**
+     * The number of patterns a dense network runs at once
+     */
+    private static final int BLOCK = 256;
     
     /**
      * The weight update rule to use
@@ -41,15 +46,32 @@ public class BatchBackPropagationTrainer extends NetworkTrainer {
             (GradientErrorMeasure) getErrorMeasure();
         DataSet patterns = getDataSet();
         double error = 0;
-        for (int i = 0; i < patterns.size(); i++) {
-            Instance pattern = patterns.get(i);
-            network.setInputValues(pattern.getData());
-            network.run();
-            Instance output = new Instance(network.getOutputValues());
-            double[] errors = measure.gradient(output, pattern);
-            error += measure.value(output, pattern);
-            network.setOutputErrors(errors);
-            network.backpropagate();
+        if (network instanceof DenseBackPropagationNetwork) {
+            // run blocks of patterns through the matrix kernels
+            DenseBackPropagationNetwork dense = (DenseBackPropagationNetwork) network;
+            Instance[] instances = patterns.getInstances();
+            for (int start = 0; start < instances.length; start += BLOCK) {
+                int size = Math.min(BLOCK, instances.length - start);
+                dense.run(instances, start, size);
+                for (int b = 0; b < size; b++) {
+                    Instance pattern = instances[start + b];
+                    Instance output = new Instance(dense.getOutputValues(b));
+                    error += measure.value(output, pattern);
+                    dense.setOutputErrors(b, measure.gradient(output, pattern));
+                }
+                dense.backpropagate();
+            }
+        } else {
+            for (int i = 0; i < patterns.size(); i++) {
+                Instance pattern = patterns.get(i);
+                network.setInputValues(pattern.getData());
+                network.run();
+                Instance output = new Instance(network.getOutputValues());
+                double[] errors = measure.gradient(output, pattern);
+                error += measure.value(output, pattern);
+                network.setOutputErrors(errors);
+                network.backpropagate();
+            }
         }
         network.updateWeights(rule);
         network.clearError();
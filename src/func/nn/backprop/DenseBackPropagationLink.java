@@ -0,0 +1,53 @@
+package func.nn.backprop;
+
+/**
+ * A link whose weight lives in the weight array of a dense
+ * back propagation network.  These links are only views, they are
+ * not connected to any nodes, and they exist so that any weight
+ * update rule can be applied to a dense network.
+ * @version 1.0
+ */
+public class DenseBackPropagationLink extends BackPropagationLink {
+
+    /**
+     * The weights of the network
+     */
+    private double[] weights;
+
+    /**
+     * The index of this link's weight
+     */
+    private int index;
+
+    /**
+     * Make a new dense link
+     * @param weights the weights of the network
+     * @param index the index of the weight
+     */
+    public DenseBackPropagationLink(double[] weights, int index) {
+        this.weights = weights;
+        this.index = index;
+    }
+
+    /**
+     * @see func.nn.Link#getWeight()
+     */
+    public double getWeight() {
+        return weights[index];
+    }
+
+    /**
+     * @see func.nn.Link#setWeight(double)
+     */
+    public void setWeight(double weight) {
+        weights[index] = weight;
+    }
+
+    /**
+     * @see func.nn.backprop.BackPropagationLink#changeWeight(double)
+     */
+    public void changeWeight(double delta) {
+        super.changeWeight(delta);
+        weights[index] += delta;
+    }
+}
@@ -0,0 +1,593 @@
+package func.nn.backprop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import shared.Instance;
+import func.nn.Layer;
+import func.nn.Link;
+import func.nn.Neuron;
+import func.nn.activation.DifferentiableActivationFunction;
+import util.linalg.DenseVector;
+import util.linalg.Vector;
+
+/**
+ * A back propagation network that stores each layer as a contiguous
+ * weight matrix instead of as nodes and links.  All of the weights
+ * live in one array, layer after layer, each layer being one row of
+ * weights per node with the bias weight last.  A hidden layer's rows
+ * are followed by the weights of the links into its bias node, which
+ * the network never uses, so the weights line up one for one with the
+ * links of the linked network the factory makes.  The forward and
+ * backward passes are blocked matrix kernels over a batch of patterns,
+ * and the single pattern methods of the network are the batch of one.
+ * Link and layer views are made on demand so that any weight update
+ * rule can train the network and layered network callers can read it.
+ * The layers are fixed by the node counts, so they cannot be set.
+ * @version 1.0
+ */
+public class DenseBackPropagationNetwork extends BackPropagationNetwork {
+
+    /**
+     * The number of nodes in each layer, not counting bias nodes
+     */
+    private int[] nodeCounts;
+
+    /**
+     * The transfer function of each layer, null for the input layer
+     */
+    private DifferentiableActivationFunction[] functions;
+
+    /**
+     * Whether the output layer is a soft max layer
+     */
+    private boolean softMax;
+
+    /**
+     * All of the weights
+     */
+    private double[] weights;
+
+    /**
+     * The error derivatives of all of the weights
+     */
+    private double[] gradient;
+
+    /**
+     * The start of each layer's weights, layer zero has none
+     */
+    private int[] offsets;
+
+    /**
+     * The activations of each layer for the current batch
+     */
+    private double[][] activations;
+
+    /**
+     * The weighted input sums of each layer for the current batch
+     */
+    private double[][] sums;
+
+    /**
+     * The input errors of each layer for the current batch
+     */
+    private double[][] errors;
+
+    /**
+     * The number of patterns the buffers can hold
+     */
+    private int capacity;
+
+    /**
+     * The number of patterns in the current batch
+     */
+    private int count;
+
+    /**
+     * The link views of the weights
+     */
+    private List<BackPropagationLink> links;
+
+    /**
+     * The layer views, input layer first
+     */
+    private List<Layer> layers;
+
+    /**
+     * Whether the link errors hold the current gradient
+     */
+    private boolean linkErrors;
+
+    /**
+     * Make a new dense network with weights initialized
+     * the same way as links are
+     * @param nodeCounts the number of nodes in each layer
+     * @param transfers the transfer function for each hidden layer,
+     * indexed by layer
+     * @param outputFunction the output transfer function
+     * @param softMax whether the output layer is a soft max layer
+     */
+    public DenseBackPropagationNetwork(int[] nodeCounts,
+            DifferentiableActivationFunction[] transfers,
+            DifferentiableActivationFunction outputFunction, boolean softMax) {
+        if (nodeCounts.length < 2) {
+            throw new IllegalArgumentException();
+        }
+        this.nodeCounts = nodeCounts.clone();
+        this.softMax = softMax;
+        int layers = nodeCounts.length;
+        functions = new DifferentiableActivationFunction[layers];
+        for (int i = 1; i < layers - 1; i++) {
+            functions[i] = transfers[i];
+        }
+        functions[layers - 1] = outputFunction;
+        offsets = new int[layers];
+        int size = 0;
+        for (int i = 1; i < layers; i++) {
+            offsets[i] = size;
+            size += nodeCounts[i] * (nodeCounts[i - 1] + 1);
+            if (i < layers - 1) {
+                // the unused links into the bias node
+                size += nodeCounts[i - 1];
+            }
+        }
+        weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = Link.random.nextDouble() * 2 - 1;
+        }
+        gradient = new double[size];
+        activations = new double[layers][];
+        sums = new double[layers][];
+        errors = new double[layers][];
+        ensureCapacity(1);
+        count = 1;
+    }
+
+    /**
+     * Make a replica of a network that shares its weights
+     * but has its own gradient and buffers
+     * @param network the network to replicate
+     */
+    private DenseBackPropagationNetwork(DenseBackPropagationNetwork network) {
+        nodeCounts = network.nodeCounts;
+        functions = network.functions;
+        softMax = network.softMax;
+        weights = network.weights;
+        offsets = network.offsets;
+        gradient = new double[weights.length];
+        int layers = nodeCounts.length;
+        activations = new double[layers][];
+        sums = new double[layers][];
+        errors = new double[layers][];
+        ensureCapacity(1);
+        count = 1;
+    }
+
+    /**
+     * Make a replica of this network that shares its weights but
+     * has its own gradient and buffers, so that several threads can
+     * run and back propagate patterns at once while the weights
+     * are not being changed
+     * @return the replica
+     */
+    public DenseBackPropagationNetwork replicate() {
+        return new DenseBackPropagationNetwork(this);
+    }
+
+    /**
+     * Get the number of nodes in each layer, not counting bias nodes
+     * @return the node counts
+     */
+    public int[] getNodeCounts() {
+        return nodeCounts;
+    }
+
+    /**
+     * Get the number of outputs
+     * @return the number of outputs
+     */
+    public int getOutputCount() {
+        return nodeCounts[nodeCounts.length - 1];
+    }
+
+    /**
+     * Make sure the buffers can hold a batch
+     * @param patterns the size of the batch
+     */
+    private void ensureCapacity(int patterns) {
+        if (patterns <= capacity) {
+            return;
+        }
+        capacity = patterns;
+        for (int i = 0; i < nodeCounts.length; i++) {
+            activations[i] = new double[capacity * nodeCounts[i]];
+            if (i > 0) {
+                sums[i] = new double[capacity * nodeCounts[i]];
+                errors[i] = new double[capacity * nodeCounts[i]];
+            }
+        }
+    }
+
+    /**
+     * Run the network on a batch of inputs
+     * @param inputs the inputs, one row of input values per pattern
+     * @param patterns the number of patterns
+     * @return the outputs, one row of output values per pattern,
+     * which are only valid until the network is run again
+     */
+    public double[] run(double[] inputs, int patterns) {
+        ensureCapacity(patterns);
+        count = patterns;
+        System.arraycopy(inputs, 0, activations[0], 0, patterns * nodeCounts[0]);
+        feedforward();
+        return activations[nodeCounts.length - 1];
+    }
+
+    /**
+     * Run the network on a batch of patterns
+     * @param patterns the patterns
+     * @param start the first pattern of the batch
+     * @param size the number of patterns in the batch
+     * @return the outputs, one row of output values per pattern,
+     * which are only valid until the network is run again
+     */
+    public double[] run(Instance[] patterns, int start, int size) {
+        ensureCapacity(size);
+        count = size;
+        double[] input = activations[0];
+        int inputs = nodeCounts[0];
+        for (int b = 0; b < size; b++) {
+            Vector values = patterns[start + b].getData();
+            for (int i = 0; i < inputs; i++) {
+                input[b * inputs + i] = values.get(i);
+            }
+        }
+        feedforward();
+        return activations[nodeCounts.length - 1];
+    }
+
+    /**
+     * Get the output values of one pattern of the last batch run
+     * @param pattern the index of the pattern in the batch
+     * @return the output values
+     */
+    public Vector getOutputValues(int pattern) {
+        double[] output = new double[getOutputCount()];
+        System.arraycopy(activations[nodeCounts.length - 1], pattern * output.length,
+            output, 0, output.length);
+        return new DenseVector(output);
+    }
+
+    /**
+     * Set the output errors of one pattern of the last batch run,
+     * to be back propagated with the rest of the batch
+     * @param pattern the index of the pattern in the batch
+     * @param outputErrors the output errors
+     */
+    public void setOutputErrors(int pattern, double[] outputErrors) {
+        int outputs = getOutputCount();
+        System.arraycopy(outputErrors, 0, errors[nodeCounts.length - 1],
+            pattern * outputs, outputs);
+    }
+
+    /**
+     * Calculate the activations of every layer for the current batch
+     */
+    private void feedforward() {
+        int last = nodeCounts.length - 1;
+        for (int l = 1; l <= last; l++) {
+            double[] sum = sums[l];
+            double[] activation = activations[l];
+            int size = count * nodeCounts[l];
+            DenseLayerKernels.forward(activations[l - 1], count, nodeCounts[l - 1],
+                weights, offsets[l], nodeCounts[l], sum);
+            if (l == last && softMax) {
+                int outputs = nodeCounts[l];
+                for (int b = 0; b < count; b++) {
+                    int start = b * outputs;
+                    // trick stolen from Torch library for preventing overflows
+                    double shift = sum[start];
+                    for (int i = 1; i < outputs; i++) {
+                        shift = Math.max(shift, sum[start + i]);
+                    }
+                    double total = 0;
+                    for (int i = 0; i < outputs; i++) {
+                        activation[start + i] = Math.exp(sum[start + i] - shift);
+                        total += activation[start + i];
+                    }
+                    for (int i = 0; i < outputs; i++) {
+                        activation[start + i] /= total;
+                    }
+                }
+            } else {
+                DifferentiableActivationFunction function = functions[l];
+                for (int i = 0; i < size; i++) {
+                    activation[i] = function.value(sum[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Back propagate the output layer errors of the current batch
+     */
+    private void backpropagateErrors() {
+        for (int l = nodeCounts.length - 1; l > 0; l--) {
+            DenseLayerKernels.gradient(errors[l], activations[l - 1], count,
+                nodeCounts[l - 1], nodeCounts[l], gradient, offsets[l]);
+            if (l > 1) {
+                double[] previous = errors[l - 1];
+                double[] sum = sums[l - 1];
+                DifferentiableActivationFunction function = functions[l - 1];
+                DenseLayerKernels.backward(errors[l], count, weights, offsets[l],
+                    nodeCounts[l - 1], nodeCounts[l], previous);
+                int size = count * nodeCounts[l - 1];
+                for (int i = 0; i < size; i++) {
+                    previous[i] *= function.derivative(sum[i]);
+                }
+            }
+        }
+        linkErrors = false;
+    }
+
+    /**
+     * @see func.nn.NeuralNetwork#setInputValues(util.linalg.Vector)
+     */
+    public void setInputValues(Vector values) {
+        count = 1;
+        double[] input = activations[0];
+        for (int i = 0; i < values.size(); i++) {
+            input[i] = values.get(i);
+        }
+    }
+
+    /**
+     * @see func.nn.NeuralNetwork#run()
+     */
+    public void run() {
+        feedforward();
+    }
+
+    /**
+     * @see func.nn.NeuralNetwork#getOutputValues()
+     */
+    public Vector getOutputValues() {
+        return getOutputValues(0);
+    }
+
+    /**
+     * @see func.nn.LayeredNetwork#getDiscreteOutputValue()
+     */
+    public int getDiscreteOutputValue() {
+        double[] output = activations[nodeCounts.length - 1];
+        int best = 0;
+        for (int i = 1; i < getOutputCount(); i++) {
+            if (output[i] > output[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @see func.nn.LayeredNetwork#getBinaryOutputValue()
+     */
+    public boolean getBinaryOutputValue() {
+        return activations[nodeCounts.length - 1][0] > .5;
+    }
+
+    /**
+     * @see func.nn.backprop.BackPropagationNetwork#setOutputErrors(double[])
+     */
+    public void setOutputErrors(double[] outputErrors) {
+        setOutputErrors(0, outputErrors);
+    }
+
+    /**
+     * Back propagate the output errors of the current batch,
+     * adding to the error derivatives of the weights
+     * @see func.nn.backprop.BackPropagationNetwork#backpropagate()
+     */
+    public void backpropagate() {
+        backpropagateErrors();
+    }
+
+    /**
+     * @see func.nn.backprop.BackPropagationNetwork#updateWeights(func.nn.backprop.WeightUpdateRule)
+     */
+    public void updateWeights(WeightUpdateRule rule) {
+        List<BackPropagationLink> links = getLinks();
+        for (int i = 0; i < gradient.length; i++) {
+            BackPropagationLink link = links.get(i);
+            link.setError(gradient[i]);
+            rule.update(link);
+        }
+        linkErrors = true;
+    }
+
+    /**
+     * @see func.nn.backprop.BackPropagationNetwork#clearError()
+     */
+    public void clearError() {
+        if (links != null) {
+            for (int i = 0; i < gradient.length; i++) {
+                BackPropagationLink link = links.get(i);
+                if (!linkErrors) {
+                    link.setError(gradient[i]);
+                }
+                link.clearError();
+            }
+        }
+        linkErrors = true;
+        Arrays.fill(gradient, 0);
+    }
+
+    /**
+     * Get the error derivatives of the weights, laid out like the weights
+     * @return the error derivatives
+     */
+    public double[] getGradient() {
+        return gradient;
+    }
+
+    /**
+     * @see func.nn.NeuralNetwork#getLinks()
+     */
+    public List<BackPropagationLink> getLinks() {
+        if (links == null) {
+            makeViews();
+        }
+        return links;
+    }
+
+    /**
+     * Make the layer views and the link views connecting them,
+     * in the same order as the linked network's links
+     */
+    private void makeViews() {
+        int last = nodeCounts.length - 1;
+        layers = new ArrayList<Layer>(nodeCounts.length);
+        for (int l = 0; l <= last; l++) {
+            Layer layer = new BackPropagationLayer();
+            for (int i = 0; i < nodeCounts[l]; i++) {
+                layer.addNode(new DenseBackPropagationNode(functions[l], activations, l, i));
+            }
+            if (l < last) {
+                layer.addNode(new BackPropagationBiasNode(1));
+            }
+            layers.add(layer);
+        }
+        links = new ArrayList<BackPropagationLink>(weights.length);
+        for (int l = 1; l <= last; l++) {
+            Layer previous = layers.get(l - 1);
+            Layer layer = layers.get(l);
+            for (int j = 0; j < layer.getNodeCount(); j++) {
+                Neuron node = layer.getNode(j);
+                // the bias node has no link from the bias node before it
+                int inputs = j < nodeCounts[l] ? nodeCounts[l - 1] + 1 : nodeCounts[l - 1];
+                for (int i = 0; i < inputs; i++) {
+                    DenseBackPropagationLink link =
+                        new DenseBackPropagationLink(weights, links.size());
+                    link.setInNode(previous.getNode(i));
+                    link.setOutNode(node);
+                    previous.getNode(i).addOutLink(link);
+                    node.addInLink(link);
+                    links.add(link);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a read only view of the input layer
+     * @see func.nn.LayeredNetwork#getInputLayer()
+     */
+    public Layer getInputLayer() {
+        getLinks();
+        return layers.get(0);
+    }
+
+    /**
+     * Get a read only view of the output layer
+     * @see func.nn.LayeredNetwork#getOutputLayer()
+     */
+    public Layer getOutputLayer() {
+        getLinks();
+        return layers.get(nodeCounts.length - 1);
+    }
+
+    /**
+     * Get a read only view of a hidden layer
+     * @see func.nn.LayeredNetwork#getHiddenLayer(int)
+     */
+    public Layer getHiddenLayer(int i) {
+        getLinks();
+        return layers.get(i + 1);
+    }
+
+    /**
+     * Get read only views of the hidden layers
+     * @see func.nn.LayeredNetwork#getHiddenLayers()
+     */
+    public List<Layer> getHiddenLayers() {
+        getLinks();
+        return Collections.unmodifiableList(layers.subList(1, nodeCounts.length - 1));
+    }
+
+    /**
+     * Unsupported, the layers are fixed by the node counts
+     * @see func.nn.LayeredNetwork#setInputLayer(func.nn.Layer)
+     */
+    public void setInputLayer(Layer layer) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Unsupported, the layers are fixed by the node counts
+     * @see func.nn.LayeredNetwork#setOutputLayer(func.nn.Layer)
+     */
+    public void setOutputLayer(Layer layer) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Unsupported, the layers are fixed by the node counts
+     * @see func.nn.LayeredNetwork#addHiddenLayer(func.nn.Layer)
+     */
+    public void addHiddenLayer(Layer layer) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @see func.nn.LayeredNetwork#getHiddenLayerCount()
+     */
+    public int getHiddenLayerCount() {
+        return nodeCounts.length - 2;
+    }
+
+    /**
+     * The weights always connect the layers, so this does nothing
+     * @see func.nn.LayeredNetwork#connect()
+     */
+    public void connect() {
+    }
+
+    /**
+     * The weights always connect the layers, so this does nothing
+     * @see func.nn.LayeredNetwork#disconnect()
+     */
+    public void disconnect() {
+    }
+
+    /**
+     * @see func.nn.NeuralNetwork#getWeightCount()
+     */
+    public int getWeightCount() {
+        return weights.length;
+    }
+
+    /**
+     * @see func.nn.NeuralNetwork#getWeights()
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    /**
+     * @see func.nn.NeuralNetwork#setWeights(double[])
+     */
+    public void setWeights(double[] values) {
+        System.arraycopy(values, 0, weights, 0, values.length);
+    }
+
+    /**
+     * @see func.nn.NeuralNetwork#setWeights(util.linalg.Vector)
+     */
+    public void setWeights(Vector values) {
+        for (int i = 0; i < values.size(); i++) {
+            weights[i] = values.get(i);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package func.nn.backprop;
+
+import func.nn.activation.DifferentiableActivationFunction;
+
+/**
+ * A node whose activation lives in the activation buffers of a
+ * dense back propagation network.  These nodes are only views that
+ * make up the layers of a dense network, they read the activation of
+ * the first pattern of the last batch run, and running or back
+ * propagating through them does nothing to the network.
+ * @version 1.0
+ */
+public class DenseBackPropagationNode extends BackPropagationNode {
+
+    /**
+     * The activations of each layer of the network
+     */
+    private double[][] activations;
+
+    /**
+     * The layer of this node
+     */
+    private int layer;
+
+    /**
+     * The index of this node in its layer
+     */
+    private int index;
+
+    /**
+     * Make a new dense node
+     * @param function the activation function
+     * @param activations the activations of each layer
+     * @param layer the layer of the node
+     * @param index the index of the node in its layer
+     */
+    public DenseBackPropagationNode(DifferentiableActivationFunction function,
+            double[][] activations, int layer, int index) {
+        super(function);
+        this.activations = activations;
+        this.layer = layer;
+        this.index = index;
+    }
+
+    /**
+     * @see func.nn.Neuron#getActivation()
+     */
+    public double getActivation() {
+        return activations[layer][index];
+    }
+
+    /**
+     * @see func.nn.Neuron#setActivation(double)
+     */
+    public void setActivation(double value) {
+        activations[layer][index] = value;
+    }
+
+    /**
+     * The network does the feeding forward, so this does nothing
+     * @see func.nn.feedfwd.FeedForwardNode#feedforward()
+     */
+    public void feedforward() { }
+
+    /**
+     * The network does the back propagation, so this does nothing
+     * @see func.nn.backprop.BackPropagationNode#backpropagate()
+     */
+    public void backpropagate() { }
+
+    /**
+     * The network does the back propagation, so this does nothing
+     * @see func.nn.backprop.BackPropagationNode#backpropagateLinks()
+     */
+    public void backpropagateLinks() { }
+}
@@ -0,0 +1,170 @@
+package func.nn.backprop;
+
+import java.util.Arrays;
+
+/**
+ * Blocked kernels for fully connected layers stored as contiguous
+ * row major weight matrices.  A layer with n inputs and m outputs
+ * is stored as m rows of n + 1 weights with the bias weight last.
+ * A batch of activations is stored as count rows of values, so the
+ * single pattern case is just a batch of one.  The kernels work on
+ * small register tiles of outputs and patterns so each weight and
+ * activation loaded is used several times, and on blocks of patterns
+ * so a tile of weights stays in cache while the block streams by.
+ * @version 1.0
+ */
+public class DenseLayerKernels {
+
+    /**
+     * The number of patterns in a cache block
+     */
+    private static final int BLOCK = 64;
+
+    /**
+     * Compute the weighted sums of a layer for a batch,
+     * sums = in * w^T + bias
+     * @param in the inputs, count rows of inputs values
+     * @param count the number of patterns
+     * @param inputs the number of inputs
+     * @param w the weights
+     * @param offset the offset of the layer in the weights
+     * @param outputs the number of outputs
+     * @param sums the sums, count rows of outputs values
+     */
+    public static void forward(double[] in, int count, int inputs,
+            double[] w, int offset, int outputs, double[] sums) {
+        int stride = inputs + 1;
+        for (int block = 0; block < count; block += BLOCK) {
+            int blockEnd = Math.min(count, block + BLOCK);
+            int j = 0;
+            for (; j + 3 < outputs; j += 4) {
+                int w0 = offset + j * stride, w1 = w0 + stride,
+                    w2 = w1 + stride, w3 = w2 + stride;
+                int b = block;
+                for (; b + 1 < blockEnd; b += 2) {
+                    int a0 = b * inputs, a1 = a0 + inputs;
+                    double s00 = w[w0 + inputs], s01 = w[w1 + inputs],
+                        s02 = w[w2 + inputs], s03 = w[w3 + inputs];
+                    double s10 = s00, s11 = s01, s12 = s02, s13 = s03;
+                    for (int i = 0; i < inputs; i++) {
+                        double x0 = in[a0 + i], x1 = in[a1 + i];
+                        double v0 = w[w0 + i], v1 = w[w1 + i],
+                            v2 = w[w2 + i], v3 = w[w3 + i];
+                        s00 += x0 * v0; s01 += x0 * v1; s02 += x0 * v2; s03 += x0 * v3;
+                        s10 += x1 * v0; s11 += x1 * v1; s12 += x1 * v2; s13 += x1 * v3;
+                    }
+                    int o0 = b * outputs + j, o1 = o0 + outputs;
+                    sums[o0] = s00; sums[o0 + 1] = s01; sums[o0 + 2] = s02; sums[o0 + 3] = s03;
+                    sums[o1] = s10; sums[o1 + 1] = s11; sums[o1 + 2] = s12; sums[o1 + 3] = s13;
+                }
+                if (b < blockEnd) {
+                    int a0 = b * inputs;
+                    double s0 = w[w0 + inputs], s1 = w[w1 + inputs],
+                        s2 = w[w2 + inputs], s3 = w[w3 + inputs];
+                    for (int i = 0; i < inputs; i++) {
+                        double x = in[a0 + i];
+                        s0 += x * w[w0 + i]; s1 += x * w[w1 + i];
+                        s2 += x * w[w2 + i]; s3 += x * w[w3 + i];
+                    }
+                    int o = b * outputs + j;
+                    sums[o] = s0; sums[o + 1] = s1; sums[o + 2] = s2; sums[o + 3] = s3;
+                }
+            }
+            for (; j < outputs; j++) {
+                int w0 = offset + j * stride;
+                for (int b = block; b < blockEnd; b++) {
+                    int a0 = b * inputs;
+                    double s = w[w0 + inputs];
+                    for (int i = 0; i < inputs; i++) {
+                        s += in[a0 + i] * w[w0 + i];
+                    }
+                    sums[b * outputs + j] = s;
+                }
+            }
+        }
+    }
+
+    /**
+     * Accumulate the weight gradient of a layer for a batch,
+     * gradient += errors^T * [in 1]
+     * @param errors the input errors of the layer, count rows of outputs values
+     * @param in the inputs, count rows of inputs values
+     * @param count the number of patterns
+     * @param inputs the number of inputs
+     * @param outputs the number of outputs
+     * @param gradient the gradient to add to, laid out like the weights
+     * @param offset the offset of the layer in the gradient
+     */
+    public static void gradient(double[] errors, double[] in, int count,
+            int inputs, int outputs, double[] gradient, int offset) {
+        int stride = inputs + 1;
+        int j = 0;
+        for (; j + 3 < outputs; j += 4) {
+            int g0 = offset + j * stride, g1 = g0 + stride,
+                g2 = g1 + stride, g3 = g2 + stride;
+            for (int b = 0; b < count; b++) {
+                int e = b * outputs + j;
+                double d0 = errors[e], d1 = errors[e + 1],
+                    d2 = errors[e + 2], d3 = errors[e + 3];
+                int a0 = b * inputs;
+                for (int i = 0; i < inputs; i++) {
+                    double x = in[a0 + i];
+                    gradient[g0 + i] += d0 * x; gradient[g1 + i] += d1 * x;
+                    gradient[g2 + i] += d2 * x; gradient[g3 + i] += d3 * x;
+                }
+                gradient[g0 + inputs] += d0; gradient[g1 + inputs] += d1;
+                gradient[g2 + inputs] += d2; gradient[g3 + inputs] += d3;
+            }
+        }
+        for (; j < outputs; j++) {
+            int g0 = offset + j * stride;
+            for (int b = 0; b < count; b++) {
+                double d = errors[b * outputs + j];
+                int a0 = b * inputs;
+                for (int i = 0; i < inputs; i++) {
+                    gradient[g0 + i] += d * in[a0 + i];
+                }
+                gradient[g0 + inputs] += d;
+            }
+        }
+    }
+
+    /**
+     * Propagate the errors of a layer back to its inputs for a batch,
+     * out = errors * w without the bias column
+     * @param errors the input errors of the layer, count rows of outputs values
+     * @param count the number of patterns
+     * @param w the weights
+     * @param offset the offset of the layer in the weights
+     * @param inputs the number of inputs
+     * @param outputs the number of outputs
+     * @param out the output errors of the previous layer, count rows of inputs values
+     */
+    public static void backward(double[] errors, int count, double[] w,
+            int offset, int inputs, int outputs, double[] out) {
+        int stride = inputs + 1;
+        for (int b = 0; b < count; b++) {
+            int o = b * inputs;
+            int e = b * outputs;
+            Arrays.fill(out, o, o + inputs, 0);
+            int j = 0;
+            for (; j + 3 < outputs; j += 4) {
+                int w0 = offset + j * stride, w1 = w0 + stride,
+                    w2 = w1 + stride, w3 = w2 + stride;
+                double d0 = errors[e + j], d1 = errors[e + j + 1],
+                    d2 = errors[e + j + 2], d3 = errors[e + j + 3];
+                for (int i = 0; i < inputs; i++) {
+                    out[o + i] += d0 * w[w0 + i] + d1 * w[w1 + i]
+                        + d2 * w[w2 + i] + d3 * w[w3 + i];
+                }
+            }
+            for (; j < outputs; j++) {
+                int w0 = offset + j * stride;
+                double d = errors[e + j];
+                for (int i = 0; i < inputs; i++) {
+                    out[o + i] += d * w[w0 + i];
+                }
+            }
+        }
+    }
+}
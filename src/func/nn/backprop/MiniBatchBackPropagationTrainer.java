@@ -0,0 +1,286 @@
+package func.nn.backprop;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import shared.DataSet;
+import shared.GradientErrorMeasure;
+import shared.Instance;
+import shared.filt.RandomOrderFilter;
+
+import func.nn.NetworkTrainer;
+
+/**
+ * A mini batch back propagation trainer.  Each call to train
+ * shuffles the patterns and makes one pass over them, updating
+ * the weights with the rule after every batch.  For a dense network
+ * each batch is split into one shard per worker, every worker runs
+ * its shard on its own replica of the network and accumulates its own
+ * gradient, and the gradients are then summed into the network before
+ * the rule is applied.  Shards are fixed by the worker count, so the
+ * result does not depend on how the shards are scheduled.  Other
+ * networks are trained one batch at a time on the calling thread.
+ * The error measure must be safe to call concurrently.
+ * @version 1.0
+ */
+public class MiniBatchBackPropagationTrainer extends NetworkTrainer {
+
+    /**
+     * The number of patterns a replica runs at once
+     */
+    private static final int BLOCK = 256;
+
+    /**
+     * The weight update rule to use
+     */
+    private WeightUpdateRule rule;
+
+    /**
+     * The number of patterns in a batch
+     */
+    private int batchSize;
+
+    /**
+     * The number of workers to split each batch across
+     */
+    private int workers;
+
+    /**
+     * The replica of the network for each worker, made on first use
+     */
+    private transient DenseBackPropagationNetwork[] replicas;
+
+    /**
+     * The error of each worker's shard
+     */
+    private double[] errors;
+
+    /**
+     * The pool to run the workers in
+     */
+    private transient ForkJoinPool pool;
+
+    /**
+     * Make a new mini batch back propagation trainer
+     * @param patterns the patterns to train on
+     * @param network the network to train
+     * @param errorMeasure the error measure to use
+     * @param rule the weight update rule
+     * @param batchSize the number of patterns in a batch
+     * @param pool the pool to run in
+     * @param workers the number of shards to split each batch into
+     */
+    public MiniBatchBackPropagationTrainer(DataSet patterns,
+            BackPropagationNetwork network,
+            GradientErrorMeasure errorMeasure,
+            WeightUpdateRule rule, int batchSize,
+            ForkJoinPool pool, int workers) {
+        super(patterns, network, errorMeasure);
+        this.rule = rule;
+        this.batchSize = batchSize;
+        this.pool = pool;
+        this.workers = workers;
+        errors = new double[workers];
+    }
+
+    /**
+     * Make a new mini batch back propagation trainer
+     * using one worker per thread of the common pool
+     * @param patterns the patterns to train on
+     * @param network the network to train
+     * @param errorMeasure the error measure to use
+     * @param rule the weight update rule
+     * @param batchSize the number of patterns in a batch
+     */
+    public MiniBatchBackPropagationTrainer(DataSet patterns,
+            BackPropagationNetwork network,
+            GradientErrorMeasure errorMeasure,
+            WeightUpdateRule rule, int batchSize) {
+        this(patterns, network, errorMeasure, rule, batchSize,
+            ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism());
+    }
+
+    /**
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        BackPropagationNetwork network =
+            (BackPropagationNetwork) getNetwork();
+        DataSet patterns = getDataSet();
+        RandomOrderFilter randomizer = new RandomOrderFilter();
+        randomizer.filter(patterns);
+        Instance[] instances = patterns.getInstances();
+        double error = 0;
+        for (int start = 0; start < instances.length; start += batchSize) {
+            int size = Math.min(batchSize, instances.length - start);
+            if (network instanceof DenseBackPropagationNetwork) {
+                error += backpropagate((DenseBackPropagationNetwork) network,
+                    instances, start, size);
+            } else {
+                error += backpropagate(network, instances, start, size);
+            }
+            network.updateWeights(rule);
+            network.clearError();
+        }
+        return error / instances.length;
+    }
+
+    /**
+     * Back propagate a batch through a linked network
+     * @param network the network
+     * @param instances the patterns
+     * @param start the start of the batch
+     * @param size the size of the batch
+     * @return the error of the batch
+     */
+    private double backpropagate(BackPropagationNetwork network,
+            Instance[] instances, int start, int size) {
+        GradientErrorMeasure measure =
+            (GradientErrorMeasure) getErrorMeasure();
+        double error = 0;
+        for (int i = start; i < start + size; i++) {
+            Instance pattern = instances[i];
+            network.setInputValues(pattern.getData());
+            network.run();
+            Instance output = new Instance(network.getOutputValues());
+            double[] errors = measure.gradient(output, pattern);
+            error += measure.value(output, pattern);
+            network.setOutputErrors(errors);
+            network.backpropagate();
+        }
+        return error;
+    }
+
+    /**
+     * Back propagate a batch through a dense network,
+     * one shard per worker, and sum the gradients into the network
+     * @param network the network
+     * @param instances the patterns
+     * @param start the start of the batch
+     * @param size the size of the batch
+     * @return the error of the batch
+     */
+    private double backpropagate(DenseBackPropagationNetwork network,
+            Instance[] instances, int start, int size) {
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        if (replicas == null) {
+            replicas = new DenseBackPropagationNetwork[workers];
+            for (int w = 0; w < workers; w++) {
+                replicas[w] = network.replicate();
+            }
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[workers];
+        for (int w = 0; w < workers; w++) {
+            int from = start + (int) ((long) w * size / workers);
+            int to = start + (int) ((long) (w + 1) * size / workers);
+            tasks[w] = pool.submit(new Shard(w, instances, from, to));
+        }
+        double error = 0;
+        for (int w = 0; w < workers; w++) {
+            tasks[w].join();
+            error += errors[w];
+        }
+        // reduce the gradients, each worker summing a range of weights
+        double[] gradient = network.getGradient();
+        for (int w = 0; w < workers; w++) {
+            int from = (int) ((long) w * gradient.length / workers);
+            int to = (int) ((long) (w + 1) * gradient.length / workers);
+            tasks[w] = pool.submit(new Reduction(gradient, from, to));
+        }
+        for (int w = 0; w < workers; w++) {
+            tasks[w].join();
+        }
+        return error;
+    }
+
+    /**
+     * Runs and back propagates one shard of a batch on a replica
+     */
+    private class Shard extends RecursiveAction {
+        /** The worker */
+        private int worker;
+        /** The patterns */
+        private Instance[] instances;
+        /** The start of the shard */
+        private int start;
+        /** The end of the shard */
+        private int end;
+
+        /**
+         * Make a new shard
+         * @param worker the worker
+         * @param instances the patterns
+         * @param start the start of the shard
+         * @param end the end of the shard
+         */
+        public Shard(int worker, Instance[] instances, int start, int end) {
+            this.worker = worker;
+            this.instances = instances;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            GradientErrorMeasure measure =
+                (GradientErrorMeasure) getErrorMeasure();
+            DenseBackPropagationNetwork replica = replicas[worker];
+            double error = 0;
+            for (int block = start; block < end; block += BLOCK) {
+                int size = Math.min(BLOCK, end - block);
+                replica.run(instances, block, size);
+                for (int b = 0; b < size; b++) {
+                    Instance pattern = instances[block + b];
+                    Instance output = new Instance(replica.getOutputValues(b));
+                    error += measure.value(output, pattern);
+                    replica.setOutputErrors(b, measure.gradient(output, pattern));
+                }
+                replica.backpropagate();
+            }
+            errors[worker] = error;
+        }
+    }
+
+    /**
+     * Sums a range of the replica gradients into
+     * the network gradient and clears them
+     */
+    private class Reduction extends RecursiveAction {
+        /** The network gradient */
+        private double[] gradient;
+        /** The start of the range */
+        private int start;
+        /** The end of the range */
+        private int end;
+
+        /**
+         * Make a new reduction
+         * @param gradient the network gradient
+         * @param start the start of the range
+         * @param end the end of the range
+         */
+        public Reduction(double[] gradient, int start, int end) {
+            this.gradient = gradient;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            for (int w = 0; w < replicas.length; w++) {
+                double[] partial = replicas[w].getGradient();
+                for (int i = start; i < end; i++) {
+                    gradient[i] += partial[i];
+                    partial[i] = 0;
+                }
+            }
+        }
+    }
+}
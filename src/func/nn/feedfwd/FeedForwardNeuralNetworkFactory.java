@@ -6,6 +6,7 @@ import func.nn.activation.DifferentiableActivationFunction;
 import func.nn.activation.HyperbolicTangentSigmoid;
 import func.nn.activation.LinearActivationFunction;
 import func.nn.activation.LogisticSigmoid;
+import func.nn.backprop.DenseBackPropagationNetwork;
 import func.nn.feedfwd.FeedForwardLayer;
 import func.nn.feedfwd.FeedForwardNetwork;
 import func.nn.feedfwd.FeedForwardNode;
@@ -17,6 +18,27 @@ import func.nn.feedfwd.FeedForwardNode;
  */
 public class FeedForwardNeuralNetworkFactory {
 
+    /**
+     * Whether to make dense networks
+     */
+    private boolean dense;
+
+    /**
+     * Make a new factory that makes linked networks
+     */
+    public FeedForwardNeuralNetworkFactory() {
+    }
+
+    /**
+     * Make a new factory
+     * @param dense whether to make dense matrix backed networks,
+     * whose weights are laid out the same as the linked networks'
+     * @see func.nn.backprop.DenseBackPropagationNetwork
+     */
+    public FeedForwardNeuralNetworkFactory(boolean dense) {
+        this.dense = dense;
+    }
+
     /**
 	 * Create a multilayer perceptron
 	 * @param nodeCounts the number of nodes in each layer
@@ -31,6 +53,14 @@ public class FeedForwardNeuralNetworkFactory {
         if (nodeCounts.length < 2) {
             throw new IllegalArgumentException();
         }
+        if (dense) {
+            DifferentiableActivationFunction[] transfers =
+                new DifferentiableActivationFunction[nodeCounts.length - 1];
+            for (int i = 0; i < transfers.length; i++) {
+                transfers[i] = transfer;
+            }
+            return new DenseBackPropagationNetwork(nodeCounts, transfers, outputFunction, false);
+        }
         FeedForwardNetwork network = new FeedForwardNetwork();
         
         // create the input layer
@@ -0,0 +1,161 @@
+package func.svm;
+
+/**
+ * A cache of rows of the kernel matrix of a kernel's examples.
+ * Rows are computed whole the first time they are needed and the
+ * least recently used rows are evicted to stay within a memory
+ * budget.  The diagonal of the kernel matrix is always kept.
+ * @version 1.0
+ */
+public class KernelCache {
+
+    /**
+     * The default memory budget in megabytes
+     */
+    public static final double DEFAULT_SIZE = 100;
+
+    /**
+     * The kernel
+     */
+    private Kernel kernel;
+
+    /**
+     * The number of examples
+     */
+    private int size;
+
+    /**
+     * The cached rows, null if not cached
+     */
+    private double[][] rows;
+
+    /**
+     * The diagonal of the kernel matrix
+     */
+    private double[] diagonal;
+
+    /**
+     * The more recently used neighbor of each cached row,
+     * with size standing for the head of the list
+     */
+    private int[] previous;
+
+    /**
+     * The less recently used neighbor of each cached row,
+     * with size standing for the head of the list
+     */
+    private int[] next;
+
+    /**
+     * The number of rows cached
+     */
+    private int count;
+
+    /**
+     * The maximum number of rows to cache
+     */
+    private int capacity;
+
+    /**
+     * Make a new kernel cache
+     * @param kernel the kernel, which must have its examples set
+     * @param megabytes the memory budget for the rows in megabytes
+     */
+    public KernelCache(Kernel kernel, double megabytes) {
+        this.kernel = kernel;
+        size = kernel.getExamples().size();
+        rows = new double[size][];
+        previous = new int[size + 1];
+        next = new int[size + 1];
+        previous[size] = size;
+        next[size] = size;
+        long budget = (long) (megabytes * 1024 * 1024) / (8L * Math.max(size, 1));
+        // two rows are needed at once when taking a step
+        capacity = (int) Math.max(2, Math.min(size, budget));
+        diagonal = new double[size];
+        for (int i = 0; i < size; i++) {
+            diagonal[i] = kernel.value(i, i);
+        }
+    }
+
+    /**
+     * Make a new kernel cache with the default budget
+     * @param kernel the kernel, which must have its examples set
+     */
+    public KernelCache(Kernel kernel) {
+        this(kernel, DEFAULT_SIZE);
+    }
+
+    /**
+     * Get the kernel value of two examples, from a cached
+     * row if either one is cached
+     * @param i the first example
+     * @param j the second example
+     * @return the kernel value
+     */
+    public double value(int i, int j) {
+        if (i == j) {
+            return diagonal[i];
+        } else if (rows[i] != null) {
+            return rows[i][j];
+        } else if (rows[j] != null) {
+            return rows[j][i];
+        } else {
+            return kernel.value(i, j);
+        }
+    }
+
+    /**
+     * Get a row of the kernel matrix, computing it
+     * and caching it if it is not cached.  The row is only
+     * guaranteed to stay valid while one other row is fetched.
+     * @param i the example
+     * @return the kernel values of the example and every example
+     */
+    public double[] row(int i) {
+        double[] row = rows[i];
+        if (row != null) {
+            unlink(i);
+        } else {
+            if (count == capacity) {
+                // evict the least recently used row, reusing its array
+                int last = previous[size];
+                unlink(last);
+                row = rows[last];
+                rows[last] = null;
+                count--;
+            } else {
+                row = new double[size];
+            }
+            for (int j = 0; j < size; j++) {
+                row[j] = kernel.value(i, j);
+            }
+            rows[i] = row;
+            count++;
+        }
+        // move it to the front
+        next[i] = next[size];
+        previous[i] = size;
+        previous[next[size]] = i;
+        next[size] = i;
+        return row;
+    }
+
+    /**
+     * Check whether a row is cached
+     * @param i the example
+     * @return true if it is
+     */
+    public boolean isCached(int i) {
+        return rows[i] != null;
+    }
+
+    /**
+     * Remove a row from the recency list
+     * @param i the row
+     */
+    private void unlink(int i) {
+        next[previous[i]] = next[i];
+        previous[next[i]] = previous[i];
+    }
+}
@@ -1,5 +1,6 @@
 package func.svm;
 
+import shared.DataSet;
 import shared.Instance;
 import util.linalg.Vector;
 
@@ -19,6 +20,11 @@ public class RBFKernel extends Kernel {
      * The gamma value
      */
     private double gamma;
+
+    /**
+     * The squared norms of the examples
+     */
+    private double[] norms;
     
     /**
      * Make a new radial basis function kernel
@@ -30,6 +36,47 @@ public class RBFKernel extends Kernel {
     }
 
 
+    /**
+     * @see func.svm.Kernel#value(int, int)
+     */
+    public double value(int i, int j) {
+        DataSet examples = getExamples();
+        double difference = norms[i] + norms[j]
+            - 2*examples.get(i).getData().dotProduct(examples.get(j).getData());
+        return Math.exp(gamma * difference);
+    }
+
+    /**
+     * @see func.svm.Kernel#value(int, shared.Instance)
+     */
+    public double value(int i, Instance data) {
+        Vector v = data.getData();
+        double difference = norms[i] + v.dotProduct(v)
+            - 2*getExamples().get(i).getData().dotProduct(v);
+        return Math.exp(gamma * difference);
+    }
+
+    /**
+     * Set the examples and calculate their squared norms
+     * @see func.svm.Kernel#setExamples(shared.DataSet)
+     */
+    public void setExamples(DataSet examples) {
+        super.setExamples(examples);
+        norms = new double[examples.size()];
+        for (int i = 0; i < norms.length; i++) {
+            Vector v = examples.get(i).getData();
+            norms[i] = v.dotProduct(v);
+        }
+    }
+
+    /**
+     * @see func.svm.Kernel#clear()
+     */
+    public void clear() {
+        super.clear();
+        norms = null;
+    }
+
     /**
      * @see svm.Kernel#value(svm.SupportVectorMachineData, svm.SupportVectorMachineData)
      */
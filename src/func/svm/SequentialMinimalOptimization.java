@@ -1,5 +1,6 @@
 package func.svm;
 
+import dist.Distribution;
 import util.linalg.DenseVector;
 import util.linalg.Vector;
 import shared.DataSet;
@@ -43,6 +44,11 @@ public class SequentialMinimalOptimization implements Trainer {
      * The kernel function
      */
     private Kernel kernel;
+
+    /**
+     * The cache of kernel rows
+     */
+    private KernelCache cache;
     
     /**
      * The slack value, all alpha weights
@@ -81,6 +87,18 @@ public class SequentialMinimalOptimization implements Trainer {
      */
     public SequentialMinimalOptimization(DataSet examples,
             Kernel kernel, double c) {
+        this(examples, kernel, c, KernelCache.DEFAULT_SIZE);
+    }
+
+    /**
+     * Make a new SMO trainer
+     * @param examples the instances to train on
+     * @param kernel the kernel to use
+     * @param c the slack value
+     * @param cacheSize the memory budget of the kernel cache in megabytes
+     */
+    public SequentialMinimalOptimization(DataSet examples,
+            Kernel kernel, double c, double cacheSize) {
         this.c = c;
         this.kernel = kernel;
         this.examples = examples;
@@ -94,6 +112,7 @@ public class SequentialMinimalOptimization implements Trainer {
         // set up the kernel
         kernel.clear();
         kernel.setExamples(examples);
+        cache = new KernelCache(kernel, cacheSize);
         // set up the weight vector (if linear)
         if (kernel instanceof LinearKernel) {
             w = new DenseVector(
@@ -220,7 +239,7 @@ public class SequentialMinimalOptimization implements Trainer {
         }
         // if the second choice hueristic fails we look
         // at all non bound indices, starting from a random point
-        int startI = (int) (Math.random() * a.length);
+        int startI = Distribution.random.nextInt(a.length);
         int i = startI;
         do {
             if (!isBound(i) && takeStep(i, j, ej)) {
@@ -230,7 +249,7 @@ public class SequentialMinimalOptimization implements Trainer {
         } while (i != startI);
         // if that fails we look at all of the indices, starting from
         // a random point
-        startI = (int) (Math.random() * a.length);
+        startI = Distribution.random.nextInt(a.length);
         i = startI;
         do {
             if (takeStep(i, j, ej)) {
@@ -285,9 +304,9 @@ public class SequentialMinimalOptimization implements Trainer {
         }
         
         // compute the kernel values
-        double kii = kernel.value(i, i);
-        double kij = kernel.value(i, j);
-        double kjj = kernel.value(j, j);
+        double kii = cache.value(i, i);
+        double kij = cache.value(i, j);
+        double kjj = cache.value(j, j);
         // the second derivative of the objective function
         double eta = 2*kij - kii - kjj;
         
@@ -382,9 +401,11 @@ public class SequentialMinimalOptimization implements Trainer {
         
         // update the error cache
         // for non bound examples not in the cache
+        double[] ki = cache.row(i);
+        double[] kj = cache.row(j);
         for (int k = 0; k < e.length; k++) {
             if (k != i && k != j && !isBound(k)) {
-                e[k] += ti*kernel.value(i,k) + tj*kernel.value(j,k) + tb;
+                e[k] += ti*ki[k] + tj*kj[k] + tb;
             }
         }
        
@@ -434,7 +455,7 @@ public class SequentialMinimalOptimization implements Trainer {
         for (int j = 0; j < a.length; j++) {
             if (a[j] != 0) {
                 result += examples.get(j).getLabel().getPlusMinus() 
-                    * a[j] * kernel.value(i, j);
+                    * a[j] * cache.value(i, j);
             }
         }
         result -= b;
@@ -1,5 +1,6 @@
 package func.svm;
 
+import dist.Distribution;
 import util.ABAGAILArrays;
 import shared.DataSet;
 import shared.Instance;
@@ -43,6 +44,11 @@ public class SingleClassSequentialMinimalOptimization implements Trainer {
      * The kernel function
      */
     private Kernel kernel;
+
+    /**
+     * The cache of kernel rows
+     */
+    private KernelCache cache;
     
     /**
      * The slack value, all langrange multipliers are between
@@ -74,6 +80,18 @@ public class SingleClassSequentialMinimalOptimization implements Trainer {
      */
     public SingleClassSequentialMinimalOptimization(DataSet examples,
             Kernel kernel, double v) {
+        this(examples, kernel, v, KernelCache.DEFAULT_SIZE);
+    }
+
+    /**
+     * Make a new SMO trainer
+     * @param examples the instances to train on
+     * @param kernel the kernel to use
+     * @param v the slack value
+     * @param cacheSize the memory budget of the kernel cache in megabytes
+     */
+    public SingleClassSequentialMinimalOptimization(DataSet examples,
+            Kernel kernel, double v, double cacheSize) {
         // v can't be bigger than 1
         v = Math.min(v, 1);
         
@@ -84,6 +102,7 @@ public class SingleClassSequentialMinimalOptimization implements Trainer {
         // set up the kernel
         kernel.clear();
         kernel.setExamples(examples);
+        cache = new KernelCache(kernel, cacheSize);
         
         // initialize v * examples.size() of 
         // the multipliers to be 1 / (v*examples.size())
@@ -216,7 +235,7 @@ public class SingleClassSequentialMinimalOptimization implements Trainer {
         }
         // if the second choice hueristic fails we look
         // at all non bound indices, starting from a random point
-        int startI = (int) (Math.random() * a.length);
+        int startI = Distribution.random.nextInt(a.length);
         i = startI;
         do {
             if (!isBound(i) && takeStep(i, j, oj)) {
@@ -226,7 +245,7 @@ public class SingleClassSequentialMinimalOptimization implements Trainer {
         } while (i != startI);
         // if that fails we look at all of the indices, starting from
         // a random point
-        startI = (int) (Math.random() * a.length);
+        startI = Distribution.random.nextInt(a.length);
         i = startI;
         do {
             if (takeStep(i, j, oj)) {
@@ -260,9 +279,9 @@ public class SingleClassSequentialMinimalOptimization implements Trainer {
         double oi = output(i);        
         
         // compute the kernel values
-        double kii = kernel.value(i, i);
-        double kij = kernel.value(i, j);
-        double kjj = kernel.value(j, j);
+        double kii = cache.value(i, i);
+        double kij = cache.value(i, j);
+        double kjj = cache.value(j, j);
         
         // calculate the c values, which are the outputs
         // minus the contributions from i and j
@@ -329,7 +348,7 @@ public class SingleClassSequentialMinimalOptimization implements Trainer {
             return true;
         }
         // use any other non bound alpha
-        int startK = (int) (Math.random() * a.length);
+        int startK = Distribution.random.nextInt(a.length);
         int k = startK;
         do {
             if (!isBound(k)) {
@@ -365,9 +384,20 @@ public class SingleClassSequentialMinimalOptimization implements Trainer {
      */
     private final double output(int i) {
         double result = 0;
+        if (cache.isCached(i)) {
+            double[] row = cache.row(i);
+            for (int j = 0; j < a.length; j++) {
+                if (a[j] != 0) {
+                    result += a[j] * row[j];
+                }
+            }
+            return result;
+        }
+        // computing a whole row costs a kernel per example,
+        // so only compute the ones with nonzero weight
         for (int j = 0; j < a.length; j++) {
             if (a[j] != 0) {
-                result += a[j] * kernel.value(i, j);
+                result += a[j] * cache.value(i, j);
             }
         }
         return result;
@@ -0,0 +1,506 @@
+package func.svm;
+
+import shared.DataSet;
+import shared.Instance;
+import shared.Trainer;
+
+/**
+ * An implementation of SMO that chooses each pair of examples by
+ * second order working set selection instead of Platt's heuristics.
+ * The gradient of the dual is kept for every example, the first
+ * example is the maximal violator and the second is the one that
+ * gives the largest decrease in the objective, so each step costs
+ * two kernel rows and one pass over the active examples.  Examples
+ * that are at a bound and are unlikely to move are shrunk out of
+ * the active set and are brought back to check optimality at the end.
+ * The trained machine has the same form as the one SMO makes.
+ * See Fan, Chen and Lin, Working Set Selection Using Second Order
+ * Information for Training Support Vector Machines, JMLR 2005.
+ * @version 1.0
+ */
+public class WorkingSetSequentialMinimalOptimization implements Trainer {
+    /**
+     * The tolerance on the maximal violation
+     */
+    private static final double TOLERANCE = 1e-3;
+
+    /**
+     * The curvature used when the kernel is not positive definite
+     */
+    private static final double TAU = 1e-12;
+
+    /**
+     * The number of iterations
+     */
+    private int iterations;
+
+    /**
+     * The instances
+     */
+    private DataSet examples;
+
+    /**
+     * The kernel function
+     */
+    private Kernel kernel;
+
+    /**
+     * The cache of kernel rows
+     */
+    private KernelCache cache;
+
+    /**
+     * The slack value, all alpha weights
+     * must be between 0 and c inclusive
+     */
+    private double c;
+
+    /**
+     * The labels of the examples as plus or minus one
+     */
+    private double[] y;
+
+    /**
+     * The weights on the support vectors
+     */
+    private double[] a;
+
+    /**
+     * The gradient of the dual objective
+     */
+    private double[] g;
+
+    /**
+     * The part of the gradient due to the examples at the upper bound
+     */
+    private double[] gBar;
+
+    /**
+     * The indices of the examples, active ones first
+     */
+    private int[] active;
+
+    /**
+     * The number of active examples
+     */
+    private int activeSize;
+
+    /**
+     * Whether to shrink the active set
+     */
+    private boolean shrinking;
+
+    /**
+     * Whether the active set has been grown back
+     * to check for optimality
+     */
+    private boolean unshrunk;
+
+    /**
+     * The threshold subtracted when
+     * evaluating the support vector machine
+     */
+    private double b;
+
+    /**
+     * The first example of the selected pair
+     */
+    private int first;
+
+    /**
+     * The second example of the selected pair
+     */
+    private int second;
+
+    /**
+     * Make a new SMO trainer
+     * @param examples the instances to train on
+     * @param kernel the kernel to use
+     * @param c the slack value
+     * @param cacheSize the memory budget of the kernel cache in megabytes
+     * @param shrinking whether to shrink the active set
+     */
+    public WorkingSetSequentialMinimalOptimization(DataSet examples,
+            Kernel kernel, double c, double cacheSize, boolean shrinking) {
+        this.examples = examples;
+        this.kernel = kernel;
+        this.c = c;
+        this.shrinking = shrinking;
+        kernel.clear();
+        kernel.setExamples(examples);
+        cache = new KernelCache(kernel, cacheSize);
+        int n = examples.size();
+        y = new double[n];
+        a = new double[n];
+        g = new double[n];
+        gBar = new double[n];
+        active = new int[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = examples.get(i).getLabel().getPlusMinus();
+            // with all alpha values zero the gradient is all minus one
+            g[i] = -1;
+            active[i] = i;
+        }
+        activeSize = n;
+    }
+
+    /**
+     * Make a new SMO trainer with shrinking
+     * @param examples the instances to train on
+     * @param kernel the kernel to use
+     * @param c the slack value
+     */
+    public WorkingSetSequentialMinimalOptimization(DataSet examples,
+            Kernel kernel, double c) {
+        this(examples, kernel, c, KernelCache.DEFAULT_SIZE, true);
+    }
+
+    /**
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        int n = a.length;
+        int counter = Math.min(n, 1000) + 1;
+        long maxIterations = Math.max(10000000L, 100L * n);
+        while (iterations < maxIterations) {
+            if (--counter == 0) {
+                counter = Math.min(n, 1000);
+                if (shrinking) {
+                    shrink();
+                }
+            }
+            if (!select()) {
+                // optimal on the active set, check all of the examples
+                reconstructGradient();
+                activeSize = n;
+                if (!select()) {
+                    break;
+                }
+                counter = 1;
+            }
+            iterations++;
+            update(first, second);
+        }
+        if (activeSize < n) {
+            reconstructGradient();
+            activeSize = n;
+        }
+        b = threshold();
+        return 0;
+    }
+
+    /**
+     * Select the pair of examples to optimize
+     * @return false if the active examples are optimal
+     */
+    private boolean select() {
+        // the first example maximizes -y g over those that can move up
+        double gMax = Double.NEGATIVE_INFINITY;
+        first = -1;
+        for (int k = 0; k < activeSize; k++) {
+            int t = active[k];
+            if (y[t] > 0) {
+                if (a[t] < c && -g[t] >= gMax) {
+                    gMax = -g[t];
+                    first = t;
+                }
+            } else if (a[t] > 0 && g[t] >= gMax) {
+                gMax = g[t];
+                first = t;
+            }
+        }
+        if (first == -1) {
+            return false;
+        }
+        int i = first;
+        double[] ki = cache.row(i);
+        double kii = cache.value(i, i);
+        // the second example gives the largest decrease in the objective
+        double gMax2 = Double.NEGATIVE_INFINITY;
+        double best = Double.POSITIVE_INFINITY;
+        second = -1;
+        for (int k = 0; k < activeSize; k++) {
+            int t = active[k];
+            double difference;
+            if (y[t] > 0) {
+                if (a[t] <= 0) {
+                    continue;
+                }
+                gMax2 = Math.max(gMax2, g[t]);
+                difference = gMax + g[t];
+            } else {
+                if (a[t] >= c) {
+                    continue;
+                }
+                gMax2 = Math.max(gMax2, -g[t]);
+                difference = gMax - g[t];
+            }
+            if (difference > 0) {
+                double curvature = kii + cache.value(t, t) - 2 * ki[t];
+                double decrease = -difference * difference
+                    / (curvature > 0 ? curvature : TAU);
+                if (decrease <= best) {
+                    best = decrease;
+                    second = t;
+                }
+            }
+        }
+        return gMax + gMax2 >= TOLERANCE && second != -1;
+    }
+
+    /**
+     * Jointly optimize two examples and update the gradient
+     * @param i the first example
+     * @param j the second example
+     */
+    private void update(int i, int j) {
+        double[] ki = cache.row(i);
+        double[] kj = cache.row(j);
+        double ai = a[i], aj = a[j];
+        double curvature = cache.value(i, i) + cache.value(j, j) - 2 * ki[j];
+        if (curvature <= 0) {
+            curvature = TAU;
+        }
+        if (y[i] != y[j]) {
+            double delta = (-g[i] - g[j]) / curvature;
+            double difference = ai - aj;
+            ai += delta;
+            aj += delta;
+            if (difference > 0) {
+                if (aj < 0) {
+                    aj = 0;
+                    ai = difference;
+                }
+            } else if (ai < 0) {
+                ai = 0;
+                aj = -difference;
+            }
+            if (difference > 0) {
+                if (ai > c) {
+                    ai = c;
+                    aj = c - difference;
+                }
+            } else if (aj > c) {
+                aj = c;
+                ai = c + difference;
+            }
+        } else {
+            double delta = (g[i] - g[j]) / curvature;
+            double sum = ai + aj;
+            ai -= delta;
+            aj += delta;
+            if (sum > c) {
+                if (ai > c) {
+                    ai = c;
+                    aj = sum - c;
+                }
+                if (aj > c) {
+                    aj = c;
+                    ai = sum - c;
+                }
+            } else {
+                if (aj < 0) {
+                    aj = 0;
+                    ai = sum;
+                }
+                if (ai < 0) {
+                    ai = 0;
+                    aj = sum;
+                }
+            }
+        }
+        // update the gradient of the active examples
+        double ti = y[i] * (ai - a[i]);
+        double tj = y[j] * (aj - a[j]);
+        for (int k = 0; k < activeSize; k++) {
+            int t = active[k];
+            g[t] += y[t] * (ti * ki[t] + tj * kj[t]);
+        }
+        // keep track of the examples at the upper bound
+        updateUpperBound(i, ai, ki);
+        updateUpperBound(j, aj, kj);
+    }
+
+    /**
+     * Set an alpha value, updating the upper bound part
+     * of the gradient if it moves on or off the bound
+     * @param i the example
+     * @param ai the new alpha value
+     * @param ki the kernel row of the example
+     */
+    private void updateUpperBound(int i, double ai, double[] ki) {
+        boolean wasUpper = a[i] >= c;
+        a[i] = ai;
+        if (wasUpper != (ai >= c)) {
+            double t = wasUpper ? -c * y[i] : c * y[i];
+            for (int k = 0; k < gBar.length; k++) {
+                gBar[k] += t * y[k] * ki[k];
+            }
+        }
+    }
+
+    /**
+     * Shrink the examples at a bound that are unlikely to move
+     * out of the active set
+     */
+    private void shrink() {
+        double gMax1 = Double.NEGATIVE_INFINITY;
+        double gMax2 = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < activeSize; k++) {
+            int t = active[k];
+            if (y[t] > 0) {
+                if (a[t] < c) {
+                    gMax1 = Math.max(gMax1, -g[t]);
+                }
+                if (a[t] > 0) {
+                    gMax2 = Math.max(gMax2, g[t]);
+                }
+            } else {
+                if (a[t] < c) {
+                    gMax2 = Math.max(gMax2, -g[t]);
+                }
+                if (a[t] > 0) {
+                    gMax1 = Math.max(gMax1, g[t]);
+                }
+            }
+        }
+        if (!unshrunk && gMax1 + gMax2 <= TOLERANCE * 10) {
+            // close to done, bring everything back once
+            unshrunk = true;
+            reconstructGradient();
+            activeSize = a.length;
+        }
+        for (int k = 0; k < activeSize; k++) {
+            if (isShrinkable(active[k], gMax1, gMax2)) {
+                activeSize--;
+                while (activeSize > k) {
+                    if (!isShrinkable(active[activeSize], gMax1, gMax2)) {
+                        int temp = active[k];
+                        active[k] = active[activeSize];
+                        active[activeSize] = temp;
+                        break;
+                    }
+                    activeSize--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if an example can be shrunk
+     * @param t the example
+     * @param gMax1 the largest violation moving up
+     * @param gMax2 the largest violation moving down
+     * @return true if it can
+     */
+    private boolean isShrinkable(int t, double gMax1, double gMax2) {
+        if (a[t] >= c) {
+            return y[t] > 0 ? -g[t] > gMax1 : -g[t] > gMax2;
+        } else if (a[t] <= 0) {
+            return y[t] > 0 ? g[t] > gMax2 : g[t] > gMax1;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Recompute the gradient of the inactive examples
+     */
+    private void reconstructGradient() {
+        int n = a.length;
+        if (activeSize == n) {
+            return;
+        }
+        for (int k = activeSize; k < n; k++) {
+            int t = active[k];
+            g[t] = gBar[t] - 1;
+        }
+        for (int k = 0; k < activeSize; k++) {
+            int j = active[k];
+            if (a[j] > 0 && a[j] < c) {
+                double[] kj = cache.row(j);
+                double tj = y[j] * a[j];
+                for (int m = activeSize; m < n; m++) {
+                    int t = active[m];
+                    g[t] += tj * y[t] * kj[t];
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculate the threshold from the gradient
+     * @return the threshold
+     */
+    private double threshold() {
+        double upper = Double.POSITIVE_INFINITY;
+        double lower = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        int free = 0;
+        for (int t = 0; t < a.length; t++) {
+            double yg = y[t] * g[t];
+            if (a[t] >= c) {
+                if (y[t] < 0) {
+                    upper = Math.min(upper, yg);
+                } else {
+                    lower = Math.max(lower, yg);
+                }
+            } else if (a[t] <= 0) {
+                if (y[t] > 0) {
+                    upper = Math.min(upper, yg);
+                } else {
+                    lower = Math.max(lower, yg);
+                }
+            } else {
+                free++;
+                sum += yg;
+            }
+        }
+        return free > 0 ? sum / free : (upper + lower) / 2;
+    }
+
+    /**
+     * Get the created support vector machine
+     * @return the support vector machine
+     */
+    public SupportVectorMachine getSupportVectorMachine() {
+        int supportVectorCount = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != 0) {
+                supportVectorCount++;
+            }
+        }
+        Instance[] support =
+            new Instance[supportVectorCount];
+        double[] supporta = new double[supportVectorCount];
+        int j = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != 0) {
+                support[j] = examples.get(i);
+                supporta[j] = a[i];
+                j++;
+            }
+        }
+        DataSet supportSet = new DataSet(support);
+        supportSet.setDescription(examples.getDescription());
+        return new SupportVectorMachine(supportSet, supporta, kernel, b);
+    }
+
+    /**
+     * Get the number of iterations performed
+     * @return the number of iterations
+     */
+    public int getNumberOfIterations() {
+        return iterations;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+       String ret = "b = " + b + "\n";
+       ret += "kernel = " + kernel + "\n";
+       ret += examples.toString();
+       return ret;
+    }
+}
@@ -0,0 +1,105 @@
+package func.test;
+
+import java.util.Random;
+
+import dist.Distribution;
+import shared.DataSet;
+import shared.DistanceMeasure;
+import shared.EuclideanDistance;
+import shared.Instance;
+import func.KMeansClusterer;
+
+/**
+ * Compares the accelerated k means estimate with the standard one
+ * on a mixture of gaussian blobs
+ * @version 1.0
+ */
+public class AcceleratedKMeansClustererTest {
+    /** The number of points */
+    private static final int POINTS = 50000;
+    /** The number of dimensions */
+    private static final int DIMENSIONS = 8;
+    /** The number of clusters */
+    private static final int K = 10;
+
+    /**
+     * Test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random();
+        double[][] means = new double[K][DIMENSIONS];
+        for (int i = 0; i < K; i++) {
+            for (int j = 0; j < DIMENSIONS; j++) {
+                means[i][j] = random.nextDouble() * 20;
+            }
+        }
+        Instance[] instances = new Instance[POINTS];
+        for (int i = 0; i < instances.length; i++) {
+            double[] mean = means[random.nextInt(K)];
+            double[] data = new double[DIMENSIONS];
+            for (int j = 0; j < data.length; j++) {
+                data[j] = mean[j] + random.nextGaussian();
+            }
+            instances[i] = new Instance(data);
+        }
+        DataSet set = new DataSet(instances);
+
+        long start = System.nanoTime();
+        KMeansClusterer standard = new KMeansClusterer(K);
+        standard.estimate(set);
+        System.out.println("Standard: " + (System.nanoTime() - start) / 1e9 + "s, error "
+            + error(standard, set));
+
+        start = System.nanoTime();
+        KMeansClusterer accelerated = new KMeansClusterer(K, true);
+        accelerated.estimate(set);
+        System.out.println("Accelerated: " + (System.nanoTime() - start) / 1e9 + "s, error "
+            + error(accelerated, set));
+
+        // other measures fall back to the standard assignment
+        DistanceMeasure manhattan = new DistanceMeasure() {
+            public double value(Instance a, Instance b) {
+                double sum = 0;
+                for (int i = 0; i < a.size(); i++) {
+                    sum += Math.abs(a.getContinuous(i) - b.getContinuous(i));
+                }
+                return sum;
+            }
+        };
+        Distribution.random.setSeed(1);
+        standard.setDistanceMeasure(manhattan);
+        standard.estimate(set);
+        Distribution.random.setSeed(1);
+        accelerated.setDistanceMeasure(manhattan);
+        accelerated.estimate(set);
+        boolean same = true;
+        for (int j = 0; j < K; j++) {
+            for (int i = 0; i < DIMENSIONS; i++) {
+                same &= standard.getClusterCenters()[j].getContinuous(i)
+                    == accelerated.getClusterCenters()[j].getContinuous(i);
+            }
+        }
+        System.out.println("Accelerated matches standard with manhattan distance: " + same);
+    }
+
+    /**
+     * The sum of the squared distances from the points to their centers
+     * @param km the clusterer
+     * @param set the data set
+     * @return the error
+     */
+    private static double error(KMeansClusterer km, DataSet set) {
+        EuclideanDistance distance = new EuclideanDistance();
+        Instance[] centers = km.getClusterCenters();
+        double error = 0;
+        for (int i = 0; i < set.size(); i++) {
+            double best = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < centers.length; j++) {
+                best = Math.min(best, distance.value(set.get(i), centers[j]));
+            }
+            error += best;
+        }
+        return error;
+    }
+}
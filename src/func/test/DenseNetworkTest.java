@@ -0,0 +1,109 @@
+package func.test;
+
+import java.util.Random;
+
+import shared.DataSet;
+import shared.Instance;
+import shared.SumOfSquaresError;
+import func.nn.backprop.BackPropagationNetwork;
+import func.nn.backprop.BackPropagationNetworkFactory;
+import func.nn.backprop.BatchBackPropagationTrainer;
+import func.nn.backprop.DenseBackPropagationNetwork;
+import func.nn.backprop.RPROPUpdateRule;
+
+/**
+ * Checks that a dense network computes and trains the same as a
+ * linked network with the same weights, that its layer views read
+ * its outputs, and times the two
+ * @version 1.0
+ */
+public class DenseNetworkTest {
+
+    /**
+     * Tests out the dense network
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random();
+        int[] small = { 5, 7, 6, 3 };
+        DataSet set = randomSet(random, small, 50);
+        BackPropagationNetwork linked = new BackPropagationNetworkFactory()
+            .createClassificationNetwork(small);
+        DenseBackPropagationNetwork dense = (DenseBackPropagationNetwork)
+            new BackPropagationNetworkFactory(true).createClassificationNetwork(small);
+        System.out.println("Same weight count: "
+            + (linked.getWeightCount() == dense.getWeightCount()));
+        dense.setWeights(linked.getWeights());
+        BatchBackPropagationTrainer[] trainers = {
+            new BatchBackPropagationTrainer(set, linked, new SumOfSquaresError(), new RPROPUpdateRule()),
+            new BatchBackPropagationTrainer(set, dense, new SumOfSquaresError(), new RPROPUpdateRule())
+        };
+        double worst = 0;
+        for (int i = 0; i < 20; i++) {
+            double a = trainers[0].train();
+            double b = trainers[1].train();
+            worst = Math.max(worst, Math.abs(a - b));
+        }
+        for (int i = 0; i < set.size(); i++) {
+            linked.setInputValues(set.get(i).getData());
+            linked.run();
+            dense.setInputValues(set.get(i).getData());
+            dense.run();
+            for (int j = 0; j < small[small.length - 1]; j++) {
+                worst = Math.max(worst, Math.abs(linked.getOutputValues().get(j)
+                    - dense.getOutputValues().get(j)));
+                worst = Math.max(worst, Math.abs(linked.getOutputLayer().getNode(j).getActivation()
+                    - dense.getOutputLayer().getNode(j).getActivation()));
+            }
+        }
+        System.out.println("Worst difference after training: " + worst);
+        double[] a = linked.getWeights(), b = dense.getWeights();
+        worst = 0;
+        for (int i = 0; i < a.length; i++) {
+            worst = Math.max(worst, Math.abs(a[i] - b[i]));
+        }
+        System.out.println("Worst weight difference after training: " + worst);
+
+        int[] large = { 100, 2000, 10 };
+        set = randomSet(random, large, 500);
+        BackPropagationNetwork[] networks = {
+            new BackPropagationNetworkFactory().createClassificationNetwork(large),
+            new BackPropagationNetworkFactory(true).createClassificationNetwork(large)
+        };
+        String[] names = { "Linked", "Dense" };
+        for (int i = 0; i < networks.length; i++) {
+            BatchBackPropagationTrainer trainer = new BatchBackPropagationTrainer(set,
+                networks[i], new SumOfSquaresError(), new RPROPUpdateRule());
+            trainer.train();
+            long start = System.nanoTime();
+            for (int j = 0; j < 5; j++) {
+                trainer.train();
+            }
+            System.out.println(names[i] + " epoch: "
+                + (System.nanoTime() - start) / 5e9 + "s");
+        }
+    }
+
+    /**
+     * Make a random classification data set
+     * @param random the random number generator
+     * @param nodeCounts the node counts of the network
+     * @param size the number of patterns
+     * @return the data set
+     */
+    private static DataSet randomSet(Random random, int[] nodeCounts, int size) {
+        Instance[] patterns = new Instance[size];
+        int outputs = nodeCounts[nodeCounts.length - 1];
+        for (int i = 0; i < size; i++) {
+            double[] input = new double[nodeCounts[0]];
+            for (int j = 0; j < input.length; j++) {
+                input[j] = random.nextGaussian();
+            }
+            double[] label = new double[outputs];
+            label[random.nextInt(outputs)] = 1;
+            patterns[i] = new Instance(input);
+            patterns[i].setLabel(new Instance(label));
+        }
+        return new DataSet(patterns);
+    }
+}
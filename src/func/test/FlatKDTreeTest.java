@@ -0,0 +1,98 @@
+package func.test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import shared.DataSet;
+import shared.EuclideanDistance;
+import shared.Instance;
+import func.inst.FlatKDTree;
+import func.inst.KDTree;
+import func.inst.NearestNeighbors;
+
+/**
+ * Checks the flat kd tree against brute force search
+ * and times it against the linked kd tree
+ * @version 1.0
+ */
+public class FlatKDTreeTest {
+    /** The number of points */
+    private static final int POINTS = 200000;
+    /** The number of queries */
+    private static final int QUERIES = 20000;
+    /** The number of dimensions */
+    private static final int DIMENSIONS = 5;
+    /** The number of neighbors */
+    private static final int K = 10;
+
+    /**
+     * Test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random();
+        DataSet points = randomSet(random, POINTS);
+        DataSet queries = randomSet(random, QUERIES);
+
+        long start = System.nanoTime();
+        FlatKDTree flat = new FlatKDTree(points);
+        System.out.println("Flat build: " + (System.nanoTime() - start) / 1e9 + "s");
+        start = System.nanoTime();
+        NearestNeighbors neighbors = flat.knnBatch(queries, K);
+        System.out.println("Flat batch: " + (System.nanoTime() - start) / 1e9 + "s");
+
+        start = System.nanoTime();
+        KDTree tree = new KDTree(points);
+        System.out.println("Linked build: " + (System.nanoTime() - start) / 1e9 + "s");
+        start = System.nanoTime();
+        for (int i = 0; i < queries.size(); i++) {
+            tree.knn(queries.get(i), K);
+        }
+        System.out.println("Linked queries: " + (System.nanoTime() - start) / 1e9 + "s");
+
+        // check a sample of the queries by brute force
+        EuclideanDistance distance = new EuclideanDistance();
+        boolean correct = true;
+        for (int q = 0; q < 50; q++) {
+            double[] best = new double[K];
+            Arrays.fill(best, Double.POSITIVE_INFINITY);
+            for (int i = 0; i < points.size(); i++) {
+                double d = distance.value(points.get(i), queries.get(q));
+                if (d < best[K - 1]) {
+                    int j = K - 1;
+                    while (j > 0 && best[j - 1] > d) {
+                        best[j] = best[j - 1];
+                        j--;
+                    }
+                    best[j] = d;
+                }
+            }
+            for (int i = 0; i < K; i++) {
+                double d = distance.value(points.get(neighbors.getIndex(q, i)), queries.get(q));
+                if (Math.abs(best[i] - neighbors.getDistance(q, i)) > 1e-12
+                        || Math.abs(d - best[i]) > 1e-12) {
+                    correct = false;
+                }
+            }
+        }
+        System.out.println("Matches brute force: " + correct);
+    }
+
+    /**
+     * Make a set of random points
+     * @param random the random number generator
+     * @param size the number of points
+     * @return the points
+     */
+    private static DataSet randomSet(Random random, int size) {
+        Instance[] instances = new Instance[size];
+        for (int i = 0; i < size; i++) {
+            double[] data = new double[DIMENSIONS];
+            for (int j = 0; j < data.length; j++) {
+                data[j] = random.nextDouble();
+            }
+            instances[i] = new Instance(data);
+        }
+        return new DataSet(instances);
+    }
+}
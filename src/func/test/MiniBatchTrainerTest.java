@@ -0,0 +1,68 @@
+package func.test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import shared.DataSet;
+import shared.FixedIterationTrainer;
+import shared.Instance;
+import shared.SumOfSquaresError;
+import func.nn.backprop.BackPropagationNetwork;
+import func.nn.backprop.BackPropagationNetworkFactory;
+import func.nn.backprop.MiniBatchBackPropagationTrainer;
+import func.nn.backprop.RPROPUpdateRule;
+
+/**
+ * Trains a dense network with mini batches on one worker
+ * and on several, on a noisy two class problem
+ * @version 1.0
+ */
+public class MiniBatchTrainerTest {
+    /** The number of patterns */
+    private static final int PATTERNS = 20000;
+    /** The number of inputs */
+    private static final int INPUTS = 50;
+
+    /**
+     * Tests out the mini batch trainer
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random();
+        Instance[] patterns = new Instance[PATTERNS];
+        for (int i = 0; i < patterns.length; i++) {
+            double[] input = new double[INPUTS];
+            double sum = 0;
+            for (int j = 0; j < input.length; j++) {
+                input[j] = random.nextGaussian();
+                sum += j % 2 == 0 ? input[j] : -input[j];
+            }
+            patterns[i] = new Instance(input);
+            patterns[i].setLabel(new Instance(sum + random.nextGaussian() > 0 ? 1 : 0));
+        }
+        DataSet set = new DataSet(patterns);
+        int processors = Runtime.getRuntime().availableProcessors();
+        int[] workers = { 1, processors };
+        for (int i = 0; i < workers.length; i++) {
+            BackPropagationNetwork network = new BackPropagationNetworkFactory(true)
+                .createClassificationNetwork(new int[] { INPUTS, 200, 1 });
+            ForkJoinPool pool = new ForkJoinPool(workers[i]);
+            MiniBatchBackPropagationTrainer trainer = new MiniBatchBackPropagationTrainer(
+                set, network, new SumOfSquaresError(), new RPROPUpdateRule(), 2000, pool, workers[i]);
+            long start = System.nanoTime();
+            new FixedIterationTrainer(trainer, 5).train();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            int correct = 0;
+            for (int j = 0; j < patterns.length; j++) {
+                network.setInputValues(patterns[j].getData());
+                network.run();
+                if (network.getBinaryOutputValue() == (patterns[j].getLabel().getContinuous() > .5)) {
+                    correct++;
+                }
+            }
+            pool.shutdown();
+            System.out.println(workers[i] + " workers: " + (double) correct / PATTERNS
+                + " correct after 5 epochs in " + seconds + "s");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package func.test;
+
+import java.util.Random;
+
+import shared.DataSet;
+import shared.Instance;
+import func.svm.RBFKernel;
+import func.svm.SequentialMinimalOptimization;
+import func.svm.SupportVectorMachine;
+import func.svm.WorkingSetSequentialMinimalOptimization;
+
+/**
+ * Compares the working set selection SMO with Platt's SMO
+ * on a noisy ring problem
+ * @version 1.0
+ */
+public class WorkingSetSequentialMinimalOptimizationTest {
+    /** The number of examples */
+    private static final int EXAMPLES = 3000;
+
+    /**
+     * Test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random();
+        Instance[] instances = new Instance[EXAMPLES];
+        for (int i = 0; i < instances.length; i++) {
+            double[] data = new double[10];
+            double sum = 0;
+            for (int j = 0; j < data.length; j++) {
+                data[j] = random.nextGaussian();
+                sum += data[j] * data[j];
+            }
+            instances[i] = new Instance(data, sum + random.nextGaussian() > 10);
+        }
+        DataSet set = new DataSet(instances);
+
+        long start = System.nanoTime();
+        SequentialMinimalOptimization smo =
+            new SequentialMinimalOptimization(set, new RBFKernel(2), 1);
+        smo.train();
+        SupportVectorMachine platt = smo.getSupportVectorMachine();
+        System.out.println("SMO: " + (System.nanoTime() - start) / 1e9 + "s, "
+            + platt.getSupportVectors().size() + " support vectors");
+
+        start = System.nanoTime();
+        WorkingSetSequentialMinimalOptimization wss =
+            new WorkingSetSequentialMinimalOptimization(set, new RBFKernel(2), 1);
+        wss.train();
+        SupportVectorMachine second = wss.getSupportVectorMachine();
+        System.out.println("Working set SMO: " + (System.nanoTime() - start) / 1e9 + "s, "
+            + second.getSupportVectors().size() + " support vectors, "
+            + wss.getNumberOfIterations() + " iterations");
+
+        int agree = 0;
+        for (int i = 0; i < instances.length; i++) {
+            if (platt.value(instances[i]).getDiscrete() == second.value(instances[i]).getDiscrete()) {
+                agree++;
+            }
+        }
+        System.out.println("Agreement: " + (double) agree / instances.length);
+    }
+}
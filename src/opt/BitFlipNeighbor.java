@@ -0,0 +1,31 @@
+package opt;
+
+import dist.Distribution;
+
+import shared.Instance;
+import util.linalg.BitVector;
+
+/**
+ * A neighbor function for bit vector genomes
+ * that flips a single bit
+ * @version 1.0
+ */
+public class BitFlipNeighbor implements IncrementalNeighborFunction {
+
+    /**
+     * @see opt.NeighborFunction#neighbor(shared.Instance)
+     */
+    public Instance neighbor(Instance d) {
+        BitVector bits = (BitVector) d.getData().copy();
+        bits.flip(Distribution.random.nextInt(bits.size()));
+        return new Instance(bits);
+    }
+
+    /**
+     * @see opt.IncrementalNeighborFunction#propose(shared.Instance)
+     */
+    public Move propose(Instance d) {
+        int i = Distribution.random.nextInt(d.size());
+        return new ChangeOneMove(i, 1 - d.getDiscrete(i));
+    }
+}
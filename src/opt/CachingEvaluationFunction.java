@@ -0,0 +1,232 @@
+package opt;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import shared.Instance;
+import util.linalg.Vector;
+
+/**
+ * An evaluation function that remembers the values of the data it
+ * has evaluated so repeated genomes are not evaluated again.  Data
+ * are keyed by a 128 bit fingerprint of their values rather than
+ * copies of them, so the memory used is bounded by the size of the
+ * cache alone.  The cache is split into independently locked segments
+ * each evicting its least recently used entry when full, so it may be
+ * shared by parallel algorithms when the wrapped function may be.
+ * @version 1.0
+ */
+public class CachingEvaluationFunction implements EvaluationFunction {
+    /**
+     * The default number of values to remember
+     */
+    public static final int DEFAULT_SIZE = 100000;
+
+    /**
+     * The number of segments
+     */
+    private static final int SEGMENTS = 16;
+
+    /**
+     * The function being cached
+     */
+    private EvaluationFunction function;
+
+    /**
+     * The segments of the cache
+     */
+    private Segment[] segments;
+
+    /**
+     * The number of values found in the cache
+     */
+    private AtomicLong hits = new AtomicLong();
+
+    /**
+     * The number of values that had to be evaluated
+     */
+    private AtomicLong misses = new AtomicLong();
+
+    /**
+     * Make a new caching evaluation function
+     * @param function the function to cache
+     * @param size the most values to remember
+     */
+    public CachingEvaluationFunction(EvaluationFunction function, int size) {
+        this.function = function;
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(Math.max(1, (size + SEGMENTS - 1) / SEGMENTS));
+        }
+    }
+
+    /**
+     * Make a new caching evaluation function
+     * @param function the function to cache
+     */
+    public CachingEvaluationFunction(EvaluationFunction function) {
+        this(function, DEFAULT_SIZE);
+    }
+
+    /**
+     * @see opt.EvaluationFunction#value(shared.Instance)
+     */
+    public double value(Instance d) {
+        Fingerprint key = new Fingerprint(d.getData());
+        Segment segment = segments[(int) (key.high >>> 60) & (SEGMENTS - 1)];
+        Double value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value != null) {
+            hits.incrementAndGet();
+            return value.doubleValue();
+        }
+        misses.incrementAndGet();
+        // evaluate outside the lock so other threads are not held up
+        double result = function.value(d);
+        synchronized (segment) {
+            segment.put(key, Double.valueOf(result));
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of values found in the cache
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of values that had to be evaluated
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Get the number of values remembered
+     * @return the size
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < segments.length; i++) {
+            synchronized (segments[i]) {
+                size += segments[i].size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Forget all of the values and reset the counts
+     */
+    public void clear() {
+        for (int i = 0; i < segments.length; i++) {
+            synchronized (segments[i]) {
+                segments[i].clear();
+            }
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * Get the function being cached
+     * @return the function
+     */
+    public EvaluationFunction getFunction() {
+        return function;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+        return "hits: " + getHits() + " misses: " + getMisses() + " size: " + size();
+    }
+
+    /**
+     * A segment of the cache kept in access order
+     */
+    private static class Segment extends LinkedHashMap<Fingerprint, Double> {
+        /** The most values to remember */
+        private int capacity;
+
+        /**
+         * Make a new segment
+         * @param capacity the most values to remember
+         */
+        public Segment(int capacity) {
+            super(16, .75f, true);
+            this.capacity = capacity;
+        }
+
+        /**
+         * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
+         */
+        protected boolean removeEldestEntry(Map.Entry<Fingerprint, Double> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * Two independent 64 bit hashes of a vector's values
+     */
+    private static class Fingerprint {
+        /** The first hash */
+        private long high;
+        /** The second hash */
+        private long low;
+
+        /**
+         * Make the fingerprint of a vector
+         * @param data the vector
+         */
+        public Fingerprint(Vector data) {
+            long high = 0x9e3779b97f4a7c15L + data.size();
+            long low = 0xc2b2ae3d27d4eb4fL - data.size();
+            for (int i = 0; i < data.size(); i++) {
+                // adding zero makes negative zero hash like zero
+                long bits = Double.doubleToLongBits(data.get(i) + 0.0);
+                high = mix(high ^ bits) * 0xff51afd7ed558ccdL;
+                low = Long.rotateLeft(low + bits * 0xc4ceb9fe1a85ec53L, 31) * 0x9e3779b97f4a7c15L;
+            }
+            this.high = mix(high);
+            this.low = mix(low ^ high);
+        }
+
+        /**
+         * Mix the bits of a value
+         * @param z the value
+         * @return the mixed value
+         */
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+
+        /**
+         * @see java.lang.Object#hashCode()
+         */
+        public int hashCode() {
+            return (int) (low ^ (low >>> 32));
+        }
+
+        /**
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        public boolean equals(Object o) {
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) o;
+            return high == other.high && low == other.low;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package opt;
+
+import shared.Instance;
+
+/**
+ * A move that sets a single element
+ * @version 1.0
+ */
+public class ChangeOneMove extends Move {
+
+    /**
+     * The element to change
+     */
+    private int i;
+
+    /**
+     * The new value of the element
+     */
+    private double value;
+
+    /**
+     * Make a new change one move
+     * @param i the element to change
+     * @param value the new value of the element
+     */
+    public ChangeOneMove(int i, double value) {
+        this.i = i;
+        this.value = value;
+    }
+
+    /**
+     * @see opt.Move#delta(opt.IncrementalEvaluationFunction, shared.Instance, double)
+     */
+    public double delta(IncrementalEvaluationFunction ef, Instance d, double current) {
+        return ef.changeDelta(d, current, i, value);
+    }
+
+    /**
+     * @see opt.Move#apply(shared.Instance)
+     */
+    public void apply(Instance d) {
+        d.getData().set(i, value);
+    }
+}
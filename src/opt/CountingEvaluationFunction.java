@@ -0,0 +1,102 @@
+package opt;
+
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import shared.Instance;
+import shared.metrics.EvaluationCounter;
+
+/**
+ * An evaluation function that counts the evaluations made
+ * through it and remembers the best value they found.  The
+ * counters are striped so parallel algorithms do not contend
+ * on them.  Wrap incremental functions with {@link #wrap} so
+ * that hill climbers keep scoring moves by their deltas.
+ * @version 1.0
+ */
+public class CountingEvaluationFunction implements EvaluationFunction, EvaluationCounter {
+    /**
+     * The function being counted
+     */
+    private EvaluationFunction function;
+
+    /**
+     * The number of evaluations
+     */
+    private LongAdder evaluations = new LongAdder();
+
+    /**
+     * The best value
+     */
+    private DoubleAccumulator best = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+
+    /**
+     * Make a new counting evaluation function
+     * @param function the function to count
+     */
+    public CountingEvaluationFunction(EvaluationFunction function) {
+        this.function = function;
+    }
+
+    /**
+     * Make a counting function for another function, one that
+     * is itself incremental if the function is
+     * @param function the function to count
+     * @return the counting function
+     */
+    public static CountingEvaluationFunction wrap(EvaluationFunction function) {
+        if (function instanceof IncrementalEvaluationFunction) {
+            return new CountingIncrementalEvaluationFunction(
+                (IncrementalEvaluationFunction) function);
+        }
+        return new CountingEvaluationFunction(function);
+    }
+
+    /**
+     * @see opt.EvaluationFunction#value(shared.Instance)
+     */
+    public double value(Instance d) {
+        double value = function.value(d);
+        count(value);
+        return value;
+    }
+
+    /**
+     * Count an evaluation
+     * @param value the value it found
+     */
+    protected void count(double value) {
+        evaluations.increment();
+        best.accumulate(value);
+    }
+
+    /**
+     * @see shared.metrics.EvaluationCounter#getEvaluations()
+     */
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * @see shared.metrics.EvaluationCounter#getBest()
+     */
+    public double getBest() {
+        return best.get();
+    }
+
+    /**
+     * Reset the count and the best value
+     */
+    public void reset() {
+        evaluations.reset();
+        best.reset();
+    }
+
+    /**
+     * Get the function being counted
+     * @return the function
+     */
+    public EvaluationFunction getFunction() {
+        return function;
+    }
+}
@@ -0,0 +1,71 @@
+package opt;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import shared.Instance;
+
+/**
+ * A counting evaluation function for an incremental function that
+ * forwards the deltas, so that wrapping the function does not move
+ * hill climbers off their incremental path.  A delta scores one
+ * candidate, so it counts as an evaluation of the value it finds,
+ * and the deltas are also counted on their own.
+ * @version 1.0
+ */
+public class CountingIncrementalEvaluationFunction extends CountingEvaluationFunction
+        implements IncrementalEvaluationFunction {
+    /**
+     * The function being counted
+     */
+    private IncrementalEvaluationFunction function;
+
+    /**
+     * The number of deltas
+     */
+    private LongAdder deltas = new LongAdder();
+
+    /**
+     * Make a new counting incremental evaluation function
+     * @param function the function to count
+     */
+    public CountingIncrementalEvaluationFunction(IncrementalEvaluationFunction function) {
+        super(function);
+        this.function = function;
+    }
+
+    /**
+     * @see opt.IncrementalEvaluationFunction#changeDelta(shared.Instance, double, int, double)
+     */
+    public double changeDelta(Instance d, double value, int i, double newValue) {
+        double delta = function.changeDelta(d, value, i, newValue);
+        deltas.increment();
+        count(value + delta);
+        return delta;
+    }
+
+    /**
+     * @see opt.IncrementalEvaluationFunction#swapDelta(shared.Instance, double, int, int)
+     */
+    public double swapDelta(Instance d, double value, int i, int j) {
+        double delta = function.swapDelta(d, value, i, j);
+        deltas.increment();
+        count(value + delta);
+        return delta;
+    }
+
+    /**
+     * Get the number of deltas, which are also counted as evaluations
+     * @return the number of deltas
+     */
+    public long getDeltas() {
+        return deltas.sum();
+    }
+
+    /**
+     * @see opt.CountingEvaluationFunction#reset()
+     */
+    public void reset() {
+        super.reset();
+        deltas.reset();
+    }
+}
@@ -9,7 +9,7 @@ import shared.Instance;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class DiscreteChangeOneNeighbor implements NeighborFunction {
+public class DiscreteChangeOneNeighbor implements IncrementalNeighborFunction {
     
     /**
      * The ranges of the different values
@@ -34,4 +34,12 @@ public class DiscreteChangeOneNeighbor implements NeighborFunction {
         return cod;
     }
 
+    /**
+     * @see opt.IncrementalNeighborFunction#propose(shared.Instance)
+     */
+    public Move propose(Instance d) {
+        int i = Distribution.random.nextInt(ranges.length);
+        return new ChangeOneMove(i, Distribution.random.nextInt(ranges[i]));
+    }
+
 }
\ No newline at end of file
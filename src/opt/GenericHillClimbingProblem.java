@@ -8,7 +8,7 @@ import dist.Distribution;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class GenericHillClimbingProblem extends GenericOptimizationProblem implements HillClimbingProblem {
+public class GenericHillClimbingProblem extends GenericOptimizationProblem implements IncrementalHillClimbingProblem {
     
     /**
      * The neighbor function
@@ -34,4 +34,26 @@ public class GenericHillClimbingProblem extends GenericOptimizationProblem imple
         return neigh.neighbor(d);
     }
 
+    /**
+     * @see opt.IncrementalHillClimbingProblem#isIncremental()
+     */
+    public boolean isIncremental() {
+        return getEvaluationFunction() instanceof IncrementalEvaluationFunction
+            && neigh instanceof IncrementalNeighborFunction;
+    }
+
+    /**
+     * @see opt.IncrementalHillClimbingProblem#propose(shared.Instance)
+     */
+    public Move propose(Instance d) {
+        return ((IncrementalNeighborFunction) neigh).propose(d);
+    }
+
+    /**
+     * @see opt.IncrementalHillClimbingProblem#delta(shared.Instance, double, opt.Move)
+     */
+    public double delta(Instance d, double value, Move move) {
+        return move.delta((IncrementalEvaluationFunction) getEvaluationFunction(), d, value);
+    }
+
 }
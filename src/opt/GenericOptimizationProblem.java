@@ -39,6 +39,14 @@ public class GenericOptimizationProblem implements OptimizationProblem {
         return eval.value(d);
     }
 
+    /**
+     * Get the evaluation function
+     * @return the evaluation function
+     */
+    public EvaluationFunction getEvaluationFunction() {
+        return eval;
+    }
+
 
     /**
      * @see opt.OptimizationProblem#random()
@@ -0,0 +1,31 @@
+package opt;
+
+import shared.Instance;
+
+/**
+ * An evaluation function that can score a small change
+ * to a piece of data without evaluating it from scratch
+ * @version 1.0
+ */
+public interface IncrementalEvaluationFunction extends EvaluationFunction {
+
+    /**
+     * Find the change in value from setting a single element
+     * @param d the data, which is not modified
+     * @param value the current value of the data
+     * @param i the element to change
+     * @param newValue the new value of the element
+     * @return the new value minus the current value
+     */
+    public abstract double changeDelta(Instance d, double value, int i, double newValue);
+
+    /**
+     * Find the change in value from swapping two elements
+     * @param d the data, which is not modified
+     * @param value the current value of the data
+     * @param i the first element
+     * @param j the second element
+     * @return the new value minus the current value
+     */
+    public abstract double swapDelta(Instance d, double value, int i, int j);
+}
@@ -0,0 +1,33 @@
+package opt;
+
+import shared.Instance;
+
+/**
+ * A hill climbing problem that can score moves
+ * to neighbors without building them
+ * @version 1.0
+ */
+public interface IncrementalHillClimbingProblem extends HillClimbingProblem {
+
+    /**
+     * Whether moves can be proposed and scored incrementally
+     * @return true if they can
+     */
+    public abstract boolean isIncremental();
+
+    /**
+     * Propose a move to a neighbor of the given data
+     * @param d the data, which is not modified
+     * @return the move
+     */
+    public abstract Move propose(Instance d);
+
+    /**
+     * Find the change in value from making a move
+     * @param d the data, which is not modified
+     * @param value the current value of the data
+     * @param move the move
+     * @return the new value minus the current value
+     */
+    public abstract double delta(Instance d, double value, Move move);
+}
@@ -0,0 +1,18 @@
+package opt;
+
+import shared.Instance;
+
+/**
+ * A neighbor function that can describe the neighbor
+ * as a move instead of building it
+ * @version 1.0
+ */
+public interface IncrementalNeighborFunction extends NeighborFunction {
+
+    /**
+     * Propose a move to a neighbor of the given data
+     * @param d the data, which is not modified
+     * @return the move
+     */
+    public abstract Move propose(Instance d);
+}
@@ -0,0 +1,36 @@
+package opt;
+
+import dist.Distribution;
+
+import shared.Instance;
+import util.linalg.IntVector;
+
+/**
+ * A swap one neighbor function for int vector genomes
+ * @version 1.0
+ */
+public class IntSwapNeighbor implements IncrementalNeighborFunction {
+
+    /**
+     * @see opt.NeighborFunction#neighbor(shared.Instance)
+     */
+    public Instance neighbor(Instance d) {
+        IntVector copy = (IntVector) d.getData().copy();
+        int[] data = copy.getData();
+        int i = Distribution.random.nextInt(data.length);
+        int j = Distribution.random.nextInt(data.length);
+        int temp = data[i];
+        data[i] = data[j];
+        data[j] = temp;
+        return new Instance(copy);
+    }
+
+    /**
+     * @see opt.IncrementalNeighborFunction#propose(shared.Instance)
+     */
+    public Move propose(Instance d) {
+        int i = Distribution.random.nextInt(d.size());
+        int j = Distribution.random.nextInt(d.size());
+        return new SwapMove(i, j);
+    }
+}
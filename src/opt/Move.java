@@ -0,0 +1,25 @@
+package opt;
+
+import shared.Instance;
+
+/**
+ * A small change to a piece of optimization data
+ * @version 1.0
+ */
+public abstract class Move {
+
+    /**
+     * Find the change in value this move would make
+     * @param ef the evaluation function
+     * @param d the data, which is not modified
+     * @param value the current value of the data
+     * @return the new value minus the current value
+     */
+    public abstract double delta(IncrementalEvaluationFunction ef, Instance d, double value);
+
+    /**
+     * Make the move
+     * @param d the data to change in place
+     */
+    public abstract void apply(Instance d);
+}
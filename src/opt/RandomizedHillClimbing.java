@@ -1,5 +1,6 @@
 package opt;
 
+import opt.parallel.Migratable;
 import shared.Instance;
 
 /**
@@ -7,7 +8,7 @@ import shared.Instance;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class RandomizedHillClimbing extends OptimizationAlgorithm {
+public class RandomizedHillClimbing extends OptimizationAlgorithm implements Migratable {
     
     /**
      * The current optimization data
@@ -33,6 +34,18 @@ public class RandomizedHillClimbing extends OptimizationAlgorithm {
      */
     public double train() {
         HillClimbingProblem hcp = (HillClimbingProblem) getOptimizationProblem();
+        if (hcp instanceof IncrementalHillClimbingProblem
+                && ((IncrementalHillClimbingProblem) hcp).isIncremental()) {
+            // score the move and only make it in place if it is taken
+            IncrementalHillClimbingProblem ihcp = (IncrementalHillClimbingProblem) hcp;
+            Move move = ihcp.propose(cur);
+            double neighVal = curVal + ihcp.delta(cur, curVal, move);
+            if (neighVal > curVal) {
+                curVal = neighVal;
+                move.apply(cur);
+            }
+            return curVal;
+        }
         Instance neigh = hcp.neighbor(cur);
         double neighVal = hcp.value(neigh);
         if (neighVal > curVal) {
@@ -43,10 +56,24 @@ public class RandomizedHillClimbing extends OptimizationAlgorithm {
     }
 
     /**
-     * @see opt.OptimizationAlgorithm#getOptimalData()
+     * Get a copy of the current solution, since incremental
+     * moves change the current solution in place
+     * @see opt.OptimizationAlgorithm#getOptimal()
      */
     public Instance getOptimal() {
-        return cur;
+        return (Instance) cur.copy();
+    }
+
+    /**
+     * Restart from the migrant if it is better than the current solution
+     * @see opt.parallel.Migratable#accept(shared.Instance)
+     */
+    public void accept(Instance migrant) {
+        double value = getOptimizationProblem().value(migrant);
+        if (value > curVal) {
+            curVal = value;
+            cur = (Instance) migrant.copy();
+        }
     }
 
 }
@@ -2,6 +2,7 @@ package opt;
 
 import dist.Distribution;
 
+import opt.parallel.Migratable;
 import shared.Instance;
 
 /**
@@ -9,7 +10,7 @@ import shared.Instance;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class SimulatedAnnealing extends OptimizationAlgorithm {
+public class SimulatedAnnealing extends OptimizationAlgorithm implements Migratable {
     
     /**
      * The current optimiation data
@@ -50,6 +51,20 @@ public class SimulatedAnnealing extends OptimizationAlgorithm {
      */
     public double train() {
         HillClimbingProblem p = (HillClimbingProblem) getOptimizationProblem();
+        if (p instanceof IncrementalHillClimbingProblem
+                && ((IncrementalHillClimbingProblem) p).isIncremental()) {
+            // score the move and only make it in place if it is taken
+            IncrementalHillClimbingProblem ip = (IncrementalHillClimbingProblem) p;
+            Move move = ip.propose(cur);
+            double neighVal = curVal + ip.delta(cur, curVal, move);
+            if (neighVal > curVal || Distribution.random.nextDouble() < 
+                    Math.exp((neighVal - curVal) / t)) {
+                curVal = neighVal;
+                move.apply(cur);
+            }
+            t *= cooling;
+            return curVal;
+        }
         Instance neigh = p.neighbor(cur);
         double neighVal = p.value(neigh);
         if (neighVal > curVal || Distribution.random.nextDouble() < 
@@ -62,10 +77,24 @@ public class SimulatedAnnealing extends OptimizationAlgorithm {
     }
 
     /**
+     * Get a copy of the current solution, since incremental
+     * moves change the current solution in place
      * @see opt.OptimizationAlgorithm#getOptimal()
      */
     public Instance getOptimal() {
-        return cur;
+        return (Instance) cur.copy();
+    }
+
+    /**
+     * Restart from the migrant if it is better than the current solution
+     * @see opt.parallel.Migratable#accept(shared.Instance)
+     */
+    public void accept(Instance migrant) {
+        double value = getOptimizationProblem().value(migrant);
+        if (value > curVal) {
+            curVal = value;
+            cur = (Instance) migrant.copy();
+        }
     }
 
 }
\ No newline at end of file
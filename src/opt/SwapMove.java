@@ -0,0 +1,48 @@
+package opt;
+
+import shared.Instance;
+import util.linalg.Vector;
+
+/**
+ * A move that swaps two elements
+ * @version 1.0
+ */
+public class SwapMove extends Move {
+
+    /**
+     * The first element
+     */
+    private int i;
+
+    /**
+     * The second element
+     */
+    private int j;
+
+    /**
+     * Make a new swap move
+     * @param i the first element
+     * @param j the second element
+     */
+    public SwapMove(int i, int j) {
+        this.i = i;
+        this.j = j;
+    }
+
+    /**
+     * @see opt.Move#delta(opt.IncrementalEvaluationFunction, shared.Instance, double)
+     */
+    public double delta(IncrementalEvaluationFunction ef, Instance d, double current) {
+        return ef.swapDelta(d, current, i, j);
+    }
+
+    /**
+     * @see opt.Move#apply(shared.Instance)
+     */
+    public void apply(Instance d) {
+        Vector data = d.getData();
+        double temp = data.get(i);
+        data.set(i, data.get(j));
+        data.set(j, temp);
+    }
+}
@@ -9,7 +9,7 @@ import shared.Instance;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class SwapNeighbor implements NeighborFunction {
+public class SwapNeighbor implements IncrementalNeighborFunction {
     
     /**
      * @see opt.ga.MutationFunction#mutate(opt.OptimizationData)
@@ -23,4 +23,13 @@ public class SwapNeighbor implements NeighborFunction {
         cod.getData().set(j, temp);
         return cod;
     }
+
+    /**
+     * @see opt.IncrementalNeighborFunction#propose(shared.Instance)
+     */
+    public Move propose(Instance d) {
+        int i = Distribution.random.nextInt(d.size());
+        int j = Distribution.random.nextInt(d.size());
+        return new SwapMove(i, j);
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package opt.example;
 
+import util.linalg.BitVector;
+import util.linalg.IntVector;
 import util.linalg.Vector;
-import opt.EvaluationFunction;
+import opt.IncrementalEvaluationFunction;
 import shared.Instance;
 
 /**
@@ -9,7 +11,7 @@ import shared.Instance;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class CountOnesEvaluationFunction implements EvaluationFunction {
+public class CountOnesEvaluationFunction implements IncrementalEvaluationFunction {
 
     /**
      * Function Evaluation Count
@@ -29,6 +31,18 @@ public class CountOnesEvaluationFunction implements EvaluationFunction {
     public double value(Instance d) {
         this.fEvals++;
         Vector data = d.getData();
+        if (data instanceof BitVector) {
+            return ((BitVector) data).cardinality();
+        } else if (data instanceof IntVector) {
+            int[] ints = ((IntVector) data).getData();
+            int count = 0;
+            for (int i = 0; i < ints.length; i++) {
+                if (ints[i] == 1) {
+                    count++;
+                }
+            }
+            return count;
+        }
         double val = 0;
         for (int i = 0; i < data.size(); i++) {
             if (data.get(i) == 1) {
@@ -38,6 +52,22 @@ public class CountOnesEvaluationFunction implements EvaluationFunction {
         return val;
     }
 
+    /**
+     * @see opt.IncrementalEvaluationFunction#changeDelta(shared.Instance, double, int, double)
+     */
+    public double changeDelta(Instance d, double value, int i, double newValue) {
+        this.fEvals++;
+        return (newValue == 1 ? 1 : 0) - (d.getData().get(i) == 1 ? 1 : 0);
+    }
+
+    /**
+     * @see opt.IncrementalEvaluationFunction#swapDelta(shared.Instance, double, int, int)
+     */
+    public double swapDelta(Instance d, double value, int i, int j) {
+        this.fEvals++;
+        return 0;
+    }
+
     /**
      * Return function evaluation count
      * @return int fEvals
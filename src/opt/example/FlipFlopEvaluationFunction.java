@@ -1,7 +1,9 @@
 package opt.example;
 
+import util.linalg.BitVector;
+import util.linalg.IntVector;
 import util.linalg.Vector;
-import opt.EvaluationFunction;
+import opt.IncrementalEvaluationFunction;
 import shared.Instance;
 
 /**
@@ -9,7 +11,7 @@ import shared.Instance;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class FlipFlopEvaluationFunction implements EvaluationFunction {
+public class FlipFlopEvaluationFunction implements IncrementalEvaluationFunction {
 
     /**
      * Function Evaluation Count
@@ -29,6 +31,18 @@ public class FlipFlopEvaluationFunction implements EvaluationFunction {
     public double value(Instance d) {
         this.fEvals++;
         Vector data = d.getData();
+        if (data instanceof BitVector) {
+            return ((BitVector) data).transitions();
+        } else if (data instanceof IntVector) {
+            int[] ints = ((IntVector) data).getData();
+            int count = 0;
+            for (int i = 0; i < ints.length - 1; i++) {
+                if (ints[i] != ints[i + 1]) {
+                    count++;
+                }
+            }
+            return count;
+        }
         double val = 0;
         for (int i = 0; i < data.size() - 1; i++) {
             if (data.get(i) != data.get(i + 1)) {
@@ -38,6 +52,67 @@ public class FlipFlopEvaluationFunction implements EvaluationFunction {
         return val;
     }
 
+    /**
+     * @see opt.IncrementalEvaluationFunction#changeDelta(shared.Instance, double, int, double)
+     */
+    public double changeDelta(Instance d, double value, int i, double newValue) {
+        this.fEvals++;
+        Vector data = d.getData();
+        double old = data.get(i);
+        int delta = 0;
+        if (i > 0) {
+            double prev = data.get(i - 1);
+            delta += (prev != newValue ? 1 : 0) - (prev != old ? 1 : 0);
+        }
+        if (i < data.size() - 1) {
+            double next = data.get(i + 1);
+            delta += (next != newValue ? 1 : 0) - (next != old ? 1 : 0);
+        }
+        return delta;
+    }
+
+    /**
+     * @see opt.IncrementalEvaluationFunction#swapDelta(shared.Instance, double, int, int)
+     */
+    public double swapDelta(Instance d, double value, int i, int j) {
+        this.fEvals++;
+        Vector data = d.getData();
+        // only the pairs starting at these positions can change
+        int[] starts = { i - 1, i, j - 1, j };
+        int delta = 0;
+        for (int s = 0; s < starts.length; s++) {
+            int k = starts[s];
+            boolean seen = false;
+            for (int t = 0; t < s; t++) {
+                seen |= starts[t] == k;
+            }
+            if (seen || k < 0 || k >= data.size() - 1) {
+                continue;
+            }
+            boolean before = data.get(k) != data.get(k + 1);
+            boolean after = swapped(data, k, i, j) != swapped(data, k + 1, i, j);
+            delta += (after ? 1 : 0) - (before ? 1 : 0);
+        }
+        return delta;
+    }
+
+    /**
+     * Get an element as it would be after a swap
+     * @param data the data
+     * @param k the element to get
+     * @param i the first swapped element
+     * @param j the second swapped element
+     * @return the element
+     */
+    private double swapped(Vector data, int k, int i, int j) {
+        if (k == i) {
+            return data.get(j);
+        } else if (k == j) {
+            return data.get(i);
+        }
+        return data.get(k);
+    }
+
     /**
      * Return function evaluation count
      * @return int fEvals
@@ -1,5 +1,6 @@
 package opt.example;
 
+import util.linalg.BitVector;
 import util.linalg.Vector;
 import opt.EvaluationFunction;
 import shared.Instance;
@@ -36,16 +37,24 @@ public class FourPeaksEvaluationFunction implements EvaluationFunction {
     public double value(Instance d) {
         this.fEvals++;
         Vector data = d.getData();
-        int i = 0;
-        while (i < data.size() && data.get(i) == 1) {
-            i++;
+        int head;
+        int tail;
+        if (data instanceof BitVector) {
+            BitVector bits = (BitVector) data;
+            head = bits.nextClearBit(0);
+            tail = bits.size() - 1 - bits.previousSetBit(bits.size() - 1);
+        } else {
+            int i = 0;
+            while (i < data.size() && data.get(i) == 1) {
+                i++;
+            }
+            head = i;
+            i = data.size() - 1;
+            while (i >= 0 && data.get(i) == 0) {
+                i--;
+            }
+            tail = data.size() - 1 - i;
         }
-        int head = i;
-        i = data.size() - 1;
-        while (i >= 0 && data.get(i) == 0) {
-            i--;
-        }
-        int tail = data.size() - 1 - i;
         int r = 0;
         if (head > t && tail > t) {
             r = data.size();
@@ -1,7 +1,9 @@
 package opt.example;
 
+import util.linalg.BitVector;
+import util.linalg.IntVector;
 import util.linalg.Vector;
-import opt.EvaluationFunction;
+import opt.IncrementalEvaluationFunction;
 import shared.Instance;
 
 /**
@@ -9,7 +11,7 @@ import shared.Instance;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class KnapsackEvaluationFunction implements EvaluationFunction {
+public class KnapsackEvaluationFunction implements IncrementalEvaluationFunction {
 
     /**
      * The values for the things that can be put in the knapsack
@@ -61,13 +63,69 @@ public class KnapsackEvaluationFunction implements EvaluationFunction {
      */
     public double value(Instance d) {
         this.fEvals++;
-        Vector entriesInKnapsack = d.getData();
+        double[] totals = totals(d.getData());
+        return score(totals[0], totals[1]);
+    }
+
+    /**
+     * The weight of the knapsack can not be recovered from its value, so
+     * this still makes one pass over the items, but it does not copy them.
+     * @see opt.IncrementalEvaluationFunction#changeDelta(shared.Instance, double, int, double)
+     */
+    public double changeDelta(Instance d, double value, int i, double newValue) {
+        this.fEvals++;
+        double[] totals = totals(d.getData());
+        double change = newValue - d.getData().get(i);
+        return score(totals[0] + weights[i] * change, totals[1] + values[i] * change) - value;
+    }
+
+    /**
+     * @see opt.IncrementalEvaluationFunction#swapDelta(shared.Instance, double, int, int)
+     */
+    public double swapDelta(Instance d, double value, int i, int j) {
+        this.fEvals++;
+        double[] totals = totals(d.getData());
+        double change = d.getData().get(j) - d.getData().get(i);
+        return score(totals[0] + (weights[i] - weights[j]) * change,
+            totals[1] + (values[i] - values[j]) * change) - value;
+    }
+
+    /**
+     * Find the total weight and value of the given items
+     * @param entriesInKnapsack the items
+     * @return the weight and the value
+     */
+    private double[] totals(Vector entriesInKnapsack) {
         double weight = 0;
         double value = 0;
-        for (int i = 0; i < entriesInKnapsack.size(); i++) {
-            weight += weights[i] * entriesInKnapsack.get(i);
-            value += values[i] * entriesInKnapsack.get(i);
+        if (entriesInKnapsack instanceof BitVector) {
+            BitVector bits = (BitVector) entriesInKnapsack;
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                weight += weights[i];
+                value += values[i];
+            }
+        } else if (entriesInKnapsack instanceof IntVector) {
+            int[] counts = ((IntVector) entriesInKnapsack).getData();
+            for (int i = 0; i < counts.length; i++) {
+                weight += weights[i] * counts[i];
+                value += values[i] * counts[i];
+            }
+        } else {
+            for (int i = 0; i < entriesInKnapsack.size(); i++) {
+                weight += weights[i] * entriesInKnapsack.get(i);
+                value += values[i] * entriesInKnapsack.get(i);
+            }
         }
+        return new double[] { weight, value };
+    }
+
+    /**
+     * Score a knapsack
+     * @param weight the weight of the items in it
+     * @param value the value of the items in it
+     * @return the score
+     */
+    private double score(double weight, double value) {
         if (weight < maxWeight) {
             return value;
         } else {
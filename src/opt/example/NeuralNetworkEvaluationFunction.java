@@ -2,6 +2,7 @@ package opt.example;
 
 import util.linalg.Vector;
 import func.nn.NeuralNetwork;
+import func.nn.backprop.DenseBackPropagationNetwork;
 import opt.EvaluationFunction;
 import shared.DataSet;
 import shared.ErrorMeasure;
@@ -13,6 +14,10 @@ import shared.Instance;
  * @version 1.0
  */
 public class NeuralNetworkEvaluationFunction implements EvaluationFunction {
+    /**
+     * The number of examples a dense network runs at once
+     */
+    private static final int BLOCK = 256;
     /**
      * The network
      */
@@ -48,10 +53,23 @@ public class NeuralNetworkEvaluationFunction implements EvaluationFunction {
         network.setWeights(weights);
         // calculate the error
         double error = 0;
-        for (int i = 0; i < examples.size(); i++) {
-            network.setInputValues(examples.get(i).getData());
-            network.run();
-            error += measure.value(new Instance(network.getOutputValues()), examples.get(i));
+        if (network instanceof DenseBackPropagationNetwork) {
+            DenseBackPropagationNetwork dense = (DenseBackPropagationNetwork) network;
+            Instance[] instances = examples.getInstances();
+            for (int start = 0; start < instances.length; start += BLOCK) {
+                int size = Math.min(BLOCK, instances.length - start);
+                dense.run(instances, start, size);
+                for (int b = 0; b < size; b++) {
+                    error += measure.value(new Instance(dense.getOutputValues(b)),
+                        instances[start + b]);
+                }
+            }
+        } else {
+            for (int i = 0; i < examples.size(); i++) {
+                network.setInputValues(examples.get(i).getData());
+                network.run();
+                error += measure.value(new Instance(network.getOutputValues()), examples.get(i));
+            }
         }
         // the fitness is 1 / error
         return 1 / error;
@@ -4,6 +4,7 @@ import dist.Distribution;
 
 import opt.ga.CrossoverFunction;
 import shared.Instance;
+import util.linalg.IntVector;
 
 /**
  * A cross over function for a traveling
@@ -65,6 +66,9 @@ public class TravelingSalesmanCrossOver implements CrossoverFunction {
             child[i+1] = next;
             visited[next] = true;
         }
+        if (a.getData() instanceof IntVector) {
+            return new Instance(new IntVector(child));
+        }
         double[] data = new double[child.length];
         for (int i = 0; i < child.length; i++) {
             data[i] = child[i];
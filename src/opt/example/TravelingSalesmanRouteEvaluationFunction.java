@@ -1,6 +1,8 @@
 package opt.example;
 
+import opt.IncrementalEvaluationFunction;
 import shared.Instance;
+import util.linalg.IntVector;
 
 /**
  * An implementation of the traveling salesman problem
@@ -10,7 +12,8 @@ import shared.Instance;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class TravelingSalesmanRouteEvaluationFunction extends TravelingSalesmanEvaluationFunction {
+public class TravelingSalesmanRouteEvaluationFunction extends TravelingSalesmanEvaluationFunction
+        implements IncrementalEvaluationFunction {
 
     /**
      * Make a new route evaluation function
@@ -26,6 +29,14 @@ public class TravelingSalesmanRouteEvaluationFunction extends TravelingSalesmanE
     public double value(Instance d) {
         super.incrementFunctionEvaluations();
         double distance = 0;
+        if (d.getData() instanceof IntVector) {
+            int[] route = ((IntVector) d.getData()).getData();
+            for (int i = 0; i < route.length - 1; i++) {
+                distance += getDistance(route[i], route[i+1]);
+            }
+            distance += getDistance(route[route.length - 1], route[0]);
+            return 1/distance;
+        }
         for (int i = 0; i < d.size() - 1; i++) {
             distance += getDistance(d.getDiscrete(i), d.getDiscrete(i+1));
         }
@@ -33,5 +44,67 @@ public class TravelingSalesmanRouteEvaluationFunction extends TravelingSalesmanE
         return 1/distance;
     }
 
+    /**
+     * Only the two edges touching the changed position are measured
+     * @see opt.IncrementalEvaluationFunction#changeDelta(shared.Instance, double, int, double)
+     */
+    public double changeDelta(Instance d, double value, int i, double newValue) {
+        super.incrementFunctionEvaluations();
+        int n = d.size();
+        int city = (int) Math.round(newValue);
+        int prev = d.getDiscrete((i + n - 1) % n);
+        int next = d.getDiscrete((i + 1) % n);
+        int cur = d.getDiscrete(i);
+        double change = getDistance(prev, city) + getDistance(city, next)
+            - getDistance(prev, cur) - getDistance(cur, next);
+        return 1/(1/value + change) - value;
+    }
+
+    /**
+     * Only the at most four edges touching the swapped positions are measured
+     * @see opt.IncrementalEvaluationFunction#swapDelta(shared.Instance, double, int, int)
+     */
+    public double swapDelta(Instance d, double value, int i, int j) {
+        super.incrementFunctionEvaluations();
+        if (i == j) {
+            return 0;
+        }
+        int n = d.size();
+        // the edges starting at these positions are the ones that change
+        int[] starts = { (i + n - 1) % n, i, (j + n - 1) % n, j };
+        double change = 0;
+        for (int s = 0; s < starts.length; s++) {
+            int k = starts[s];
+            boolean seen = false;
+            for (int t = 0; t < s; t++) {
+                seen |= starts[t] == k;
+            }
+            if (seen) {
+                continue;
+            }
+            int l = (k + 1) % n;
+            change += getDistance(swapped(d, k, i, j), swapped(d, l, i, j))
+                - getDistance(d.getDiscrete(k), d.getDiscrete(l));
+        }
+        return 1/(1/value + change) - value;
+    }
+
+    /**
+     * Get a city as it would be after a swap
+     * @param d the route
+     * @param k the position to get
+     * @param i the first swapped position
+     * @param j the second swapped position
+     * @return the city
+     */
+    private int swapped(Instance d, int k, int i, int j) {
+        if (k == i) {
+            return d.getDiscrete(j);
+        } else if (k == j) {
+            return d.getDiscrete(i);
+        }
+        return d.getDiscrete(k);
+    }
+
 
 }
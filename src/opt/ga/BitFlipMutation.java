@@ -0,0 +1,20 @@
+package opt.ga;
+
+import dist.Distribution;
+import shared.Instance;
+import util.linalg.BitVector;
+
+/**
+ * A mutation for bit vector genomes that flips a single bit
+ * @version 1.0
+ */
+public class BitFlipMutation implements MutationFunction {
+
+    /**
+     * @see opt.ga.MutationFunction#mutate(shared.Instance)
+     */
+    public void mutate(Instance d) {
+        BitVector bits = (BitVector) d.getData();
+        bits.flip(Distribution.random.nextInt(bits.size()));
+    }
+}
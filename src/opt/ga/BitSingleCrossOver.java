@@ -0,0 +1,40 @@
+package opt.ga;
+
+import dist.Distribution;
+import shared.Instance;
+import util.linalg.BitVector;
+
+/**
+ * Single point crossover for bit vector genomes, done a word at a time.
+ * The mated solution takes the bits before the point from the second
+ * solution and the remaining bits from the first, like SingleCrossOver.
+ *
+ * @version 1.0
+ */
+public class BitSingleCrossOver implements CrossoverFunction {
+
+    /**
+     * @see opt.ga.CrossoverFunction#mate(shared.Instance, shared.Instance)
+     */
+    public Instance mate(Instance a, Instance b) {
+        BitVector va = (BitVector) a.getData();
+        long[] wa = va.getWords();
+        long[] wb = ((BitVector) b.getData()).getWords();
+        long[] child = new long[wa.length];
+        int point = Distribution.random.nextInt(va.size() + 1);
+        for (int w = 0; w < child.length; w++) {
+            int start = w << 6;
+            // the mask of bits to take from the second solution
+            long mask;
+            if (point >= start + 64) {
+                mask = -1L;
+            } else if (point <= start) {
+                mask = 0;
+            } else {
+                mask = (1L << (point - start)) - 1;
+            }
+            child[w] = (wb[w] & mask) | (wa[w] & ~mask);
+        }
+        return new Instance(new BitVector(child, va.size()));
+    }
+}
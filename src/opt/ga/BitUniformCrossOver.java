@@ -0,0 +1,29 @@
+package opt.ga;
+
+import dist.Distribution;
+import shared.Instance;
+import util.linalg.BitVector;
+
+/**
+ * Uniform crossover for bit vector genomes, drawing
+ * a random mask a word at a time.
+ *
+ * @version 1.0
+ */
+public class BitUniformCrossOver implements CrossoverFunction {
+
+    /**
+     * @see opt.ga.CrossoverFunction#mate(shared.Instance, shared.Instance)
+     */
+    public Instance mate(Instance a, Instance b) {
+        BitVector va = (BitVector) a.getData();
+        long[] wa = va.getWords();
+        long[] wb = ((BitVector) b.getData()).getWords();
+        long[] child = new long[wa.length];
+        for (int w = 0; w < child.length; w++) {
+            long mask = Distribution.random.nextLong();
+            child[w] = (wa[w] & mask) | (wb[w] & ~mask);
+        }
+        return new Instance(new BitVector(child, va.size()));
+    }
+}
@@ -11,7 +11,7 @@ import dist.DiscreteDistribution;
 import opt.OptimizationAlgorithm;
 import opt.ga.GeneticAlgorithmProblem;
 import shared.Instance;
-import java.util.concurrent.ThreadLocalRandom;
+import util.StreamRandom;
 
 
 /**
@@ -26,7 +26,7 @@ public class FitnessOrderedGeneticAlgorithm extends OptimizationAlgorithm {
     /**
      * The random number generator
      */
-    private static final Random random = new Random();
+    private static final Random random = new StreamRandom();
     
     /**
      * The population size
@@ -113,8 +113,8 @@ public class FitnessOrderedGeneticAlgorithm extends OptimizationAlgorithm {
         Instance[] newPopulation = new Instance[populationSize];
         for (int i = 0; i < toMate; i++) {
             // pick the mates
-        	int randa = ThreadLocalRandom.current().nextInt(toMate, populationSize);
-        	int randb = ThreadLocalRandom.current().nextInt(toMate, populationSize);
+        	int randa = toMate + random.nextInt(populationSize - toMate);
+        	int randb = toMate + random.nextInt(populationSize - toMate);
         	
             Instance a = map.get(values[randa]);
             Instance b = map.get(values[randb]);
@@ -124,7 +124,7 @@ public class FitnessOrderedGeneticAlgorithm extends OptimizationAlgorithm {
         }
         // elite for the rest
         for (int i = toMate; i < newPopulation.length; i++) {
-        	int randa = ThreadLocalRandom.current().nextInt(toMate, populationSize);
+        	int randa = toMate + random.nextInt(populationSize - toMate);
 
             newPopulation[i] = (Instance) map.get(values[randa]).copy();
             newValues[i] = values[randa];
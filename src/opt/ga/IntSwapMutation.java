@@ -0,0 +1,24 @@
+package opt.ga;
+
+import dist.Distribution;
+import shared.Instance;
+import util.linalg.IntVector;
+
+/**
+ * A swap one mutation for int vector genomes
+ * @version 1.0
+ */
+public class IntSwapMutation implements MutationFunction {
+
+    /**
+     * @see opt.ga.MutationFunction#mutate(shared.Instance)
+     */
+    public void mutate(Instance d) {
+        int[] data = ((IntVector) d.getData()).getData();
+        int i = Distribution.random.nextInt(data.length);
+        int j = Distribution.random.nextInt(data.length);
+        int temp = data[i];
+        data[i] = data[j];
+        data[j] = temp;
+    }
+}
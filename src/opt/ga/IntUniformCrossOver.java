@@ -0,0 +1,26 @@
+package opt.ga;
+
+import dist.Distribution;
+import shared.Instance;
+import util.linalg.IntVector;
+
+/**
+ * Uniform crossover for int vector genomes.
+ *
+ * @version 1.0
+ */
+public class IntUniformCrossOver implements CrossoverFunction {
+
+    /**
+     * @see opt.ga.CrossoverFunction#mate(shared.Instance, shared.Instance)
+     */
+    public Instance mate(Instance a, Instance b) {
+        int[] da = ((IntVector) a.getData()).getData();
+        int[] db = ((IntVector) b.getData()).getData();
+        int[] child = new int[da.length];
+        for (int i = 0; i < child.length; i++) {
+            child[i] = Distribution.random.nextBoolean() ? da[i] : db[i];
+        }
+        return new Instance(new IntVector(child));
+    }
+}
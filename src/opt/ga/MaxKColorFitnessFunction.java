@@ -3,7 +3,7 @@ package opt.ga;
 import java.util.Arrays;
 
 import util.linalg.Vector;
-import opt.EvaluationFunction;
+import opt.IncrementalEvaluationFunction;
 import shared.Instance;
 
 /**
@@ -11,7 +11,7 @@ import shared.Instance;
  * @author kmandal
  * @version 1.0
  */
-public class MaxKColorFitnessFunction implements EvaluationFunction {
+public class MaxKColorFitnessFunction implements IncrementalEvaluationFunction {
 
     /**
      *
@@ -60,6 +60,48 @@ public class MaxKColorFitnessFunction implements EvaluationFunction {
         return iterations;
     }
 
+    /**
+     * Each position but the last adds the number of vertices scanned
+     * for its color, so only the changed position is rescanned.  This
+     * does not update the conflict flag.
+     * @see opt.IncrementalEvaluationFunction#changeDelta(shared.Instance, double, int, double)
+     */
+    public double changeDelta(Instance d, double value, int i, double newValue) {
+        this.fEvals++;
+        if (i >= d.size() - 1) {
+            return 0;
+        }
+        return iterations((int) newValue) - iterations((int) d.getData().get(i));
+    }
+
+    /**
+     * @see opt.IncrementalEvaluationFunction#swapDelta(shared.Instance, double, int, int)
+     */
+    public double swapDelta(Instance d, double value, int i, int j) {
+        this.fEvals++;
+        int last = d.size() - 1;
+        if (i == j || (i < last) == (j < last)) {
+            return 0;
+        }
+        int moved = (int) d.getData().get(i < last ? j : i);
+        int dropped = (int) d.getData().get(i < last ? i : j);
+        return iterations(moved) - iterations(dropped);
+    }
+
+    /**
+     * Find how many vertices are scanned for a color
+     * @param sampleColor the color
+     * @return the number of vertices scanned
+     */
+    private double iterations(int sampleColor) {
+        for (int j = 0; j < graphSize; j++) {
+            if (vertices[j].getAadjacencyColorMatrix().contains(sampleColor)) {
+                return j + 1;
+            }
+        }
+        return graphSize;
+    }
+
     /**
      * Return function evaluation count
      * @return int fEvals
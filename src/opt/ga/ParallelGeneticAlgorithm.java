@@ -0,0 +1,334 @@
+package opt.ga;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import opt.OptimizationAlgorithm;
+import opt.parallel.Migratable;
+import shared.Instance;
+import util.ABAGAILArrays;
+import util.StreamRandom;
+
+/**
+ * A genetic algorithm that breeds, mutates and evaluates each
+ * generation across a fork join pool.  The population is split
+ * into one contiguous chunk per worker and each chunk draws all of
+ * its randomness from its own stream, so a run with a fixed seed
+ * and worker count is reproducible.  The problem's evaluation,
+ * mating and mutation functions must be safe to call concurrently.
+ * @version 1.0
+ */
+public class ParallelGeneticAlgorithm extends OptimizationAlgorithm implements Migratable {
+
+    /**
+     * The population size
+     */
+    private int populationSize;
+
+    /**
+     * The number of population to mate
+     * each time step
+     */
+    private int toMate;
+
+    /**
+     * The number of population to mutate
+     * each time step
+     */
+    private int toMutate;
+
+    /**
+     * The population
+     */
+    private Instance[] population;
+
+    /**
+     * The values of the population
+     */
+    private double[] values;
+
+    /**
+     * The stream used to plan each generation
+     */
+    private Random random;
+
+    /**
+     * The stream for each worker
+     */
+    private Random[] streams;
+
+    /**
+     * The pool to run the workers in
+     */
+    private transient ForkJoinPool pool;
+
+    /**
+     * Make a new parallel genetic algorithm
+     * @param populationSize the size
+     * @param toMate the number to mate each iteration
+     * @param toMutate the number to mutate each iteration
+     * @param gap the problem to solve
+     * @param pool the pool to run in
+     * @param workers the number of chunks to split each generation into
+     * @param seed the seed for the random streams
+     */
+    public ParallelGeneticAlgorithm(int populationSize, int toMate, int toMutate,
+            GeneticAlgorithmProblem gap, ForkJoinPool pool, int workers, long seed) {
+        super(gap);
+        this.populationSize = populationSize;
+        this.toMate = toMate;
+        this.toMutate = toMutate;
+        this.pool = pool;
+        Random[] all = StreamRandom.streams(seed, workers + 1);
+        random = all[0];
+        streams = new Random[workers];
+        System.arraycopy(all, 1, streams, 0, workers);
+        population = new Instance[populationSize];
+        values = new double[populationSize];
+        run(null, null, null, null, null);
+    }
+
+    /**
+     * Make a new parallel genetic algorithm using
+     * one worker per thread of the pool
+     * @param populationSize the size
+     * @param toMate the number to mate each iteration
+     * @param toMutate the number to mutate each iteration
+     * @param gap the problem to solve
+     * @param pool the pool to run in
+     * @param seed the seed for the random streams
+     */
+    public ParallelGeneticAlgorithm(int populationSize, int toMate, int toMutate,
+            GeneticAlgorithmProblem gap, ForkJoinPool pool, long seed) {
+        this(populationSize, toMate, toMutate, gap, pool, pool.getParallelism(), seed);
+    }
+
+    /**
+     * Make a new parallel genetic algorithm in the common pool
+     * @param populationSize the size
+     * @param toMate the number to mate each iteration
+     * @param toMutate the number to mutate each iteration
+     * @param gap the problem to solve
+     * @param seed the seed for the random streams
+     */
+    public ParallelGeneticAlgorithm(int populationSize, int toMate, int toMutate,
+            GeneticAlgorithmProblem gap, long seed) {
+        this(populationSize, toMate, toMutate, gap, ForkJoinPool.commonPool(), seed);
+    }
+
+    /**
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        // calculate the cumulative distribution over the population
+        double[] cumulatives = new double[population.length];
+        double sum = 0;
+        for (int i = 0; i < cumulatives.length; i++) {
+            sum += values[i];
+            cumulatives[i] = sum;
+        }
+        if (Double.isInfinite(sum)) {
+            return sum;
+        }
+        for (int i = 0; i < cumulatives.length; i++) {
+            cumulatives[i] /= sum;
+        }
+        cumulatives[cumulatives.length - 1] = 1;
+        // decide up front who gets mutated so the plan does not
+        // depend on how the chunks are scheduled
+        int[] mutations = new int[populationSize];
+        for (int i = 0; i < toMutate; i++) {
+            mutations[random.nextInt(populationSize)]++;
+        }
+        Instance[] newPopulation = new Instance[populationSize];
+        double[] newValues = new double[populationSize];
+        run(cumulatives, mutations, newPopulation, newValues, population);
+        // the new generation
+        population = newPopulation;
+        values = newValues;
+        return sum / populationSize;
+    }
+
+    /**
+     * Run one chunk per worker and wait for them all
+     * @param cumulatives the selection cumulatives or null to
+     * create the initial population
+     * @param mutations the number of mutations for each child
+     * @param newPopulation the population to fill
+     * @param newValues the values to fill
+     * @param parents the current population
+     */
+    private void run(double[] cumulatives, int[] mutations,
+            Instance[] newPopulation, double[] newValues, Instance[] parents) {
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[streams.length];
+        for (int w = 0; w < tasks.length; w++) {
+            int start = (int) ((long) w * populationSize / streams.length);
+            int end = (int) ((long) (w + 1) * populationSize / streams.length);
+            RecursiveAction task = cumulatives == null
+                ? new Initializer(streams[w], start, end)
+                : new Breeder(streams[w], start, end, cumulatives, mutations,
+                    newPopulation, newValues, parents);
+            tasks[w] = pool.submit(task);
+        }
+        for (int w = 0; w < tasks.length; w++) {
+            tasks[w].join();
+        }
+    }
+
+    /**
+     * @see opt.OptimizationAlgorithm#getOptimal()
+     */
+    public Instance getOptimal() {
+        double bestVal = values[0];
+        int best = 0;
+        for (int i = 1; i < population.length; i++) {
+            double value = values[i];
+            if (value > bestVal) {
+                bestVal = value;
+                best = i;
+            }
+        }
+        return population[best];
+    }
+
+    /**
+     * Replace the worst member of the population with the migrant
+     * @see opt.parallel.Migratable#accept(shared.Instance)
+     */
+    public void accept(Instance migrant) {
+        int worst = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[worst]) {
+                worst = i;
+            }
+        }
+        population[worst] = (Instance) migrant.copy();
+        values[worst] = getOptimizationProblem().value(population[worst]);
+    }
+
+    /**
+     * Fills a chunk of the initial population
+     */
+    private class Initializer extends RecursiveAction {
+        /** The stream for this chunk */
+        private Random stream;
+        /** The start of the chunk */
+        private int start;
+        /** The end of the chunk */
+        private int end;
+
+        /**
+         * Make a new initializer
+         * @param stream the stream
+         * @param start the start of the chunk
+         * @param end the end of the chunk
+         */
+        public Initializer(Random stream, int start, int end) {
+            this.stream = stream;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            GeneticAlgorithmProblem ga = (GeneticAlgorithmProblem) getOptimizationProblem();
+            Random previous = StreamRandom.bind(stream);
+            try {
+                for (int i = start; i < end; i++) {
+                    population[i] = ga.random();
+                    values[i] = ga.value(population[i]);
+                }
+            } finally {
+                StreamRandom.bind(previous);
+            }
+        }
+    }
+
+    /**
+     * Breeds, mutates and evaluates a chunk of the next generation
+     */
+    private class Breeder extends RecursiveAction {
+        /** The stream for this chunk */
+        private Random stream;
+        /** The start of the chunk */
+        private int start;
+        /** The end of the chunk */
+        private int end;
+        /** The selection cumulatives */
+        private double[] cumulatives;
+        /** The number of mutations for each child */
+        private int[] mutations;
+        /** The population being filled */
+        private Instance[] newPopulation;
+        /** The values being filled */
+        private double[] newValues;
+        /** The current population */
+        private Instance[] parents;
+
+        /**
+         * Make a new breeder
+         * @param stream the stream
+         * @param start the start of the chunk
+         * @param end the end of the chunk
+         * @param cumulatives the selection cumulatives
+         * @param mutations the number of mutations for each child
+         * @param newPopulation the population to fill
+         * @param newValues the values to fill
+         * @param parents the current population
+         */
+        public Breeder(Random stream, int start, int end, double[] cumulatives,
+                int[] mutations, Instance[] newPopulation, double[] newValues,
+                Instance[] parents) {
+            this.stream = stream;
+            this.start = start;
+            this.end = end;
+            this.cumulatives = cumulatives;
+            this.mutations = mutations;
+            this.newPopulation = newPopulation;
+            this.newValues = newValues;
+            this.parents = parents;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            GeneticAlgorithmProblem ga = (GeneticAlgorithmProblem) getOptimizationProblem();
+            Random previous = StreamRandom.bind(stream);
+            try {
+                for (int i = start; i < end; i++) {
+                    boolean changed;
+                    if (i < toMate) {
+                        // pick the mates and make the kid
+                        Instance a = parents[ABAGAILArrays.search(cumulatives, stream.nextDouble())];
+                        Instance b = parents[ABAGAILArrays.search(cumulatives, stream.nextDouble())];
+                        newPopulation[i] = ga.mate(a, b);
+                        changed = true;
+                    } else {
+                        // elite for the rest
+                        int j = ABAGAILArrays.search(cumulatives, stream.nextDouble());
+                        newPopulation[i] = (Instance) parents[j].copy();
+                        newValues[i] = values[j];
+                        changed = false;
+                    }
+                    for (int m = 0; m < mutations[i]; m++) {
+                        ga.mutate(newPopulation[i]);
+                        changed = true;
+                    }
+                    if (changed) {
+                        newValues[i] = ga.value(newPopulation[i]);
+                    }
+                }
+            } finally {
+                StreamRandom.bind(previous);
+            }
+        }
+    }
+}
@@ -5,7 +5,9 @@ import java.util.Random;
 import dist.DiscreteDistribution;
 
 import opt.OptimizationAlgorithm;
+import opt.parallel.Migratable;
 import shared.Instance;
+import util.StreamRandom;
 
 
 /**
@@ -14,12 +16,12 @@ import shared.Instance;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class StandardGeneticAlgorithm extends OptimizationAlgorithm {
+public class StandardGeneticAlgorithm extends OptimizationAlgorithm implements Migratable {
     
     /**
      * The random number generator
      */
-    public static final Random random = new Random();
+    public static final Random random = new StreamRandom();
     
     /**
      * The population size
@@ -89,21 +91,25 @@ public class StandardGeneticAlgorithm extends OptimizationAlgorithm {
             probabilities[i] /= sum;
         }
         DiscreteDistribution dd = new DiscreteDistribution(probabilities);
+        // draw all of the selections at once, two for each
+        // child to mate and one for each elite
+        int[] selections = new int[toMate + populationSize];
+        dd.sampleInto(selections, random);
   
         // make the children
         double[] newValues = new double[populationSize];
         Instance[] newPopulation = new Instance[populationSize];
         for (int i = 0; i < toMate; i++) {
             // pick the mates
-            Instance a = population[dd.sample(null).getDiscrete()];
-            Instance b = population[dd.sample(null).getDiscrete()];
+            Instance a = population[selections[2 * i]];
+            Instance b = population[selections[2 * i + 1]];
             // make the kid
             newPopulation[i] = ga.mate(a, b);
             newValues[i] = -1;
         }
         // elite for the rest
         for (int i = toMate; i < newPopulation.length; i++) {
-            int j = dd.sample(null).getDiscrete();
+            int j = selections[toMate + i];
             newPopulation[i] = (Instance) population[j].copy();
             newValues[i] = values[j];
         }
@@ -142,4 +148,19 @@ public class StandardGeneticAlgorithm extends OptimizationAlgorithm {
         return population[best];
     }
 
+    /**
+     * Replace the worst member of the population with the migrant
+     * @see opt.parallel.Migratable#accept(shared.Instance)
+     */
+    public void accept(Instance migrant) {
+        int worst = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[worst]) {
+                worst = i;
+            }
+        }
+        population[worst] = (Instance) migrant.copy();
+        values[worst] = getOptimizationProblem().value(population[worst]);
+    }
+
 }
@@ -0,0 +1,19 @@
+package opt.parallel;
+
+import opt.OptimizationAlgorithm;
+
+/**
+ * Makes the islands of an island model.  The model calls it
+ * with each island's random stream bound, so the starting points
+ * the algorithms draw in their constructors follow the seed.
+ * @version 1.0
+ */
+public interface IslandFactory {
+
+    /**
+     * Make an island
+     * @param island the index of the island
+     * @return the algorithm to run on it
+     */
+    public abstract OptimizationAlgorithm create(int island);
+}
@@ -0,0 +1,264 @@
+package opt.parallel;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import opt.OptimizationAlgorithm;
+import opt.OptimizationProblem;
+import shared.Instance;
+import util.StreamRandom;
+
+/**
+ * Runs several independent optimization algorithms, the islands,
+ * concurrently on the same problem.  Each call to train runs every
+ * island for a fixed number of iterations on its own random stream
+ * and then lets the migration policy move solutions between them.
+ * With no migration policy this is a plain multi start search.
+ * Each island needs its own problem instance when the problem holds
+ * mutable state, as the distribution of a probabilistic problem does.
+ * Islands made by a factory draw their starting points from their
+ * own streams too, so the seed fixes the whole run.
+ * @version 1.0
+ */
+public class IslandModel extends OptimizationAlgorithm {
+
+    /**
+     * The islands
+     */
+    private OptimizationAlgorithm[] islands;
+
+    /**
+     * The number of iterations between migrations
+     */
+    private int epoch;
+
+    /**
+     * The migration policy or null for none
+     */
+    private MigrationPolicy policy;
+
+    /**
+     * The stream for each island
+     */
+    private Random[] streams;
+
+    /**
+     * The best solution of each island
+     */
+    private Instance[] optima;
+
+    /**
+     * The value of the best solution of each island
+     */
+    private double[] values;
+
+    /**
+     * The best solution found so far
+     */
+    private Instance best;
+
+    /**
+     * The value of the best solution found so far
+     */
+    private double bestVal;
+
+    /**
+     * The pool to run the islands in
+     */
+    private transient ForkJoinPool pool;
+
+    /**
+     * Make a new island model from islands that are already made,
+     * whose starting points were drawn before the seed applies
+     * @param islands the algorithms to run
+     * @param epoch the number of iterations between migrations
+     * @param policy the migration policy or null for none
+     * @param pool the pool to run in
+     * @param seed the seed for the random streams
+     */
+    public IslandModel(OptimizationAlgorithm[] islands, int epoch,
+            MigrationPolicy policy, ForkJoinPool pool, long seed) {
+        this(islands, StreamRandom.streams(seed, islands.length), epoch, policy, pool);
+    }
+
+    /**
+     * Make a new island model in the common pool
+     * @param islands the algorithms to run
+     * @param epoch the number of iterations between migrations
+     * @param policy the migration policy or null for none
+     * @param seed the seed for the random streams
+     */
+    public IslandModel(OptimizationAlgorithm[] islands, int epoch,
+            MigrationPolicy policy, long seed) {
+        this(islands, epoch, policy, ForkJoinPool.commonPool(), seed);
+    }
+
+    /**
+     * Make a new island model, making each island
+     * with its random stream bound
+     * @param factory makes the islands
+     * @param count the number of islands
+     * @param epoch the number of iterations between migrations
+     * @param policy the migration policy or null for none
+     * @param pool the pool to run in
+     * @param seed the seed for the random streams
+     */
+    public IslandModel(IslandFactory factory, int count, int epoch,
+            MigrationPolicy policy, ForkJoinPool pool, long seed) {
+        this(factory, StreamRandom.streams(seed, count), epoch, policy, pool);
+    }
+
+    /**
+     * Make a new island model in the common pool, making
+     * each island with its random stream bound
+     * @param factory makes the islands
+     * @param count the number of islands
+     * @param epoch the number of iterations between migrations
+     * @param policy the migration policy or null for none
+     * @param seed the seed for the random streams
+     */
+    public IslandModel(IslandFactory factory, int count, int epoch,
+            MigrationPolicy policy, long seed) {
+        this(factory, count, epoch, policy, ForkJoinPool.commonPool(), seed);
+    }
+
+    /**
+     * Make a new island model from a factory and the streams
+     * @param factory makes the islands
+     * @param streams the stream for each island
+     * @param epoch the number of iterations between migrations
+     * @param policy the migration policy or null for none
+     * @param pool the pool to run in
+     */
+    private IslandModel(IslandFactory factory, Random[] streams, int epoch,
+            MigrationPolicy policy, ForkJoinPool pool) {
+        this(create(factory, streams), streams, epoch, policy, pool);
+    }
+
+    /**
+     * Make a new island model
+     * @param islands the algorithms to run
+     * @param streams the stream for each island
+     * @param epoch the number of iterations between migrations
+     * @param policy the migration policy or null for none
+     * @param pool the pool to run in
+     */
+    private IslandModel(OptimizationAlgorithm[] islands, Random[] streams, int epoch,
+            MigrationPolicy policy, ForkJoinPool pool) {
+        super(islands[0].getOptimizationProblem());
+        this.islands = islands;
+        this.streams = streams;
+        this.epoch = epoch;
+        this.policy = policy;
+        this.pool = pool;
+        optima = new Instance[islands.length];
+        values = new double[islands.length];
+        bestVal = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Make each island with its stream bound
+     * @param factory makes the islands
+     * @param streams the stream for each island
+     * @return the islands
+     */
+    private static OptimizationAlgorithm[] create(IslandFactory factory, Random[] streams) {
+        OptimizationAlgorithm[] islands = new OptimizationAlgorithm[streams.length];
+        for (int i = 0; i < islands.length; i++) {
+            Random previous = StreamRandom.bind(streams[i]);
+            try {
+                islands[i] = factory.create(i);
+            } finally {
+                StreamRandom.bind(previous);
+            }
+        }
+        return islands;
+    }
+
+    /**
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[islands.length];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = pool.submit(new Epoch(i));
+        }
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i].join();
+        }
+        for (int i = 0; i < islands.length; i++) {
+            if (values[i] > bestVal) {
+                bestVal = values[i];
+                best = (Instance) optima[i].copy();
+            }
+        }
+        if (policy != null) {
+            policy.migrate(islands, optima, values);
+        }
+        return bestVal;
+    }
+
+    /**
+     * @see opt.OptimizationAlgorithm#getOptimal()
+     */
+    public Instance getOptimal() {
+        if (best == null) {
+            OptimizationProblem op = getOptimizationProblem();
+            for (int i = 0; i < islands.length; i++) {
+                Instance optimal = islands[i].getOptimal();
+                double value = op.value(optimal);
+                if (best == null || value > bestVal) {
+                    bestVal = value;
+                    best = (Instance) optimal.copy();
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the islands
+     * @return the islands
+     */
+    public OptimizationAlgorithm[] getIslands() {
+        return islands;
+    }
+
+    /**
+     * Runs one island for an epoch
+     */
+    private class Epoch extends RecursiveAction {
+        /** The island to run */
+        private int island;
+
+        /**
+         * Make a new epoch
+         * @param island the island to run
+         */
+        public Epoch(int island) {
+            this.island = island;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            Random previous = StreamRandom.bind(streams[island]);
+            try {
+                OptimizationAlgorithm oa = islands[island];
+                for (int i = 0; i < epoch; i++) {
+                    oa.train();
+                }
+                optima[island] = oa.getOptimal();
+                values[island] = oa.getOptimizationProblem().value(optima[island]);
+            } finally {
+                StreamRandom.bind(previous);
+            }
+        }
+    }
+}
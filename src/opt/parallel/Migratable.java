@@ -0,0 +1,17 @@
+package opt.parallel;
+
+import shared.Instance;
+
+/**
+ * An optimization algorithm that can take in
+ * solutions found by other searches
+ * @version 1.0
+ */
+public interface Migratable {
+
+    /**
+     * Take in a solution found elsewhere
+     * @param migrant the solution, which should not be modified
+     */
+    public abstract void accept(Instance migrant);
+}
@@ -0,0 +1,19 @@
+package opt.parallel;
+
+import opt.OptimizationAlgorithm;
+import shared.Instance;
+
+/**
+ * A policy for moving solutions between islands
+ * @version 1.0
+ */
+public interface MigrationPolicy {
+
+    /**
+     * Move solutions between the islands
+     * @param islands the islands
+     * @param optima the best solution of each island
+     * @param values the value of each of those solutions
+     */
+    public abstract void migrate(OptimizationAlgorithm[] islands, Instance[] optima, double[] values);
+}
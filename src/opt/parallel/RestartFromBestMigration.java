@@ -0,0 +1,29 @@
+package opt.parallel;
+
+import opt.OptimizationAlgorithm;
+import shared.Instance;
+
+/**
+ * A migration policy where every island that is behind
+ * is handed the best solution found by any island
+ * @version 1.0
+ */
+public class RestartFromBestMigration implements MigrationPolicy {
+
+    /**
+     * @see opt.parallel.MigrationPolicy#migrate(opt.OptimizationAlgorithm[], shared.Instance[], double[])
+     */
+    public void migrate(OptimizationAlgorithm[] islands, Instance[] optima, double[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        for (int i = 0; i < islands.length; i++) {
+            if (values[i] < values[best] && islands[i] instanceof Migratable) {
+                ((Migratable) islands[i]).accept(optima[best]);
+            }
+        }
+    }
+}
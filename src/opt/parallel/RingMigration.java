@@ -0,0 +1,24 @@
+package opt.parallel;
+
+import opt.OptimizationAlgorithm;
+import shared.Instance;
+
+/**
+ * A migration policy where each island sends its
+ * best solution to the next island in a ring
+ * @version 1.0
+ */
+public class RingMigration implements MigrationPolicy {
+
+    /**
+     * @see opt.parallel.MigrationPolicy#migrate(opt.OptimizationAlgorithm[], shared.Instance[], double[])
+     */
+    public void migrate(OptimizationAlgorithm[] islands, Instance[] optima, double[] values) {
+        for (int i = 0; i < islands.length; i++) {
+            OptimizationAlgorithm next = islands[(i + 1) % islands.length];
+            if (next instanceof Migratable) {
+                ((Migratable) next).accept(optima[i]);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package opt.prob;
 
 
+import dist.DiscreteDependencyTree;
 import dist.Distribution;
 import opt.OptimizationAlgorithm;
 import opt.OptimizationProblem;
@@ -32,6 +33,11 @@ public class MIMIC extends OptimizationAlgorithm {
      */
     private int tokeep;
 
+    /**
+     * Whether to draw each iteration's samples as a parallel batch
+     */
+    private boolean batchSampling;
+
     /**
      * Make a new mimic
      * @param samples the number of samples to take each iteration
@@ -42,7 +48,22 @@ public class MIMIC extends OptimizationAlgorithm {
      * @param op the problem
      */
     public MIMIC(int samples, int tokeep, ProbabilisticOptimizationProblem op) {
+        this(samples, tokeep, op, false);
+    }
+
+    /**
+     * Make a new mimic
+     * @param samples the number of samples to take each iteration
+     * @param tokeep the number of samples to keep
+     * @param op the problem
+     * @param batchSampling whether to draw each iteration's samples
+     * as a batch in parallel in the common pool when the distribution is a
+     * dependency tree, which changes the random sequence of the samples
+     */
+    public MIMIC(int samples, int tokeep, ProbabilisticOptimizationProblem op,
+            boolean batchSampling) {
         super(op);
+        this.batchSampling = batchSampling;
         this.tokeep = tokeep;
         this.samples = samples;
         Instance[] data = new Instance[samples];
@@ -58,10 +79,7 @@ public class MIMIC extends OptimizationAlgorithm {
      */
     public Instance getOptimal() {
         OptimizationProblem op = getOptimizationProblem();
-        Instance[] data = new Instance[samples];
-        for (int i = 0; i < data.length; i++) {
-            data[i] = distribution.sample(null);
-        } 
+        Instance[] data = sample();
         double bestVal = op.value(data[0]);
         Instance best = data[0];
         for (int i = 1; i < data.length; i++) {
@@ -79,10 +97,7 @@ public class MIMIC extends OptimizationAlgorithm {
      */
     public double train() {
         ProbabilisticOptimizationProblem op = (ProbabilisticOptimizationProblem) getOptimizationProblem();
-        Instance[] data = new Instance[samples];
-        for (int i = 0; i < data.length; i++) {
-            data[i] = distribution.sample(null);
-        } 
+        Instance[] data = sample();
         double[] values = new double[data.length];
         for (int i = 0; i < data.length; i++) {
             values[i] = op.value(data[i]);
@@ -102,4 +117,20 @@ public class MIMIC extends OptimizationAlgorithm {
         return cutoff;
     }
 
+    /**
+     * Draw the samples for an iteration, in parallel from the
+     * compiled tree if batch sampling is on and the distribution is one
+     * @return the samples
+     */
+    private Instance[] sample() {
+        if (batchSampling && distribution instanceof DiscreteDependencyTree) {
+            return ((DiscreteDependencyTree) distribution).sample(samples);
+        }
+        Instance[] data = new Instance[samples];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = distribution.sample(null);
+        }
+        return data;
+    }
+
 }
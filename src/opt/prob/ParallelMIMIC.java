@@ -0,0 +1,306 @@
+package opt.prob;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import dist.DiscreteDependencyTree;
+import dist.DiscreteDependencyTreeSampler;
+import dist.Distribution;
+import opt.OptimizationAlgorithm;
+import shared.DataSet;
+import shared.Instance;
+import util.ABAGAILArrays;
+import util.StreamRandom;
+import util.linalg.DenseVector;
+import util.linalg.Vector;
+
+/**
+ * A version of MIMIC that samples and evaluates each iteration
+ * across a fork join pool.  The samples are split into one contiguous
+ * chunk per worker, each chunk drawing from its own stream and picking
+ * its own best candidates, so only the candidates are merged to find
+ * the cutoff.  When the distribution is a dependency tree the samples
+ * are drawn from its compiled sampler into reused instances and the
+ * kept samples are packed straight into columns to refit it.  The
+ * problem's evaluation function must be safe to call concurrently.
+ * @version 1.0
+ */
+public class ParallelMIMIC extends OptimizationAlgorithm {
+    /**
+     * The current distribution
+     */
+    private Distribution distribution;
+
+    /**
+     * The number of samples to generate
+     */
+    private int samples;
+
+    /**
+     * The number of samples to keep
+     */
+    private int tokeep;
+
+    /**
+     * The current samples
+     */
+    private Instance[] data;
+
+    /**
+     * The values of the current samples
+     */
+    private double[] values;
+
+    /**
+     * The best candidates of each chunk
+     */
+    private double[] candidates;
+
+    /**
+     * The number of candidates of each chunk
+     */
+    private int[] candidateCounts;
+
+    /**
+     * The stream for each worker
+     */
+    private Random[] streams;
+
+    /**
+     * The pool to run the workers in
+     */
+    private transient ForkJoinPool pool;
+
+    /**
+     * Make a new parallel mimic
+     * @param samples the number of samples to take each iteration
+     * @param tokeep the number of samples to keep
+     * @param op the problem
+     * @param pool the pool to run in
+     * @param workers the number of chunks to split each iteration into
+     * @param seed the seed for the random streams
+     */
+    public ParallelMIMIC(int samples, int tokeep, ProbabilisticOptimizationProblem op,
+            ForkJoinPool pool, int workers, long seed) {
+        super(op);
+        this.samples = samples;
+        this.tokeep = tokeep;
+        this.pool = pool;
+        workers = Math.max(1, Math.min(workers, samples));
+        streams = StreamRandom.streams(seed, workers);
+        distribution = op.getDistribution();
+        data = new Instance[samples];
+        values = new double[samples];
+        candidates = new double[workers * (tokeep + 1)];
+        candidateCounts = new int[workers];
+        run(true, false, false);
+        int[] all = new int[samples];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        estimate(all);
+    }
+
+    /**
+     * Make a new parallel mimic using one worker per thread of the pool
+     * @param samples the number of samples to take each iteration
+     * @param tokeep the number of samples to keep
+     * @param op the problem
+     * @param pool the pool to run in
+     * @param seed the seed for the random streams
+     */
+    public ParallelMIMIC(int samples, int tokeep, ProbabilisticOptimizationProblem op,
+            ForkJoinPool pool, long seed) {
+        this(samples, tokeep, op, pool, pool.getParallelism(), seed);
+    }
+
+    /**
+     * Make a new parallel mimic in the common pool
+     * @param samples the number of samples to take each iteration
+     * @param tokeep the number of samples to keep
+     * @param op the problem
+     * @param seed the seed for the random streams
+     */
+    public ParallelMIMIC(int samples, int tokeep, ProbabilisticOptimizationProblem op,
+            long seed) {
+        this(samples, tokeep, op, ForkJoinPool.commonPool(), seed);
+    }
+
+    /**
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        run(false, true, true);
+        // the cutoff is the same order statistic the serial version uses,
+        // and every sample above it is among some chunk's candidates
+        int count = 0;
+        for (int w = 0; w < streams.length; w++) {
+            System.arraycopy(candidates, w * (tokeep + 1), candidates, count, candidateCounts[w]);
+            count += candidateCounts[w];
+        }
+        double[] merged = Arrays.copyOf(candidates, count);
+        double cutoff = ABAGAILArrays.randomizedSelect(merged, merged.length - tokeep);
+        int[] kept = new int[tokeep];
+        int j = 0;
+        for (int i = 0; i < samples && j < kept.length; i++) {
+            if (values[i] >= cutoff) {
+                kept[j] = i;
+                j++;
+            }
+        }
+        estimate(kept);
+        return cutoff;
+    }
+
+    /**
+     * @see opt.OptimizationAlgorithm#getOptimal()
+     */
+    public Instance getOptimal() {
+        run(false, true, false);
+        int best = 0;
+        for (int i = 1; i < samples; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return (Instance) data[best].copy();
+    }
+
+    /**
+     * Refit the distribution to some of the current samples
+     * @param kept the indices of the samples
+     */
+    private void estimate(int[] kept) {
+        if (distribution instanceof DiscreteDependencyTree) {
+            int variables = data[0].size();
+            int[] columns = new int[variables * kept.length];
+            for (int r = 0; r < kept.length; r++) {
+                Instance instance = data[kept[r]];
+                for (int v = 0; v < variables; v++) {
+                    columns[v * kept.length + r] = instance.getDiscrete(v);
+                }
+            }
+            double[] weights = new double[kept.length];
+            Arrays.fill(weights, 1);
+            ((DiscreteDependencyTree) distribution).estimate(columns, weights, kept.length);
+        } else {
+            Instance[] instances = new Instance[kept.length];
+            for (int r = 0; r < kept.length; r++) {
+                instances[r] = data[kept[r]];
+            }
+            distribution.estimate(new DataSet(instances));
+        }
+    }
+
+    /**
+     * Run one chunk per worker and wait for them all
+     * @param initial whether to take the samples from the problem
+     * @param evaluate whether to evaluate the samples
+     * @param select whether to pick each chunk's candidates
+     */
+    private void run(boolean initial, boolean evaluate, boolean select) {
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[streams.length];
+        for (int w = 0; w < tasks.length; w++) {
+            int start = (int) ((long) w * samples / streams.length);
+            int end = (int) ((long) (w + 1) * samples / streams.length);
+            tasks[w] = pool.submit(new Chunk(w, start, end, initial, evaluate, select));
+        }
+        for (int w = 0; w < tasks.length; w++) {
+            tasks[w].join();
+        }
+    }
+
+    /**
+     * Samples, evaluates and picks the candidates of a chunk
+     */
+    private class Chunk extends RecursiveAction {
+        /** The worker */
+        private int worker;
+        /** The start of the chunk */
+        private int start;
+        /** The end of the chunk */
+        private int end;
+        /** Whether to take the samples from the problem */
+        private boolean initial;
+        /** Whether to evaluate the samples */
+        private boolean evaluate;
+        /** Whether to pick the candidates */
+        private boolean select;
+
+        /**
+         * Make a new chunk
+         * @param worker the worker
+         * @param start the start of the chunk
+         * @param end the end of the chunk
+         * @param initial whether to take the samples from the problem
+         * @param evaluate whether to evaluate the samples
+         * @param select whether to pick the candidates
+         */
+        public Chunk(int worker, int start, int end, boolean initial,
+                boolean evaluate, boolean select) {
+            this.worker = worker;
+            this.start = start;
+            this.end = end;
+            this.initial = initial;
+            this.evaluate = evaluate;
+            this.select = select;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            ProbabilisticOptimizationProblem op =
+                (ProbabilisticOptimizationProblem) getOptimizationProblem();
+            Random stream = streams[worker];
+            Random previous = StreamRandom.bind(stream);
+            try {
+                if (initial) {
+                    for (int i = start; i < end; i++) {
+                        data[i] = op.random();
+                    }
+                } else if (distribution instanceof DiscreteDependencyTree) {
+                    DiscreteDependencyTreeSampler sampler =
+                        ((DiscreteDependencyTree) distribution).getSampler();
+                    int[] row = new int[sampler.getVariableCount()];
+                    for (int i = start; i < end; i++) {
+                        sampler.sample(row, 0, stream);
+                        if (!(data[i].getData() instanceof DenseVector)) {
+                            data[i] = new Instance(new DenseVector(row.length));
+                        }
+                        Vector vector = data[i].getData();
+                        for (int v = 0; v < row.length; v++) {
+                            vector.set(v, row[v]);
+                        }
+                    }
+                } else {
+                    for (int i = start; i < end; i++) {
+                        data[i] = distribution.sample(null);
+                    }
+                }
+                if (evaluate) {
+                    for (int i = start; i < end; i++) {
+                        values[i] = op.value(data[i]);
+                    }
+                }
+                if (select) {
+                    // keep enough of the best of this chunk to find the cutoff
+                    double[] sorted = Arrays.copyOfRange(values, start, end);
+                    Arrays.sort(sorted);
+                    int count = Math.min(sorted.length, tokeep + 1);
+                    System.arraycopy(sorted, sorted.length - count,
+                        candidates, worker * (tokeep + 1), count);
+                    candidateCounts[worker] = count;
+                }
+            } finally {
+                StreamRandom.bind(previous);
+            }
+        }
+    }
+}
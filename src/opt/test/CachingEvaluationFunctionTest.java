@@ -0,0 +1,57 @@
+package opt.test;
+
+import java.util.Arrays;
+
+import dist.DiscreteDependencyTree;
+import dist.DiscreteUniformDistribution;
+import dist.Distribution;
+import opt.CachingEvaluationFunction;
+import opt.example.FourPeaksEvaluationFunction;
+import opt.ga.CrossoverFunction;
+import opt.ga.DiscreteChangeOneMutation;
+import opt.ga.GeneticAlgorithmProblem;
+import opt.ga.GenericGeneticAlgorithmProblem;
+import opt.ga.MutationFunction;
+import opt.ga.SingleCrossOver;
+import opt.ga.StandardGeneticAlgorithm;
+import opt.prob.GenericProbabilisticOptimizationProblem;
+import opt.prob.MIMIC;
+import opt.prob.ProbabilisticOptimizationProblem;
+import shared.FixedIterationTrainer;
+
+/**
+ * Reports how often genetic algorithms and MIMIC
+ * evaluate genomes they have already seen on four peaks
+ * @version 1.0
+ */
+public class CachingEvaluationFunctionTest {
+    /** The n value */
+    private static final int N = 50;
+
+    /**
+     * The test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        int[] ranges = new int[N];
+        Arrays.fill(ranges, 2);
+        FourPeaksEvaluationFunction fp = new FourPeaksEvaluationFunction(N / 10);
+        CachingEvaluationFunction ef = new CachingEvaluationFunction(fp, 10000);
+        Distribution odd = new DiscreteUniformDistribution(ranges);
+        MutationFunction mf = new DiscreteChangeOneMutation(ranges);
+        CrossoverFunction cf = new SingleCrossOver();
+
+        GeneticAlgorithmProblem gap = new GenericGeneticAlgorithmProblem(ef, odd, mf, cf);
+        StandardGeneticAlgorithm ga = new StandardGeneticAlgorithm(200, 100, 10, gap);
+        new FixedIterationTrainer(ga, 500).train();
+        System.out.println("GA: " + fp.value(ga.getOptimal()) + " cached "
+            + ef.value(ga.getOptimal()) + ", " + ef);
+
+        ef.clear();
+        ProbabilisticOptimizationProblem pop = new GenericProbabilisticOptimizationProblem(
+            ef, odd, new DiscreteDependencyTree(.1, ranges));
+        MIMIC mimic = new MIMIC(200, 20, pop);
+        new FixedIterationTrainer(mimic, 100).train();
+        System.out.println("MIMIC: " + fp.value(mimic.getOptimal()) + ", " + ef);
+    }
+}
@@ -0,0 +1,118 @@
+package opt.test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import dist.CompactDiscretePermutationDistribution;
+import dist.CompactDiscreteUniformDistribution;
+import dist.Distribution;
+
+import opt.BitFlipNeighbor;
+import opt.EvaluationFunction;
+import opt.GenericHillClimbingProblem;
+import opt.HillClimbingProblem;
+import opt.IntSwapNeighbor;
+import opt.SimulatedAnnealing;
+import opt.example.*;
+import opt.ga.BitFlipMutation;
+import opt.ga.BitSingleCrossOver;
+import opt.ga.GenericGeneticAlgorithmProblem;
+import opt.ga.GeneticAlgorithmProblem;
+import opt.ga.IntSwapMutation;
+import opt.ga.StandardGeneticAlgorithm;
+import shared.FixedIterationTrainer;
+import shared.Instance;
+import util.linalg.DenseVector;
+
+/**
+ * Checks that the compact genomes evaluate the same as dense ones
+ * and runs the compact operators on four peaks and traveling salesman
+ * @version 1.0
+ */
+public class CompactGenomeTest {
+    /** The sizes to check */
+    private static final int[] SIZES = { 1, 63, 64, 65, 200 };
+
+    public static void main(String[] args) {
+        Random random = new Random();
+        boolean agree = true;
+        for (int s = 0; s < SIZES.length; s++) {
+            int n = SIZES[s];
+            int[] ranges = new int[n];
+            Arrays.fill(ranges, 2);
+            double[] values = new double[n];
+            double[] weights = new double[n];
+            int[] copies = new int[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = random.nextDouble();
+                weights[i] = random.nextDouble();
+                copies[i] = 1;
+            }
+            EvaluationFunction[] efs = {
+                new CountOnesEvaluationFunction(),
+                new FlipFlopEvaluationFunction(),
+                new FourPeaksEvaluationFunction(n / 5),
+                new KnapsackEvaluationFunction(values, weights, n * .2, copies)
+            };
+            Distribution odd = new CompactDiscreteUniformDistribution(ranges);
+            for (int trial = 0; trial < 100; trial++) {
+                Instance compact = odd.sample();
+                double[] data = new double[n];
+                for (int i = 0; i < n; i++) {
+                    data[i] = compact.getDiscrete(i);
+                }
+                // push some samples toward the four peaks edge cases
+                if (trial % 3 == 0) {
+                    Arrays.fill(data, 0, random.nextInt(n + 1), 1);
+                }
+                if (trial % 5 == 0) {
+                    Arrays.fill(data, random.nextInt(n + 1), n, 0);
+                }
+                for (int i = 0; i < n; i++) {
+                    compact.getData().set(i, data[i]);
+                }
+                Instance dense = new Instance(new DenseVector(data));
+                for (int e = 0; e < efs.length; e++) {
+                    if (efs[e].value(compact) != efs[e].value(dense)) {
+                        System.out.println("Mismatch for " + efs[e].getClass().getName()
+                            + " on " + dense);
+                        agree = false;
+                    }
+                }
+            }
+        }
+        System.out.println("Compact and dense agree: " + agree);
+
+        int n = 200;
+        int[] ranges = new int[n];
+        Arrays.fill(ranges, 2);
+        FourPeaksEvaluationFunction ef = new FourPeaksEvaluationFunction(n / 5);
+        Distribution odd = new CompactDiscreteUniformDistribution(ranges);
+        HillClimbingProblem hcp = new GenericHillClimbingProblem(ef, odd, new BitFlipNeighbor());
+        GeneticAlgorithmProblem gap = new GenericGeneticAlgorithmProblem(ef, odd,
+            new BitFlipMutation(), new BitSingleCrossOver());
+        SimulatedAnnealing sa = new SimulatedAnnealing(1E11, .95, hcp);
+        new FixedIterationTrainer(sa, 200000).train();
+        System.out.println("Four peaks SA: " + ef.value(sa.getOptimal()));
+        StandardGeneticAlgorithm ga = new StandardGeneticAlgorithm(200, 100, 10, gap);
+        new FixedIterationTrainer(ga, 1000).train();
+        System.out.println("Four peaks GA: " + ef.value(ga.getOptimal()));
+
+        double[][] points = new double[50][2];
+        for (int i = 0; i < points.length; i++) {
+            points[i][0] = random.nextDouble();
+            points[i][1] = random.nextDouble();
+        }
+        TravelingSalesmanEvaluationFunction tsp = new TravelingSalesmanRouteEvaluationFunction(points);
+        odd = new CompactDiscretePermutationDistribution(points.length);
+        hcp = new GenericHillClimbingProblem(tsp, odd, new IntSwapNeighbor());
+        gap = new GenericGeneticAlgorithmProblem(tsp, odd, new IntSwapMutation(),
+            new TravelingSalesmanCrossOver(tsp));
+        sa = new SimulatedAnnealing(1E12, .95, hcp);
+        new FixedIterationTrainer(sa, 200000).train();
+        System.out.println("Traveling salesman SA: " + tsp.value(sa.getOptimal()));
+        ga = new StandardGeneticAlgorithm(200, 150, 20, gap);
+        new FixedIterationTrainer(ga, 1000).train();
+        System.out.println("Traveling salesman GA: " + tsp.value(ga.getOptimal()));
+    }
+}
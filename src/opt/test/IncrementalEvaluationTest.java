@@ -0,0 +1,125 @@
+package opt.test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import dist.DiscretePermutationDistribution;
+import dist.DiscreteUniformDistribution;
+import dist.Distribution;
+
+import opt.DiscreteChangeOneNeighbor;
+import opt.GenericHillClimbingProblem;
+import opt.IncrementalEvaluationFunction;
+import opt.IncrementalNeighborFunction;
+import opt.Move;
+import opt.NeighborFunction;
+import opt.RandomizedHillClimbing;
+import opt.SwapNeighbor;
+import opt.example.*;
+import opt.ga.MaxKColorFitnessFunction;
+import opt.ga.Vertex;
+import shared.FixedIterationTrainer;
+import shared.Instance;
+
+/**
+ * Checks that the incremental evaluation functions agree with
+ * full evaluation and times hill climbing on a large tour
+ * @version 1.0
+ */
+public class IncrementalEvaluationTest {
+    /** The size of the problems */
+    private static final int N = 60;
+    /** The number of moves to check */
+    private static final int MOVES = 10000;
+    /** The number of cities in the timed tour */
+    private static final int CITIES = 5000;
+
+    public static void main(String[] args) {
+        Random random = new Random();
+        int[] ranges = new int[N];
+        Arrays.fill(ranges, 2);
+        double[] values = new double[N];
+        double[] weights = new double[N];
+        int[] copies = new int[N];
+        double[][] points = new double[N][2];
+        Vertex[] vertices = new Vertex[N];
+        for (int i = 0; i < N; i++) {
+            values[i] = random.nextDouble();
+            weights[i] = random.nextDouble();
+            copies[i] = 1;
+            points[i][0] = random.nextDouble();
+            points[i][1] = random.nextDouble();
+            vertices[i] = new Vertex();
+            vertices[i].getAadjacencyColorMatrix().add(random.nextInt(4));
+        }
+        Distribution bits = new DiscreteUniformDistribution(ranges);
+        NeighborFunction changeOne = new DiscreteChangeOneNeighbor(ranges);
+        int[] colors = new int[N];
+        Arrays.fill(colors, 4);
+        check("Count ones", new CountOnesEvaluationFunction(), bits, changeOne);
+        check("Flip flop", new FlipFlopEvaluationFunction(), bits, changeOne);
+        check("Flip flop swap", new FlipFlopEvaluationFunction(), bits, new SwapNeighbor());
+        check("Knapsack", new KnapsackEvaluationFunction(values, weights, N * .2, copies),
+            bits, changeOne);
+        check("Knapsack swap", new KnapsackEvaluationFunction(values, weights, N * .2, copies),
+            bits, new SwapNeighbor());
+        check("Traveling salesman", new TravelingSalesmanRouteEvaluationFunction(points),
+            new DiscretePermutationDistribution(N), new SwapNeighbor());
+        check("Max k color", new MaxKColorFitnessFunction(vertices),
+            new DiscreteUniformDistribution(colors), new DiscreteChangeOneNeighbor(colors));
+        check("Max k color swap", new MaxKColorFitnessFunction(vertices),
+            new DiscreteUniformDistribution(colors), new SwapNeighbor());
+
+        points = new double[CITIES][2];
+        for (int i = 0; i < points.length; i++) {
+            points[i][0] = random.nextDouble();
+            points[i][1] = random.nextDouble();
+        }
+        TravelingSalesmanRouteEvaluationFunction ef = new TravelingSalesmanRouteEvaluationFunction(points);
+        Distribution odd = new DiscretePermutationDistribution(CITIES);
+        // wrapping the neighbor function hides the moves and forces full evaluation
+        final NeighborFunction swap = new SwapNeighbor();
+        NeighborFunction[] neighbors = { swap, new NeighborFunction() {
+            public Instance neighbor(Instance d) {
+                return swap.neighbor(d);
+            }
+        }};
+        String[] names = { "incremental", "full" };
+        for (int i = 0; i < neighbors.length; i++) {
+            RandomizedHillClimbing rhc = new RandomizedHillClimbing(
+                new GenericHillClimbingProblem(ef, odd, neighbors[i]));
+            long start = System.nanoTime();
+            new FixedIterationTrainer(rhc, 20000).train();
+            System.out.println("RHC " + names[i] + ": " + ef.value(rhc.getOptimal())
+                + " in " + (System.nanoTime() - start) / 1e9 + "s");
+            // training on must not change a solution already handed out
+            Instance optimal = rhc.getOptimal();
+            double before = ef.value(optimal);
+            new FixedIterationTrainer(rhc, 1000).train();
+            System.out.println("  returned solution unchanged by training: "
+                + (ef.value(optimal) == before));
+        }
+    }
+
+    /**
+     * Check that the deltas of random moves match full evaluation
+     * @param name the name of the check
+     * @param ef the function
+     * @param odd the distribution to start from
+     * @param nf the neighbor function to propose moves with
+     */
+    private static void check(String name, IncrementalEvaluationFunction ef,
+            Distribution odd, NeighborFunction nf) {
+        Instance cur = odd.sample();
+        double value = ef.value(cur);
+        double worst = 0;
+        for (int i = 0; i < MOVES; i++) {
+            Move move = ((IncrementalNeighborFunction) nf).propose(cur);
+            double predicted = value + move.delta(ef, cur, value);
+            move.apply(cur);
+            value = ef.value(cur);
+            worst = Math.max(worst, Math.abs(predicted - value) / Math.max(1, Math.abs(value)));
+        }
+        System.out.println(name + ": worst relative error " + worst);
+    }
+}
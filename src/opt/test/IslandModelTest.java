@@ -0,0 +1,77 @@
+package opt.test;
+
+import java.util.Arrays;
+
+import dist.DiscreteUniformDistribution;
+import dist.Distribution;
+
+import opt.DiscreteChangeOneNeighbor;
+import opt.GenericHillClimbingProblem;
+import opt.HillClimbingProblem;
+import opt.NeighborFunction;
+import opt.OptimizationAlgorithm;
+import opt.SimulatedAnnealing;
+import opt.example.FourPeaksEvaluationFunction;
+import opt.parallel.IslandFactory;
+import opt.parallel.IslandModel;
+import opt.parallel.RestartFromBestMigration;
+import opt.parallel.RingMigration;
+import shared.FixedIterationTrainer;
+
+/**
+ * Runs simulated annealing islands on four peaks with
+ * different migration policies, then runs one model twice
+ * with the same seed to check the result repeats
+ * @version 1.0
+ */
+public class IslandModelTest {
+    /** The n value */
+    private static final int N = 200;
+    /** The t value */
+    private static final int T = N / 5;
+    /** The number of islands */
+    private static final int ISLANDS = 8;
+
+    public static void main(String[] args) {
+        int[] ranges = new int[N];
+        Arrays.fill(ranges, 2);
+        FourPeaksEvaluationFunction ef = new FourPeaksEvaluationFunction(T);
+        Distribution odd = new DiscreteUniformDistribution(ranges);
+        NeighborFunction nf = new DiscreteChangeOneNeighbor(ranges);
+        HillClimbingProblem hcp = new GenericHillClimbingProblem(ef, odd, nf);
+        IslandFactory factory = islands(hcp);
+
+        IslandModel[] models = {
+            new IslandModel(factory, ISLANDS, 1000, null, 0),
+            new IslandModel(factory, ISLANDS, 1000, new RingMigration(), 0),
+            new IslandModel(factory, ISLANDS, 1000, new RestartFromBestMigration(), 0)
+        };
+        String[] names = { "Multi start", "Ring migration", "Restart from best" };
+        for (int i = 0; i < models.length; i++) {
+            FixedIterationTrainer fit = new FixedIterationTrainer(models[i], 200);
+            fit.train();
+            System.out.println(names[i] + ": " + ef.value(models[i].getOptimal()));
+        }
+
+        String[] repeats = new String[2];
+        for (int i = 0; i < repeats.length; i++) {
+            IslandModel model = new IslandModel(factory, ISLANDS, 100, new RingMigration(), 1);
+            new FixedIterationTrainer(model, 5).train();
+            repeats[i] = model.getOptimal().toString();
+        }
+        System.out.println("Same result with the same seed: " + repeats[0].equals(repeats[1]));
+    }
+
+    /**
+     * Make a factory for simulated annealing islands
+     * @param hcp the problem
+     * @return the factory
+     */
+    private static IslandFactory islands(final HillClimbingProblem hcp) {
+        return new IslandFactory() {
+            public OptimizationAlgorithm create(int island) {
+                return new SimulatedAnnealing(1E11, .95, hcp);
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package opt.test;
+
+import java.util.Arrays;
+
+import dist.DiscreteDependencyTree;
+import dist.DiscreteUniformDistribution;
+import dist.Distribution;
+import opt.CountingEvaluationFunction;
+import opt.CountingIncrementalEvaluationFunction;
+import opt.DiscreteChangeOneNeighbor;
+import opt.GenericHillClimbingProblem;
+import opt.HillClimbingProblem;
+import opt.NeighborFunction;
+import opt.OptimizationAlgorithm;
+import opt.RandomizedHillClimbing;
+import opt.SimulatedAnnealing;
+import opt.example.FlipFlopEvaluationFunction;
+import opt.example.FourPeaksEvaluationFunction;
+import opt.ga.CrossoverFunction;
+import opt.ga.DiscreteChangeOneMutation;
+import opt.ga.GeneticAlgorithmProblem;
+import opt.ga.GenericGeneticAlgorithmProblem;
+import opt.ga.MutationFunction;
+import opt.ga.SingleCrossOver;
+import opt.ga.StandardGeneticAlgorithm;
+import opt.prob.GenericProbabilisticOptimizationProblem;
+import opt.prob.MIMIC;
+import opt.prob.ProbabilisticOptimizationProblem;
+import shared.FixedIterationTrainer;
+import shared.metrics.MetricsTrainer;
+
+/**
+ * Compares algorithms on four peaks by the evaluations and
+ * time they take to reach a target, then counts hill climbing on
+ * flip flop through its incremental deltas
+ * @version 1.0
+ */
+public class MetricsTrainerTest {
+    /** The n value */
+    private static final int N = 40;
+    /** The target value, the local optimum of all ones or all zeros */
+    private static final double TARGET = N;
+
+    /**
+     * The test main
+     * @param args ignored
+     * @throws Exception if writing fails
+     */
+    public static void main(String[] args) throws Exception {
+        int[] ranges = new int[N];
+        Arrays.fill(ranges, 2);
+        CountingEvaluationFunction ef = new CountingEvaluationFunction(
+            new FourPeaksEvaluationFunction(N / 10));
+        Distribution odd = new DiscreteUniformDistribution(ranges);
+        NeighborFunction nf = new DiscreteChangeOneNeighbor(ranges);
+        MutationFunction mf = new DiscreteChangeOneMutation(ranges);
+        CrossoverFunction cf = new SingleCrossOver();
+        HillClimbingProblem hcp = new GenericHillClimbingProblem(ef, odd, nf);
+        GeneticAlgorithmProblem gap = new GenericGeneticAlgorithmProblem(ef, odd, mf, cf);
+        ProbabilisticOptimizationProblem pop = new GenericProbabilisticOptimizationProblem(
+            ef, odd, new DiscreteDependencyTree(.1, ranges));
+
+        run("RHC", new RandomizedHillClimbing(hcp), ef, 20000, TARGET);
+        run("SA", new SimulatedAnnealing(1E11, .95, hcp), ef, 20000, TARGET);
+        run("GA", new StandardGeneticAlgorithm(200, 100, 10, gap), ef, 200, TARGET);
+        MetricsTrainer mimic = run("MIMIC", new MIMIC(200, 20, pop), ef, 100, TARGET);
+        System.out.println("MIMIC as csv:");
+        StringBuilder csv = new StringBuilder();
+        mimic.writeCSV(csv);
+        System.out.print(csv.substring(0, csv.indexOf("\n", csv.indexOf("\n") + 1) + 1));
+
+        // the counting function keeps the hill climbers on the delta path
+        CountingEvaluationFunction flipFlop = CountingEvaluationFunction.wrap(
+            new FlipFlopEvaluationFunction());
+        GenericHillClimbingProblem incremental = new GenericHillClimbingProblem(flipFlop, odd, nf);
+        System.out.println("Flip flop incremental: " + incremental.isIncremental());
+        run("RHC", new RandomizedHillClimbing(incremental), flipFlop, 20000, N - 10);
+        System.out.println("  of which deltas: "
+            + ((CountingIncrementalEvaluationFunction) flipFlop).getDeltas());
+        run("SA", new SimulatedAnnealing(100, .95, incremental), flipFlop, 20000, N - 10);
+        System.out.println("  of which deltas: "
+            + ((CountingIncrementalEvaluationFunction) flipFlop).getDeltas());
+    }
+
+    /**
+     * Run an algorithm and report its metrics
+     * @param name the name of the algorithm
+     * @param oa the algorithm
+     * @param ef the counting function
+     * @param iterations the number of iterations
+     * @param target the value to time reaching
+     * @return the metrics
+     */
+    private static MetricsTrainer run(String name, OptimizationAlgorithm oa,
+            CountingEvaluationFunction ef, int iterations, double target) {
+        ef.reset();
+        MetricsTrainer metrics = new MetricsTrainer(oa, ef);
+        new FixedIterationTrainer(metrics, iterations).train();
+        int last = metrics.getIterations() - 1;
+        System.out.println(name + ": best " + metrics.getBest(last)
+            + ", evaluations to " + target + " " + metrics.evaluationsToTarget(target)
+            + ", time to target " + metrics.timeToTarget(target) + "ns"
+            + ", total " + metrics.getEvaluations(last) + " evaluations, "
+            + metrics.getAllocatedBytes(last) / 1024 + "KB allocated");
+        return metrics;
+    }
+}
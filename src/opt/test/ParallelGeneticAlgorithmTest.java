@@ -0,0 +1,66 @@
+package opt.test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import dist.DiscreteUniformDistribution;
+import dist.Distribution;
+
+import opt.example.FourPeaksEvaluationFunction;
+import opt.ga.CrossoverFunction;
+import opt.ga.DiscreteChangeOneMutation;
+import opt.ga.GenericGeneticAlgorithmProblem;
+import opt.ga.GeneticAlgorithmProblem;
+import opt.ga.MutationFunction;
+import opt.ga.ParallelGeneticAlgorithm;
+import opt.ga.SingleCrossOver;
+import opt.ga.StandardGeneticAlgorithm;
+import shared.FixedIterationTrainer;
+
+/**
+ * Compares the standard and parallel genetic algorithms on four peaks
+ * and checks that two parallel runs with the same seed agree
+ * @version 1.0
+ */
+public class ParallelGeneticAlgorithmTest {
+    /** The n value */
+    private static final int N = 200;
+    /** The t value */
+    private static final int T = N / 5;
+    /** The number of workers */
+    private static final int WORKERS = 4;
+    /** The seed */
+    private static final long SEED = 42;
+
+    public static void main(String[] args) {
+        int[] ranges = new int[N];
+        Arrays.fill(ranges, 2);
+        FourPeaksEvaluationFunction ef = new FourPeaksEvaluationFunction(T);
+        Distribution odd = new DiscreteUniformDistribution(ranges);
+        MutationFunction mf = new DiscreteChangeOneMutation(ranges);
+        CrossoverFunction cf = new SingleCrossOver();
+        GeneticAlgorithmProblem gap = new GenericGeneticAlgorithmProblem(ef, odd, mf, cf);
+
+        long start = System.nanoTime();
+        StandardGeneticAlgorithm ga = new StandardGeneticAlgorithm(200, 100, 10, gap);
+        FixedIterationTrainer fit = new FixedIterationTrainer(ga, 1000);
+        fit.train();
+        System.out.println("GA: " + ef.value(ga.getOptimal())
+            + " in " + (System.nanoTime() - start) / 1e9 + "s");
+
+        ForkJoinPool pool = new ForkJoinPool(WORKERS);
+        String[] optima = new String[2];
+        for (int run = 0; run < optima.length; run++) {
+            start = System.nanoTime();
+            ParallelGeneticAlgorithm pga = new ParallelGeneticAlgorithm(200, 100, 10, gap,
+                pool, WORKERS, SEED);
+            fit = new FixedIterationTrainer(pga, 1000);
+            fit.train();
+            optima[run] = pga.getOptimal().toString();
+            System.out.println("Parallel GA: " + ef.value(pga.getOptimal())
+                + " in " + (System.nanoTime() - start) / 1e9 + "s");
+        }
+        pool.shutdown();
+        System.out.println("Reproducible: " + optima[0].equals(optima[1]));
+    }
+}
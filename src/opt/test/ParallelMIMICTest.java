@@ -0,0 +1,72 @@
+package opt.test;
+
+import java.util.Arrays;
+
+import dist.DiscreteDependencyTree;
+import dist.DiscreteUniformDistribution;
+import dist.Distribution;
+import opt.EvaluationFunction;
+import opt.example.FourPeaksEvaluationFunction;
+import opt.prob.GenericProbabilisticOptimizationProblem;
+import opt.prob.MIMIC;
+import opt.prob.ParallelMIMIC;
+import opt.prob.ProbabilisticOptimizationProblem;
+import shared.FixedIterationTrainer;
+import shared.Instance;
+
+/**
+ * Compares parallel MIMIC with MIMIC on four peaks
+ * with an artificially expensive evaluation function
+ * @version 1.0
+ */
+public class ParallelMIMICTest {
+    /** The n value */
+    private static final int N = 100;
+    /** The number of iterations */
+    private static final int ITERATIONS = 50;
+
+    /**
+     * The test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        int[] ranges = new int[N];
+        Arrays.fill(ranges, 2);
+        final FourPeaksEvaluationFunction fp = new FourPeaksEvaluationFunction(N / 10);
+        EvaluationFunction ef = new EvaluationFunction() {
+            public double value(Instance d) {
+                // make each evaluation cost something
+                double sum = 0;
+                for (int i = 0; i < 20000; i++) {
+                    sum += Math.sqrt(i);
+                }
+                return fp.value(d) + sum * 0;
+            }
+        };
+        Distribution odd = new DiscreteUniformDistribution(ranges);
+
+        ProbabilisticOptimizationProblem pop = new GenericProbabilisticOptimizationProblem(
+            ef, odd, new DiscreteDependencyTree(.1, ranges));
+        long start = System.nanoTime();
+        MIMIC mimic = new MIMIC(200, 20, pop);
+        new FixedIterationTrainer(mimic, ITERATIONS).train();
+        System.out.println("MIMIC: " + fp.value(mimic.getOptimal()) + " in "
+            + (System.nanoTime() - start) / 1e9 + "s");
+
+        pop = new GenericProbabilisticOptimizationProblem(
+            ef, odd, new DiscreteDependencyTree(.1, ranges));
+        start = System.nanoTime();
+        mimic = new MIMIC(200, 20, pop, true);
+        new FixedIterationTrainer(mimic, ITERATIONS).train();
+        System.out.println("MIMIC with batch sampling: " + fp.value(mimic.getOptimal()) + " in "
+            + (System.nanoTime() - start) / 1e9 + "s");
+
+        pop = new GenericProbabilisticOptimizationProblem(
+            ef, odd, new DiscreteDependencyTree(.1, ranges));
+        start = System.nanoTime();
+        ParallelMIMIC parallel = new ParallelMIMIC(200, 20, pop, 42);
+        new FixedIterationTrainer(parallel, ITERATIONS).train();
+        System.out.println("Parallel MIMIC: " + fp.value(parallel.getOptimal()) + " in "
+            + (System.nanoTime() - start) / 1e9 + "s");
+    }
+}
@@ -0,0 +1,69 @@
+package opt.test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import dist.DiscreteUniformDistribution;
+import dist.Distribution;
+import opt.example.FourPeaksEvaluationFunction;
+import opt.ga.CrossoverFunction;
+import opt.ga.DiscreteChangeOneMutation;
+import opt.ga.GeneticAlgorithmProblem;
+import opt.ga.GenericGeneticAlgorithmProblem;
+import opt.ga.MutationFunction;
+import opt.ga.SingleCrossOver;
+import opt.ga.StandardGeneticAlgorithm;
+import shared.FixedIterationTrainer;
+import shared.SeededTrainer;
+import util.SplittableStream;
+import util.StreamRandom;
+
+/**
+ * Checks that genetic algorithm runs with the same seed
+ * give the same result
+ * @version 1.0
+ */
+public class SeededTrainerTest {
+    /** The n value */
+    private static final int N = 60;
+
+    /**
+     * The test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        String first = run(7);
+        String second = run(7);
+        String third = run(8);
+        System.out.println("Seed 7: " + first);
+        System.out.println("Seed 7: " + second);
+        System.out.println("Seed 8: " + third);
+        System.out.println("Reproducible: " + first.equals(second));
+    }
+
+    /**
+     * Run a genetic algorithm from a seed
+     * @param seed the seed
+     * @return the optimal instance found
+     */
+    private static String run(long seed) {
+        int[] ranges = new int[N];
+        Arrays.fill(ranges, 2);
+        FourPeaksEvaluationFunction ef = new FourPeaksEvaluationFunction(N / 5);
+        Distribution odd = new DiscreteUniformDistribution(ranges);
+        MutationFunction mf = new DiscreteChangeOneMutation(ranges);
+        CrossoverFunction cf = new SingleCrossOver();
+        GeneticAlgorithmProblem gap = new GenericGeneticAlgorithmProblem(ef, odd, mf, cf);
+        // the initial population is drawn from the stream too
+        Random stream = new SplittableStream(seed);
+        Random previous = StreamRandom.bind(stream);
+        StandardGeneticAlgorithm ga;
+        try {
+            ga = new StandardGeneticAlgorithm(100, 50, 5, gap);
+        } finally {
+            StreamRandom.bind(previous);
+        }
+        new SeededTrainer(new FixedIterationTrainer(ga, 200), stream).train();
+        return ef.value(ga.getOptimal()) + " " + ga.getOptimal();
+    }
+}
@@ -0,0 +1,140 @@
+package rl;
+
+/**
+ * The eligibility traces of the state action pairs of a process,
+ * keeping a list of the pairs with traces above a cutoff so that
+ * updating, decaying and clearing cost time in the number of active
+ * traces instead of the number of state action pairs.  A trace that
+ * decays below the cutoff is dropped and set to zero.
+ * @version 1.0
+ */
+public class EligibilityTraces {
+    /**
+     * The number of actions
+     */
+    private int actionCount;
+    /**
+     * The trace of each pair, indexed by state * actions + action
+     */
+    private double[] traces;
+    /**
+     * The pairs with traces
+     */
+    private int[] active;
+    /**
+     * The index of each pair in the active list plus one, or zero
+     */
+    private int[] positions;
+    /**
+     * The number of active pairs
+     */
+    private int size;
+    /**
+     * The smallest trace kept
+     */
+    private double cutoff;
+
+    /**
+     * Make a new set of traces
+     * @param stateCount the number of states
+     * @param actionCount the number of actions
+     * @param cutoff the smallest trace kept
+     */
+    public EligibilityTraces(int stateCount, int actionCount, double cutoff) {
+        this.actionCount = actionCount;
+        this.cutoff = cutoff;
+        traces = new double[stateCount * actionCount];
+        positions = new int[traces.length];
+        active = new int[16];
+    }
+
+    /**
+     * Add to the trace of a pair
+     * @param state the state
+     * @param action the action
+     * @param amount the amount to add
+     */
+    public void increment(int state, int action, double amount) {
+        int pair = state * actionCount + action;
+        traces[pair] += amount;
+        if (positions[pair] == 0) {
+            if (size == active.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(active, 0, grown, 0, size);
+                active = grown;
+            }
+            active[size++] = pair;
+            positions[pair] = size;
+        }
+    }
+
+    /**
+     * Get the trace of a pair
+     * @param state the state
+     * @param action the action
+     * @return the trace
+     */
+    public double get(int state, int action) {
+        return traces[state * actionCount + action];
+    }
+
+    /**
+     * Add step times its trace to the value of every active pair,
+     * then multiply the traces by decay and drop those below the cutoff
+     * @param values the values indexed by state and then action
+     * @param step the amount to move each value per unit of trace
+     * @param decay the amount to multiply the traces by
+     * @return the largest change to a value
+     */
+    public double update(double[][] values, double step, double decay) {
+        double difference = 0;
+        for (int k = 0; k < size; k++) {
+            int pair = active[k];
+            int state = pair / actionCount, action = pair - state * actionCount;
+            double change = step * traces[pair];
+            values[state][action] += change;
+            difference = Math.max(difference, Math.abs(change));
+            traces[pair] *= decay;
+            if (traces[pair] < cutoff) {
+                // move the last pair into this slot and look at it next
+                remove(k);
+                k--;
+            }
+        }
+        return difference;
+    }
+
+    /**
+     * Drop every trace
+     */
+    public void clear() {
+        for (int k = 0; k < size; k++) {
+            traces[active[k]] = 0;
+            positions[active[k]] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Get the number of active traces
+     * @return the number of traces
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drop the trace at an index of the active list
+     * @param k the index
+     */
+    private void remove(int k) {
+        int pair = active[k];
+        traces[pair] = 0;
+        positions[pair] = 0;
+        size--;
+        if (k < size) {
+            active[k] = active[size];
+            positions[active[k]] = k + 1;
+        }
+    }
+}
@@ -10,7 +10,7 @@ import dist.Distribution;
  * @author Andrew Guillory gtg008g@mail.gatech.edu
  * @version 1.0
  */
-public class MazeMarkovDecisionProcess implements MarkovDecisionProcess {
+public class MazeMarkovDecisionProcess implements SparseMarkovDecisionProcess {
     /** The default failure probability */
     private static final double FAILURE_PROBABILITY = .01;
     
@@ -200,6 +200,45 @@ public class MazeMarkovDecisionProcess implements MarkovDecisionProcess {
         }
     }
 
+    /**
+     * @see rl.SparseMarkovDecisionProcess#getMaxSuccessors()
+     */
+    public int getMaxSuccessors() {
+        return 2;
+    }
+
+    /**
+     * @see rl.SparseMarkovDecisionProcess#successors(int, int, int[], double[])
+     */
+    public int successors(int i, int a, int[] states, double[] probabilities) {
+        // the only states reachable are staying put and
+        // the neighbor in the direction of the action
+        int count = 0;
+        int x = xFor(i), y = yFor(i);
+        switch(a) {
+            case MOVE_UP:
+                y--;
+                break;
+            case MOVE_DOWN:
+                y++;
+                break;
+            case MOVE_LEFT:
+                x--;
+                break;
+            case MOVE_RIGHT:
+                x++;
+                break;
+        }
+        states[count] = i;
+        probabilities[count++] = transitionProbability(i, i, a);
+        if (x >= 0 && x < getWidth() && y >= 0 && y < getHeight()
+                && stateFor(x, y) != i) {
+            states[count] = stateFor(x, y);
+            probabilities[count++] = transitionProbability(i, states[count - 1], a);
+        }
+        return count;
+    }
+
     /**
      * @see rl.MarkovDecisionProcess#sampleState(int, int)
      */
@@ -99,6 +99,32 @@ public class NonDeterministicMazeMDP extends MazeMarkovDecisionProcess {
         return prob;
     }
 
+    /**
+     * @see rl.SparseMarkovDecisionProcess#getMaxSuccessors()
+     */
+    public int getMaxSuccessors() {
+        return ACTIONS + 1;
+    }
+
+    /**
+     * @see rl.SparseMarkovDecisionProcess#successors(int, int, int[], double[])
+     */
+    public int successors(int i, int a, int[] states, double[] probabilities) {
+        // one successor per rotation of the action, plus
+        // staying put when motion fails
+        double[] tm = transitionModel.getProbabilities();
+        int count = 0;
+        for (int rotation = 0; rotation < ACTIONS; rotation++) {
+            states[count] = move(i, (a + rotation) % ACTIONS);
+            probabilities[count++] = tm[rotation];
+        }
+        if (tm.length > ACTIONS) {
+            states[count] = i;
+            probabilities[count++] = tm[ACTIONS];
+        }
+        return count;
+    }
+
     /**
      * @see rl.MarkovDecisionProcess#sampleState(int, int)
      */
@@ -0,0 +1,254 @@
+package rl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A policy learner that learns policies through policy iteration
+ * over a compiled sparse transition model, evaluating and improving
+ * blocks of states across a fork join pool.  Each evaluation sweep
+ * computes every new value from the previous sweep's values, so the
+ * result does not depend on how the blocks are scheduled, and each
+ * evaluation starts from the values of the last policy.
+ * @version 1.0
+ */
+public class ParallelPolicyIteration implements PolicyLearner {
+    /**
+     * The tolerance for changes
+     */
+    private static final double TOLERANCE = 1E-6;
+    /**
+     * The policy
+     */
+    private Policy policy;
+    /**
+     * The decay value
+     */
+    private double gamma;
+    /**
+     * The compiled process
+     */
+    private SparseTransitionModel model;
+    /**
+     * The values of the last policy evaluated
+     */
+    private double[] values;
+    /**
+     * The number of blocks to split the states into
+     */
+    private int workers;
+    /**
+     * The pool to run the blocks in
+     */
+    private transient ForkJoinPool pool;
+
+    /**
+     * Make a new parallel policy iteration
+     * @param gamma the gamma decay value
+     * @param process the process, compiled if it is not already
+     * @param pool the pool to run in
+     * @param workers the number of blocks to split the states into
+     */
+    public ParallelPolicyIteration(double gamma, MarkovDecisionProcess process,
+            ForkJoinPool pool, int workers) {
+        this.gamma = gamma;
+        this.pool = pool;
+        this.model = process instanceof SparseTransitionModel
+            ? (SparseTransitionModel) process
+            : new SparseTransitionModel(process, pool, workers);
+        this.workers = Math.max(1, Math.min(workers, model.getStateCount()));
+        policy = new Policy(model.getStateCount(), model.getActionCount());
+        values = new double[model.getStateCount()];
+    }
+
+    /**
+     * Make a new parallel policy iteration using
+     * four blocks per thread of the pool
+     * @param gamma the gamma decay value
+     * @param process the process
+     * @param pool the pool to run in
+     */
+    public ParallelPolicyIteration(double gamma, MarkovDecisionProcess process, ForkJoinPool pool) {
+        this(gamma, process, pool, pool.getParallelism() * 4);
+    }
+
+    /**
+     * Make a new parallel policy iteration in the common pool
+     * @param gamma the gamma decay value
+     * @param process the process
+     */
+    public ParallelPolicyIteration(double gamma, MarkovDecisionProcess process) {
+        this(gamma, process, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        // perform value iteration with the policy, starting
+        // from the values of the last policy
+        double[] values = this.values;
+        double[] next = new double[model.getStateCount()];
+        Evaluate[] evaluations = new Evaluate[workers];
+        double difference;
+        do {
+            for (int w = 0; w < workers; w++) {
+                evaluations[w] = new Evaluate(start(w), start(w + 1), values, next);
+            }
+            run(evaluations);
+            difference = 0;
+            for (int w = 0; w < workers; w++) {
+                difference = Math.max(difference, evaluations[w].difference);
+            }
+            double[] t = values;
+            values = next;
+            next = t;
+        } while (difference > TOLERANCE);
+        this.values = values;
+        // calculate the new policy
+        Improve[] improvements = new Improve[workers];
+        for (int w = 0; w < workers; w++) {
+            improvements[w] = new Improve(start(w), start(w + 1));
+        }
+        run(improvements);
+        int changed = 0;
+        for (int w = 0; w < workers; w++) {
+            changed += improvements[w].changed;
+        }
+        return changed;
+    }
+
+    /**
+     * @see rl.PolicyLearner#getPolicy()
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Get the values of the last policy evaluated
+     * @return the values
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Get the compiled process
+     * @return the model
+     */
+    public SparseTransitionModel getModel() {
+        return model;
+    }
+
+    /**
+     * Get the first state of a block
+     * @param w the block
+     * @return the first state
+     */
+    private int start(int w) {
+        return (int) ((long) w * model.getStateCount() / workers);
+    }
+
+    /**
+     * Run the given tasks in the pool and wait for them all
+     * @param blocks the tasks
+     */
+    private void run(RecursiveAction[] blocks) {
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[blocks.length];
+        for (int w = 0; w < blocks.length; w++) {
+            tasks[w] = pool.submit(blocks[w]);
+        }
+        for (int w = 0; w < tasks.length; w++) {
+            tasks[w].join();
+        }
+    }
+
+    /**
+     * Evaluates the current policy for a block of states
+     */
+    private class Evaluate extends RecursiveAction {
+        /** The first state */
+        private int start;
+        /** The end of the states */
+        private int end;
+        /** The values from the last sweep */
+        private double[] values;
+        /** The values to fill in */
+        private double[] next;
+        /** The largest change in the block */
+        private double difference;
+
+        /**
+         * Make a new evaluation
+         * @param start the first state
+         * @param end the end of the states
+         * @param values the values from the last sweep
+         * @param next the values to fill in
+         */
+        public Evaluate(int start, int end, double[] values, double[] next) {
+            this.start = start;
+            this.end = end;
+            this.values = values;
+            this.next = next;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            int[] actions = policy.getActions();
+            for (int i = start; i < end; i++) {
+                // utility = reward if in terminal state
+                double value = model.isTerminalState(i) ? model.reward(i, 0)
+                    : model.actionValue(i, actions[i], values, gamma);
+                difference = Math.max(Math.abs(values[i] - value), difference);
+                next[i] = value;
+            }
+        }
+    }
+
+    /**
+     * Makes the policy greedy with respect to the values for a block of states
+     */
+    private class Improve extends RecursiveAction {
+        /** The first state */
+        private int start;
+        /** The end of the states */
+        private int end;
+        /** The number of actions changed in the block */
+        private int changed;
+
+        /**
+         * Make a new improvement
+         * @param start the first state
+         * @param end the end of the states
+         */
+        public Improve(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            int[] actions = policy.getActions();
+            for (int i = start; i < end; i++) {
+                // only switch actions that are beaten by more than
+                // the tolerance so near ties can't keep the policy changing
+                int action = model.bestAction(i, values, gamma);
+                if (actions[i] != action
+                        && model.actionValue(i, action, values, gamma)
+                            > model.actionValue(i, actions[i], values, gamma) + TOLERANCE) {
+                    changed++;
+                    actions[i] = action;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package rl;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import util.StreamRandom;
+
+/**
+ * Runs many q learning agents against the same process across a
+ * fork join pool.  Each agent has its own exploration strategy, so
+ * different strategies can be compared in one run, and draws all of
+ * its randomness from its own stream.  Each round every agent runs a
+ * number of episodes and records the reward, steps and largest q value
+ * change of each.  The agents either learn independently, have their
+ * q tables averaged together after each round, or all update one
+ * shared table without locking (hogwild).  Updates use the expected
+ * reward of the action from the state and take a terminal state's
+ * value to be its reward, as value iteration does, so the greedy
+ * values head for value iteration's values.  The process's sampling
+ * and reward functions must be safe to call concurrently.
+ * @version 1.0
+ */
+public class ParallelQLearning implements PolicyLearner {
+    /**
+     * Each agent learns its own q table
+     */
+    public static final int INDEPENDENT = 0;
+    /**
+     * Each agent learns its own q table and the tables
+     * are replaced by their average after each round
+     */
+    public static final int AVERAGED = 1;
+    /**
+     * Every agent reads and writes one shared q table without
+     * locking, so runs are not reproducible
+     */
+    public static final int HOGWILD = 2;
+    /**
+     * The process
+     */
+    private MarkovDecisionProcess process;
+    /**
+     * The agents
+     */
+    private Agent[] agents;
+    /**
+     * The shared q table for hogwild updates
+     */
+    private double[] shared;
+    /**
+     * The decay value
+     */
+    private double gamma;
+    /**
+     * The learning rate
+     */
+    private double alpha;
+    /**
+     * The number of episodes each agent runs per round
+     */
+    private int episodesPerRound;
+    /**
+     * The most steps in an episode
+     */
+    private int maxSteps;
+    /**
+     * How the q tables are combined
+     */
+    private int merge;
+    /**
+     * The pool to run the agents in
+     */
+    private transient ForkJoinPool pool;
+
+    /**
+     * Make a new parallel q learning runner
+     * @param process the process
+     * @param strategies the exploration strategy of each agent
+     * @param gamma the gamma decay value
+     * @param alpha the learning rate
+     * @param episodesPerRound the number of episodes each agent runs per round
+     * @param maxSteps the most steps in an episode
+     * @param merge how to combine the q tables, one of INDEPENDENT,
+     * AVERAGED or HOGWILD
+     * @param pool the pool to run in
+     * @param seed the seed for the random streams
+     */
+    public ParallelQLearning(MarkovDecisionProcess process, ExplorationStrategy[] strategies,
+            double gamma, double alpha, int episodesPerRound, int maxSteps, int merge,
+            ForkJoinPool pool, long seed) {
+        this.process = process;
+        this.gamma = gamma;
+        this.alpha = alpha;
+        this.episodesPerRound = episodesPerRound;
+        this.maxSteps = maxSteps;
+        this.merge = merge;
+        this.pool = pool;
+        int size = process.getStateCount() * process.getActionCount();
+        if (merge == HOGWILD) {
+            shared = new double[size];
+        }
+        Random[] streams = StreamRandom.streams(seed, strategies.length);
+        agents = new Agent[strategies.length];
+        for (int i = 0; i < agents.length; i++) {
+            agents[i] = new Agent(strategies[i], streams[i],
+                merge == HOGWILD ? shared : new double[size]);
+        }
+    }
+
+    /**
+     * Make a new parallel q learning runner in the common pool
+     * @param process the process
+     * @param strategies the exploration strategy of each agent
+     * @param gamma the gamma decay value
+     * @param alpha the learning rate
+     * @param episodesPerRound the number of episodes each agent runs per round
+     * @param maxSteps the most steps in an episode
+     * @param merge how to combine the q tables
+     * @param seed the seed for the random streams
+     */
+    public ParallelQLearning(MarkovDecisionProcess process, ExplorationStrategy[] strategies,
+            double gamma, double alpha, int episodesPerRound, int maxSteps, int merge, long seed) {
+        this(process, strategies, gamma, alpha, episodesPerRound, maxSteps, merge,
+            ForkJoinPool.commonPool(), seed);
+    }
+
+    /**
+     * Run a round of episodes on every agent
+     * @return the largest q value change in the round
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[agents.length];
+        for (int i = 0; i < agents.length; i++) {
+            tasks[i] = pool.submit(agents[i]);
+        }
+        double difference = 0;
+        for (int i = 0; i < agents.length; i++) {
+            tasks[i].join();
+            agents[i].reinitialize();
+            difference = Math.max(difference, agents[i].roundChange);
+        }
+        if (merge == AVERAGED) {
+            double[] average = average();
+            for (int i = 0; i < agents.length; i++) {
+                System.arraycopy(average, 0, agents[i].values, 0, average.length);
+            }
+        }
+        return difference;
+    }
+
+    /**
+     * Get the greedy policy of the combined q table,
+     * the average of the agents' tables unless they share one
+     * @see rl.PolicyLearner#getPolicy()
+     */
+    public Policy getPolicy() {
+        return greedy(merge == HOGWILD ? shared : average());
+    }
+
+    /**
+     * Get the greedy policy of one agent's q table
+     * @param agent the agent
+     * @return the policy
+     */
+    public Policy getPolicy(int agent) {
+        return greedy(agents[agent].values);
+    }
+
+    /**
+     * Get the q table of an agent, indexed by state * actions + action
+     * @param agent the agent
+     * @return the q values
+     */
+    public double[] getQValues(int agent) {
+        return agents[agent].values;
+    }
+
+    /**
+     * Get the number of agents
+     * @return the number of agents
+     */
+    public int getAgentCount() {
+        return agents.length;
+    }
+
+    /**
+     * Get the number of episodes an agent has run
+     * @param agent the agent
+     * @return the number of episodes
+     */
+    public int getEpisodes(int agent) {
+        return agents[agent].episodes;
+    }
+
+    /**
+     * Get the reward of each episode an agent has run
+     * @param agent the agent
+     * @return the rewards, one per episode
+     */
+    public double[] getEpisodeRewards(int agent) {
+        return Arrays.copyOf(agents[agent].rewards, agents[agent].episodes);
+    }
+
+    /**
+     * Get the number of steps of each episode an agent has run
+     * @param agent the agent
+     * @return the steps, one per episode
+     */
+    public int[] getEpisodeSteps(int agent) {
+        return Arrays.copyOf(agents[agent].steps, agents[agent].episodes);
+    }
+
+    /**
+     * Get the largest q value change of each episode an agent has run
+     * @param agent the agent
+     * @return the changes, one per episode
+     */
+    public double[] getEpisodeChanges(int agent) {
+        return Arrays.copyOf(agents[agent].changes, agents[agent].episodes);
+    }
+
+    /**
+     * Get the mean reward of an agent's last episodes
+     * @param agent the agent
+     * @param count the number of episodes to average over
+     * @return the mean reward
+     */
+    public double getMeanReward(int agent, int count) {
+        Agent a = agents[agent];
+        count = Math.min(count, a.episodes);
+        double sum = 0;
+        for (int e = a.episodes - count; e < a.episodes; e++) {
+            sum += a.rewards[e];
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Get the mean steps of an agent's last episodes
+     * @param agent the agent
+     * @param count the number of episodes to average over
+     * @return the mean number of steps
+     */
+    public double getMeanSteps(int agent, int count) {
+        Agent a = agents[agent];
+        count = Math.min(count, a.episodes);
+        double sum = 0;
+        for (int e = a.episodes - count; e < a.episodes; e++) {
+            sum += a.steps[e];
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Average the agents' q tables
+     * @return the average
+     */
+    private double[] average() {
+        double[] average = new double[agents[0].values.length];
+        for (int i = 0; i < agents.length; i++) {
+            double[] values = agents[i].values;
+            for (int k = 0; k < average.length; k++) {
+                average[k] += values[k];
+            }
+        }
+        for (int k = 0; k < average.length; k++) {
+            average[k] /= agents.length;
+        }
+        return average;
+    }
+
+    /**
+     * Find the greedy policy of a q table
+     * @param values the q table
+     * @return the policy
+     */
+    private Policy greedy(double[] values) {
+        int actionCount = process.getActionCount();
+        int[] policy = new int[process.getStateCount()];
+        for (int i = 0; i < policy.length; i++) {
+            int best = 0;
+            for (int a = 1; a < actionCount; a++) {
+                if (values[i * actionCount + best] < values[i * actionCount + a]) {
+                    best = a;
+                }
+            }
+            policy[i] = best;
+        }
+        return new Policy(policy);
+    }
+
+    /**
+     * An agent that runs a round of episodes
+     */
+    private class Agent extends RecursiveAction {
+        /** The exploration strategy */
+        private ExplorationStrategy strategy;
+        /** The random stream */
+        private Random stream;
+        /** The q table, indexed by state * actions + action */
+        private double[] values;
+        /** The number of episodes run */
+        private int episodes;
+        /** The reward of each episode */
+        private double[] rewards = new double[16];
+        /** The steps of each episode */
+        private int[] steps = new int[16];
+        /** The largest q value change of each episode */
+        private double[] changes = new double[16];
+        /** The largest q value change of the last round */
+        private double roundChange;
+
+        /**
+         * Make a new agent
+         * @param strategy the exploration strategy
+         * @param stream the random stream
+         * @param values the q table
+         */
+        public Agent(ExplorationStrategy strategy, Random stream, double[] values) {
+            this.strategy = strategy;
+            this.stream = stream;
+            this.values = values;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            Random previous = StreamRandom.bind(stream);
+            try {
+                roundChange = 0;
+                for (int e = 0; e < episodesPerRound; e++) {
+                    episode();
+                }
+            } finally {
+                StreamRandom.bind(previous);
+            }
+        }
+
+        /**
+         * Run one episode from an initial state until a
+         * terminal state or the most steps, recording it
+         */
+        private void episode() {
+            int actionCount = process.getActionCount();
+            double[] row = new double[actionCount];
+            int state = process.sampleInitialState();
+            double reward = 0, change = 0;
+            int step = 0;
+            while (step < maxSteps && !process.isTerminalState(state)) {
+                System.arraycopy(values, state * actionCount, row, 0, actionCount);
+                int action = strategy.action(row);
+                int next = process.sampleState(state, action);
+                // value iteration's reward and terminal utility,
+                // since terminal q values are never updated
+                double r = process.reward(state, action);
+                double best;
+                if (process.isTerminalState(next)) {
+                    best = process.reward(next, 0);
+                } else {
+                    best = values[next * actionCount];
+                    for (int a = 1; a < actionCount; a++) {
+                        best = Math.max(best, values[next * actionCount + a]);
+                    }
+                }
+                int pair = state * actionCount + action;
+                double delta = alpha * (r + gamma * best - values[pair]);
+                values[pair] += delta;
+                change = Math.max(change, Math.abs(delta));
+                reward += r;
+                state = next;
+                step++;
+            }
+            if (episodes == rewards.length) {
+                rewards = Arrays.copyOf(rewards, episodes * 2);
+                steps = Arrays.copyOf(steps, episodes * 2);
+                changes = Arrays.copyOf(changes, episodes * 2);
+            }
+            rewards[episodes] = reward;
+            steps[episodes] = step;
+            changes[episodes] = change;
+            episodes++;
+            roundChange = Math.max(roundChange, change);
+        }
+    }
+}
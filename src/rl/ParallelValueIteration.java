@@ -0,0 +1,232 @@
+package rl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A policy learner that learns policies through value iteration
+ * over a compiled sparse transition model, sweeping blocks of
+ * states across a fork join pool.  Each sweep computes every new
+ * value from the previous sweep's values, so the result does not
+ * depend on how the blocks are scheduled.
+ * @version 1.0
+ */
+public class ParallelValueIteration implements PolicyLearner {
+    /**
+     * The decay value
+     */
+    private double gamma;
+    /**
+     * The compiled process
+     */
+    private SparseTransitionModel model;
+    /**
+     * The values
+     */
+    private double[] values;
+    /**
+     * The values being computed by a sweep
+     */
+    private double[] next;
+    /**
+     * The number of blocks to split the states into
+     */
+    private int workers;
+    /**
+     * The pool to run the blocks in
+     */
+    private transient ForkJoinPool pool;
+
+    /**
+     * Make a new parallel value iteration
+     * @param gamma the gamma decay value
+     * @param process the process, compiled if it is not already
+     * @param pool the pool to run in
+     * @param workers the number of blocks to split the states into
+     */
+    public ParallelValueIteration(double gamma, MarkovDecisionProcess process,
+            ForkJoinPool pool, int workers) {
+        this.gamma = gamma;
+        this.pool = pool;
+        this.model = process instanceof SparseTransitionModel
+            ? (SparseTransitionModel) process
+            : new SparseTransitionModel(process, pool, workers);
+        this.workers = Math.max(1, Math.min(workers, model.getStateCount()));
+        // the values start at the best immediate reward
+        values = new double[model.getStateCount()];
+        next = new double[model.getStateCount()];
+        for (int i = 0; i < values.length; i++) {
+            double maxActionVal = model.reward(i, 0);
+            for (int a = 1; a < model.getActionCount(); a++) {
+                maxActionVal = Math.max(maxActionVal, model.reward(i, a));
+            }
+            values[i] = maxActionVal;
+        }
+    }
+
+    /**
+     * Make a new parallel value iteration using
+     * four blocks per thread of the pool
+     * @param gamma the gamma decay value
+     * @param process the process
+     * @param pool the pool to run in
+     */
+    public ParallelValueIteration(double gamma, MarkovDecisionProcess process, ForkJoinPool pool) {
+        this(gamma, process, pool, pool.getParallelism() * 4);
+    }
+
+    /**
+     * Make a new parallel value iteration in the common pool
+     * @param gamma the gamma decay value
+     * @param process the process
+     */
+    public ParallelValueIteration(double gamma, MarkovDecisionProcess process) {
+        this(gamma, process, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        Backup[] backups = new Backup[workers];
+        for (int w = 0; w < workers; w++) {
+            backups[w] = new Backup(start(w), start(w + 1));
+        }
+        run(backups);
+        double difference = 0;
+        for (int w = 0; w < workers; w++) {
+            difference = Math.max(difference, backups[w].difference);
+        }
+        double[] t = values;
+        values = next;
+        next = t;
+        return difference;
+    }
+
+    /**
+     * @see rl.PolicyLearner#getPolicy()
+     */
+    public Policy getPolicy() {
+        int[] policy = new int[model.getStateCount()];
+        Greedy[] greedy = new Greedy[workers];
+        for (int w = 0; w < workers; w++) {
+            greedy[w] = new Greedy(start(w), start(w + 1), policy);
+        }
+        run(greedy);
+        return new Policy(policy);
+    }
+
+    /**
+     * Get the values of the states
+     * @return the values
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Get the compiled process
+     * @return the model
+     */
+    public SparseTransitionModel getModel() {
+        return model;
+    }
+
+    /**
+     * Get the first state of a block
+     * @param w the block
+     * @return the first state
+     */
+    private int start(int w) {
+        return (int) ((long) w * model.getStateCount() / workers);
+    }
+
+    /**
+     * Run the given tasks in the pool and wait for them all
+     * @param blocks the tasks
+     */
+    private void run(RecursiveAction[] blocks) {
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[blocks.length];
+        for (int w = 0; w < blocks.length; w++) {
+            tasks[w] = pool.submit(blocks[w]);
+        }
+        for (int w = 0; w < tasks.length; w++) {
+            tasks[w].join();
+        }
+    }
+
+    /**
+     * Backs up the values of a block of states
+     */
+    private class Backup extends RecursiveAction {
+        /** The first state */
+        private int start;
+        /** The end of the states */
+        private int end;
+        /** The largest change in the block */
+        private double difference;
+
+        /**
+         * Make a new backup
+         * @param start the first state
+         * @param end the end of the states
+         */
+        public Backup(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            for (int i = start; i < end; i++) {
+                // utility never changes in terminal states
+                if (model.isTerminalState(i)) {
+                    next[i] = values[i];
+                    continue;
+                }
+                double value = model.bestActionValue(i, values, gamma);
+                difference = Math.max(Math.abs(values[i] - value), difference);
+                next[i] = value;
+            }
+        }
+    }
+
+    /**
+     * Finds the greedy actions of a block of states
+     */
+    private class Greedy extends RecursiveAction {
+        /** The first state */
+        private int start;
+        /** The end of the states */
+        private int end;
+        /** The actions to fill in */
+        private int[] policy;
+
+        /**
+         * Make a new greedy action finder
+         * @param start the first state
+         * @param end the end of the states
+         * @param policy the actions to fill in
+         */
+        public Greedy(int start, int end, int[] policy) {
+            this.start = start;
+            this.end = end;
+            this.policy = policy;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            for (int i = start; i < end; i++) {
+                policy[i] = model.bestAction(i, values, gamma);
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package rl;
+
+import util.linalg.DenseVector;
+import util.linalg.LUDecomposition;
+import util.linalg.RectangularMatrix;
+import util.linalg.Vector;
+
+/**
+ * Solvers for the values of a fixed policy over a compiled model,
+ * the solution of the linear system (I - gamma P) v = r where row i
+ * of P and r are the transitions and reward of the policy's action
+ * in state i.  Terminal states keep their reward, a row of the
+ * identity.  The iterative solvers start from and overwrite the
+ * given values, so evaluating a policy that differs little from
+ * the last one starts close to its solution.
+ * @version 1.0
+ */
+public class PolicyEvaluator {
+    /**
+     * Solve with gauss seidel sweeps, solving each state's
+     * equation for its own value using the newest values of the rest,
+     * until no value changes by more than the tolerance
+     * @param model the model
+     * @param actions the action in each state
+     * @param gamma the discount
+     * @param values the starting values, overwritten with the solution
+     * @param tolerance the largest change that stops the sweeps
+     * @return the number of sweeps
+     */
+    public static int gaussSeidel(SparseTransitionModel model, int[] actions,
+            double gamma, double[] values, double tolerance) {
+        int[] rowStarts = model.getRowStarts();
+        int[] states = model.getStates();
+        double[] probabilities = model.getProbabilities();
+        double[] rewards = model.getRewards();
+        int actionCount = model.getActionCount();
+        int sweeps = 0;
+        double difference;
+        do {
+            sweeps++;
+            difference = 0;
+            for (int i = 0; i < values.length; i++) {
+                double value;
+                if (model.isTerminalState(i)) {
+                    value = model.reward(i, 0);
+                } else {
+                    int row = i * actionCount + actions[i];
+                    double sum = 0, self = 0;
+                    for (int k = rowStarts[row]; k < rowStarts[row + 1]; k++) {
+                        if (states[k] == i) {
+                            self = probabilities[k];
+                        } else {
+                            sum += probabilities[k] * values[states[k]];
+                        }
+                    }
+                    value = (rewards[row] + gamma * sum) / (1 - gamma * self);
+                }
+                difference = Math.max(difference, Math.abs(values[i] - value));
+                values[i] = value;
+            }
+        } while (difference > tolerance);
+        return sweeps;
+    }
+
+    /**
+     * Solve with the stabilized bi-conjugate gradient method,
+     * finishing with gauss seidel sweeps if it breaks down or runs
+     * out of iterations
+     * @param model the model
+     * @param actions the action in each state
+     * @param gamma the discount
+     * @param values the starting values, overwritten with the solution
+     * @param tolerance the largest residual that stops the iterations
+     * @param maxIterations the most iterations to run
+     * @return the number of iterations
+     */
+    public static int bicgstab(SparseTransitionModel model, int[] actions,
+            double gamma, double[] values, double tolerance, int maxIterations) {
+        int n = values.length;
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = model.reward(i, model.isTerminalState(i) ? 0 : actions[i]);
+        }
+        double[] r = new double[n];
+        multiply(model, actions, gamma, values, r);
+        for (int i = 0; i < n; i++) {
+            r[i] = b[i] - r[i];
+        }
+        if (norm(r) <= tolerance) {
+            return 0;
+        }
+        double[] shadow = r.clone();
+        double[] p = new double[n], v = new double[n], s = new double[n], t = new double[n];
+        double rho = 1, alpha = 1, omega = 1;
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            double next = dot(shadow, r);
+            if (next == 0 || omega == 0) {
+                break;
+            }
+            double beta = (next / rho) * (alpha / omega);
+            rho = next;
+            for (int i = 0; i < n; i++) {
+                p[i] = r[i] + beta * (p[i] - omega * v[i]);
+            }
+            multiply(model, actions, gamma, p, v);
+            double sv = dot(shadow, v);
+            if (sv == 0) {
+                break;
+            }
+            alpha = rho / sv;
+            for (int i = 0; i < n; i++) {
+                s[i] = r[i] - alpha * v[i];
+            }
+            if (norm(s) <= tolerance) {
+                for (int i = 0; i < n; i++) {
+                    values[i] += alpha * p[i];
+                }
+                return iteration;
+            }
+            multiply(model, actions, gamma, s, t);
+            double tt = dot(t, t);
+            omega = tt == 0 ? 0 : dot(t, s) / tt;
+            for (int i = 0; i < n; i++) {
+                values[i] += alpha * p[i] + omega * s[i];
+                r[i] = s[i] - omega * t[i];
+            }
+            if (norm(r) <= tolerance) {
+                return iteration;
+            }
+        }
+        return maxIterations + gaussSeidel(model, actions, gamma, values, tolerance);
+    }
+
+    /**
+     * Solve directly with a LU decomposition of the
+     * dense system, only sensible for small processes
+     * @param model the model
+     * @param actions the action in each state
+     * @param gamma the discount
+     * @param values overwritten with the solution
+     */
+    public static void direct(SparseTransitionModel model, int[] actions,
+            double gamma, double[] values) {
+        int n = values.length;
+        int[] rowStarts = model.getRowStarts();
+        int[] states = model.getStates();
+        double[] probabilities = model.getProbabilities();
+        double[][] a = new double[n][n];
+        Vector b = new DenseVector(n);
+        for (int i = 0; i < n; i++) {
+            a[i][i] = 1;
+            if (model.isTerminalState(i)) {
+                b.set(i, model.reward(i, 0));
+                continue;
+            }
+            int row = i * model.getActionCount() + actions[i];
+            for (int k = rowStarts[row]; k < rowStarts[row + 1]; k++) {
+                a[i][states[k]] -= gamma * probabilities[k];
+            }
+            b.set(i, model.reward(i, actions[i]));
+        }
+        // the system is strictly diagonally dominant by rows
+        // so elimination without pivoting is safe
+        Vector x = new LUDecomposition(new RectangularMatrix(a)).solve(b);
+        for (int i = 0; i < n; i++) {
+            values[i] = x.get(i);
+        }
+    }
+
+    /**
+     * Multiply by the system's matrix, y = (I - gamma P) x
+     * @param model the model
+     * @param actions the action in each state
+     * @param gamma the discount
+     * @param x the vector to multiply
+     * @param y the result
+     */
+    private static void multiply(SparseTransitionModel model, int[] actions,
+            double gamma, double[] x, double[] y) {
+        int[] rowStarts = model.getRowStarts();
+        int[] states = model.getStates();
+        double[] probabilities = model.getProbabilities();
+        int actionCount = model.getActionCount();
+        for (int i = 0; i < x.length; i++) {
+            if (model.isTerminalState(i)) {
+                y[i] = x[i];
+                continue;
+            }
+            int row = i * actionCount + actions[i];
+            double sum = 0;
+            for (int k = rowStarts[row]; k < rowStarts[row + 1]; k++) {
+                sum += probabilities[k] * x[states[k]];
+            }
+            y[i] = x[i] - gamma * sum;
+        }
+    }
+
+    /**
+     * The dot product of two vectors
+     * @param a the first vector
+     * @param b the second vector
+     * @return the dot product
+     */
+    private static double dot(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * The largest absolute entry of a vector
+     * @param a the vector
+     * @return the norm
+     */
+    private static double norm(double[] a) {
+        double max = 0;
+        for (int i = 0; i < a.length; i++) {
+            max = Math.max(max, Math.abs(a[i]));
+        }
+        return max;
+    }
+}
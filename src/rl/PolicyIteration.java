@@ -10,6 +10,38 @@ public class PolicyIteration implements PolicyLearner {
      * The tolerance for changes
      */
     private static final double TOLERANCE = 1E-6;
+    /**
+     * Evaluate each policy by sweeping through the process
+     * starting from zero values
+     */
+    public static final int SWEEP = 0;
+    /**
+     * Evaluate each policy with gauss seidel over the compiled
+     * process starting from the last policy's values
+     */
+    public static final int GAUSS_SEIDEL = 1;
+    /**
+     * Evaluate each policy with bicgstab over the compiled
+     * process starting from the last policy's values
+     */
+    public static final int BICGSTAB = 2;
+    /**
+     * Evaluate each policy by solving the dense system directly
+     */
+    public static final int DIRECT = 3;
+    /**
+     * Evaluate each policy directly for small processes
+     * and with bicgstab otherwise
+     */
+    public static final int AUTOMATIC = 4;
+    /**
+     * The most states automatic evaluation solves directly
+     */
+    private static final int DIRECT_STATES = 500;
+    /**
+     * The most bicgstab iterations before falling back to gauss seidel
+     */
+    private static final int MAX_ITERATIONS = 1000;
     /**
      * The policy
      */
@@ -22,22 +54,54 @@ public class PolicyIteration implements PolicyLearner {
      * The decay value
      */
     private double gamma;
+    /**
+     * How each policy is evaluated
+     */
+    private int evaluation;
+    /**
+     * The compiled process, for evaluations other than sweeps
+     */
+    private SparseTransitionModel model;
+    /**
+     * The values of the last policy evaluated
+     */
+    private double[] values;
 
     
     /**
-     * Make a new value iteration
+     * Make a new policy iteration
      * @param gamma the gamma decay value
+     * @param process the process
      */
     public PolicyIteration(double gamma, MarkovDecisionProcess process) {
+        this(gamma, process, SWEEP);
+    }
+    
+    /**
+     * Make a new policy iteration
+     * @param gamma the gamma decay value
+     * @param process the process
+     * @param evaluation how to evaluate each policy, one of
+     * SWEEP, GAUSS_SEIDEL, BICGSTAB, DIRECT or AUTOMATIC
+     */
+    public PolicyIteration(double gamma, MarkovDecisionProcess process, int evaluation) {
         this.gamma = gamma;
         this.process = process;
+        this.evaluation = evaluation;
         policy = new Policy(process.getStateCount(), process.getActionCount());
+        if (evaluation != SWEEP) {
+            model = SparseTransitionModel.compile(process);
+            values = new double[process.getStateCount()];
+        }
     }
     
     /**
      * @see shared.Trainer#train()
      */
     public double train() {
+        if (evaluation != SWEEP) {
+            return solve();
+        }
         int stateCount = process.getStateCount();
         int actionCount = process.getActionCount();
         // perform value iteration with the policy
@@ -93,6 +157,49 @@ public class PolicyIteration implements PolicyLearner {
         }
         return changed;
     }
+    /**
+     * Evaluate the policy over the compiled process with
+     * the chosen solver and then improve it
+     * @return the number of actions changed
+     */
+    private double solve() {
+        int[] actions = policy.getActions();
+        int method = evaluation;
+        if (method == AUTOMATIC) {
+            method = values.length <= DIRECT_STATES ? DIRECT : BICGSTAB;
+        }
+        if (method == DIRECT) {
+            PolicyEvaluator.direct(model, actions, gamma, values);
+        } else if (method == BICGSTAB) {
+            PolicyEvaluator.bicgstab(model, actions, gamma, values, TOLERANCE, MAX_ITERATIONS);
+        } else {
+            PolicyEvaluator.gaussSeidel(model, actions, gamma, values, TOLERANCE);
+        }
+        // calculate the new policy, only switching actions that
+        // are beaten by more than the tolerance the values were solved
+        // to so that near ties can't keep the policy changing
+        int changed = 0;
+        for (int i = 0; i < actions.length; i++) {
+            int action = model.bestAction(i, values, gamma);
+            if (actions[i] != action
+                    && model.actionValue(i, action, values, gamma)
+                        > model.actionValue(i, actions[i], values, gamma) + TOLERANCE) {
+                changed++;
+                actions[i] = action;
+            }
+        }
+        return changed;
+    }
+    
+    /**
+     * Get the values of the last policy evaluated, for
+     * evaluations other than sweeps
+     * @return the values
+     */
+    public double[] getValues() {
+        return values;
+    }
+    
     /**
      * @see rl.PolicyLearner#getPolicy()
      */
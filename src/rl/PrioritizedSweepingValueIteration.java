@@ -0,0 +1,155 @@
+package rl;
+
+import util.IndexedMaxHeap;
+
+/**
+ * A policy learner that learns policies through prioritized sweeping,
+ * an asynchronous value iteration that keeps every state whose
+ * bellman residual is above a tolerance in a priority queue and
+ * always backs up the state with the largest residual.  After a
+ * backup only the residuals of the state's predecessors can change,
+ * so states that have converged are never touched again.
+ * @version 1.0
+ */
+public class PrioritizedSweepingValueIteration implements PolicyLearner {
+    /**
+     * The default tolerance for queueing a state
+     */
+    private static final double TOLERANCE = 1E-7;
+    /**
+     * The decay value
+     */
+    private double gamma;
+    /**
+     * The compiled process
+     */
+    private SparseTransitionModel model;
+    /**
+     * The values
+     */
+    private double[] values;
+    /**
+     * The states to back up by residual
+     */
+    private IndexedMaxHeap queue;
+    /**
+     * The smallest residual that queues a state
+     */
+    private double tolerance;
+    /**
+     * The number of backups per call to train
+     */
+    private int backups;
+    /**
+     * The total number of backups performed
+     */
+    private long totalBackups;
+
+    /**
+     * Make a new prioritized sweeping value iteration
+     * @param gamma the gamma decay value
+     * @param process the process, compiled if it is not already
+     * @param tolerance the smallest residual that queues a state
+     * @param backups the number of backups per call to train
+     */
+    public PrioritizedSweepingValueIteration(double gamma, MarkovDecisionProcess process,
+            double tolerance, int backups) {
+        this.gamma = gamma;
+        this.model = SparseTransitionModel.compile(process);
+        this.tolerance = tolerance;
+        this.backups = backups;
+        int stateCount = model.getStateCount();
+        // the values start at the best immediate reward
+        values = new double[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            double maxActionVal = model.reward(i, 0);
+            for (int a = 1; a < model.getActionCount(); a++) {
+                maxActionVal = Math.max(maxActionVal, model.reward(i, a));
+            }
+            values[i] = maxActionVal;
+        }
+        queue = new IndexedMaxHeap(stateCount);
+        for (int i = 0; i < stateCount; i++) {
+            prioritize(i);
+        }
+    }
+
+    /**
+     * Make a new prioritized sweeping value iteration that does as
+     * many backups per call to train as there are states, the same
+     * as one sweep of value iteration
+     * @param gamma the gamma decay value
+     * @param process the process
+     */
+    public PrioritizedSweepingValueIteration(double gamma, MarkovDecisionProcess process) {
+        this(gamma, process, TOLERANCE, process.getStateCount());
+    }
+
+    /**
+     * Back up the states with the largest residuals
+     * @return the largest residual left, zero once every
+     * residual is below the tolerance
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        int[] starts = model.getPredecessorStarts();
+        int[] predecessors = model.getPredecessors();
+        for (int n = 0; n < backups && !queue.isEmpty(); n++) {
+            int i = queue.extractMax();
+            values[i] = model.bestActionValue(i, values, gamma);
+            totalBackups++;
+            // a backup of a state with a self loop
+            // can leave it with a residual of its own
+            prioritize(i);
+            for (int k = starts[i]; k < starts[i + 1]; k++) {
+                prioritize(predecessors[k]);
+            }
+        }
+        return queue.isEmpty() ? 0 : queue.getMaxPriority();
+    }
+
+    /**
+     * Recompute the residual of a state and queue it
+     * if the residual is above the tolerance
+     * @param i the state
+     */
+    private void prioritize(int i) {
+        // utility never changes in terminal states
+        if (model.isTerminalState(i)) {
+            return;
+        }
+        double residual = Math.abs(model.bestActionValue(i, values, gamma) - values[i]);
+        if (residual > tolerance) {
+            queue.set(i, residual);
+        } else {
+            queue.remove(i);
+        }
+    }
+
+    /**
+     * @see rl.PolicyLearner#getPolicy()
+     */
+    public Policy getPolicy() {
+        int[] policy = new int[model.getStateCount()];
+        for (int i = 0; i < policy.length; i++) {
+            policy[i] = model.bestAction(i, values, gamma);
+        }
+        return new Policy(policy);
+    }
+
+    /**
+     * Get the values of the states
+     * @return the values
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Get the total number of backups performed
+     * @return the number of backups
+     */
+    public long getBackups() {
+        return totalBackups;
+    }
+}
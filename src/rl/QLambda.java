@@ -42,7 +42,7 @@ public class QLambda implements PolicyLearner {
     /**
      * The eligibility of each state action
      */
-    private double[][] eligibility;
+    private EligibilityTraces eligibility;
     /**
      * The current state
      */
@@ -63,6 +63,10 @@ public class QLambda implements PolicyLearner {
      * The total reward
      */
     private double totalReward;
+    /**
+     * The greedy strategy for finding the best next action
+     */
+    private GreedyStrategy greedy = new GreedyStrategy();
     
     /**
      * Make a new td lambda
@@ -82,7 +86,7 @@ public class QLambda implements PolicyLearner {
         this.process = process;
         
         this.values = new double[process.getStateCount()][process.getActionCount()];
-        this.eligibility = new double[process.getStateCount()][process.getActionCount()];
+        this.eligibility = new EligibilityTraces(process.getStateCount(), process.getActionCount(), ZERO);
         this.state = process.sampleInitialState();
         this.action = Distribution.random.nextInt(process.getActionCount());
     }
@@ -95,32 +99,16 @@ public class QLambda implements PolicyLearner {
         double reward = process.reward(nextState, action);
         totalReward += reward;
         int nextAction = strategy.action(values[nextState]);
-        GreedyStrategy greedy = new GreedyStrategy();
         int nextBestAction = greedy.action(values[nextState]);
         // calculate the value change
         double delta = reward + gamma * values[nextState][nextBestAction]
             - values[state][action];
         // pump the eligibility for this state
-        eligibility[state][action] += 1;
-        double difference = 0;
-        // update all state acion pairs
-        for (int i = 0; i < process.getStateCount(); i++) {
-            for (int a = 0; a < process.getActionCount(); a++) {
-                if (eligibility[i][a] < ZERO) {
-                    continue;
-                }
-                // calculate the change in values
-                double newValue = values[i][a] + alpha * delta * eligibility[i][a];
-                difference = Math.max(difference, Math.abs(values[i][a] - newValue));
-                values[i][a] = newValue;
-                // if we are exploring reset the eligibility, else decay
-                if (nextAction == nextBestAction) {
-                    eligibility[i][a] *= gamma * lambda;
-                } else {
-                    eligibility[i][a] = 0;
-                }
-            }
-        }
+        eligibility.increment(state, action, 1);
+        // update all state acion pairs with eligibility,
+        // if we are exploring reset the eligibility, else decay
+        double difference = eligibility.update(values, alpha * delta,
+            nextAction == nextBestAction ? gamma * lambda : 0);
         state = nextState;
         action = nextAction;
         // reset on terminal state
@@ -128,11 +116,7 @@ public class QLambda implements PolicyLearner {
             episode++;
             state = process.sampleInitialState();
             action = strategy.action(values[state]);
-            for (int i = 0; i < process.getStateCount(); i++) {
-                for (int a = 0; a < process.getActionCount(); a++) {
-                    eligibility[i][a] = 0;
-                }
-            }
+            eligibility.clear();
         }
         iteration++;
         // decay the alpha value
@@ -0,0 +1,29 @@
+package rl;
+
+/**
+ * A markov decision process that can list the states
+ * reachable from a state and action directly, so that its
+ * transitions can be compiled without asking for the probability
+ * of every pair of states
+ * @version 1.0
+ */
+public interface SparseMarkovDecisionProcess extends MarkovDecisionProcess {
+    /**
+     * Get the largest number of successors of any state and action
+     * @return the maximum number of successors
+     */
+    public int getMaxSuccessors();
+
+    /**
+     * Get the states reachable from state i with action a
+     * and their probabilities.  A state may be listed more
+     * than once, in which case its probabilities add.
+     * @param i the state
+     * @param a the action
+     * @param states the array to fill with the successors,
+     * at least the maximum number of successors long
+     * @param probabilities the array to fill with the probabilities
+     * @return the number of successors filled in
+     */
+    public int successors(int i, int a, int[] states, double[] probabilities);
+}
@@ -0,0 +1,479 @@
+package rl;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import dist.Distribution;
+
+/**
+ * A markov decision process compiled into compressed sparse rows.
+ * There is one row per state and action, row i * actions + a,
+ * holding the successor states in increasing order and their
+ * probabilities, along with the reward for the state and action.
+ * Compiling asks a sparse process for its successors and
+ * otherwise scans every pair of states once, in parallel over
+ * blocks of states, so the solvers never call back into the process.
+ * @version 1.0
+ */
+public class SparseTransitionModel implements SparseMarkovDecisionProcess {
+
+    /**
+     * The process this was compiled from
+     */
+    private MarkovDecisionProcess process;
+
+    /**
+     * The number of states
+     */
+    private int stateCount;
+
+    /**
+     * The number of actions
+     */
+    private int actionCount;
+
+    /**
+     * The start of each row in the successors,
+     * with one extra entry for the end of the last row
+     */
+    private int[] rowStarts;
+
+    /**
+     * The successor states of every row
+     */
+    private int[] states;
+
+    /**
+     * The probabilities of the successor states
+     */
+    private double[] probabilities;
+
+    /**
+     * The reward of each row
+     */
+    private double[] rewards;
+
+    /**
+     * Whether each state is terminal
+     */
+    private boolean[] terminal;
+
+    /**
+     * The largest number of successors in a row
+     */
+    private int maxSuccessors;
+
+    /**
+     * The start of each state's predecessors, built when first asked for
+     */
+    private int[] predecessorStarts;
+
+    /**
+     * The states that can reach each state under some action
+     */
+    private int[] predecessors;
+
+    /**
+     * Compile a process
+     * @param process the process to compile
+     * @param pool the pool to compile in
+     * @param workers the number of blocks of states to split the work into
+     */
+    public SparseTransitionModel(MarkovDecisionProcess process, ForkJoinPool pool, int workers) {
+        this.process = process;
+        stateCount = process.getStateCount();
+        actionCount = process.getActionCount();
+        int rows = stateCount * actionCount;
+        rowStarts = new int[rows + 1];
+        rewards = new double[rows];
+        terminal = new boolean[stateCount];
+        workers = Math.max(1, Math.min(workers, stateCount));
+        Compiler[] compilers = new Compiler[workers];
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[workers];
+        for (int w = 0; w < workers; w++) {
+            int start = (int) ((long) w * stateCount / workers);
+            int end = (int) ((long) (w + 1) * stateCount / workers);
+            compilers[w] = new Compiler(start, end);
+            tasks[w] = pool.submit(compilers[w]);
+        }
+        for (int w = 0; w < workers; w++) {
+            tasks[w].join();
+        }
+        // the counts are in the row starts, shifted by one,
+        // so a running sum turns them into starts
+        for (int r = 0; r < rows; r++) {
+            maxSuccessors = Math.max(maxSuccessors, rowStarts[r + 1]);
+            rowStarts[r + 1] += rowStarts[r];
+        }
+        states = new int[rowStarts[rows]];
+        probabilities = new double[rowStarts[rows]];
+        for (int w = 0; w < workers; w++) {
+            Compiler c = compilers[w];
+            int offset = rowStarts[c.start * actionCount];
+            System.arraycopy(c.states, 0, states, offset, c.size);
+            System.arraycopy(c.probabilities, 0, probabilities, offset, c.size);
+        }
+    }
+
+    /**
+     * Compile a process in the common pool
+     * @param process the process to compile
+     */
+    public SparseTransitionModel(MarkovDecisionProcess process) {
+        this(process, ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism() * 4);
+    }
+
+    /**
+     * Compile a process unless it is already compiled
+     * @param process the process
+     * @return the compiled process
+     */
+    public static SparseTransitionModel compile(MarkovDecisionProcess process) {
+        if (process instanceof SparseTransitionModel) {
+            return (SparseTransitionModel) process;
+        }
+        return new SparseTransitionModel(process);
+    }
+
+    /**
+     * @see rl.MarkovDecisionProcess#getStateCount()
+     */
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    /**
+     * @see rl.MarkovDecisionProcess#getActionCount()
+     */
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * @see rl.MarkovDecisionProcess#reward(int, int)
+     */
+    public double reward(int state, int action) {
+        return rewards[state * actionCount + action];
+    }
+
+    /**
+     * @see rl.MarkovDecisionProcess#transitionProbability(int, int, int)
+     */
+    public double transitionProbability(int i, int j, int a) {
+        int row = i * actionCount + a;
+        int low = rowStarts[row], high = rowStarts[row + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (states[middle] < j) {
+                low = middle + 1;
+            } else if (states[middle] > j) {
+                high = middle - 1;
+            } else {
+                return probabilities[middle];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @see rl.MarkovDecisionProcess#sampleState(int, int)
+     */
+    public int sampleState(int i, int a) {
+        int row = i * actionCount + a;
+        int end = rowStarts[row + 1];
+        double r = Distribution.random.nextDouble();
+        for (int k = rowStarts[row]; k < end - 1; k++) {
+            r -= probabilities[k];
+            if (r < 0) {
+                return states[k];
+            }
+        }
+        return end > rowStarts[row] ? states[end - 1] : i;
+    }
+
+    /**
+     * @see rl.MarkovDecisionProcess#sampleInitialState()
+     */
+    public int sampleInitialState() {
+        return process.sampleInitialState();
+    }
+
+    /**
+     * @see rl.MarkovDecisionProcess#isTerminalState(int)
+     */
+    public boolean isTerminalState(int state) {
+        return terminal[state];
+    }
+
+    /**
+     * @see rl.SparseMarkovDecisionProcess#getMaxSuccessors()
+     */
+    public int getMaxSuccessors() {
+        return maxSuccessors;
+    }
+
+    /**
+     * @see rl.SparseMarkovDecisionProcess#successors(int, int, int[], double[])
+     */
+    public int successors(int i, int a, int[] states, double[] probabilities) {
+        int row = i * actionCount + a;
+        int count = rowStarts[row + 1] - rowStarts[row];
+        System.arraycopy(this.states, rowStarts[row], states, 0, count);
+        System.arraycopy(this.probabilities, rowStarts[row], probabilities, 0, count);
+        return count;
+    }
+
+    /**
+     * Get the value of taking an action in a state,
+     * the reward plus the discounted expected value of the next state
+     * @param i the state
+     * @param a the action
+     * @param values the values of the states
+     * @param gamma the discount
+     * @return the value
+     */
+    public double actionValue(int i, int a, double[] values, double gamma) {
+        int row = i * actionCount + a;
+        double sum = 0;
+        for (int k = rowStarts[row], end = rowStarts[row + 1]; k < end; k++) {
+            sum += probabilities[k] * values[states[k]];
+        }
+        return rewards[row] + gamma * sum;
+    }
+
+    /**
+     * Get the best action in a state, the first
+     * with the largest action value
+     * @param i the state
+     * @param values the values of the states
+     * @param gamma the discount
+     * @return the action
+     */
+    public int bestAction(int i, double[] values, double gamma) {
+        double maxActionVal = -Double.MAX_VALUE;
+        int maxAction = 0;
+        for (int a = 0; a < actionCount; a++) {
+            double actionVal = actionValue(i, a, values, gamma);
+            if (actionVal > maxActionVal) {
+                maxActionVal = actionVal;
+                maxAction = a;
+            }
+        }
+        return maxAction;
+    }
+
+    /**
+     * Get the largest action value in a state
+     * @param i the state
+     * @param values the values of the states
+     * @param gamma the discount
+     * @return the value
+     */
+    public double bestActionValue(int i, double[] values, double gamma) {
+        double maxActionVal = -Double.MAX_VALUE;
+        for (int a = 0; a < actionCount; a++) {
+            maxActionVal = Math.max(maxActionVal, actionValue(i, a, values, gamma));
+        }
+        return maxActionVal;
+    }
+
+    /**
+     * Get the start of each row in the successors
+     * @return the row starts
+     */
+    public int[] getRowStarts() {
+        return rowStarts;
+    }
+
+    /**
+     * Get the successor states of every row
+     * @return the states
+     */
+    public int[] getStates() {
+        return states;
+    }
+
+    /**
+     * Get the probabilities of the successor states
+     * @return the probabilities
+     */
+    public double[] getProbabilities() {
+        return probabilities;
+    }
+
+    /**
+     * Get the reward of every row
+     * @return the rewards
+     */
+    public double[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * Get the start of each state's run of predecessors,
+     * with one extra entry for the end of the last state's run
+     * @return the predecessor starts
+     */
+    public int[] getPredecessorStarts() {
+        buildPredecessors();
+        return predecessorStarts;
+    }
+
+    /**
+     * Get the states that can reach each state under some action,
+     * each listed once per state it reaches and never for itself
+     * @return the predecessors
+     */
+    public int[] getPredecessors() {
+        buildPredecessors();
+        return predecessors;
+    }
+
+    /**
+     * Build the predecessor index, if it has not been built,
+     * by counting and then placing each distinct edge between two states
+     */
+    private synchronized void buildPredecessors() {
+        if (predecessors != null) {
+            return;
+        }
+        int[] starts = new int[stateCount + 1];
+        // the last state seen to reach each state, so
+        // an edge found through several actions counts once
+        int[] last = new int[stateCount];
+        Arrays.fill(last, -1);
+        for (int i = 0; i < stateCount; i++) {
+            for (int k = rowStarts[i * actionCount]; k < rowStarts[(i + 1) * actionCount]; k++) {
+                int j = states[k];
+                if (j != i && last[j] != i) {
+                    last[j] = i;
+                    starts[j + 1]++;
+                }
+            }
+        }
+        for (int j = 0; j < stateCount; j++) {
+            starts[j + 1] += starts[j];
+        }
+        int[] result = new int[starts[stateCount]];
+        int[] next = new int[stateCount];
+        System.arraycopy(starts, 0, next, 0, stateCount);
+        Arrays.fill(last, -1);
+        for (int i = 0; i < stateCount; i++) {
+            for (int k = rowStarts[i * actionCount]; k < rowStarts[(i + 1) * actionCount]; k++) {
+                int j = states[k];
+                if (j != i && last[j] != i) {
+                    last[j] = i;
+                    result[next[j]++] = i;
+                }
+            }
+        }
+        predecessorStarts = starts;
+        predecessors = result;
+    }
+
+    /**
+     * Get the process this was compiled from
+     * @return the process
+     */
+    public MarkovDecisionProcess getProcess() {
+        return process;
+    }
+
+    /**
+     * Compiles the rows of a block of states into its own arrays,
+     * writing the row counts shifted by one into the row starts
+     */
+    private class Compiler extends RecursiveAction {
+        /** The first state */
+        private int start;
+        /** The end of the states */
+        private int end;
+        /** The successor states of the block */
+        private int[] states = new int[16];
+        /** The probabilities of the block */
+        private double[] probabilities = new double[16];
+        /** The number of successors in the block */
+        private int size;
+
+        /**
+         * Make a new compiler
+         * @param start the first state
+         * @param end the end of the states
+         */
+        public Compiler(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            SparseMarkovDecisionProcess sparse = process instanceof SparseMarkovDecisionProcess
+                ? (SparseMarkovDecisionProcess) process : null;
+            int[] rowStates = new int[sparse == null ? 0 : sparse.getMaxSuccessors()];
+            double[] rowProbabilities = new double[rowStates.length];
+            for (int i = start; i < end; i++) {
+                terminal[i] = process.isTerminalState(i);
+                for (int a = 0; a < actionCount; a++) {
+                    int row = i * actionCount + a;
+                    rewards[row] = process.reward(i, a);
+                    int first = size;
+                    if (sparse != null) {
+                        int count = sparse.successors(i, a, rowStates, rowProbabilities);
+                        for (int k = 0; k < count; k++) {
+                            add(rowStates[k], rowProbabilities[k], first);
+                        }
+                    } else {
+                        for (int j = 0; j < stateCount; j++) {
+                            double p = process.transitionProbability(i, j, a);
+                            if (p != 0) {
+                                add(j, p, first);
+                            }
+                        }
+                    }
+                    // drop successors whose probabilities cancelled out
+                    int kept = first;
+                    for (int k = first; k < size; k++) {
+                        if (probabilities[k] != 0) {
+                            states[kept] = states[k];
+                            probabilities[kept] = probabilities[k];
+                            kept++;
+                        }
+                    }
+                    size = kept;
+                    rowStarts[row + 1] = size - first;
+                }
+            }
+        }
+
+        /**
+         * Add a successor to the current row, keeping the row
+         * sorted by state and merging repeated states
+         * @param j the state
+         * @param p the probability
+         * @param first the start of the current row
+         */
+        private void add(int j, double p, int first) {
+            int k = size;
+            while (k > first && states[k - 1] > j) {
+                k--;
+            }
+            if (k > first && states[k - 1] == j) {
+                probabilities[k - 1] += p;
+                return;
+            }
+            if (size == states.length) {
+                states = Arrays.copyOf(states, size * 2);
+                probabilities = Arrays.copyOf(probabilities, size * 2);
+            }
+            System.arraycopy(states, k, states, k + 1, size - k);
+            System.arraycopy(probabilities, k, probabilities, k + 1, size - k);
+            states[k] = j;
+            probabilities[k] = p;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package rl.test;
+
+import java.util.Random;
+
+import rl.EligibilityTraces;
+import rl.EpsilonGreedyStrategy;
+import rl.MazeMarkovDecisionProcess;
+import rl.QLambda;
+import rl.SarsaLambda;
+import shared.FixedIterationTrainer;
+
+/**
+ * Checks the sparse eligibility traces against a dense table
+ * and times q lambda and sarsa lambda on a large random maze
+ * @version 1.0
+ */
+public class EligibilityTracesTest {
+    /** The size of the maze */
+    private static final int SIZE = 200;
+    /** The number of steps to learn for */
+    private static final int STEPS = 200000;
+
+    /**
+     * Test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        // random increments, decays and resets on both
+        int states = 50, actions = 4;
+        double cutoff = 1E-6;
+        EligibilityTraces traces = new EligibilityTraces(states, actions, cutoff);
+        double[][] dense = new double[states][actions];
+        double[][] sparseValues = new double[states][actions];
+        double[][] denseValues = new double[states][actions];
+        for (int step = 0; step < 10000; step++) {
+            int s = random.nextInt(states), a = random.nextInt(actions);
+            traces.increment(s, a, 1);
+            dense[s][a] += 1;
+            double delta = random.nextGaussian();
+            double decay = random.nextDouble() < .05 ? 0 : .9 * .8;
+            traces.update(sparseValues, .1 * delta, decay);
+            for (int i = 0; i < states; i++) {
+                for (int j = 0; j < actions; j++) {
+                    if (dense[i][j] < cutoff) {
+                        dense[i][j] = 0;
+                        continue;
+                    }
+                    denseValues[i][j] += .1 * delta * dense[i][j];
+                    dense[i][j] *= decay;
+                }
+            }
+            if (random.nextDouble() < .01) {
+                traces.clear();
+                dense = new double[states][actions];
+            }
+        }
+        double difference = 0;
+        for (int i = 0; i < states; i++) {
+            for (int j = 0; j < actions; j++) {
+                difference = Math.max(difference, Math.abs(sparseValues[i][j] - denseValues[i][j]));
+            }
+        }
+        System.out.println("Largest difference from dense traces: " + difference);
+
+        // walls around the edge, since sampling does not check the bounds
+        char[][] maze = new char[SIZE][SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                boolean border = x == 0 || y == 0 || x == SIZE - 1 || y == SIZE - 1;
+                maze[y][x] = border || random.nextDouble() < .2 ? MazeMarkovDecisionProcess.OBSTACLE
+                    : MazeMarkovDecisionProcess.EMPTY;
+            }
+        }
+        maze[1][1] = MazeMarkovDecisionProcess.EMPTY;
+        maze[SIZE - 2][SIZE - 2] = MazeMarkovDecisionProcess.EMPTY;
+        MazeMarkovDecisionProcess process =
+            new MazeMarkovDecisionProcess(maze, SIZE - 2, SIZE - 2, 1, 1, .1);
+
+        QLambda ql = new QLambda(.5, .95, .2, 1, new EpsilonGreedyStrategy(.3), process);
+        long start = System.currentTimeMillis();
+        new FixedIterationTrainer(ql, STEPS).train();
+        System.out.println("Q lambda: " + STEPS + " steps on " + process.getStateCount()
+            + " states in " + (System.currentTimeMillis() - start) + " ms");
+        SarsaLambda sl = new SarsaLambda(.5, .95, .2, 1, new EpsilonGreedyStrategy(.3), process);
+        start = System.currentTimeMillis();
+        new FixedIterationTrainer(sl, STEPS).train();
+        System.out.println("Sarsa lambda: " + STEPS + " steps on " + process.getStateCount()
+            + " states in " + (System.currentTimeMillis() - start) + " ms");
+    }
+}
@@ -0,0 +1,108 @@
+package rl.test;
+
+import java.util.Random;
+
+import rl.DecayingEpsilonGreedyStrategy;
+import rl.EpsilonGreedyStrategy;
+import rl.ExplorationStrategy;
+import rl.MazeMarkovDecisionProcess;
+import rl.ParallelQLearning;
+import rl.ParallelValueIteration;
+import rl.SparseTransitionModel;
+import shared.ThresholdTrainer;
+
+/**
+ * Runs parallel q learning on a random maze with each way of
+ * combining the q tables and checks the actions the learned policy
+ * takes on its way to the goal against value iteration's values
+ * @version 1.0
+ */
+public class ParallelQLearningTest {
+    /** The size of the maze */
+    private static final int SIZE = 10;
+    /** The number of agents */
+    private static final int AGENTS = 8;
+    /** The number of rounds */
+    private static final int ROUNDS = 50;
+    /** The names of the merge modes */
+    private static final String[] MERGES = { "Independent", "Averaged", "Hogwild" };
+
+    /**
+     * Test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        // walls around the edge, since sampling does not check the bounds
+        char[][] maze = new char[SIZE][SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                boolean border = x == 0 || y == 0 || x == SIZE - 1 || y == SIZE - 1;
+                maze[y][x] = border || random.nextDouble() < .2 ? MazeMarkovDecisionProcess.OBSTACLE
+                    : MazeMarkovDecisionProcess.EMPTY;
+            }
+        }
+        // an open corridor along the top and right so the goal is reachable
+        for (int i = 1; i < SIZE - 1; i++) {
+            maze[1][i] = MazeMarkovDecisionProcess.EMPTY;
+            maze[i][SIZE - 2] = MazeMarkovDecisionProcess.EMPTY;
+        }
+        MazeMarkovDecisionProcess process =
+            new MazeMarkovDecisionProcess(maze, SIZE - 2, SIZE - 2, 1, 1, .1);
+        ParallelValueIteration vi = new ParallelValueIteration(.95, process);
+        new ThresholdTrainer(vi).train();
+        SparseTransitionModel model = vi.getModel();
+        double[] values = vi.getValues();
+        int[] states = new int[model.getMaxSuccessors()];
+        double[] probabilities = new double[model.getMaxSuccessors()];
+
+        for (int merge = ParallelQLearning.INDEPENDENT; merge <= ParallelQLearning.HOGWILD; merge++) {
+            // half the agents decay their exploration, so the strategies can be compared
+            ExplorationStrategy[] strategies = new ExplorationStrategy[AGENTS];
+            for (int i = 0; i < AGENTS; i++) {
+                strategies[i] = i % 2 == 0 ? new EpsilonGreedyStrategy(.5)
+                    : new DecayingEpsilonGreedyStrategy(.8, .999);
+            }
+            ParallelQLearning ql = new ParallelQLearning(process, strategies,
+                .95, .2, 10, 5000, merge, 1);
+            long start = System.currentTimeMillis();
+            double change = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                change = ql.train();
+            }
+            long time = System.currentTimeMillis() - start;
+            // states off the learned path are rarely visited and many
+            // actions tie, so only the path to the goal is checked,
+            // following the intended move of each action
+            int[] learned = ql.getPolicy().getActions();
+            int state = process.sampleInitialState(), steps = 0, worse = 0;
+            while (!model.isTerminalState(state) && steps < model.getStateCount()) {
+                if (model.actionValue(state, learned[state], values, .95)
+                        < model.bestActionValue(state, values, .95) - 1E-4) {
+                    worse++;
+                }
+                int count = model.successors(state, learned[state], states, probabilities);
+                int next = state;
+                for (int k = 0; k < count; k++) {
+                    if (states[k] != state) {
+                        next = states[k];
+                    }
+                }
+                if (next == state) {
+                    break;
+                }
+                state = next;
+                steps++;
+            }
+            System.out.println(MERGES[merge] + ": " + AGENTS * ROUNDS * 10 + " episodes in "
+                + time + " ms, last round change " + change);
+            System.out.println("  greedy path " + (model.isTerminalState(state)
+                ? "reaches the goal in " + steps + " steps" : "does not reach the goal")
+                + ", " + worse + " worse actions than value iteration on it");
+            for (int i = 0; i < 2; i++) {
+                System.out.println("  agent " + i + " last 50 episodes: mean reward "
+                    + ql.getMeanReward(i, 50) + ", mean steps " + ql.getMeanSteps(i, 50));
+            }
+        }
+    }
+}
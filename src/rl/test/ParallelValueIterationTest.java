@@ -0,0 +1,107 @@
+package rl.test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import rl.MazeMarkovDecisionProcess;
+import rl.ParallelPolicyIteration;
+import rl.ParallelValueIteration;
+import rl.Policy;
+import rl.PolicyIteration;
+import rl.SparseTransitionModel;
+import rl.ValueIteration;
+import shared.ThresholdTrainer;
+
+/**
+ * Compares value and policy iteration over the compiled sparse
+ * model with the originals on a small random maze, then times
+ * value iteration on a large one
+ * @version 1.0
+ */
+public class ParallelValueIterationTest {
+    /** The size of the small maze */
+    private static final int SMALL = 30;
+    /** The size of the large maze */
+    private static final int LARGE = 500;
+
+    /**
+     * Test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        MazeMarkovDecisionProcess small = randomMaze(SMALL, random);
+
+        long start = System.currentTimeMillis();
+        ValueIteration vi = new ValueIteration(.95, small);
+        new ThresholdTrainer(vi).train();
+        Policy serial = vi.getPolicy();
+        System.out.println("Value iteration: " + (System.currentTimeMillis() - start) + " ms");
+        start = System.currentTimeMillis();
+        ParallelValueIteration pvi = new ParallelValueIteration(.95, small);
+        new ThresholdTrainer(pvi).train();
+        Policy parallel = pvi.getPolicy();
+        System.out.println("Parallel value iteration: " + (System.currentTimeMillis() - start) + " ms");
+        System.out.println("Same policy: " + Arrays.equals(serial.getActions(), parallel.getActions()));
+
+        start = System.currentTimeMillis();
+        PolicyIteration pi = new PolicyIteration(.95, small);
+        new ThresholdTrainer(pi).train();
+        System.out.println("Policy iteration: " + (System.currentTimeMillis() - start) + " ms");
+        start = System.currentTimeMillis();
+        ParallelPolicyIteration ppi = new ParallelPolicyIteration(.95, small);
+        new ThresholdTrainer(ppi).train();
+        System.out.println("Parallel policy iteration: " + (System.currentTimeMillis() - start) + " ms");
+        // near ties can be broken either way, so compare the values
+        // and look for actions that are worse than the best
+        SparseTransitionModel compiled = ppi.getModel();
+        double[] values = pvi.getValues();
+        double difference = 0;
+        for (int i = 0; i < values.length; i++) {
+            difference = Math.max(difference, Math.abs(values[i] - ppi.getValues()[i]));
+        }
+        System.out.println("Largest difference from value iteration's values: " + difference);
+        int worse = 0;
+        for (int i = 0; i < compiled.getStateCount(); i++) {
+            if (compiled.isTerminalState(i)) {
+                continue;
+            }
+            double best = compiled.bestActionValue(i, values, .95) - 1E-4;
+            if (compiled.actionValue(i, pi.getPolicy().getAction(i), values, .95) < best
+                    || compiled.actionValue(i, ppi.getPolicy().getAction(i), values, .95) < best) {
+                worse++;
+            }
+        }
+        System.out.println("States with a worse action: " + worse);
+
+        MazeMarkovDecisionProcess large = randomMaze(LARGE, random);
+        start = System.currentTimeMillis();
+        SparseTransitionModel model = new SparseTransitionModel(large);
+        System.out.println("Compiled " + model.getStateCount() + " states in "
+            + (System.currentTimeMillis() - start) + " ms");
+        start = System.currentTimeMillis();
+        ThresholdTrainer tt = new ThresholdTrainer(new ParallelValueIteration(.95, model));
+        tt.train();
+        System.out.println("Parallel value iteration: " + tt.getIterations() + " iterations in "
+            + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Make a random maze with the goal in the bottom right corner
+     * @param size the width and height
+     * @param random the random number generator
+     * @return the maze
+     */
+    private static MazeMarkovDecisionProcess randomMaze(int size, Random random) {
+        char[][] maze = new char[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                maze[y][x] = random.nextDouble() < .2 ? MazeMarkovDecisionProcess.OBSTACLE
+                    : MazeMarkovDecisionProcess.EMPTY;
+            }
+        }
+        maze[0][0] = MazeMarkovDecisionProcess.EMPTY;
+        maze[size - 1][size - 1] = MazeMarkovDecisionProcess.EMPTY;
+        return new MazeMarkovDecisionProcess(maze, size - 1, size - 1, 0, 0, .1);
+    }
+}
@@ -0,0 +1,90 @@
+package rl.test;
+
+import java.util.Random;
+
+import rl.MazeMarkovDecisionProcess;
+import rl.ParallelPolicyIteration;
+import rl.PolicyIteration;
+import rl.SparseTransitionModel;
+import shared.ThresholdTrainer;
+
+/**
+ * Compares the ways policy iteration can evaluate each policy,
+ * on a small random maze where all of them run and a large one
+ * where only the compiled ones do
+ * @version 1.0
+ */
+public class PolicyEvaluationTest {
+    /** The size of the small maze */
+    private static final int SMALL = 20;
+    /** The size of the large maze */
+    private static final int LARGE = 300;
+    /** The names of the evaluations */
+    private static final String[] NAMES = {
+        "Sweep", "Gauss seidel", "BiCGSTAB", "Direct", "Automatic"
+    };
+
+    /**
+     * Test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        SparseTransitionModel small = new SparseTransitionModel(randomMaze(SMALL, random));
+        // the exact values of the optimal policy to judge the others by,
+        // since policies can differ where actions tie
+        PolicyIteration exact = new PolicyIteration(.95, small, PolicyIteration.DIRECT);
+        new ThresholdTrainer(exact).train();
+        double[] values = exact.getValues();
+        for (int evaluation = PolicyIteration.SWEEP; evaluation <= PolicyIteration.AUTOMATIC; evaluation++) {
+            long start = System.currentTimeMillis();
+            PolicyIteration pi = new PolicyIteration(.95, small, evaluation);
+            ThresholdTrainer tt = new ThresholdTrainer(pi);
+            tt.train();
+            long time = System.currentTimeMillis() - start;
+            int worse = 0;
+            for (int i = 0; i < small.getStateCount(); i++) {
+                if (small.actionValue(i, pi.getPolicy().getAction(i), values, .95)
+                        < small.bestActionValue(i, values, .95) - 1E-4) {
+                    worse++;
+                }
+            }
+            System.out.println(NAMES[evaluation] + ": " + tt.getIterations() + " iterations in "
+                + time + " ms, " + worse + " states with a worse action");
+        }
+
+        SparseTransitionModel large = new SparseTransitionModel(randomMaze(LARGE, random));
+        int[] evaluations = {PolicyIteration.GAUSS_SEIDEL, PolicyIteration.BICGSTAB};
+        for (int e = 0; e < evaluations.length; e++) {
+            long start = System.currentTimeMillis();
+            ThresholdTrainer tt = new ThresholdTrainer(new PolicyIteration(.95, large, evaluations[e]));
+            tt.train();
+            System.out.println(NAMES[evaluations[e]] + " on " + large.getStateCount() + " states: "
+                + tt.getIterations() + " iterations in " + (System.currentTimeMillis() - start) + " ms");
+        }
+        long start = System.currentTimeMillis();
+        ThresholdTrainer tt = new ThresholdTrainer(new ParallelPolicyIteration(.95, large));
+        tt.train();
+        System.out.println("Parallel on " + large.getStateCount() + " states: "
+            + tt.getIterations() + " iterations in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Make a random maze with the goal in the bottom right corner
+     * @param size the width and height
+     * @param random the random number generator
+     * @return the maze
+     */
+    private static MazeMarkovDecisionProcess randomMaze(int size, Random random) {
+        char[][] maze = new char[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                maze[y][x] = random.nextDouble() < .2 ? MazeMarkovDecisionProcess.OBSTACLE
+                    : MazeMarkovDecisionProcess.EMPTY;
+            }
+        }
+        maze[0][0] = MazeMarkovDecisionProcess.EMPTY;
+        maze[size - 1][size - 1] = MazeMarkovDecisionProcess.EMPTY;
+        return new MazeMarkovDecisionProcess(maze, size - 1, size - 1, 0, 0, .1);
+    }
+}
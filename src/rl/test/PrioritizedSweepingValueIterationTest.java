@@ -0,0 +1,71 @@
+package rl.test;
+
+import java.util.Random;
+
+import rl.MazeMarkovDecisionProcess;
+import rl.ParallelValueIteration;
+import rl.Policy;
+import rl.PrioritizedSweepingValueIteration;
+import rl.SparseTransitionModel;
+import shared.ThresholdTrainer;
+
+/**
+ * Compares prioritized sweeping with full sweeps of value
+ * iteration on a large random maze
+ * @version 1.0
+ */
+public class PrioritizedSweepingValueIterationTest {
+    /** The size of the maze */
+    private static final int SIZE = 500;
+
+    /**
+     * Test main
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        char[][] maze = new char[SIZE][SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                maze[y][x] = random.nextDouble() < .2 ? MazeMarkovDecisionProcess.OBSTACLE
+                    : MazeMarkovDecisionProcess.EMPTY;
+            }
+        }
+        maze[0][0] = MazeMarkovDecisionProcess.EMPTY;
+        maze[SIZE - 1][SIZE - 1] = MazeMarkovDecisionProcess.EMPTY;
+        SparseTransitionModel model = new SparseTransitionModel(
+            new MazeMarkovDecisionProcess(maze, SIZE - 1, SIZE - 1, 0, 0, .1));
+
+        long start = System.currentTimeMillis();
+        ParallelValueIteration vi = new ParallelValueIteration(.95, model);
+        ThresholdTrainer tt = new ThresholdTrainer(vi);
+        tt.train();
+        Policy full = vi.getPolicy();
+        System.out.println("Full sweeps: " + (long) tt.getIterations() * model.getStateCount()
+            + " backups in " + (System.currentTimeMillis() - start) + " ms");
+
+        start = System.currentTimeMillis();
+        PrioritizedSweepingValueIteration ps = new PrioritizedSweepingValueIteration(.95, model);
+        tt = new ThresholdTrainer(ps);
+        tt.train();
+        Policy prioritized = ps.getPolicy();
+        System.out.println("Prioritized sweeping: " + ps.getBackups()
+            + " backups in " + (System.currentTimeMillis() - start) + " ms");
+
+        // the policies can differ where actions tie, so count the
+        // states where the prioritized action is worse under the full values
+        double difference = 0;
+        int worse = 0;
+        double[] values = vi.getValues();
+        for (int i = 0; i < model.getStateCount(); i++) {
+            difference = Math.max(difference, Math.abs(values[i] - ps.getValues()[i]));
+            if (full.getAction(i) != prioritized.getAction(i)
+                    && model.actionValue(i, prioritized.getAction(i), values, .95)
+                        < model.bestActionValue(i, values, .95) - 1E-4) {
+                worse++;
+            }
+        }
+        System.out.println("Largest value difference: " + difference);
+        System.out.println("States with a worse action: " + worse);
+    }
+}
@@ -0,0 +1,65 @@
+package shared;
+
+import java.util.Random;
+
+import util.SplittableStream;
+import util.StreamRandom;
+
+/**
+ * A trainer that gives the trainer it wraps its own random stream.
+ * While training, every shared generator in the library draws from
+ * the stream, so runs can be reproduced from the seed and several
+ * seeded trainers can run in parallel without contending.
+ * @version 1.0
+ */
+public class SeededTrainer implements Trainer {
+
+    /**
+     * The inner trainer
+     */
+    private Trainer trainer;
+
+    /**
+     * The stream to train with
+     */
+    private Random stream;
+
+    /**
+     * Make a new seeded trainer
+     * @param t the trainer
+     * @param stream the stream to train with
+     */
+    public SeededTrainer(Trainer t, Random stream) {
+        trainer = t;
+        this.stream = stream;
+    }
+
+    /**
+     * Make a new seeded trainer
+     * @param t the trainer
+     * @param seed the seed for the stream
+     */
+    public SeededTrainer(Trainer t, long seed) {
+        this(t, new SplittableStream(seed));
+    }
+
+    /**
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        Random previous = StreamRandom.bind(stream);
+        try {
+            return trainer.train();
+        } finally {
+            StreamRandom.bind(previous);
+        }
+    }
+
+    /**
+     * Get the stream
+     * @return the stream
+     */
+    public Random getStream() {
+        return stream;
+    }
+}
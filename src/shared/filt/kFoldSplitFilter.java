@@ -6,6 +6,8 @@ import shared.Instance;
 import java.util.ArrayList;
 import java.util.Random;
 
+import dist.Distribution;
+
 /**
  * A filter that supports k-fold splitting of a dataset for cross validation
  * @author Daniel Cohen dcohen@gatech.edu
@@ -23,7 +25,7 @@ public class kFoldSplitFilter implements DataSetFilter {
 
     public void filter(DataSet data) {
         int foldSize = data.size() / foldCount;
-        Random rand = new Random();
+        Random rand = Distribution.random;
 
         for (int currentFold = 0; currentFold < foldCount; currentFold++) {
             DataSet currentSet = new DataSet(new Instance[foldSize], data.getDescription());
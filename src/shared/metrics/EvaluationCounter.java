@@ -0,0 +1,21 @@
+package shared.metrics;
+
+/**
+ * A source of the number of evaluations made so far
+ * and the best value they have found
+ * @version 1.0
+ */
+public interface EvaluationCounter {
+
+    /**
+     * Get the number of evaluations made so far
+     * @return the number of evaluations
+     */
+    public abstract long getEvaluations();
+
+    /**
+     * Get the best value found so far
+     * @return the best value
+     */
+    public abstract double getBest();
+}
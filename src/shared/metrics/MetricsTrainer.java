@@ -0,0 +1,317 @@
+package shared.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+import shared.Trainer;
+
+/**
+ * A trainer that records metrics for every iteration of the trainer
+ * it wraps: the evaluations made and best value found so far, the
+ * wall and cpu time, the bytes allocated and the value returned.
+ * The evaluations and times are cumulative so the records can be
+ * compared directly by evaluations or time to reach a target.  The
+ * cpu time and allocation are those of the calling thread and are
+ * recorded as -1 when the virtual machine can't measure them.
+ * Wrap it in another trainer, such as a fixed iteration trainer,
+ * to record each iteration.
+ * @version 1.0
+ */
+public class MetricsTrainer implements Trainer {
+    /**
+     * The names of the recorded columns
+     */
+    private static final String[] COLUMNS = {
+        "iteration", "evaluations", "wallNanos", "cpuNanos", "allocatedBytes", "value", "best"
+    };
+
+    /**
+     * The inner trainer
+     */
+    private Trainer trainer;
+
+    /**
+     * The source of the evaluation counts, or null
+     */
+    private EvaluationCounter counter;
+
+    /**
+     * The number of iterations recorded
+     */
+    private int iterations;
+
+    /**
+     * The evaluations made by the end of each iteration
+     */
+    private long[] evaluations = new long[16];
+
+    /**
+     * The wall time by the end of each iteration
+     */
+    private long[] wall = new long[16];
+
+    /**
+     * The cpu time by the end of each iteration
+     */
+    private long[] cpu = new long[16];
+
+    /**
+     * The bytes allocated by the end of each iteration
+     */
+    private long[] allocated = new long[16];
+
+    /**
+     * The value returned by each iteration
+     */
+    private double[] values = new double[16];
+
+    /**
+     * The best value found by the end of each iteration
+     */
+    private double[] best = new double[16];
+
+    /**
+     * Make a new metrics trainer
+     * @param t the trainer
+     * @param counter the source of the evaluation counts, or null
+     */
+    public MetricsTrainer(Trainer t, EvaluationCounter counter) {
+        trainer = t;
+        this.counter = counter;
+    }
+
+    /**
+     * Make a new metrics trainer that records the
+     * value returned as the best value
+     * @param t the trainer
+     */
+    public MetricsTrainer(Trainer t) {
+        this(t, null);
+    }
+
+    /**
+     * @see shared.Trainer#train()
+     */
+    public double train() {
+        long startCpu = cpuTime();
+        long startAllocated = allocatedBytes();
+        long start = System.nanoTime();
+        double value = trainer.train();
+        long time = System.nanoTime() - start;
+        long cpuTime = startCpu < 0 ? -1 : cpuTime() - startCpu;
+        long bytes = startAllocated < 0 ? -1 : allocatedBytes() - startAllocated;
+        if (iterations == values.length) {
+            int length = 2 * iterations;
+            evaluations = Arrays.copyOf(evaluations, length);
+            wall = Arrays.copyOf(wall, length);
+            cpu = Arrays.copyOf(cpu, length);
+            allocated = Arrays.copyOf(allocated, length);
+            values = Arrays.copyOf(values, length);
+            best = Arrays.copyOf(best, length);
+        }
+        int i = iterations;
+        boolean first = i == 0;
+        evaluations[i] = counter == null ? i + 1 : counter.getEvaluations();
+        wall[i] = (first ? 0 : wall[i - 1]) + time;
+        cpu[i] = cpuTime < 0 || (!first && cpu[i - 1] < 0) ? -1 : (first ? 0 : cpu[i - 1]) + cpuTime;
+        allocated[i] = bytes < 0 || (!first && allocated[i - 1] < 0) ? -1
+            : (first ? 0 : allocated[i - 1]) + bytes;
+        values[i] = value;
+        best[i] = counter == null ? (first ? value : Math.max(best[i - 1], value)) : counter.getBest();
+        iterations++;
+        return value;
+    }
+
+    /**
+     * The cpu time of the current thread
+     * @return the time in nanoseconds or -1
+     */
+    private static long cpuTime() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean.isCurrentThreadCpuTimeSupported() ? bean.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * The bytes allocated by the current thread
+     * @return the bytes or -1
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+            if (sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled()) {
+                return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the number of iterations recorded
+     * @return the number of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Get the evaluations made by the end of an iteration
+     * @param i the iteration
+     * @return the evaluations
+     */
+    public long getEvaluations(int i) {
+        return evaluations[i];
+    }
+
+    /**
+     * Get the wall time by the end of an iteration
+     * @param i the iteration
+     * @return the time in nanoseconds
+     */
+    public long getWallTime(int i) {
+        return wall[i];
+    }
+
+    /**
+     * Get the cpu time by the end of an iteration
+     * @param i the iteration
+     * @return the time in nanoseconds or -1
+     */
+    public long getCpuTime(int i) {
+        return cpu[i];
+    }
+
+    /**
+     * Get the bytes allocated by the end of an iteration
+     * @param i the iteration
+     * @return the bytes or -1
+     */
+    public long getAllocatedBytes(int i) {
+        return allocated[i];
+    }
+
+    /**
+     * Get the value returned by an iteration
+     * @param i the iteration
+     * @return the value
+     */
+    public double getValue(int i) {
+        return values[i];
+    }
+
+    /**
+     * Get the best value found by the end of an iteration
+     * @param i the iteration
+     * @return the best value
+     */
+    public double getBest(int i) {
+        return best[i];
+    }
+
+    /**
+     * Find the first iteration whose best value reached a target
+     * @param target the target
+     * @return the iteration or -1 if it was never reached
+     */
+    public int iterationsToTarget(double target) {
+        for (int i = 0; i < iterations; i++) {
+            if (best[i] >= target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the evaluations made to reach a target
+     * @param target the target
+     * @return the evaluations or -1 if it was never reached
+     */
+    public long evaluationsToTarget(double target) {
+        int i = iterationsToTarget(target);
+        return i < 0 ? -1 : evaluations[i];
+    }
+
+    /**
+     * Get the wall time taken to reach a target
+     * @param target the target
+     * @return the time in nanoseconds or -1 if it was never reached
+     */
+    public long timeToTarget(double target) {
+        int i = iterationsToTarget(target);
+        return i < 0 ? -1 : wall[i];
+    }
+
+    /**
+     * Forget all of the recorded iterations
+     */
+    public void clear() {
+        iterations = 0;
+    }
+
+    /**
+     * Write the records as comma separated values with a header row
+     * @param out where to write them
+     * @throws IOException if writing fails
+     */
+    public void writeCSV(Appendable out) throws IOException {
+        for (int c = 0; c < COLUMNS.length; c++) {
+            out.append(c == 0 ? "" : ",").append(COLUMNS[c]);
+        }
+        out.append('\n');
+        for (int i = 0; i < iterations; i++) {
+            out.append(String.valueOf(i + 1)).append(',')
+                .append(String.valueOf(evaluations[i])).append(',')
+                .append(String.valueOf(wall[i])).append(',')
+                .append(String.valueOf(cpu[i])).append(',')
+                .append(String.valueOf(allocated[i])).append(',')
+                .append(String.valueOf(values[i])).append(',')
+                .append(String.valueOf(best[i])).append('\n');
+        }
+    }
+
+    /**
+     * Write the records as a json array of objects
+     * @param out where to write them
+     * @throws IOException if writing fails
+     */
+    public void writeJSON(Appendable out) throws IOException {
+        out.append("[");
+        for (int i = 0; i < iterations; i++) {
+            out.append(i == 0 ? "\n" : ",\n")
+                .append("  {\"").append(COLUMNS[0]).append("\": ").append(String.valueOf(i + 1))
+                .append(", \"").append(COLUMNS[1]).append("\": ").append(String.valueOf(evaluations[i]))
+                .append(", \"").append(COLUMNS[2]).append("\": ").append(String.valueOf(wall[i]))
+                .append(", \"").append(COLUMNS[3]).append("\": ").append(String.valueOf(cpu[i]))
+                .append(", \"").append(COLUMNS[4]).append("\": ").append(String.valueOf(allocated[i]))
+                .append(", \"").append(COLUMNS[5]).append("\": ").append(json(values[i]))
+                .append(", \"").append(COLUMNS[6]).append("\": ").append(json(best[i]))
+                .append("}");
+        }
+        out.append(iterations == 0 ? "]\n" : "\n]\n");
+    }
+
+    /**
+     * Format a number for json, which has no infinities or nan
+     * @param d the number
+     * @return the text
+     */
+    private static String json(double d) {
+        return Double.isNaN(d) || Double.isInfinite(d) ? "null" : String.valueOf(d);
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        try {
+            writeCSV(result);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return result.toString();
+    }
+}
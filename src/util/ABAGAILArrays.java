@@ -10,7 +10,7 @@ import java.util.Random;
  */
 public class ABAGAILArrays {
     /** Random number generator */
-    public static final Random random = new Random();
+    public static final Random random = new StreamRandom();
     
     /**
      * Print out an array
@@ -0,0 +1,181 @@
+package util;
+
+/**
+ * A priority queue of the integer keys 0 to n - 1 where
+ * each key is in the queue at most once and its priority can
+ * be changed in place
+ * @version 1.0
+ */
+public class IndexedMaxHeap {
+
+    /**
+     * The keys in heap order, starting at index 1
+     */
+    private int[] heap;
+
+    /**
+     * The index in the heap of each key, or 0 if it is not in the queue
+     */
+    private int[] positions;
+
+    /**
+     * The priority of each key
+     */
+    private double[] priorities;
+
+    /**
+     * The current size of the heap
+     */
+    private int size;
+
+    /**
+     * Make a new priority queue
+     * @param keys the number of keys
+     */
+    public IndexedMaxHeap(int keys) {
+        heap = new int[keys + 1];
+        positions = new int[keys];
+        priorities = new double[keys];
+    }
+
+    /**
+     * Add a key or change its priority if it is already in the queue
+     * @param key the key
+     * @param priority the priority
+     */
+    public void set(int key, double priority) {
+        int i = positions[key];
+        if (i == 0) {
+            size++;
+            heap[size] = key;
+            positions[key] = size;
+            priorities[key] = priority;
+            up(size);
+        } else if (priority > priorities[key]) {
+            priorities[key] = priority;
+            up(i);
+        } else {
+            priorities[key] = priority;
+            down(i);
+        }
+    }
+
+    /**
+     * Remove a key if it is in the queue
+     * @param key the key
+     */
+    public void remove(int key) {
+        int i = positions[key];
+        if (i == 0) {
+            return;
+        }
+        positions[key] = 0;
+        int last = heap[size];
+        size--;
+        if (i <= size) {
+            heap[i] = last;
+            positions[last] = i;
+            up(i);
+            down(positions[last]);
+        }
+    }
+
+    /**
+     * Remove and return the key with the largest priority
+     * @return the key
+     */
+    public int extractMax() {
+        int key = heap[1];
+        remove(key);
+        return key;
+    }
+
+    /**
+     * Peek at the key with the largest priority
+     * @return the key
+     */
+    public int getMax() {
+        return heap[1];
+    }
+
+    /**
+     * Get the largest priority
+     * @return the priority
+     */
+    public double getMaxPriority() {
+        return priorities[heap[1]];
+    }
+
+    /**
+     * Check if a key is in the queue
+     * @param key the key
+     * @return true if it is
+     */
+    public boolean contains(int key) {
+        return positions[key] != 0;
+    }
+
+    /**
+     * Get the priority of a key in the queue
+     * @param key the key
+     * @return the priority
+     */
+    public double getPriority(int key) {
+        return priorities[key];
+    }
+
+    /**
+     * Get the size of the queue
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the queue is empty
+     * @return true if it is
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Move an entry up until its parent has a larger priority
+     * @param i the index in the heap
+     */
+    private void up(int i) {
+        int key = heap[i];
+        double priority = priorities[key];
+        while (i > 1 && priorities[heap[i / 2]] < priority) {
+            heap[i] = heap[i / 2];
+            positions[heap[i]] = i;
+            i = i / 2;
+        }
+        heap[i] = key;
+        positions[key] = i;
+    }
+
+    /**
+     * Move an entry down until its children have smaller priorities
+     * @param i the index in the heap
+     */
+    private void down(int i) {
+        int key = heap[i];
+        double priority = priorities[key];
+        while (2 * i <= size) {
+            int child = 2 * i;
+            if (child < size && priorities[heap[child + 1]] > priorities[heap[child]]) {
+                child++;
+            }
+            if (priorities[heap[child]] <= priority) {
+                break;
+            }
+            heap[i] = heap[child];
+            positions[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = key;
+        positions[key] = i;
+    }
+}
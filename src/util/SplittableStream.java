@@ -0,0 +1,162 @@
+package util;
+
+import java.util.Random;
+
+/**
+ * A random number generator using the SplitMix64 algorithm of
+ * java.util.SplittableRandom behind the java.util.Random interface.
+ * Unlike java.util.Random it keeps no synchronized or atomic state,
+ * so each thread or task should be given its own stream with split.
+ * The state is kept here rather than in a SplittableRandom so that
+ * streams held by serializable algorithms serialize with them.
+ * @version 1.0
+ */
+public class SplittableStream extends Random {
+    /**
+     * The default gamma value
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * The current seed
+     */
+    private long seed;
+
+    /**
+     * The increment added to the seed for each value
+     */
+    private long gamma;
+
+    /**
+     * The next gaussian value
+     */
+    private double nextGaussian;
+
+    /**
+     * Whether there is a next gaussian value
+     */
+    private boolean haveNextGaussian;
+
+    /**
+     * Make a new stream
+     * @param seed the seed
+     */
+    public SplittableStream(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Make a new stream seeded from the time
+     */
+    public SplittableStream() {
+        this(mix64(System.nanoTime()) ^ mix64(System.currentTimeMillis()));
+    }
+
+    /**
+     * Make a new stream
+     * @param seed the seed
+     * @param gamma the gamma value, which must be odd
+     */
+    private SplittableStream(long seed, long gamma) {
+        super(0);
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Split off a new stream that is independent of this one
+     * @return the new stream
+     */
+    public SplittableStream split() {
+        return new SplittableStream(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Advance the seed
+     * @return the new seed
+     */
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    /**
+     * @see java.util.Random#setSeed(long)
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.gamma = GOLDEN_GAMMA;
+        haveNextGaussian = false;
+    }
+
+    /**
+     * @see java.util.Random#next(int)
+     */
+    protected int next(int bits) {
+        return (int) (mix64(nextSeed()) >>> (64 - bits));
+    }
+
+    /**
+     * @see java.util.Random#nextInt()
+     */
+    public int nextInt() {
+        return (int) (mix64(nextSeed()) >>> 32);
+    }
+
+    /**
+     * @see java.util.Random#nextLong()
+     */
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * @see java.util.Random#nextDouble()
+     */
+    public double nextDouble() {
+        return (mix64(nextSeed()) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @see java.util.Random#nextGaussian()
+     */
+    public double nextGaussian() {
+        if (haveNextGaussian) {
+            haveNextGaussian = false;
+            return nextGaussian;
+        }
+        double v1, v2, s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        double multiplier = Math.sqrt(-2 * Math.log(s) / s);
+        nextGaussian = v2 * multiplier;
+        haveNextGaussian = true;
+        return v1 * multiplier;
+    }
+
+    /**
+     * The SplitMix64 output function
+     * @param z the seed
+     * @return the mixed value
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Make a gamma value for a split stream
+     * @param z the seed
+     * @return the gamma value, odd and with enough bit transitions
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return n < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,95 @@
+package util;
+
+import java.util.Random;
+
+/**
+ * A random number generator that draws from a per thread
+ * stream when one has been bound to the current thread and
+ * from its own shared state otherwise.  This lets the shared
+ * generators used throughout the library hand out
+ * reproducible, uncontended streams to parallel workers.
+ * @version 1.0
+ */
+public class StreamRandom extends Random {
+
+    /**
+     * The stream bound to each thread
+     */
+    private static final ThreadLocal<Random> streams = new ThreadLocal<Random>();
+
+    /**
+     * Make a new stream random
+     */
+    public StreamRandom() {
+        super();
+    }
+
+    /**
+     * Make a new stream random
+     * @param seed the seed for the shared state
+     */
+    public StreamRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * Bind a stream to the current thread, every stream random
+     * used from this thread will draw from it until it is unbound
+     * @param stream the stream to bind or null to unbind
+     * @return the previously bound stream or null
+     */
+    public static Random bind(Random stream) {
+        Random previous = streams.get();
+        if (stream == null) {
+            streams.remove();
+        } else {
+            streams.set(stream);
+        }
+        return previous;
+    }
+
+    /**
+     * Get the stream bound to the current thread
+     * @return the stream or null if none is bound
+     */
+    public static Random bound() {
+        return streams.get();
+    }
+
+    /**
+     * Make a set of independent, unsynchronized streams from a single seed
+     * @param seed the seed
+     * @param count the number of streams
+     * @return the streams
+     */
+    public static Random[] streams(long seed, int count) {
+        SplittableStream seeds = new SplittableStream(seed);
+        Random[] result = new Random[count];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = seeds.split();
+        }
+        return result;
+    }
+
+    /**
+     * @see java.util.Random#next(int)
+     */
+    protected int next(int bits) {
+        Random stream = streams.get();
+        if (stream == null) {
+            return super.next(bits);
+        }
+        return stream.nextInt() >>> (32 - bits);
+    }
+
+    /**
+     * @see java.util.Random#nextGaussian()
+     */
+    public double nextGaussian() {
+        Random stream = streams.get();
+        if (stream == null) {
+            return super.nextGaussian();
+        }
+        return stream.nextGaussian();
+    }
+}
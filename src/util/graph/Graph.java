@@ -1,7 +1,7 @@
 package util.graph;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -50,11 +50,12 @@ public class Graph {
     }
     
     /**
-     * Get the set of edges
+     * Get the set of edges, in the order of the nodes so that
+     * ties between equal edges always break the same way
      * @return the edges
      */
     public Set getEdges() {
-        Set set = new HashSet();
+        Set set = new LinkedHashSet();
         for (int i = 0; i < getNodeCount(); i++) {
             set.addAll(getNode(i).getEdges());
         }
@@ -0,0 +1,215 @@
+package util.linalg;
+
+import shared.Copyable;
+
+/**
+ * A vector of bits packed into longs, for binary
+ * genomes in discrete optimization problems.  Setting
+ * an element stores whether it rounds to a non zero value.
+ * @version 1.0
+ */
+public class BitVector extends Vector {
+
+    /**
+     * The packed bits, bits past the size are always clear
+     */
+    private long[] words;
+
+    /**
+     * The number of bits
+     */
+    private int size;
+
+    /**
+     * Make a new bit vector with every bit clear
+     * @param size the number of bits
+     */
+    public BitVector(int size) {
+        this(new long[(size + 63) >>> 6], size);
+    }
+
+    /**
+     * Make a new bit vector from packed words
+     * @param words the words, bit i is bit i % 64 of word i / 64
+     * @param size the number of bits
+     */
+    public BitVector(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    /**
+     * @see util.linalg.Vector#size()
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @see util.linalg.Vector#get(int)
+     */
+    public double get(int i) {
+        return getBit(i) ? 1 : 0;
+    }
+
+    /**
+     * @see util.linalg.Vector#getDiscrete(int)
+     */
+    public int getDiscrete(int i) {
+        return getBit(i) ? 1 : 0;
+    }
+
+    /**
+     * @see util.linalg.Vector#set(int, double)
+     */
+    public void set(int i, double d) {
+        setBit(i, Math.round(d) != 0);
+    }
+
+    /**
+     * Get a bit
+     * @param i the bit to get
+     * @return true if it is set
+     */
+    public boolean getBit(int i) {
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Set a bit
+     * @param i the bit to set
+     * @param b the new value
+     */
+    public void setBit(int i, boolean b) {
+        if (b) {
+            words[i >>> 6] |= 1L << i;
+        } else {
+            words[i >>> 6] &= ~(1L << i);
+        }
+    }
+
+    /**
+     * Flip a bit
+     * @param i the bit to flip
+     */
+    public void flip(int i) {
+        words[i >>> 6] ^= 1L << i;
+    }
+
+    /**
+     * Get the number of set bits
+     * @return the number of set bits
+     */
+    public int cardinality() {
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            count += Long.bitCount(words[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of places where a bit differs from the next one
+     * @return the number of transitions
+     */
+    public int transitions() {
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            long next = w + 1 < words.length ? words[w + 1] : 0;
+            long diff = words[w] ^ ((words[w] >>> 1) | (next << 63));
+            if (w == words.length - 1) {
+                // only compare bits that have a successor
+                int valid = size - 1 - (w << 6);
+                diff &= (1L << valid) - 1;
+            }
+            count += Long.bitCount(diff);
+        }
+        return count;
+    }
+
+    /**
+     * Find the first set bit at or after an index
+     * @param from the index to start at
+     * @return the index or -1 if there is none
+     */
+    public int nextSetBit(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Find the first clear bit at or after an index
+     * @param from the index to start at
+     * @return the index or the size if there is none
+     */
+    public int nextClearBit(int from) {
+        if (from >= size) {
+            return size;
+        }
+        int w = from >>> 6;
+        long word = ~words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == words.length) {
+                return size;
+            }
+            word = ~words[w];
+        }
+        return Math.min(size, (w << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    /**
+     * Find the last set bit at or before an index
+     * @param from the index to start at, searching from the
+     * last bit if it is past the end
+     * @return the index or -1 if there is none
+     */
+    public int previousSetBit(int from) {
+        if (from >= size) {
+            from = size - 1;
+        }
+        if (from < 0) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L >>> (63 - (from & 63)));
+        while (word == 0) {
+            if (w-- == 0) {
+                return -1;
+            }
+            word = words[w];
+        }
+        return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * Get the packed words
+     * @return the words
+     */
+    public long[] getWords() {
+        return words;
+    }
+
+    /**
+     * @see util.linalg.Vector#sum()
+     */
+    public double sum() {
+        return cardinality();
+    }
+
+    /**
+     * @see shared.Copyable#copy()
+     */
+    public Copyable copy() {
+        return new BitVector(words.clone(), size);
+    }
+}
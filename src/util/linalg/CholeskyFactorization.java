@@ -28,26 +28,25 @@ public class CholeskyFactorization {
 	}
 	
 	/**
-	 * Factors the matrix l inplace.
+	 * Factors the matrix l inplace a row at a time.
+	 * Each entry is the original entry minus the dot
+	 * product of the leading runs of its row and the row
+	 * of its column, and the rows of a lower triangular
+	 * matrix store exactly those runs contiguously.
 	 */
 	private void decompose() {
-		// loop through the diagonal of the matrix
-		for (int j = 0; j < l.n(); j++) {
-			// sqrt the diagonal
-			l.set(j,j, Math.sqrt(l.get(j,j)));
-			// divide the subdiagonal column by
-			// the diagonal
-			for (int i = j + 1; i < l.m(); i++) {
-				l.set(i,j, l.get(i,j) / l.get(j,j));
-			}
-			// symmetric rank 1 update
-			// subtract the crossproduct of the
-			// subdiagonal column from the remaining
-			// lower diagonal
-			for (int jj = j + 1; jj < l.n(); jj++) {
-				for (int ii = jj; ii < l.m(); ii++) {
-					l.set(ii,jj, l.get(ii,jj) 
-					    - l.get(ii,j) * l.get(jj,j));
+		double[][] data = l.getData();
+		// loop through the rows of the matrix
+		for (int i = 0; i < l.m(); i++) {
+			double[] row = data[i];
+			for (int j = 0; j < row.length; j++) {
+				double sum = row[j] - FlatMatrix.dot(row, 0, data[j], 0, j);
+				if (i == j) {
+					// sqrt the diagonal
+					row[j] = Math.sqrt(sum);
+				} else {
+					// divide by the diagonal of the column
+					row[j] = sum / data[j][j];
 				}
 			}
 		}
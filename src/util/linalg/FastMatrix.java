@@ -107,7 +107,7 @@ public class FastMatrix extends Matrix {
         this.stride = this.width % 32 == 0 ? this.width : ((this.width / 32) + 1) * 32;
         this.data = new double[this.stride * this.vertStride];
         for (int i = 0; i < this.height; i++) {
-            for (int j = 0; j < this.width; i++) {
+            for (int j = 0; j < this.width; j++) {
                 this.data[i * this.stride + j] = m.get(i,j);
             }
         }
@@ -115,13 +115,10 @@ public class FastMatrix extends Matrix {
 
     @Override
     public FastMatrix transpose() {
+        // the transpose swaps the strides along with the sizes
         double[] arr = new double[this.stride * this.vertStride];
-        for (int i = 0; i < this.width * this.vertStride; i++) {
-            int y = i / this.stride;
-            int x = i - y * this.stride;
-            arr[x*this.stride + y] = this.data[i];
-        }
-        return new FastMatrix(this.width, this.height, this.stride, this.vertStride, arr);
+        MatrixKernels.transpose(this.data, this.stride, arr, this.vertStride, this.height, this.width);
+        return new FastMatrix(this.width, this.height, this.vertStride, this.stride, arr);
     }
 
     @Override
@@ -154,27 +151,13 @@ public class FastMatrix extends Matrix {
         final int s = this.stride;
         final int os = other.stride;
         
-        final double[] A = this.data; // double[m * n]
-        final double[] Bt = other.transpose().data;
         final double[] C = new double[vs * os];
         
-        // make transposed copy of "other" matrix to properly align with cache
-        // TODO: more efficient transpose algorithm using blocking
-
-        
-        // TODO: blocked matrix multiply based on expected L1D cache size (32KB)
-        // TODO: vectorization hinting by SSE-aligning strides
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < k; j++) {
-                double c = 0.0;
-                for (int l = 0; l < n; l++) {
-                    c += A[i * s + l] * Bt[j * s + l];
-                }
-                C[i * os + j] = c;
-            }
-        }
+        // blocked, register tiled and parallel over rows when large,
+        // walking the rows of B directly so no transpose is needed
+        MatrixKernels.multiply(this.data, s, other.data, os, C, os, m, n, k);
         
-        return new FastMatrix(m, k, vs, os, C);
+        return new FastMatrix(m, k, os, vs, C);
     }
 
     /**
@@ -0,0 +1,299 @@
+package util.linalg;
+
+import java.util.Arrays;
+
+import shared.Copyable;
+
+/**
+ * A dense matrix stored row major in a single array
+ * with an offset and a row stride, so that sub matrices can be
+ * views sharing the storage of the matrix they came from.
+ * The row kernels work directly on the array and are used
+ * by the decompositions in place of element by element access.
+ * @version 1.0
+ */
+public class FlatMatrix extends Matrix {
+
+    /**
+     * The data for the matrix
+     */
+    private double[] data;
+
+    /**
+     * The index of the first element
+     */
+    private int offset;
+
+    /**
+     * The distance between the starts of rows
+     */
+    private int stride;
+
+    /**
+     * The number of rows
+     */
+    private int m;
+
+    /**
+     * The number of columns
+     */
+    private int n;
+
+    /**
+     * Create a new zeroed matrix
+     * @param m the number of rows
+     * @param n the number of columns
+     */
+    public FlatMatrix(int m, int n) {
+        this(new double[m * n], 0, n, m, n);
+    }
+
+    /**
+     * Create a new matrix backed by the given row major data
+     * @param data the data
+     * @param m the number of rows
+     * @param n the number of columns
+     */
+    public FlatMatrix(double[] data, int m, int n) {
+        this(data, 0, n, m, n);
+    }
+
+    /**
+     * Create a new matrix backed by part of the given data
+     * @param data the data
+     * @param offset the index of the first element
+     * @param stride the distance between the starts of rows
+     * @param m the number of rows
+     * @param n the number of columns
+     */
+    public FlatMatrix(double[] data, int offset, int stride, int m, int n) {
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+        this.m = m;
+        this.n = n;
+    }
+
+    /**
+     * Make a copy of the given matrix
+     * @param matrix the matrix
+     */
+    public FlatMatrix(Matrix matrix) {
+        this(matrix.m(), matrix.n());
+        if (matrix instanceof RectangularMatrix) {
+            double[][] rows = ((RectangularMatrix) matrix).getData();
+            for (int i = 0; i < m; i++) {
+                System.arraycopy(rows[i], 0, data, i * n, n);
+            }
+        } else if (matrix instanceof FlatMatrix) {
+            FlatMatrix other = (FlatMatrix) matrix;
+            for (int i = 0; i < m; i++) {
+                System.arraycopy(other.data, other.offset + i * other.stride, data, i * n, n);
+            }
+        } else {
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < n; j++) {
+                    data[i * n + j] = matrix.get(i, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * @see util.linalg.Matrix#m()
+     */
+    public int m() {
+        return m;
+    }
+
+    /**
+     * @see util.linalg.Matrix#n()
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * @see util.linalg.Matrix#get(int, int)
+     */
+    public double get(int i, int j) {
+        return data[offset + i * stride + j];
+    }
+
+    /**
+     * @see util.linalg.Matrix#set(int, int, double)
+     */
+    public void set(int i, int j, double d) {
+        data[offset + i * stride + j] = d;
+    }
+
+    /**
+     * Get a view of a sub matrix, changes to which
+     * are seen in this matrix
+     * @see util.linalg.Matrix#get(int, int, int, int)
+     */
+    public Matrix get(int ia, int ib, int ja, int jb) {
+        return new FlatMatrix(data, offset + ia * stride + ja, stride, ib - ia, jb - ja);
+    }
+
+    /**
+     * Get the internal representation of the data
+     * @return the data
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    /**
+     * Get the index of the first element in the data
+     * @return the offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the distance between the starts of rows in the data
+     * @return the stride
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * Get the index in the data of an element
+     * @param i the row
+     * @param j the column
+     * @return the index
+     */
+    public int index(int i, int j) {
+        return offset + i * stride + j;
+    }
+
+    /**
+     * @see util.linalg.Matrix#transpose()
+     */
+    public Matrix transpose() {
+        double[] result = new double[m * n];
+        MatrixKernels.transpose(data, offset, stride, result, 0, m, m, n);
+        return new FlatMatrix(result, n, m);
+    }
+
+    /**
+     * @see util.linalg.Matrix#times(util.linalg.Vector)
+     */
+    public Vector times(Vector vector) {
+        double[] v = new double[n];
+        for (int j = 0; j < n; j++) {
+            v[j] = vector.get(j);
+        }
+        double[] result = new double[m];
+        for (int i = 0; i < m; i++) {
+            result[i] = dot(data, index(i, 0), v, 0, n);
+        }
+        return new DenseVector(result);
+    }
+
+    /**
+     * Set row a to row a plus scale times row b
+     * over the columns from ja to jb
+     * @param a the row to change
+     * @param scale the scale of row b
+     * @param b the row to add
+     * @param ja the starting column
+     * @param jb the ending column
+     */
+    public void addRow(int a, double scale, int b, int ja, int jb) {
+        axpy(scale, data, index(b, ja), data, index(a, ja), jb - ja);
+    }
+
+    /**
+     * Take the dot product of two rows over
+     * the columns from ja to jb
+     * @param a the first row
+     * @param b the second row
+     * @param ja the starting column
+     * @param jb the ending column
+     * @return the dot product
+     */
+    public double dotRows(int a, int b, int ja, int jb) {
+        return dot(data, index(a, ja), data, index(b, ja), jb - ja);
+    }
+
+    /**
+     * Swap two columns
+     * @param a the first column
+     * @param b the second column
+     */
+    public void swapColumns(int a, int b) {
+        for (int i = 0, k = offset; i < m; i++, k += stride) {
+            double t = data[k + a];
+            data[k + a] = data[k + b];
+            data[k + b] = t;
+        }
+    }
+
+    /**
+     * Copy into a rectangular matrix
+     * @return the rectangular matrix
+     */
+    public RectangularMatrix toRectangularMatrix() {
+        double[][] result = new double[m][];
+        for (int i = 0; i < m; i++) {
+            result[i] = Arrays.copyOfRange(data, index(i, 0), index(i, n));
+        }
+        return new RectangularMatrix(result);
+    }
+
+    /**
+     * @see shared.Copyable#copy()
+     */
+    public Copyable copy() {
+        return new FlatMatrix(this);
+    }
+
+    /**
+     * Make a m by m identity matrix
+     * @param m the size of the matrix
+     * @return the matrix
+     */
+    public static FlatMatrix eye(int m) {
+        FlatMatrix result = new FlatMatrix(m, m);
+        for (int i = 0; i < m; i++) {
+            result.data[i * m + i] = 1;
+        }
+        return result;
+    }
+
+    /**
+     * Take the dot product of two runs of values
+     * @param a the first array
+     * @param ia the start in the first array
+     * @param b the second array
+     * @param ib the start in the second array
+     * @param length the number of values
+     * @return the dot product
+     */
+    public static double dot(double[] a, int ia, double[] b, int ib, int length) {
+        double sum = 0;
+        for (int k = 0; k < length; k++) {
+            sum += a[ia + k] * b[ib + k];
+        }
+        return sum;
+    }
+
+    /**
+     * Add a scaled run of values to another, y = y + scale * x
+     * @param scale the scale of x
+     * @param x the values to add
+     * @param ix the start in x
+     * @param y the values to add to
+     * @param iy the start in y
+     * @param length the number of values
+     */
+    public static void axpy(double scale, double[] x, int ix, double[] y, int iy, int length) {
+        for (int k = 0; k < length; k++) {
+            y[iy + k] += scale * x[ix + k];
+        }
+    }
+}
@@ -93,4 +93,40 @@ public class GivensRotation {
         }
         
     }
+    
+    /**
+     * Apply this rotation from the left to the given flat matrix.
+     * Sets M = Gt * M.
+     * @param m the matrix to apply the rotation to
+     * @param i the first row to affect in the rotation
+     * @param j the second row j > i to affect in the rotation
+     */
+    public void applyLeft(FlatMatrix m, int i, int j) {
+        double[] data = m.getData();
+        int ri = m.index(i, 0), rj = m.index(j, 0);
+        for (int k = 0; k < m.n(); k++) {
+            double vi = data[ri + k];
+            double vj = data[rj + k];
+            data[ri + k] = cosine * vi - sine*vj;
+            data[rj + k] = sine * vi + cosine*vj;
+        }
+    }
+    
+    /**
+     * Apply this rotation from the right to the given flat matrix.
+     * Sets M = M * G.
+     * @param m the matrix to apply the rotation to
+     * @param i the first column to affect in the rotation
+     * @param j the second column j > i to affect in the rotation
+     */
+    public void applyRight(FlatMatrix m, int i, int j) {
+        double[] data = m.getData();
+        int stride = m.getStride();
+        for (int k = 0, row = m.index(0, 0); k < m.m(); k++, row += stride) {
+            double vi = data[row + i];
+            double vj = data[row + j];
+            data[row + i] = cosine * vi - sine*vj;
+            data[row + j] = sine * vi + cosine*vj;
+        }
+    }
 }
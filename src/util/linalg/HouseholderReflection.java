@@ -136,6 +136,56 @@ public class HouseholderReflection {
     }
 
 
+    /**
+     * Apply the householder reflection to the sub
+     * matrix of the given flat matrix, a row at a time.
+     * Sets A(i:m, j:n) = P * A(i:m, j:n) 
+     * @param m the matrix to apply the reflection to
+     * @param ia the starting row
+     * @param ib the ending row
+     * @param ja the starting column
+     * @param jb the ending column
+     */
+    public void applyLeft(FlatMatrix m, int ia, int ib, int ja, int jb) {
+        double[] data = m.getData();
+        // w = beta * At * v, accumulated as a sum of scaled rows
+        double[] w = new double[jb - ja];
+        for (int row = ia; row < ib; row++) {
+            FlatMatrix.axpy(v.get(row-ia), data, m.index(row, ja), w, 0, w.length);
+        }
+        for (int k = 0; k < w.length; k++) {
+            w[k] *= beta;
+        }
+        // set A = A - v*wt
+        for (int row = ia; row < ib; row++) {
+            FlatMatrix.axpy(-v.get(row-ia), w, 0, data, m.index(row, ja), w.length);
+        }
+    }
+
+    /**
+     * Apply the householder reflection to the sub
+     * matrix of the given flat matrix, a row at a time.
+     * Sets A(i:m, j:n) = A(i:m, j:n) * P 
+     * @param m the matrix to apply the reflection to
+     * @param ia the starting row
+     * @param ib the ending row
+     * @param ja the starting column
+     * @param jb the ending column
+     */
+    public void applyRight(FlatMatrix m, int ia, int ib, int ja, int jb) {
+        double[] data = m.getData();
+        double[] vs = new double[jb - ja];
+        for (int k = 0; k < vs.length; k++) {
+            vs[k] = v.get(k);
+        }
+        // each row has w = beta * A(row, j:n) * v subtracted times vt
+        for (int row = ia; row < ib; row++) {
+            int start = m.index(row, ja);
+            double w = beta * FlatMatrix.dot(data, start, vs, 0, vs.length);
+            FlatMatrix.axpy(-w, vs, 0, data, start, vs.length);
+        }
+    }
+
     /**
      * Get the scale factor
      * @return the scale
@@ -0,0 +1,87 @@
+package util.linalg;
+
+import shared.Copyable;
+
+/**
+ * A vector of integers, for discrete genomes such as
+ * permutations in discrete optimization problems.  Setting
+ * an element stores the value rounded to the nearest integer.
+ * @version 1.0
+ */
+public class IntVector extends Vector {
+
+    /**
+     * The data
+     */
+    private int[] data;
+
+    /**
+     * Make a new int vector
+     * @param data the data
+     */
+    public IntVector(int[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Make a new int vector of the given size
+     * @param size the size to make it
+     */
+    public IntVector(int size) {
+        data = new int[size];
+    }
+
+    /**
+     * @see util.linalg.Vector#size()
+     */
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * @see util.linalg.Vector#get(int)
+     */
+    public double get(int i) {
+        return data[i];
+    }
+
+    /**
+     * @see util.linalg.Vector#getDiscrete(int)
+     */
+    public int getDiscrete(int i) {
+        return data[i];
+    }
+
+    /**
+     * @see util.linalg.Vector#set(int, double)
+     */
+    public void set(int i, double d) {
+        data[i] = (int) Math.round(d);
+    }
+
+    /**
+     * Get the data
+     * @return the data
+     */
+    public int[] getData() {
+        return data;
+    }
+
+    /**
+     * @see util.linalg.Vector#sum()
+     */
+    public double sum() {
+        long sum = 0;
+        for (int i = 0; i < data.length; i++) {
+            sum += data[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @see shared.Copyable#copy()
+     */
+    public Copyable copy() {
+        return new IntVector(data.clone());
+    }
+}
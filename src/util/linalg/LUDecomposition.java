@@ -24,7 +24,7 @@ public class LUDecomposition {
      * @param a the matrix to decompose
      */
     public LUDecomposition(Matrix a) {
-        decompose((Matrix) a.copy());
+        decompose(new FlatMatrix(a));
     }
     
     /**
@@ -35,41 +35,29 @@ public class LUDecomposition {
      * u if needed.
      * @param a the matrix to decompose
      */
-    private void decompose(Matrix a) {
+    private void decompose(FlatMatrix a) {
         int mnmin = Math.min(a.m(), a.n());
+        double[] data = a.getData();
         // loop through each column to be elimnated
         for (int k = 0; k < mnmin; k++) {
             // divide the column by the pivot
-            double pivot = a.get(k,k);
+            double pivot = data[a.index(k,k)];
             for (int i = k + 1; i < a.m(); i++) {
-                a.set(i,k, a.get(i,k) / pivot);
-            }
-            // subtract out the outer product update for this step
-            for (int i = k + 1; i < a.m(); i++) {
-                for (int j = k + 1; j < a.n(); j++) {
-                    a.set(i,j, a.get(i,j) - a.get(i,k) * a.get(k,j));
-                }
+                int ik = a.index(i,k);
+                data[ik] = data[ik] / pivot;
+                // subtract out the outer product update for this
+                // row as a single scaled row addition
+                a.addRow(i, -data[ik], k, k + 1, a.n());
             }
         }
         // create the l and u matrices
-        l = new LowerTriangularMatrix(a.m(), mnmin);
-        u = new UpperTriangularMatrix(mnmin, a.n());
-        // copy over the elements of the l matrix
-        for (int i = 0; i < l.m(); i++) {
-            for (int j = Math.min(i, l.n() - 1); j >= 0; j--) {
-                if (i==j) {
-                    l.set(i,j, 1);
-                } else {
-                    l.set(i,j, a.get(i,j));
-                }
-            }
+        // copying over the elements of the l matrix
+        l = new LowerTriangularMatrix(a.get(0, a.m(), 0, mnmin));
+        for (int i = 0; i < mnmin; i++) {
+            l.set(i,i, 1);
         }
         // and the elements of the u matrix
-        for (int i = 0; i < u.m(); i++) {
-            for (int j = i; j < u.n(); j++) {
-                u.set(i,j, a.get(i,j));
-            }
-        }
+        u = new UpperTriangularMatrix(a.get(0, mnmin, 0, a.n()));
     }
 
     /**
@@ -56,6 +56,14 @@ public class LowerTriangularMatrix extends Matrix {
 	 */
 	public LowerTriangularMatrix(Matrix m) {
 		this(m.m(), m.n());
+		if (m instanceof FlatMatrix) {
+			// copy each row's run of entries at once
+			FlatMatrix f = (FlatMatrix) m;
+			for (int i = 0; i < data.length; i++) {
+				System.arraycopy(f.getData(), f.index(i, 0), data[i], 0, data[i].length);
+			}
+			return;
+		}
 		for (int i = 0; i < m(); i++) {
 			for (int j = 0; j <= i; j++) {
 				set(i,j, m.get(i,j));
@@ -97,6 +105,15 @@ public class LowerTriangularMatrix extends Matrix {
 		}
 	}
 	
+	/**
+	 * Get the internal representation of the data,
+	 * the entries of row i from column 0 to column i
+	 * @return the data
+	 */
+	public double[][] getData() {
+		return data;
+	}
+	
 	/**
 	 * Calculate the determinant
 	 * @return the determinant
@@ -131,18 +148,18 @@ public class LowerTriangularMatrix extends Matrix {
 	 * @return the solution vector
 	 */
 	public Vector solve(Vector b) {
-		b = (Vector) b.copy();
+		double[] x = new double[b.size()];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = b.get(i);
+		}
 		// solve by forward substiution 
-		// overwriting the copy of b with the solution x
-		b.set(0, b.get(0) / get(0,0));
-		for (int i = 1; i < b.size(); i++) {
-			double sum = 0;
-			for (int j = 0; j < i; j++) {
-				sum += get(i, j) * b.get(j);
-			}
-			b.set(i, (b.get(i) - sum) / get(i,i));
+		// overwriting the copy of b with the solution x,
+		// each step a dot product with a run of a row
+		for (int i = 0; i < x.length; i++) {
+			double sum = FlatMatrix.dot(data[i], 0, x, 0, i);
+			x[i] = (x[i] - sum) / data[i][i];
 		}
-		return b;
+		return new DenseVector(x);
 	}
     
     /**
@@ -2,6 +2,7 @@ package util.linalg;
 
 import java.io.Serializable;
 import java.text.DecimalFormat;
+import java.util.Arrays;
 
 import shared.Copyable;
 
@@ -143,6 +144,9 @@ public abstract class Matrix implements Serializable, Copyable {
      * @return the resulting matrix
      */
     public Matrix times(Matrix matrix) {
+        if ((long) m() * n() * matrix.n() >= MatrixKernels.THRESHOLD) {
+            return blockedTimes(matrix);
+        }
         double[][] result = new double[m()][matrix.n()];
         for (int row = 0; row < result.length; row++) {
             for (int column = 0; column < result[0].length; column++) {
@@ -156,6 +160,35 @@ public abstract class Matrix implements Serializable, Copyable {
     }
     
     
+    /**
+     * Multiply with another matrix by packing both into flat
+     * arrays and using the blocked kernel
+     * @param matrix the other matrix
+     * @return the resulting matrix
+     */
+    private Matrix blockedTimes(Matrix matrix) {
+        int m = m(), n = n(), k = matrix.n();
+        double[] a = new double[m * n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i * n + j] = get(i, j);
+            }
+        }
+        double[] b = new double[n * k];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < k; j++) {
+                b[i * k + j] = matrix.get(i, j);
+            }
+        }
+        double[] c = new double[m * k];
+        MatrixKernels.multiply(a, n, b, k, c, k, m, n, k);
+        double[][] result = new double[m][];
+        for (int i = 0; i < m; i++) {
+            result[i] = Arrays.copyOfRange(c, i * k, (i + 1) * k);
+        }
+        return new RectangularMatrix(result);
+    }
+    
     /**
      * Multiply with a vector
      * @param vector the vector to multiply by
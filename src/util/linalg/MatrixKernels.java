@@ -0,0 +1,238 @@
+package util.linalg;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Cache blocked kernels for dense row major matrices stored in flat
+ * arrays with a row stride.  The multiply walks blocks of the inner
+ * dimension and columns small enough to stay in cache, updating four
+ * rows of the result at a time so each value of the right operand is
+ * loaded once per four multiply adds, and splits the rows of the
+ * result across a fork join pool when the product is large.
+ * @version 1.0
+ */
+public class MatrixKernels {
+    /**
+     * The number of multiply adds above which to multiply in parallel
+     * and above which matrix times uses these kernels
+     */
+    public static final long THRESHOLD = 1L << 18;
+
+    /**
+     * The number of rows of the result per parallel task
+     */
+    private static final int ROW_BLOCK = 64;
+
+    /**
+     * The block of the inner dimension
+     */
+    private static final int INNER_BLOCK = 128;
+
+    /**
+     * The block of columns
+     */
+    private static final int COLUMN_BLOCK = 256;
+
+    /**
+     * The transpose tile size
+     */
+    private static final int TILE = 32;
+
+    /**
+     * Multiply c = a b, overwriting c
+     * @param a the left matrix, m by n
+     * @param as the row stride of a
+     * @param b the right matrix, n by k
+     * @param bs the row stride of b
+     * @param c the result, m by k
+     * @param cs the row stride of c
+     * @param m the number of rows of a
+     * @param n the number of columns of a
+     * @param k the number of columns of b
+     * @param pool the pool to multiply large matrices in
+     */
+    public static void multiply(double[] a, int as, double[] b, int bs,
+            double[] c, int cs, int m, int n, int k, ForkJoinPool pool) {
+        if ((long) m * n * k < THRESHOLD || m <= ROW_BLOCK) {
+            multiply(a, as, b, bs, c, cs, 0, m, n, k);
+        } else {
+            pool.invoke(new Multiply(a, as, b, bs, c, cs, 0, m, n, k));
+        }
+    }
+
+    /**
+     * Multiply c = a b in the common pool, overwriting c
+     * @param a the left matrix, m by n
+     * @param as the row stride of a
+     * @param b the right matrix, n by k
+     * @param bs the row stride of b
+     * @param c the result, m by k
+     * @param cs the row stride of c
+     * @param m the number of rows of a
+     * @param n the number of columns of a
+     * @param k the number of columns of b
+     */
+    public static void multiply(double[] a, int as, double[] b, int bs,
+            double[] c, int cs, int m, int n, int k) {
+        multiply(a, as, b, bs, c, cs, m, n, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiply a block of rows of the result on this thread
+     * @param a the left matrix
+     * @param as the row stride of a
+     * @param b the right matrix
+     * @param bs the row stride of b
+     * @param c the result
+     * @param cs the row stride of c
+     * @param start the first row
+     * @param end the end of the rows
+     * @param n the number of columns of a
+     * @param k the number of columns of b
+     */
+    private static void multiply(double[] a, int as, double[] b, int bs,
+            double[] c, int cs, int start, int end, int n, int k) {
+        for (int i = start; i < end; i++) {
+            Arrays.fill(c, i * cs, i * cs + k, 0);
+        }
+        for (int l0 = 0; l0 < n; l0 += INNER_BLOCK) {
+            int l1 = Math.min(n, l0 + INNER_BLOCK);
+            for (int j0 = 0; j0 < k; j0 += COLUMN_BLOCK) {
+                int j1 = Math.min(k, j0 + COLUMN_BLOCK);
+                int i = start;
+                for (; i + 3 < end; i += 4) {
+                    int c0 = i * cs, c1 = c0 + cs, c2 = c1 + cs, c3 = c2 + cs;
+                    int a0 = i * as, a1 = a0 + as, a2 = a1 + as, a3 = a2 + as;
+                    for (int l = l0; l < l1; l++) {
+                        double x0 = a[a0 + l], x1 = a[a1 + l], x2 = a[a2 + l], x3 = a[a3 + l];
+                        int row = l * bs;
+                        for (int j = j0; j < j1; j++) {
+                            double y = b[row + j];
+                            c[c0 + j] += x0 * y;
+                            c[c1 + j] += x1 * y;
+                            c[c2 + j] += x2 * y;
+                            c[c3 + j] += x3 * y;
+                        }
+                    }
+                }
+                for (; i < end; i++) {
+                    int c0 = i * cs, a0 = i * as;
+                    for (int l = l0; l < l1; l++) {
+                        double x0 = a[a0 + l];
+                        int row = l * bs;
+                        for (int j = j0; j < j1; j++) {
+                            c[c0 + j] += x0 * b[row + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Transpose a matrix tile by tile
+     * @param a the matrix, m by n
+     * @param as the row stride of a
+     * @param t the transpose, n by m
+     * @param ts the row stride of t
+     * @param m the number of rows of a
+     * @param n the number of columns of a
+     */
+    public static void transpose(double[] a, int as, double[] t, int ts, int m, int n) {
+        transpose(a, 0, as, t, 0, ts, m, n);
+    }
+
+    /**
+     * Transpose a matrix stored from an offset tile by tile
+     * @param a the matrix, m by n
+     * @param ao the index of the first element of a
+     * @param as the row stride of a
+     * @param t the transpose, n by m
+     * @param to the index of the first element of t
+     * @param ts the row stride of t
+     * @param m the number of rows of a
+     * @param n the number of columns of a
+     */
+    public static void transpose(double[] a, int ao, int as, double[] t, int to, int ts, int m, int n) {
+        for (int i0 = 0; i0 < m; i0 += TILE) {
+            int i1 = Math.min(m, i0 + TILE);
+            for (int j0 = 0; j0 < n; j0 += TILE) {
+                int j1 = Math.min(n, j0 + TILE);
+                for (int i = i0; i < i1; i++) {
+                    for (int j = j0; j < j1; j++) {
+                        t[to + j * ts + i] = a[ao + i * as + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies a range of rows, splitting it while it is large
+     */
+    private static class Multiply extends RecursiveAction {
+        /** The left matrix */
+        private double[] a;
+        /** The row stride of a */
+        private int as;
+        /** The right matrix */
+        private double[] b;
+        /** The row stride of b */
+        private int bs;
+        /** The result */
+        private double[] c;
+        /** The row stride of c */
+        private int cs;
+        /** The first row */
+        private int start;
+        /** The end of the rows */
+        private int end;
+        /** The number of columns of a */
+        private int n;
+        /** The number of columns of b */
+        private int k;
+
+        /**
+         * Make a new multiply task
+         * @param a the left matrix
+         * @param as the row stride of a
+         * @param b the right matrix
+         * @param bs the row stride of b
+         * @param c the result
+         * @param cs the row stride of c
+         * @param start the first row
+         * @param end the end of the rows
+         * @param n the number of columns of a
+         * @param k the number of columns of b
+         */
+        public Multiply(double[] a, int as, double[] b, int bs, double[] c, int cs,
+                int start, int end, int n, int k) {
+            this.a = a;
+            this.as = as;
+            this.b = b;
+            this.bs = bs;
+            this.c = c;
+            this.cs = cs;
+            this.start = start;
+            this.end = end;
+            this.n = n;
+            this.k = k;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute() {
+            if (end - start <= ROW_BLOCK) {
+                multiply(a, as, b, bs, c, cs, start, end, n, k);
+                return;
+            }
+            // split on a multiple of four rows
+            int middle = start + ((end - start) / 2 + 3) / 4 * 4;
+            invokeAll(new Multiply(a, as, b, bs, c, cs, start, middle, n, k),
+                new Multiply(a, as, b, bs, c, cs, middle, end, n, k));
+        }
+    }
+}
@@ -25,8 +25,9 @@ public class QRDecomposition {
      * @param matrix the matrix being decomposed
      */
     public QRDecomposition(Matrix matrix) {
-        q = RectangularMatrix.eye(matrix.m());
-        decompose((Matrix) matrix.copy());
+        FlatMatrix reflections = FlatMatrix.eye(matrix.m());
+        decompose(new FlatMatrix(matrix), reflections);
+        q = reflections.toRectangularMatrix();
     }
      
     /**
@@ -35,8 +36,9 @@ public class QRDecomposition {
      * householder reflections, accumulating these
      * reflections as it goes.
      * @param a the matrix to decompose
+     * @param q the matrix to accumulate the reflections in
      */
-    private void decompose(Matrix a) {
+    private void decompose(FlatMatrix a, FlatMatrix q) {
         int mnmin = Math.min(a.n(), a.m());
         // we have to zero out the last column if 
         // there are more rows than columns
@@ -45,11 +47,12 @@ public class QRDecomposition {
         }
         // loop through each of the columns of r
         for (int i = 0; i < mnmin - 1; i++) {
-            // extract the column
-            Vector column = a.getColumn(i);
-            // extract out the porition we want to reflect
-            // into e1
-            Vector x = column.get(i, column.size());
+            // extract out the porition of the column
+            // we want to reflect into e1
+            Vector x = new DenseVector(a.m() - i);
+            for (int row = i; row < a.m(); row++) {
+                x.set(row - i, a.get(row, i));
+            }
             // calculate the householder reflection for
             // this vector
             HouseholderReflection h = new HouseholderReflection(x);
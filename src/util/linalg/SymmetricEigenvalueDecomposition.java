@@ -34,9 +34,11 @@ public class SymmetricEigenvalueDecomposition {
 	public SymmetricEigenvalueDecomposition(Matrix a) {
 		// decompose the matrix into a tridiagonal
 		TridiagonalDecomposition td = new TridiagonalDecomposition(a);
-        this.u = td.getU();
-		// now decompose the tridiagonal
-		decompose(td.getT());
+		// now decompose the tridiagonal, rotating
+		// rows and columns of flat copies
+        FlatMatrix u = new FlatMatrix(td.getU());
+		decompose(new FlatMatrix(td.getT()), u);
+        this.u = u.toRectangularMatrix();
 	}
 
 	/**
@@ -45,8 +47,10 @@ public class SymmetricEigenvalueDecomposition {
 	 * transformations in u and v.  Applies
 	 * bidiagonal QR steps until the super diaognal
 	 * elements are zero.
+	 * @param d the tridiagonal matrix
+	 * @param u the matrix to accumulate rotations in
 	 */
-	private void decompose(RectangularMatrix d) {
+	private void decompose(FlatMatrix d, FlatMatrix u) {
 		// counters for figuring out sub matrix indices
 		int q = d.n(), p = 0;
 		// while there are still nonzero super/sub diagonal entries
@@ -81,38 +85,27 @@ public class SymmetricEigenvalueDecomposition {
 				// perform a single step QR shift 
 				// on the sub porition
 				// of the diagonal
-				qrstep(d, p, q);
+				qrstep(d, u, p, q);
 			}
 		}
-        // transpose u so that we can quickly swap rows instead of
-        // swapping columns
-        u = (RectangularMatrix) u.transpose();
         // sort by eigenvalues
         // bubble sort is used because the algorithm
         // used is known to give partially sorted singular values
         boolean swapped = true;
-        // we need to cast into a rectangle
-        // so we can swap rows
-        RectangularMatrix u = (RectangularMatrix) this.u;
-        for (int i = 0; i < u.m() - 1 && swapped; i++) {
+        for (int i = 0; i < u.n() - 1 && swapped; i++) {
              swapped = false;
-             for (int j = 0; j < u.m() - 1; j++) {
+             for (int j = 0; j < u.n() - 1; j++) {
                  if (d.get(j, j) < d.get(j+1,j+1)) {
                      swapped = true;
                      // swap the eigen values
                      double t = d.get(j,j);
                      d.set(j,j,d.get(j+1,j+1));
                      d.set(j+1,j+1,t);
-                     // and the eigen vectors, 
-                     // which are currently rows
-                     double[] ta = u.getData()[j];
-                     u.getData()[j] = u.getData()[j+1];
-                     u.getData()[j+1] = ta;
+                     // and the eigen vectors
+                     u.swapColumns(j, j+1);
                  }
              }
          }        
-         // retranspose u
-         this.u = (RectangularMatrix) u.transpose();
          // make the diagonal
          this.d = new DiagonalMatrix(d);
 	}
@@ -122,10 +115,12 @@ public class SymmetricEigenvalueDecomposition {
 	 * on a sub portion of the d matrix.  Performs
 	 * a qr shift step on d(ia:(ib-1), ia:(ib-1), updating
 	 * d, u, and v in place.
+	 * @param d the tridiagonal matrix
+	 * @param u the matrix to accumulate rotations in
 	 * @param ia the starting index
 	 * @param ib the exclusive ending index
 	 */
-	private void qrstep(RectangularMatrix d, int ia, int ib) {
+	private void qrstep(FlatMatrix d, FlatMatrix u, int ia, int ib) {
 		 // choose the QR shift value
 		 // which is chose here to
 		 // be the last element of the diagonal
@@ -24,9 +24,11 @@ public class TridiagonalDecomposition {
 	 * @param a the matrix to decompose
 	 */
 	public TridiagonalDecomposition(Matrix a) {
-		t = new RectangularMatrix((Matrix) a.copy());
-		u = RectangularMatrix.eye(a.n());
-		decompose();
+		FlatMatrix t = new FlatMatrix(a);
+		FlatMatrix u = FlatMatrix.eye(a.n());
+		decompose(t, u);
+		this.t = t.toRectangularMatrix();
+		this.u = u.toRectangularMatrix();
 	}
 
 	/**
@@ -35,57 +37,57 @@ public class TridiagonalDecomposition {
 	 * This is exactly the same as the hessenber decomposition
 	 * except that symmetry is exploited to save a few
 	 * flops.
+	 * @param t the matrix to reduce in place
+	 * @param u the matrix to accumulate the reflections in
 	 */
-	private void decompose() {
+	private void decompose(FlatMatrix t, FlatMatrix u) {
+		double[] data = t.getData();
+		int n = t.n();
 		// the first n - 2 columns
-		for (int i = 0; i < t.n() - 2; i++) {
+		for (int i = 0; i < n - 2; i++) {
 			// extract the column
-			Vector c  = t.getColumn(i);
 			// the vector we want to reflect
 			// the k+1:n elements of the column
 			// into (r, 0, 0, ...) for some r
-			Vector x = c.get(i+1, c.size());
+			Vector x = new DenseVector(n - (i+1));
+			for (int row = i+1; row < n; row++) {
+				x.set(row-(i+1), data[t.index(row, i)]);
+			}
 			// create the householder reflection, beta and v
 			HouseholderReflection hr = new HouseholderReflection(x);
-			Vector v = hr.getV();
 			double beta = hr.getBeta();
+			double[] v = new double[n - (i+1)];
+			for (int k = 0; k < v.length; k++) {
+				v[k] = hr.getV().get(k);
+			}
 			// apply to the t matrix from the left and from the right
 			// applying from the left to A(i+1:n,i)
 			// from the right to A(i,i+1:n)
 			// and from both sides at the same time to A(i+1:n,i+1:n)
 			// create w = beta*A(i,i+1:n)*v for the one sided updates
-			Vector w = new DenseVector(v.size() + 1);
-			for (int row = i; row < t.n(); row++) {
-				for (int column = i+1; column < t.n(); column++) {
-					w.set(row-i, w.get(row-i) +
-						t.get(row, column) * v.get(column-(i+1))); 
-				}
-				w.set(row-i, w.get(row-i) * beta);
+			double[] w = new double[v.length + 1];
+			for (int row = i; row < n; row++) {
+				w[row-i] = beta * FlatMatrix.dot(data, t.index(row, i+1), v, 0, v.length);
 			}
 			// z vector for the simulatenous updates
 			// equal to p-(beta*pt*v/2)*v 
 			// where p = beta*A(i+1:n,i+1:n)*v
-			Vector z = w.get(1, w.size());
-			z = z.minus(v.times(beta*z.dotProduct(v)/2));
+			double[] z = new double[v.length];
+			System.arraycopy(w, 1, z, 0, z.length);
+			FlatMatrix.axpy(-beta * FlatMatrix.dot(z, 0, v, 0, v.length) / 2,
+				v, 0, z, 0, z.length);
 			// apply the outer product update to the matrix
 			// set 
 			// A(i+1:n,i+1:n) = A(i+1:n,i+1:n) - v*zt - z*vt
 			// A(i+1:n,i) = A(i+1,n) - v*wt
 			// A(i,i+1:n) = A(i,i+1:n) - w*vt
-			for (int row = i; row < t.n(); row++) {
-				for (int column = i; column < t.n(); column++) {
-					if (row > i && column > i) {
-						t.set(row,column, t.get(row,column)
-							- v.get(row-(i+1)) * z.get(column-(i+1))
-							- v.get(column-(i+1)) * z.get(row-(i+1)));
-					} else if (row > i) {
-						t.set(row, column, t.get(row,column)
-		 				  - v.get(row-(i+1)) * w.get(column-i));
-					} else if (column > i) {
-						t.set(row, column, t.get(row,column)
-   						  - v.get(column-(i+1)) * w.get(row-i));
-					}
-				}
+			// the first row only changes past the diagonal
+			FlatMatrix.axpy(-w[0], v, 0, data, t.index(i, i+1), v.length);
+			for (int row = i+1; row < n; row++) {
+				int start = t.index(row, i);
+				data[start] -= v[row-(i+1)] * w[0];
+				FlatMatrix.axpy(-v[row-(i+1)], z, 0, data, start + 1, z.length);
+				FlatMatrix.axpy(-z[row-(i+1)], v, 0, data, start + 1, v.length);
 			}
 			// accumulate the u from the right
 			hr.applyRight(u, 0, u.m(), i+1, u.n());
@@ -56,6 +56,14 @@ public class UpperTriangularMatrix extends Matrix {
 	 */
 	public UpperTriangularMatrix(Matrix m) {
 		this(m.m(), m.n());
+		if (m instanceof FlatMatrix) {
+			// copy each row's run of entries at once
+			FlatMatrix f = (FlatMatrix) m;
+			for (int i = 0; i < data.length; i++) {
+				System.arraycopy(f.getData(), f.index(i, i), data[i], 0, data[i].length);
+			}
+			return;
+		}
 		for (int i = 0; i < m(); i++) {
 			for (int j = i; j < n(); j++) {
 				set(i,j, m.get(i,j));
@@ -97,6 +105,15 @@ public class UpperTriangularMatrix extends Matrix {
 		}
 	}
 	
+	/**
+	 * Get the internal representation of the data,
+	 * the entries of row i from column i to the last column
+	 * @return the data
+	 */
+	public double[][] getData() {
+		return data;
+	}
+	
 	/**
 	 * @see linalg.Matrix#transpose()
 	 */
@@ -133,19 +150,18 @@ public class UpperTriangularMatrix extends Matrix {
 	 * @return the solution vector
 	 */
 	public Vector solve(Vector b) {
-		b = (Vector) b.copy();
+		double[] x = new double[b.size()];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = b.get(i);
+		}
 		// solve with backward substitution
-		// overwriting the copy of b with the solution x
-		b.set(b.size() - 1, b.get(b.size() - 1) /
-			get(b.size() - 1, b.size() - 1));
-		for (int i = b.size() - 2; i >= 0; i--) {
-			double sum = 0;
-			for (int j = i+1; j < b.size(); j++) {
-				sum += get(i,j)*b.get(j);	    
-			}
-			b.set(i, (b.get(i) - sum) / get(i,i));
+		// overwriting the copy of b with the solution x,
+		// each step a dot product with a run of a row
+		for (int i = x.length - 1; i >= 0; i--) {
+			double sum = FlatMatrix.dot(data[i], 1, x, i + 1, x.length - i - 1);
+			x[i] = (x[i] - sum) / data[i][0];
 		}
-		return b;
+		return new DenseVector(x);
 	}
     
     /**
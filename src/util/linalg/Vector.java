@@ -27,6 +27,15 @@ public abstract class Vector implements Serializable, Copyable {
      */
     public abstract double get(int i);
     
+    /**
+     * Get an element as a discrete value
+     * @param i the element to get
+     * @return the element rounded to the nearest integer
+     */
+    public int getDiscrete(int i) {
+        return (int) Math.round(get(i));
+    }
+    
     /**
      * Get some sub portion of the vector
      * @param ia the starting index (inclusive)
@@ -52,6 +52,22 @@ public class FastMatrixTest {
             System.out.println("\tFailed");
         }
 
+        System.out.println("Rectangular Matrix Transpose:");
+        if(rectangularTransposeTest()) {
+            passed++;
+            System.out.println("\tPassed!");
+        } else {
+            System.out.println("\tFailed");
+        }
+
+        System.out.println("Large blocked multiplication:");
+        if(blockedMultiply()) {
+            passed++;
+            System.out.println("\tPassed!");
+        } else {
+            System.out.println("\tFailed");
+        }
+
         if (counter == passed){
             System.out.println("All tests passed!");
         }
@@ -78,6 +94,65 @@ public class FastMatrixTest {
         return true;
     }
 
+    /**
+     * checks that transpose works when the matrix is not square
+     * @return whether or not the test passes
+     */
+    private static boolean rectangularTransposeTest() {
+        counter++;
+        double[] arr = {1,2,3,4,5,6};
+        FastMatrix myMat = new FastMatrix(2,3, arr);
+        Matrix tp = myMat.transpose();
+        if (tp.m() != 3 || tp.n() != 2) {
+            return false;
+        }
+        for (int i = 0; i < tp.m(); i++) {
+            for (int j = 0; j < tp.n(); j++) {
+                if (tp.get(i, j) != myMat.get(j, i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * checks the blocked, parallel multiply used for large matrices
+     * against a naive multiply, on sizes that are not multiples of the blocks
+     * @return whether or not the test passes
+     */
+    private static boolean blockedMultiply() {
+        counter++;
+        int m = 203, n = 311, k = 157;
+        java.util.Random random = new java.util.Random(1);
+        double[][] a = new double[m][n];
+        double[][] b = new double[n][k];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = random.nextGaussian();
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < k; j++) {
+                b[i][j] = random.nextGaussian();
+            }
+        }
+        Matrix rect = new RectangularMatrix(a).times(new RectangularMatrix(b));
+        Matrix fast = new FastMatrix(new RectangularMatrix(a)).times(new FastMatrix(new RectangularMatrix(b)));
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < k; j++) {
+                double c = 0;
+                for (int l = 0; l < n; l++) {
+                    c += a[i][l] * b[l][j];
+                }
+                if (Math.abs(rect.get(i, j) - c) > 1e-9 || Math.abs(fast.get(i, j) - c) > 1e-9) {
+                    return false;
+                }
+            }
+        }
+        return rect instanceof RectangularMatrix;
+    }
+
     /**
      * checks m.getRow()
      * @return
@@ -0,0 +1,75 @@
+package util.test;
+
+import util.linalg.CholeskyFactorization;
+import util.linalg.FlatMatrix;
+import util.linalg.LUDecomposition;
+import util.linalg.Matrix;
+import util.linalg.QRDecomposition;
+import util.linalg.RectangularMatrix;
+import util.linalg.SymmetricEigenvalueDecomposition;
+
+/**
+ * A test of the flat matrix views and the decompositions
+ * that run on it
+ * @version 1.0
+ */
+public class FlatMatrixTest {
+    /** The size of the timed matrices */
+    private static final int SIZE = 300;
+
+    /**
+     * Test main, checks that sub matrices share storage and
+     * times decompositions reconstructing their input
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        double[] a = {
+            1, 2, 3,
+            4, 5, 6,
+            7, 8, 0
+        };
+        FlatMatrix m = new FlatMatrix(a, 3, 3);
+        Matrix view = m.get(1, 3, 1, 3);
+        view.set(0, 0, 50);
+        System.out.println(view);
+        System.out.println(m);
+        System.out.println(m.transpose());
+
+        Matrix r = RectangularMatrix.random(SIZE);
+        // a symmetric positive definite matrix
+        Matrix s = r.times(r.transpose()).plus(RectangularMatrix.eye(SIZE).times(SIZE));
+
+        long start = System.nanoTime();
+        LUDecomposition lu = new LUDecomposition(r);
+        System.out.println("LU: " + (System.nanoTime() - start) / 1e9 + "s, error "
+            + error(r, lu.getL().times(lu.getU())));
+        start = System.nanoTime();
+        QRDecomposition qr = new QRDecomposition(r);
+        System.out.println("QR: " + (System.nanoTime() - start) / 1e9 + "s, error "
+            + error(r, qr.getQ().times(qr.getR())));
+        start = System.nanoTime();
+        CholeskyFactorization chol = new CholeskyFactorization(s);
+        System.out.println("Cholesky: " + (System.nanoTime() - start) / 1e9 + "s, error "
+            + error(s, chol.getL().times(chol.getLt())));
+        start = System.nanoTime();
+        SymmetricEigenvalueDecomposition eig = new SymmetricEigenvalueDecomposition(s);
+        System.out.println("Symmetric eigenvalue: " + (System.nanoTime() - start) / 1e9 + "s, error "
+            + error(s, eig.getU().times(eig.getD()).times(eig.getU().transpose())));
+    }
+
+    /**
+     * Find the largest absolute difference between two matrices
+     * @param a the first matrix
+     * @param b the second matrix
+     * @return the difference
+     */
+    private static double error(Matrix a, Matrix b) {
+        double max = 0;
+        for (int i = 0; i < a.m(); i++) {
+            for (int j = 0; j < a.n(); j++) {
+                max = Math.max(max, Math.abs(a.get(i, j) - b.get(i, j)));
+            }
+        }
+        return max;
+    }
+}